@@ -59,6 +59,8 @@ public final class ConnectorServices {
 
     public static final ServiceName DATASOURCES_SERVICE = ServiceName.JBOSS.append("datasources");
 
+    public static final ServiceName DATASOURCE_PREFILL_EXECUTOR_SERVICE = ServiceName.JBOSS.append("datasources", "prefill-executor");
+
     public static final ServiceName JDBC_DRIVER_REGISTRY_SERVICE = ServiceName.JBOSS.append("jdbc-driver", "registry");
 
     public static final ServiceName CCM_SERVICE = ServiceName.JBOSS.append("cached-connection-manager");
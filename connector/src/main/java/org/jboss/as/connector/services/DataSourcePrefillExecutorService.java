@@ -0,0 +1,74 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.connector.services;
+
+import java.security.AccessController;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.logging.Logger;
+import org.jboss.msc.service.Service;
+import org.jboss.msc.service.StartContext;
+import org.jboss.msc.service.StartException;
+import org.jboss.msc.service.StopContext;
+import org.jboss.threads.JBossThreadFactory;
+
+/**
+ * A service providing the executor shared by all data-sources to open the connections of their pools when they
+ * start.  Its threads time out when no pool is being prefilled.
+ */
+public final class DataSourcePrefillExecutorService implements Service<ExecutorService> {
+
+    private static final Logger log = Logger.getLogger("org.jboss.as.connector");
+
+    /** The maximum number of connections opened concurrently, across all data-sources. */
+    private static final int MAX_THREADS = 8;
+
+    private ThreadPoolExecutor executor;
+
+    @Override
+    public synchronized ExecutorService getValue() throws IllegalStateException {
+        final ExecutorService executor = this.executor;
+        if (executor == null) {
+            throw new IllegalStateException("Data-source prefill executor is not started");
+        }
+        return executor;
+    }
+
+    @Override
+    public synchronized void start(StartContext context) throws StartException {
+        final JBossThreadFactory threadFactory = new JBossThreadFactory(new ThreadGroup("DataSourcePrefill-threads"), Boolean.TRUE, null, "%G - %t", null, null, AccessController.getContext());
+        executor = new ThreadPoolExecutor(MAX_THREADS, MAX_THREADS, 30L, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), threadFactory);
+        executor.allowCoreThreadTimeOut(true);
+        log.debugf("started DataSourcePrefillExecutorService %s", context.getController().getName());
+    }
+
+    @Override
+    public synchronized void stop(StopContext context) {
+        executor.shutdown();
+        executor = null;
+        log.debugf("stopped DataSourcePrefillExecutorService %s", context.getController().getName());
+    }
+}
@@ -43,6 +43,7 @@ import org.jboss.as.connector.deployers.RaDeploymentActivator;
 import org.jboss.as.connector.registry.DriverRegistryService;
 import org.jboss.as.connector.mdr.MdrService;
 import org.jboss.as.connector.services.CcmService;
+import org.jboss.as.connector.services.DataSourcePrefillExecutorService;
 import org.jboss.as.connector.services.ManagementRepositoryService;
 import org.jboss.as.connector.transactionintegration.TransactionIntegrationService;
 import org.jboss.as.connector.workmanager.WorkManagerService;
@@ -190,6 +191,9 @@ class ConnectorSubsystemAdd implements ModelAddOperationHandler, BootOperationHa
                     final DriverRegistryService driverRegistryService = new DriverRegistryService();
                     serviceTarget.addService(ConnectorServices.JDBC_DRIVER_REGISTRY_SERVICE, driverRegistryService).install();
 
+                    serviceTarget.addService(ConnectorServices.DATASOURCE_PREFILL_EXECUTOR_SERVICE,
+                            new DataSourcePrefillExecutorService()).setInitialMode(Mode.ON_DEMAND).install();
+
                     new RaDeploymentActivator().activate(bootContext, serviceTarget);
 
                     resultHandler.handleResultComplete();
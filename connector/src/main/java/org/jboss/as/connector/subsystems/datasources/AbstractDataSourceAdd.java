@@ -29,6 +29,7 @@ import static org.jboss.as.connector.subsystems.datasources.Constants.USE_JAVA_C
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
 
 import java.sql.Driver;
+import java.util.concurrent.ExecutorService;
 
 import javax.sql.DataSource;
 
@@ -106,7 +107,9 @@ public abstract class AbstractDataSourceAdd implements ModelAddOperationHandler
                             .addDependency(ConnectorServices.MANAGEMENT_REPOSISTORY_SERVICE, ManagementRepository.class,
                                     dataSourceService.getmanagementRepositoryInjector())
                             .addDependency(SubjectFactoryService.SERVICE_NAME, SubjectFactory.class,
-                                    dataSourceService.getSubjectFactoryInjector()).addDependency(NamingService.SERVICE_NAME);
+                                    dataSourceService.getSubjectFactoryInjector())
+                            .addDependency(ConnectorServices.DATASOURCE_PREFILL_EXECUTOR_SERVICE, ExecutorService.class,
+                                    dataSourceService.getPrefillExecutorInjector()).addDependency(NamingService.SERVICE_NAME);
 
                     final String driverName = operation.require(DRIVER).asString();
                     final ServiceName driverServiceName = getDriverDependency(driverName);
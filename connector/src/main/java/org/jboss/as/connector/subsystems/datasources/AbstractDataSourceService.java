@@ -26,10 +26,19 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
+import java.sql.Connection;
 import java.sql.Driver;
+import java.sql.SQLException;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.resource.ResourceException;
 import javax.resource.spi.ManagedConnectionFactory;
@@ -40,6 +49,7 @@ import org.jboss.jca.adapters.jdbc.BaseWrapperManagedConnectionFactory;
 import org.jboss.jca.adapters.jdbc.local.LocalManagedConnectionFactory;
 import org.jboss.jca.adapters.jdbc.spi.ClassLoaderPlugin;
 import org.jboss.jca.adapters.jdbc.xa.XAManagedConnectionFactory;
+import org.jboss.jca.common.api.metadata.common.CommonPool;
 import org.jboss.jca.common.api.metadata.common.Extension;
 import org.jboss.jca.common.api.metadata.ds.CommonDataSource;
 import org.jboss.jca.common.api.metadata.ds.DataSources;
@@ -78,15 +88,19 @@ public abstract class AbstractDataSourceService implements Service<DataSource> {
     public static final Logger log = Logger.getLogger("org.jboss.as.connector.deployer.dsdeployer");
 
     public static final ServiceName SERVICE_NAME_BASE = ServiceName.JBOSS.append("data-source");
+
     private final InjectedValue<TransactionIntegration> transactionIntegrationValue = new InjectedValue<TransactionIntegration>();
     private final InjectedValue<Driver> driverValue = new InjectedValue<Driver>();
     private final InjectedValue<ManagementRepository> managementRepositoryValue = new InjectedValue<ManagementRepository>();
     private final InjectedValue<SubjectFactory> subjectFactory = new InjectedValue<SubjectFactory>();
+    private final InjectedValue<ExecutorService> prefillExecutorValue = new InjectedValue<ExecutorService>();
 
     private final String jndiName;
 
     private javax.sql.DataSource sqlDataSource;
 
+    private final ConnectionAcquireStatistics acquireStatistics = new ConnectionAcquireStatistics();
+
     protected AS7DataSourceDeployer deployer;
 
     protected AbstractDataSourceService(final String jndiName) {
@@ -101,13 +115,103 @@ public abstract class AbstractDataSourceService implements Service<DataSource> {
             if (deploymentMD.getCfs().length != 1) {
                 throw new StartException("unable to start the ds because it generate more than one cf");
             }
-            sqlDataSource = (javax.sql.DataSource) deploymentMD.getCfs()[0];
+            final javax.sql.DataSource pooledDataSource = (javax.sql.DataSource) deploymentMD.getCfs()[0];
+            final CommonPool pool = deployer.getPoolConfig();
+            if (pool != null && Boolean.TRUE.equals(pool.isPrefill()) && pool.getMinPoolSize() != null
+                    && pool.getMinPoolSize().intValue() > 0) {
+                final Executor executor = prefillExecutorValue.getValue();
+                startContext.asynchronous();
+                new Prefill(startContext, pooledDataSource, pool.getMinPoolSize().intValue()).start(executor);
+                return;
+            }
+            sqlDataSource = new MeasuredDataSource(pooledDataSource, acquireStatistics);
             log.debugf("Adding datasource: %s", deploymentMD.getCfJndiNames()[0]);
         } catch (Throwable t) {
             throw new StartException("Error during the deployment of " + jndiName, t);
         }
     }
 
+    /**
+     * Opens {@code minPoolSize} connections on the shared prefill executor and returns them to the pool, so the pool
+     * is filled before the data-source is made available rather than by the first requests.  The start of the
+     * service completes once all the connections have been opened; a failure to open them is logged but does not
+     * fail the data-source.
+     * <p>
+     * The pool's own prefill is left enabled, as it also refills the pool to its minimum size after connections are
+     * removed.  It is not enough on its own at start-up: it is asynchronous, on a single filler thread shared by all
+     * pools, so the data-source would be available before its pool holds any connection.  The connections opened
+     * here are taken from the pool, which stops its filler from creating more than the minimum.
+     */
+    private final class Prefill {
+
+        private final StartContext context;
+        private final javax.sql.DataSource dataSource;
+        private final int minPoolSize;
+        private final long start = System.nanoTime();
+        private final AtomicInteger remaining;
+        // the connections are held until all have been opened, so each task creates a new one
+        private final Queue<Connection> connections = new ConcurrentLinkedQueue<Connection>();
+        private volatile Throwable failure;
+
+        private Prefill(final StartContext context, final javax.sql.DataSource dataSource, final int minPoolSize) {
+            this.context = context;
+            this.dataSource = dataSource;
+            this.minPoolSize = minPoolSize;
+            remaining = new AtomicInteger(minPoolSize);
+        }
+
+        private void start(final Executor executor) {
+            for (int i = 0; i < minPoolSize; i++) {
+                try {
+                    executor.execute(new Runnable() {
+                        public void run() {
+                            try {
+                                connections.add(dataSource.getConnection());
+                            } catch (Throwable t) {
+                                failure = t;
+                            } finally {
+                                opened();
+                            }
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    failure = e;
+                    opened();
+                }
+            }
+        }
+
+        private void opened() {
+            if (remaining.decrementAndGet() == 0) {
+                finish();
+            }
+        }
+
+        private void finish() {
+            final int opened = connections.size();
+            Connection connection;
+            while ((connection = connections.poll()) != null) {
+                try {
+                    connection.close();
+                } catch (SQLException e) {
+                    log.debugf(e, "Failed to return a connection to the pool of %s", jndiName);
+                }
+            }
+            final Throwable failure = this.failure;
+            if (failure != null) {
+                log.warnf(failure, "Prefilled only %d of %d connections of data-source %s", opened, minPoolSize, jndiName);
+            } else {
+                log.debugf("Prefilled %d connections of data-source %s in %d ms", minPoolSize, jndiName,
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            }
+            synchronized (AbstractDataSourceService.this) {
+                sqlDataSource = new MeasuredDataSource(dataSource, acquireStatistics);
+            }
+            log.debugf("Adding datasource: %s", jndiName);
+            context.complete();
+        }
+    }
+
     public synchronized void stop(StopContext stopContext) {
 
         sqlDataSource = null;
@@ -117,6 +221,15 @@ public abstract class AbstractDataSourceService implements Service<DataSource> {
         return sqlDataSource;
     }
 
+    /**
+     * Get the connection acquisition statistics of this data-source.
+     *
+     * @return the statistics
+     */
+    public ConnectionAcquireStatistics getAcquireStatistics() {
+        return acquireStatistics;
+    }
+
     public Injector<TransactionIntegration> getTransactionIntegrationInjector() {
         return transactionIntegrationValue;
     }
@@ -133,6 +246,10 @@ public abstract class AbstractDataSourceService implements Service<DataSource> {
         return subjectFactory;
     }
 
+    public Injector<ExecutorService> getPrefillExecutorInjector() {
+        return prefillExecutorValue;
+    }
+
     protected String buildConfigPropsString(Map<String, String> configProps) {
         final StringBuffer valueBuf = new StringBuffer();
         for (Map.Entry<String, String> connProperty : configProps.entrySet()) {
@@ -188,6 +305,10 @@ public abstract class AbstractDataSourceService implements Service<DataSource> {
             this.xaDataSourceConfig = null;
         }
 
+        CommonPool getPoolConfig() {
+            return dataSourceConfig != null ? dataSourceConfig.getPool() : xaDataSourceConfig.getXaPool();
+        }
+
         public CommonDeployment deploy(ServiceContainer serviceContainer) throws DeployException {
             try {
                 if (serviceContainer == null) {
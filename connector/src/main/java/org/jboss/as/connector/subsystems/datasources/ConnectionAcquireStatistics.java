@@ -0,0 +1,98 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.connector.subsystems.datasources;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Records how long it takes to obtain a connection from a data-source, as totals and as a histogram over fixed
+ * millisecond buckets.
+ */
+public final class ConnectionAcquireStatistics {
+
+    /** The inclusive upper bounds of the histogram buckets in milliseconds; the last bucket is unbounded. */
+    static final long[] BUCKET_BOUNDS = new long[] {1L, 5L, 10L, 50L, 100L, 500L, 1000L};
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_BOUNDS.length + 1);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    void acquired(final long nanos) {
+        count.incrementAndGet();
+        totalNanos.addAndGet(nanos);
+        long max;
+        while (nanos > (max = maxNanos.get())) {
+            if (maxNanos.compareAndSet(max, nanos)) {
+                break;
+            }
+        }
+        buckets.incrementAndGet(bucketOf(TimeUnit.NANOSECONDS.toMillis(nanos)));
+    }
+
+    void failed() {
+        failedCount.incrementAndGet();
+    }
+
+    static int bucketOf(final long millis) {
+        int i = 0;
+        while (i < BUCKET_BOUNDS.length && millis > BUCKET_BOUNDS[i]) {
+            i++;
+        }
+        return i;
+    }
+
+    public long getAcquiredCount() {
+        return count.get();
+    }
+
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+
+    public long getAverageAcquireTime(final TimeUnit unit) {
+        final long count = this.count.get();
+        return count == 0L ? 0L : unit.convert(totalNanos.get() / count, TimeUnit.NANOSECONDS);
+    }
+
+    public long getMaxAcquireTime(final TimeUnit unit) {
+        return unit.convert(maxNanos.get(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Get the number of acquisitions per histogram bucket, in the order of {@link #BUCKET_BOUNDS} followed by the
+     * unbounded bucket.
+     *
+     * @return the bucket counts
+     */
+    public long[] getHistogram() {
+        final long[] histogram = new long[buckets.length()];
+        for (int i = 0; i < histogram.length; i++) {
+            histogram[i] = buckets.get(i);
+        }
+        return histogram;
+    }
+}
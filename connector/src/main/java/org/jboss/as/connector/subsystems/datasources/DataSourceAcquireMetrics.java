@@ -0,0 +1,107 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.connector.subsystems.datasources;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.BasicOperationResult;
+import org.jboss.as.controller.ModelQueryOperationHandler;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationResult;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.ResultHandler;
+import org.jboss.as.controller.RuntimeTask;
+import org.jboss.as.controller.RuntimeTaskContext;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.Service;
+import org.jboss.msc.service.ServiceController;
+
+/**
+ * Reads the connection acquisition statistics of a data-source. Times are reported in milliseconds.
+ */
+public class DataSourceAcquireMetrics implements ModelQueryOperationHandler {
+
+    static final DataSourceAcquireMetrics INSTANCE = new DataSourceAcquireMetrics();
+
+    static final String[] NO_LOCATION = new String[0];
+
+    static final String ACQUIRED_COUNT = "acquired-connection-count";
+    static final String FAILED_COUNT = "failed-acquire-count";
+    static final String AVERAGE_ACQUIRE_TIME = "average-acquire-time";
+    static final String MAX_ACQUIRE_TIME = "max-acquire-time";
+    static final String ACQUIRE_TIME_HISTOGRAM = "acquire-time-histogram";
+
+    static final String[] ATTRIBUTES = new String[] {ACQUIRED_COUNT, FAILED_COUNT, AVERAGE_ACQUIRE_TIME, MAX_ACQUIRE_TIME,
+            ACQUIRE_TIME_HISTOGRAM};
+
+    /** {@inheritDoc} */
+    @Override
+    public OperationResult execute(final OperationContext context, final ModelNode operation, final ResultHandler resultHandler)
+            throws OperationFailedException {
+
+        if (context.getRuntimeContext() != null) {
+            context.getRuntimeContext().setRuntimeTask(new RuntimeTask() {
+                public void execute(RuntimeTaskContext context) throws OperationFailedException {
+                    final String jndiName = PathAddress.pathAddress(operation.require(OP_ADDR)).getLastElement().getValue();
+                    final String attributeName = operation.require(NAME).asString();
+
+                    final ServiceController<?> controller = context.getServiceRegistry().getService(
+                            AbstractDataSourceService.SERVICE_NAME_BASE.append(jndiName));
+                    final ModelNode result = new ModelNode();
+                    if (controller != null && controller.getState() == ServiceController.State.UP) {
+                        final Service<?> service = controller.getService();
+                        if (service instanceof AbstractDataSourceService) {
+                            final ConnectionAcquireStatistics statistics = ((AbstractDataSourceService) service).getAcquireStatistics();
+                            if (ACQUIRED_COUNT.equals(attributeName)) {
+                                result.set(statistics.getAcquiredCount());
+                            } else if (FAILED_COUNT.equals(attributeName)) {
+                                result.set(statistics.getFailedCount());
+                            } else if (AVERAGE_ACQUIRE_TIME.equals(attributeName)) {
+                                result.set(statistics.getAverageAcquireTime(TimeUnit.MILLISECONDS));
+                            } else if (MAX_ACQUIRE_TIME.equals(attributeName)) {
+                                result.set(statistics.getMaxAcquireTime(TimeUnit.MILLISECONDS));
+                            } else if (ACQUIRE_TIME_HISTOGRAM.equals(attributeName)) {
+                                final long[] histogram = statistics.getHistogram();
+                                final long[] bounds = ConnectionAcquireStatistics.BUCKET_BOUNDS;
+                                for (int i = 0; i < bounds.length; i++) {
+                                    result.get("up-to-" + bounds[i] + "ms").set(histogram[i]);
+                                }
+                                result.get("over-" + bounds[bounds.length - 1] + "ms").set(histogram[bounds.length]);
+                            }
+                        }
+                    }
+                    resultHandler.handleResultFragment(NO_LOCATION, result);
+                    resultHandler.handleResultComplete();
+                }
+            });
+        } else {
+            resultHandler.handleResultFragment(NO_LOCATION, new ModelNode().set("no metrics available"));
+            resultHandler.handleResultComplete();
+        }
+        return new BasicOperationResult();
+    }
+}
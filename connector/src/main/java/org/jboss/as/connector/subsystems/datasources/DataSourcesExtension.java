@@ -209,6 +209,10 @@ public class DataSourcesExtension implements Extension {
 
         }
 
+        for (final String attributeName : DataSourceAcquireMetrics.ATTRIBUTES) {
+            dataSources.registerMetric(attributeName, DataSourceAcquireMetrics.INSTANCE);
+        }
+
         for (final String attributeName : PoolConfigurationRWHandler.ATTRIBUTES) {
             dataSources.registerReadWriteAttribute(attributeName, PoolConfigurationReadHandler.INSTANCE,
                     LocalAndXaDataSourcePoolConfigurationWriteHandler.INSTANCE, Storage.CONFIGURATION);
@@ -230,6 +234,10 @@ public class DataSourcesExtension implements Extension {
 
         }
 
+        for (final String attributeName : DataSourceAcquireMetrics.ATTRIBUTES) {
+            xaDataSources.registerMetric(attributeName, DataSourceAcquireMetrics.INSTANCE);
+        }
+
         for (final String attributeName : PoolConfigurationRWHandler.ATTRIBUTES) {
             xaDataSources.registerReadWriteAttribute(attributeName, PoolConfigurationReadHandler.INSTANCE,
                     LocalAndXaDataSourcePoolConfigurationWriteHandler.INSTANCE, Storage.CONFIGURATION);
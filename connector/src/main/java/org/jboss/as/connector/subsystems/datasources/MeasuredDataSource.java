@@ -0,0 +1,112 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.connector.subsystems.datasources;
+
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.logging.Logger;
+
+import javax.sql.DataSource;
+
+/**
+ * A data-source which records the time taken to obtain connections from the pooled data-source it wraps.
+ */
+final class MeasuredDataSource implements DataSource {
+
+    private final DataSource delegate;
+    private final ConnectionAcquireStatistics statistics;
+
+    MeasuredDataSource(final DataSource delegate, final ConnectionAcquireStatistics statistics) {
+        this.delegate = delegate;
+        this.statistics = statistics;
+    }
+
+    public Connection getConnection() throws SQLException {
+        final long start = System.nanoTime();
+        boolean ok = false;
+        try {
+            final Connection connection = delegate.getConnection();
+            ok = true;
+            return connection;
+        } finally {
+            record(start, ok);
+        }
+    }
+
+    public Connection getConnection(final String username, final String password) throws SQLException {
+        final long start = System.nanoTime();
+        boolean ok = false;
+        try {
+            final Connection connection = delegate.getConnection(username, password);
+            ok = true;
+            return connection;
+        } finally {
+            record(start, ok);
+        }
+    }
+
+    private void record(final long start, final boolean ok) {
+        if (ok) {
+            statistics.acquired(System.nanoTime() - start);
+        } else {
+            statistics.failed();
+        }
+    }
+
+    public PrintWriter getLogWriter() throws SQLException {
+        return delegate.getLogWriter();
+    }
+
+    public void setLogWriter(final PrintWriter out) throws SQLException {
+        delegate.setLogWriter(out);
+    }
+
+    public void setLoginTimeout(final int seconds) throws SQLException {
+        delegate.setLoginTimeout(seconds);
+    }
+
+    public int getLoginTimeout() throws SQLException {
+        return delegate.getLoginTimeout();
+    }
+
+    public <T> T unwrap(final Class<T> iface) throws SQLException {
+        if (iface.isInstance(delegate)) {
+            return iface.cast(delegate);
+        }
+        return delegate.unwrap(iface);
+    }
+
+    public boolean isWrapperFor(final Class<?> iface) throws SQLException {
+        return iface.isInstance(delegate) || delegate.isWrapperFor(iface);
+    }
+
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    public String toString() {
+        return delegate.toString();
+    }
+}
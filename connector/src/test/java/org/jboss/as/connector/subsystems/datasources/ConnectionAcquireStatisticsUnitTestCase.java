@@ -0,0 +1,86 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.connector.subsystems.datasources;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Tests {@link ConnectionAcquireStatistics}.
+ */
+public class ConnectionAcquireStatisticsUnitTestCase {
+
+    @Test
+    public void testBucketBounds() {
+        assertEquals(0, ConnectionAcquireStatistics.bucketOf(0L));
+        assertEquals(0, ConnectionAcquireStatistics.bucketOf(1L));
+        assertEquals(1, ConnectionAcquireStatistics.bucketOf(2L));
+        assertEquals(1, ConnectionAcquireStatistics.bucketOf(5L));
+        assertEquals(2, ConnectionAcquireStatistics.bucketOf(6L));
+        assertEquals(3, ConnectionAcquireStatistics.bucketOf(50L));
+        assertEquals(4, ConnectionAcquireStatistics.bucketOf(100L));
+        assertEquals(5, ConnectionAcquireStatistics.bucketOf(101L));
+        assertEquals(6, ConnectionAcquireStatistics.bucketOf(1000L));
+        assertEquals(7, ConnectionAcquireStatistics.bucketOf(1001L));
+        assertEquals(7, ConnectionAcquireStatistics.bucketOf(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void testEveryBucketReachable() {
+        for (int i = 0; i < ConnectionAcquireStatistics.BUCKET_BOUNDS.length; i++) {
+            assertEquals(i, ConnectionAcquireStatistics.bucketOf(ConnectionAcquireStatistics.BUCKET_BOUNDS[i]));
+            assertEquals(i + 1, ConnectionAcquireStatistics.bucketOf(ConnectionAcquireStatistics.BUCKET_BOUNDS[i] + 1));
+        }
+    }
+
+    @Test
+    public void testHistogram() {
+        final ConnectionAcquireStatistics statistics = new ConnectionAcquireStatistics();
+        assertArrayEquals(new long[8], statistics.getHistogram());
+
+        statistics.acquired(TimeUnit.MICROSECONDS.toNanos(500L));
+        statistics.acquired(TimeUnit.MICROSECONDS.toNanos(1999L));
+        statistics.acquired(TimeUnit.MILLISECONDS.toNanos(3L));
+        statistics.acquired(TimeUnit.MILLISECONDS.toNanos(75L));
+        statistics.acquired(TimeUnit.SECONDS.toNanos(2L));
+        statistics.failed();
+
+        assertArrayEquals(new long[] {2L, 1L, 0L, 0L, 1L, 0L, 0L, 1L}, statistics.getHistogram());
+        assertEquals(5L, statistics.getAcquiredCount());
+        assertEquals(1L, statistics.getFailedCount());
+        assertEquals(2000L, statistics.getMaxAcquireTime(TimeUnit.MILLISECONDS));
+        // (0.5 + 1.999 + 3 + 75 + 2000) / 5 ms
+        assertEquals(416099L, statistics.getAverageAcquireTime(TimeUnit.MICROSECONDS));
+    }
+
+    @Test
+    public void testNoAcquisitions() {
+        final ConnectionAcquireStatistics statistics = new ConnectionAcquireStatistics();
+        assertEquals(0L, statistics.getAverageAcquireTime(TimeUnit.MILLISECONDS));
+        assertEquals(0L, statistics.getMaxAcquireTime(TimeUnit.MILLISECONDS));
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.connector.subsystems.datasources;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.junit.Test;
+
+/**
+ * Tests {@link MeasuredDataSource}.
+ */
+public class MeasuredDataSourceUnitTestCase {
+
+    /** Stands in for the pool's connection type, which callers check with {@code instanceof}. */
+    interface PooledConnection extends Connection {
+    }
+
+    @Test
+    public void testConnectionHandedOutUnchanged() throws Exception {
+        final Connection connection = (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {PooledConnection.class}, new UnsupportedHandler());
+        final ConnectionAcquireStatistics statistics = new ConnectionAcquireStatistics();
+        final DataSource dataSource = new MeasuredDataSource(dataSource(connection), statistics);
+
+        final Connection acquired = dataSource.getConnection();
+        assertSame(connection, acquired);
+        assertTrue(acquired instanceof PooledConnection);
+        assertSame(connection, dataSource.getConnection("user", "password"));
+        assertEquals(2, statistics.getAcquiredCount());
+        assertEquals(0, statistics.getFailedCount());
+    }
+
+    @Test
+    public void testFailedAcquire() throws Exception {
+        final ConnectionAcquireStatistics statistics = new ConnectionAcquireStatistics();
+        final DataSource dataSource = new MeasuredDataSource(dataSource(null), statistics);
+        try {
+            dataSource.getConnection();
+            fail("getConnection should have failed");
+        } catch (SQLException expected) {
+        }
+        assertEquals(0, statistics.getAcquiredCount());
+        assertEquals(1, statistics.getFailedCount());
+    }
+
+    /**
+     * Creates a data-source handing out the given connection, or failing if it is {@code null}.
+     */
+    private DataSource dataSource(final Connection connection) {
+        return (DataSource) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {DataSource.class},
+                new InvocationHandler() {
+                    public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+                        if (!method.getName().equals("getConnection")) {
+                            throw new UnsupportedOperationException(method.getName());
+                        }
+                        if (connection == null) {
+                            throw new SQLException("No connection available");
+                        }
+                        return connection;
+                    }
+                });
+    }
+
+    private static class UnsupportedHandler implements InvocationHandler {
+        public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+            throw new UnsupportedOperationException(method.getName());
+        }
+    }
+}
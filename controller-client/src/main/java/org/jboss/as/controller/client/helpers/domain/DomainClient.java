@@ -56,6 +56,15 @@ public interface DomainClient extends ModelControllerClient {
      */
     byte[] addDeploymentContent(InputStream stream);
 
+    /**
+     * Check whether content with the given hash is already present on the domain controller, in which case
+     * it does not need to be {@link #addDeploymentContent(InputStream) added} again.
+     *
+     * @param hash The unique hash for the deployment
+     * @return {@code true} if the content is present
+     */
+    boolean hasDeploymentContent(byte[] hash);
+
     /**
      * Gets a {@link DomainDeploymentManager} that provides a convenience API
      * for manipulating domain deployments.
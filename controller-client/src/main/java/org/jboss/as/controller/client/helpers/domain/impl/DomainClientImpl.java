@@ -89,6 +89,15 @@ public class DomainClientImpl implements DomainClient {
         return result.asBytes();
     }
 
+    @Override
+    public boolean hasDeploymentContent(byte[] hash) {
+        ModelNode op = new ModelNode();
+        op.get("operation").set("has-deployment-content");
+        op.get("hash").set(hash);
+        ModelNode result = executeForResult(OperationBuilder.Factory.create(op).build());
+        return result.asBoolean();
+    }
+
     @Override
     public DomainDeploymentManager getDeploymentManager() {
         if (deploymentManager == null) {
@@ -85,6 +85,8 @@ public class BasicModelController extends AbstractModelController<OperationContr
     private final Lock writeLock = new ReentrantLock(true);
     private final ModelNodeRegistration registry;
     private final ModelNode model;
+    /** Copy of the model handed to read-only operations; discarded by {@link #modelChanged()} and rebuilt on demand */
+    private volatile ModelNode modelSnapshot;
     private final ConfigurationPersister configurationPersister;
     private final ModelProvider modelSource = new ModelProvider() {
         @Override
@@ -92,10 +94,25 @@ public class BasicModelController extends AbstractModelController<OperationContr
             return BasicModelController.this.model;
         }
     };
+    private final ModelProvider snapshotSource = new ModelProvider() {
+        @Override
+        public ModelNode getModel() {
+            return getModelSnapshot();
+        }
+    };
     private final OperationContextFactory contextFactory = new OperationContextFactory() {
         @Override
         public OperationContext getOperationContext(final ModelProvider modelSource, final PathAddress address,
                 final OperationHandler operationHandler, final Operation operation) {
+            if (modelSource == BasicModelController.this.modelSource && isReadOnly(operationHandler)) {
+                // Read-only operations against the live model read the published snapshot instead, which is never
+                // modified in place and so needs neither the model's monitor nor, for shareable queries, a copy
+                final ModelNode snapshot = address.navigate(getModelSnapshot(), false);
+                final boolean shared = operationHandler instanceof SharedModelQueryOperationHandler
+                        && ((SharedModelQueryOperationHandler) operationHandler).isSubModelShareable(operation.getOperation());
+                final ModelNode subModel = shared ? snapshot : snapshot.clone();
+                return BasicModelController.this.getOperationContext(subModel, operationHandler, operation, snapshotSource);
+            }
             final ModelNode subModel = getOperationSubModel(modelSource, operationHandler, address);
             return BasicModelController.this.getOperationContext(subModel, operationHandler, operation, modelSource);
         }
@@ -409,6 +426,9 @@ public class BasicModelController extends AbstractModelController<OperationContr
                 } else {
                     address.navigate(model, true).set(operationHandlerContext.getSubModel());
                 }
+                if (model == this.model) {
+                    modelChanged();
+                }
                 persistConfiguration(model, operationControllerContext.getConfigurationPersisterProvider());
             }
         }
@@ -423,6 +443,33 @@ public class BasicModelController extends AbstractModelController<OperationContr
         return model;
     }
 
+    /**
+     * Get a copy of the model which is not modified once published, rebuilding it if the model has changed since the
+     * last call.  Callers must not modify the returned node.
+     *
+     * @return the model snapshot
+     */
+    protected ModelNode getModelSnapshot() {
+        ModelNode snapshot = modelSnapshot;
+        if (snapshot == null) {
+            synchronized (model) {
+                snapshot = modelSnapshot;
+                if (snapshot == null) {
+                    modelSnapshot = snapshot = model.clone();
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Discard the snapshot returned by {@link #getModelSnapshot()}.  Must be called while holding the monitor of
+     * {@link #getModel() the model}, after any change made to it outside of {@link #doExecute}.
+     */
+    protected void modelChanged() {
+        modelSnapshot = null;
+    }
+
     /**
      * Validates that it is valid to add a resource to the model at the given
      * address. Confirms that:
@@ -759,6 +806,9 @@ public class BasicModelController extends AbstractModelController<OperationContr
             final ModelNode model = modelSource.getModel();
             synchronized (model) {
                 model.set(localModel);
+                if (model == BasicModelController.this.model) {
+                    modelChanged();
+                }
                 BasicModelController.this.persistConfiguration(model, injectedConfigPersisterProvider);
             }
 
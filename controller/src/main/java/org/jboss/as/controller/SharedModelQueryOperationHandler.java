@@ -0,0 +1,43 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller;
+
+import org.jboss.dmr.ModelNode;
+
+/**
+ * A query operation handler which can declare, per operation, that it will not modify the submodel it is given.
+ * The controller may then pass it a node of its published model snapshot directly, instead of copying the submodel
+ * first.
+ */
+public interface SharedModelQueryOperationHandler extends ModelQueryOperationHandler {
+
+    /**
+     * Determine whether executing the given operation leaves the submodel untouched.  This includes anything else the
+     * operation context is passed to, and calls to {@link ModelNode#get(String)} for keys which may be absent, since
+     * those add the key.
+     *
+     * @param operation the operation to be executed
+     * @return {@code true} if the submodel may be shared with other readers
+     */
+    boolean isSubModelShareable(ModelNode operation);
+}
@@ -66,6 +66,7 @@ public class ModelDescriptionConstants {
     public static final String DOMAIN_RESULTS = "domain-results";
     public static final String ENABLE = "enable";
     public static final String ENABLED = "enabled";
+    public static final String EXECUTION_TIME = "execution-time";
     public static final String EXTENSION = "extension";
     public static final String FAILED = "failed";
     public static final String FAILURE_DESCRIPTION = "failure-description";
@@ -74,6 +75,7 @@ public class ModelDescriptionConstants {
     public static final String GRACEFUL_SHUTDOWN_TIMEOUT = "graceful-shutdown-timeout";
     public static final String GROUP = "group";
     public static final String HASH = "hash";
+    public static final String HAS_DEPLOYMENT_CONTENT = "has-deployment-content";
     public static final String HEAD_COMMENT_ALLOWED = "head-comment-allowed";
     public static final String HTTP_INTERFACE = "http-interface";
     public static final String HOST = "host";
@@ -95,6 +97,7 @@ public class ModelDescriptionConstants {
     public static final String MANAGEMENT_INTERFACES = "management-interfaces";
     public static final String MASK = "mask";
     public static final String MAX = "max";
+    public static final String MAX_CONCURRENT_SERVERS = "max-concurrent-servers";
     public static final String MAX_FAILED_SERVERS = "max-failed-servers";
     public static final String MAX_FAILURE_PERCENTAGE = "max-failure-percentage";
     public static final String MAX_LENGTH = "max-length";
@@ -156,6 +159,7 @@ public class ModelDescriptionConstants {
     public static final String ROLLBACK_ON_RUNTIME_FAILURE = "rollback-on-runtime-failure";
     public static final String ROLLED_BACK = "rolled-back";
     public static final String ROLLING_TO_SERVERS = "rolling-to-servers";
+    public static final String ROLLOUT_METRICS = "rollout-metrics";
     public static final String ROLLOUT_PLAN = "rollout-plan";
     public static final String RUNTIME_NAME = "runtime-name";
     public static final String RUNNING_SERVER = "server";
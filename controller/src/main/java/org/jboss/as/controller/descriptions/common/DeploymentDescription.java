@@ -33,6 +33,7 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DES
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ENABLED;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FULL_REPLACE_DEPLOYMENT;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HASH;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HAS_DEPLOYMENT_CONTENT;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HEAD_COMMENT_ALLOWED;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.INPUT_STREAM_INDEX;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MAX_LENGTH;
@@ -101,6 +102,23 @@ public class DeploymentDescription {
         return root;
     }
 
+    public static final ModelNode getHasDeploymentContentOperation(Locale locale) {
+        final ResourceBundle bundle = getResourceBundle(locale);
+        final ModelNode root = new ModelNode();
+        root.get(OPERATION_NAME).set(HAS_DEPLOYMENT_CONTENT);
+        root.get(DESCRIPTION).set(bundle.getString("deployment.has-content"));
+        root.get(REQUEST_PROPERTIES, HASH, TYPE).set(ModelType.BYTES);
+        root.get(REQUEST_PROPERTIES, HASH, DESCRIPTION).set(bundle.getString("deployment.hash"));
+        root.get(REQUEST_PROPERTIES, HASH, REQUIRED).set(true);
+        root.get(REQUEST_PROPERTIES, HASH, MIN_LENGTH).set(20);
+        root.get(REQUEST_PROPERTIES, HASH, MAX_LENGTH).set(20);
+        root.get(REQUEST_PROPERTIES, HASH, NILLABLE).set(false);
+        root.get(REPLY_PROPERTIES, TYPE).set(ModelType.BOOLEAN);
+        root.get(REPLY_PROPERTIES, DESCRIPTION).set(bundle.getString("deployment.has-content.reply"));
+        root.get(REPLY_PROPERTIES, NILLABLE).set(false);
+        return root;
+    }
+
     public static final ModelNode getUploadDeploymentBytesOperation(Locale locale) {
         final ResourceBundle bundle = getResourceBundle(locale);
         final ModelNode root = new ModelNode();
@@ -60,6 +60,7 @@ import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.ProxyController;
 import org.jboss.as.controller.ResultHandler;
+import org.jboss.as.controller.SharedModelQueryOperationHandler;
 import org.jboss.as.controller.client.Operation;
 import org.jboss.as.controller.client.OperationBuilder;
 import org.jboss.as.controller.descriptions.DescriptionProvider;
@@ -95,7 +96,7 @@ public class GlobalOperationHandlers {
      * all children and configuration attributes. Non-recursive queries can include runtime attributes by setting the request parameter
      * "include-runtime" to "true".
      */
-    public static class ReadResourceHandler implements ModelQueryOperationHandler {
+    public static class ReadResourceHandler implements SharedModelQueryOperationHandler {
 
         static final String PROXIES = "proxies";
 
@@ -103,16 +104,36 @@ public class GlobalOperationHandlers {
         public OperationResult execute(final OperationContext context, final ModelNode operation, final ResultHandler resultHandler) throws OperationFailedException {
 
             final PathAddress address = PathAddress.pathAddress(operation.get(OP_ADDR));
-            final ModelNode result = readModel(context, operation, resultHandler, address);
+            final ModelNode result = readModel(context, operation, resultHandler, address, context.getSubModel());
             resultHandler.handleResultFragment(Util.NO_LOCATION, result);
             resultHandler.handleResultComplete();
             return new BasicOperationResult();
         }
 
+        /**
+         * {@inheritDoc}
+         * <p>
+         * A recursive read only copies the model, whereas a non-recursive one passes the context on to the
+         * attributes' read handlers.
+         */
+        @Override
+        public boolean isSubModelShareable(final ModelNode operation) {
+            return operation.hasDefined(RECURSIVE) && operation.get(RECURSIVE).asBoolean();
+        }
+
         protected ModelNode readModel(final OperationContext context, final ModelNode readOperation,
                 final ResultHandler resultHandler, final PathAddress address) throws OperationFailedException {
+            return readModel(context, readOperation, resultHandler, address, context.getSubModel(address));
+        }
+
+        /**
+         * Read the resource at the given address.
+         *
+         * @param model the model of the resource, which is not modified
+         */
+        protected ModelNode readModel(final OperationContext context, final ModelNode readOperation,
+                final ResultHandler resultHandler, final PathAddress address, final ModelNode model) throws OperationFailedException {
             final ModelNodeRegistration registry = context.getRegistry();
-            final ModelNode model = context.getSubModel(address);
             final ModelNode result;
                 if (readOperation.get(RECURSIVE).asBoolean(false)) {
                     // FIXME security checks JBAS-8842
@@ -125,20 +146,20 @@ public class GlobalOperationHandlers {
 
                     final Set<String> childNames = registry.getChildNames(address);
 
-                    final ModelNode subModel = model.clone();
-                    for (final String key : subModel.keys()) {
-                        final ModelNode child = subModel.get(key);
+                    for (final String key : model.keys()) {
+                        final ModelNode child = model.get(key);
                         if (childNames.contains(key)) {
-                            //Prune the value for this child
-                            if (subModel.get(key).isDefined()) {
+                            //Prune the value for this child, without copying the child resources first
+                            final ModelNode pruned = new ModelNode();
+                            if (child.isDefined()) {
                                 for (final String childKey : child.keys()) {
-                                    subModel.get(key, childKey).set(new ModelNode());
+                                    pruned.get(childKey).set(new ModelNode());
                                 }
                             }
 
-                            result.get(key).set(child);
+                            result.get(key).set(pruned);
                         } else {
-                            result.get(key).set(child);
+                            result.get(key).set(child.clone());
                         }
                     }
                     // Handle attributes
@@ -286,13 +307,13 @@ public class GlobalOperationHandlers {
     /**
      * {@link OperationHandler} querying the children names of a given "child-type".
      */
-    public static class ReadChildrenNamesOperationHandler implements ModelQueryOperationHandler {
+    public static class ReadChildrenNamesOperationHandler implements SharedModelQueryOperationHandler {
         @Override
         public OperationResult execute(final OperationContext context, final ModelNode operation, final ResultHandler resultHandler) throws OperationFailedException {
 
             String childName = operation.require(CHILD_TYPE).asString();
 
-            ModelNode subModel = context.getSubModel().clone();
+            ModelNode subModel = context.getSubModel();
             if (!subModel.isDefined()) {
                 final ModelNode result = new ModelNode();
                 result.setEmptyList();
@@ -304,11 +325,10 @@ public class GlobalOperationHandlers {
                     throw new OperationFailedException(new ModelNode().set("No known child called " + childName)); //TODO i18n
                 } else {
                     final ModelNode result = new ModelNode();
-                    subModel = subModel.get(childName);
-                    if (!subModel.isDefined()) {
+                    if (!subModel.hasDefined(childName)) {
                         result.setEmptyList();
                     } else {
-                        for (final String key : subModel.keys()) {
+                        for (final String key : subModel.get(childName).keys()) {
                             final ModelNode node = new ModelNode();
                             node.set(key);
                             result.add(node);
@@ -321,6 +341,11 @@ public class GlobalOperationHandlers {
             resultHandler.handleResultComplete();
             return new BasicOperationResult();
         }
+
+        @Override
+        public boolean isSubModelShareable(final ModelNode operation) {
+            return true;
+        }
     };
 
     /**
@@ -332,7 +357,7 @@ public class GlobalOperationHandlers {
 
             String childName = operation.require(CHILD_TYPE).asString();
 
-            ModelNode subModel = context.getSubModel().clone();
+            ModelNode subModel = context.getSubModel();
             if (!subModel.isDefined()) {
                 final ModelNode result = new ModelNode();
                 result.setEmptyList();
@@ -346,10 +371,10 @@ public class GlobalOperationHandlers {
                 } else {
                     final AtomicBoolean ok = new AtomicBoolean(true);
                     final ModelNode result = new ModelNode();
-                    subModel = subModel.get(childName);
-                    if (!subModel.isDefined()) {
+                    if (!subModel.hasDefined(childName)) {
                         result.setEmptyList();
                     } else {
+                        subModel = subModel.get(childName);
 
                         for (final String key : subModel.keys()) {
                             if (!ok.get()) {
@@ -378,7 +403,7 @@ public class GlobalOperationHandlers {
                                     ok.set(false);
                                     resultHandler.handleCancellation();
                                 }
-                            }, childAddress);
+                            }, childAddress, subModel.get(key));
                             result.add(key, readResult);
                         }
                     }
@@ -397,11 +422,11 @@ public class GlobalOperationHandlers {
     /**
      * {@link OperationHandler} querying the child types of a given node.
      */
-    public static final ModelQueryOperationHandler READ_CHILDREN_TYPES = new ModelQueryOperationHandler() {
+    public static final ModelQueryOperationHandler READ_CHILDREN_TYPES = new SharedModelQueryOperationHandler() {
         @Override
         public OperationResult execute(final OperationContext context, final ModelNode operation, final ResultHandler resultHandler) throws OperationFailedException {
 
-            ModelNode subModel = context.getSubModel().clone();
+            ModelNode subModel = context.getSubModel();
             if (!subModel.isDefined()) {
                 final ModelNode result = new ModelNode();
                 result.setEmptyList();
@@ -423,12 +448,17 @@ public class GlobalOperationHandlers {
 
             return new BasicOperationResult();
         }
+
+        @Override
+        public boolean isSubModelShareable(final ModelNode operation) {
+            return true;
+        }
     };
 
     /**
      * {@link OperationHandler} returning the names of the defined operations at a given model address.
      */
-    public static final ModelQueryOperationHandler READ_OPERATION_NAMES = new ModelQueryOperationHandler() {
+    public static final ModelQueryOperationHandler READ_OPERATION_NAMES = new SharedModelQueryOperationHandler() {
 
         @Override
         public OperationResult execute(final OperationContext context, final ModelNode operation, final ResultHandler resultHandler) throws OperationFailedException {
@@ -451,12 +481,17 @@ public class GlobalOperationHandlers {
 
             return new BasicOperationResult();
         }
+
+        @Override
+        public boolean isSubModelShareable(final ModelNode operation) {
+            return true;
+        }
     };
 
     /**
      * {@link OperationHandler} returning the type description of a single operation description.
      */
-    public static final ModelQueryOperationHandler READ_OPERATION_DESCRIPTION = new ModelQueryOperationHandler() {
+    public static final ModelQueryOperationHandler READ_OPERATION_DESCRIPTION = new SharedModelQueryOperationHandler() {
 
         @Override
         public OperationResult execute(final OperationContext context, final ModelNode operation, final ResultHandler resultHandler) throws OperationFailedException {
@@ -473,12 +508,17 @@ public class GlobalOperationHandlers {
 
             return new BasicOperationResult();
         }
+
+        @Override
+        public boolean isSubModelShareable(final ModelNode operation) {
+            return true;
+        }
     };
 
     /**
      * {@link OperationHandler} querying the complete type description of a given model node.
      */
-    public static final ModelQueryOperationHandler READ_RESOURCE_DESCRIPTION = new ModelQueryOperationHandler() {
+    public static final ModelQueryOperationHandler READ_RESOURCE_DESCRIPTION = new SharedModelQueryOperationHandler() {
 
         @Override
         public OperationResult execute(final OperationContext context, final ModelNode operation, final ResultHandler resultHandler) throws OperationFailedException {
@@ -566,6 +606,11 @@ public class GlobalOperationHandlers {
                 }
             }
         }
+
+        @Override
+        public boolean isSubModelShareable(final ModelNode operation) {
+            return true;
+        }
     };
 
 
@@ -0,0 +1,283 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.persistence;
+
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.dmr.ModelNode;
+import org.jboss.logging.Logger;
+import org.jboss.staxmapper.XMLElementWriter;
+
+/**
+ * A configuration persister which writes through another persister in the background.  {@link #store(ModelNode)}
+ * only takes a copy of the model; the copy is marshalled and written by a dedicated thread after a bounded delay,
+ * so that a burst of updates results in a single write of the latest model.
+ * <p>
+ * Callers which need the configuration to be on disk (snapshots, shutdown) use {@link #flush()}.
+ */
+public class AsyncConfigurationPersister implements ExtensibleConfigurationPersister {
+
+    /** System property holding the write delay, in milliseconds, used by {@link #wrapIfEnabled}. */
+    public static final String DELAY_PROPERTY = "jboss.as.config.persister.async.delay";
+
+    private static final Logger log = Logger.getLogger("org.jboss.as.controller");
+
+    private final ExtensibleConfigurationPersister delegate;
+    private final long delay;
+    private final ScheduledExecutorService writer;
+    private final Thread shutdownHook;
+
+    private final Object lock = new Object();
+    // protected by {@link #lock}
+    private ModelNode pending;
+    // protected by {@link #lock}
+    private long storedVersion;
+    // protected by {@link #lock}
+    private long writtenVersion;
+    // protected by {@link #lock}
+    private boolean scheduled;
+    // protected by {@link #lock}
+    private boolean stopped;
+    // protected by {@link #lock}
+    private ConfigurationPersistenceException failure;
+
+    private final Runnable writeTask = new Runnable() {
+        @Override
+        public void run() {
+            write();
+        }
+    };
+
+    /**
+     * Construct a new instance.
+     *
+     * @param delegate the persister doing the actual writes
+     * @param delay the maximum time, in milliseconds, a stored model waits before being written
+     */
+    public AsyncConfigurationPersister(final ExtensibleConfigurationPersister delegate, final long delay) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("delegate is null");
+        }
+        if (delay < 0) {
+            throw new IllegalArgumentException("delay is negative");
+        }
+        this.delegate = delegate;
+        this.delay = delay;
+        writer = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(final Runnable r) {
+                final Thread thread = new Thread(r, "Configuration persister");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        shutdownHook = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    flush();
+                } catch (ConfigurationPersistenceException e) {
+                    log.errorf(e, "Failed to persist configuration on shutdown");
+                }
+            }
+        }, "Configuration persister shutdown hook");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    /**
+     * Wrap the given persister in an {@code AsyncConfigurationPersister} if a positive delay is set in the
+     * {@link #DELAY_PROPERTY} system property.
+     *
+     * @param persister the persister
+     * @return the persister to use
+     */
+    public static ExtensibleConfigurationPersister wrapIfEnabled(final ExtensibleConfigurationPersister persister) {
+        final String value = System.getProperty(DELAY_PROPERTY);
+        if (value == null) {
+            return persister;
+        }
+        final long delay;
+        try {
+            delay = Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            log.warnf("Ignoring invalid value %s for %s", value, DELAY_PROPERTY);
+            return persister;
+        }
+        return delay > 0 ? new AsyncConfigurationPersister(persister, delay) : persister;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void store(final ModelNode model) throws ConfigurationPersistenceException {
+        final ModelNode snapshot = model.clone();
+        synchronized (lock) {
+            if (! stopped) {
+                pending = snapshot;
+                storedVersion++;
+                if (! scheduled) {
+                    scheduled = true;
+                    writer.schedule(writeTask, delay, TimeUnit.MILLISECONDS);
+                }
+                return;
+            }
+        }
+        delegate.store(snapshot);
+    }
+
+    /**
+     * Wait until every model passed to {@link #store(ModelNode)} so far has been written.
+     *
+     * @throws ConfigurationPersistenceException if the last write failed
+     */
+    public void flush() throws ConfigurationPersistenceException {
+        boolean intr = false;
+        try {
+            synchronized (lock) {
+                final long target = storedVersion;
+                if (writtenVersion < target && ! stopped) {
+                    // don't wait for the delay to expire
+                    writer.execute(writeTask);
+                }
+                while (writtenVersion < target) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        intr = true;
+                    }
+                }
+                if (failure != null) {
+                    throw new ConfigurationPersistenceException("Failed to store configuration", failure);
+                }
+            }
+        } finally {
+            if (intr) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Write any pending model and stop the background writer.  Later calls to {@link #store(ModelNode)} write
+     * synchronously.
+     */
+    public void stop() {
+        try {
+            flush();
+        } catch (ConfigurationPersistenceException e) {
+            log.errorf(e, "Failed to persist configuration");
+        }
+        synchronized (lock) {
+            stopped = true;
+        }
+        writer.shutdown();
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (IllegalStateException ignored) {
+            // already shutting down
+        }
+    }
+
+    private void write() {
+        final ModelNode model;
+        final long version;
+        synchronized (lock) {
+            model = pending;
+            version = storedVersion;
+            pending = null;
+            scheduled = false;
+        }
+        if (model == null) {
+            return;
+        }
+        ConfigurationPersistenceException failure = null;
+        try {
+            delegate.store(model);
+        } catch (ConfigurationPersistenceException e) {
+            log.warnf(e, "Failed to persist configuration change: %s", e);
+            failure = e;
+        } catch (RuntimeException e) {
+            log.warnf(e, "Failed to persist configuration change: %s", e);
+            failure = new ConfigurationPersistenceException(e);
+        }
+        synchronized (lock) {
+            writtenVersion = version;
+            this.failure = failure;
+            lock.notifyAll();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void marshallAsXml(final ModelNode model, final OutputStream output) throws ConfigurationPersistenceException {
+        delegate.marshallAsXml(model, output);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public List<ModelNode> load() throws ConfigurationPersistenceException {
+        return delegate.load();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void successfulBoot() throws ConfigurationPersistenceException {
+        flush();
+        delegate.successfulBoot();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String snapshot() throws ConfigurationPersistenceException {
+        flush();
+        return delegate.snapshot();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public SnapshotInfo listSnapshots() {
+        return delegate.listSnapshots();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void deleteSnapshot(final String name) {
+        delegate.deleteSnapshot(name);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void registerSubsystemWriter(final String name, final XMLElementWriter<SubsystemMarshallingContext> writer) {
+        delegate.registerSubsystemWriter(name, writer);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void registerSubsystemDeploymentWriter(final String name, final XMLElementWriter<SubsystemMarshallingContext> writer) {
+        delegate.registerSubsystemDeploymentWriter(name, writer);
+    }
+}
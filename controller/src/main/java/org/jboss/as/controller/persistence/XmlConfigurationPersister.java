@@ -75,18 +75,39 @@ public class XmlConfigurationPersister extends AbstractConfigurationPersister {
         store(model, fileName);
     }
 
+    /**
+     * Store the model in the given file.  The model is written to a temporary file next to the target, which then
+     * replaces the target, so a failed or interrupted write never leaves a truncated configuration behind.
+     *
+     * @param model the model to persist
+     * @param file the target file
+     * @throws ConfigurationPersistenceException if the model could not be stored
+     */
     protected void store(final ModelNode model, final File file) throws ConfigurationPersistenceException {
+        final File tempFile = new File(file.getAbsoluteFile().getParentFile(), file.getName() + ".tmp");
         try {
-            final FileOutputStream fos = new FileOutputStream(file);
+            final FileOutputStream fos = new FileOutputStream(tempFile);
             try {
                 BufferedOutputStream output = new BufferedOutputStream(fos);
                 marshallAsXml(model, output);
+                output.flush();
+                fos.getFD().sync();
                 output.close();
                 fos.close();
             } finally {
                 safeClose(fos);
             }
+            if (! tempFile.renameTo(file)) {
+                // some platforms cannot rename over an existing file
+                if (! file.delete() || ! tempFile.renameTo(file)) {
+                    throw new ConfigurationPersistenceException("Failed to rename " + tempFile + " to " + file);
+                }
+            }
+        } catch (ConfigurationPersistenceException e) {
+            tempFile.delete();
+            throw e;
         } catch (Exception e) {
+            tempFile.delete();
             throw new ConfigurationPersistenceException("Failed to store configuration", e);
         }
     }
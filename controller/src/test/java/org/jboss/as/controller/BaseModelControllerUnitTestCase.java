@@ -77,6 +77,34 @@ public class BaseModelControllerUnitTestCase {
         assertEquals(1, result.get("result").asInt());
     }
 
+    @Test
+    public void testReadAfterWrite() throws Exception {
+        ModelNode result = controller.execute(getOperation("read", "attr1", 0));
+        assertEquals(SUCCESS, result.get(OUTCOME).asString());
+        assertEquals(1, result.get(RESULT).asInt());
+
+        result = controller.execute(getOperation("good", "attr1", 5));
+        assertEquals(SUCCESS, result.get(OUTCOME).asString());
+
+        result = controller.execute(getOperation("read", "attr1", 0));
+        assertEquals(SUCCESS, result.get(OUTCOME).asString());
+        assertEquals(5, result.get(RESULT).asInt());
+    }
+
+    @Test
+    public void testQueryCannotModifyModel() throws Exception {
+        ModelNode result = controller.execute(getOperation("count", "attr1", 0));
+        assertEquals(SUCCESS, result.get(OUTCOME).asString());
+        assertEquals(2, result.get(RESULT).asInt());
+
+        result = controller.execute(getOperation("sloppy", "attr3", 0));
+        assertEquals(SUCCESS, result.get(OUTCOME).asString());
+
+        result = controller.execute(getOperation("count", "attr1", 0));
+        assertEquals(SUCCESS, result.get(OUTCOME).asString());
+        assertEquals(2, result.get(RESULT).asInt());
+    }
+
     public static ModelNode createTestNode() {
         ModelNode model = new ModelNode();
 
@@ -145,6 +173,48 @@ public class BaseModelControllerUnitTestCase {
         }
     }
 
+    public static class ReadHandler implements SharedModelQueryOperationHandler {
+        @Override
+        public OperationResult execute(OperationContext context, ModelNode operation, ResultHandler resultHandler)
+                throws OperationFailedException {
+
+            String name = operation.require(NAME).asString();
+            ModelNode subModel = context.getSubModel();
+            resultHandler.handleResultFragment(new String[0], subModel.has(name) ? subModel.get(name).clone() : new ModelNode());
+            resultHandler.handleResultComplete();
+            return new BasicOperationResult();
+        }
+
+        @Override
+        public boolean isSubModelShareable(ModelNode operation) {
+            return true;
+        }
+    }
+
+    public static class CountHandler extends ReadHandler {
+        @Override
+        public OperationResult execute(OperationContext context, ModelNode operation, ResultHandler resultHandler)
+                throws OperationFailedException {
+
+            resultHandler.handleResultFragment(new String[0], new ModelNode().set(context.getSubModel().keys().size()));
+            resultHandler.handleResultComplete();
+            return new BasicOperationResult();
+        }
+    }
+
+    /** A query which adds the attribute it reads if it is missing */
+    public static class SloppyReadHandler implements ModelQueryOperationHandler {
+        @Override
+        public OperationResult execute(OperationContext context, ModelNode operation, ResultHandler resultHandler)
+                throws OperationFailedException {
+
+            String name = operation.require(NAME).asString();
+            resultHandler.handleResultFragment(new String[0], context.getSubModel().get(name).clone());
+            resultHandler.handleResultComplete();
+            return new BasicOperationResult();
+        }
+    }
+
     public static final DescriptionProvider DESC_PROVIDER = new DescriptionProvider() {
         @Override
         public ModelNode getModelDescription(Locale locale) {
@@ -159,6 +229,9 @@ public class BaseModelControllerUnitTestCase {
             getRegistry().registerOperationHandler("good", new GoodHandler(), DESC_PROVIDER, false);
             getRegistry().registerOperationHandler("bad", new BadHandler(), DESC_PROVIDER, false);
             getRegistry().registerOperationHandler("evil", new EvilHandler(), DESC_PROVIDER, false);
+            getRegistry().registerOperationHandler("read", new ReadHandler(), DESC_PROVIDER, false);
+            getRegistry().registerOperationHandler("count", new CountHandler(), DESC_PROVIDER, false);
+            getRegistry().registerOperationHandler("sloppy", new SloppyReadHandler(), DESC_PROVIDER, false);
         }
     }
 
@@ -0,0 +1,172 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.persistence;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.dmr.ModelNode;
+import org.jboss.staxmapper.XMLElementWriter;
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link AsyncConfigurationPersister}.
+ */
+public class AsyncConfigurationPersisterUnitTestCase {
+
+    @Test
+    public void testBurstIsCoalesced() throws Exception {
+        final RecordingPersister delegate = new RecordingPersister();
+        final AsyncConfigurationPersister persister = new AsyncConfigurationPersister(delegate, 200);
+        try {
+            final ModelNode model = new ModelNode();
+            for (int i = 0; i < 100; i++) {
+                model.get("value").set(i);
+                persister.store(model);
+            }
+            persister.flush();
+            assertEquals(1, delegate.stores);
+            assertEquals(99, delegate.last.get("value").asInt());
+        } finally {
+            persister.stop();
+        }
+    }
+
+    @Test
+    public void testStoreTakesSnapshot() throws Exception {
+        final RecordingPersister delegate = new RecordingPersister();
+        final AsyncConfigurationPersister persister = new AsyncConfigurationPersister(delegate, 10000);
+        try {
+            final ModelNode model = new ModelNode();
+            model.get("value").set("stored");
+            persister.store(model);
+            model.get("value").set("changed later");
+            persister.flush();
+            assertEquals("stored", delegate.last.get("value").asString());
+        } finally {
+            persister.stop();
+        }
+    }
+
+    @Test
+    public void testDelayIsBounded() throws Exception {
+        final RecordingPersister delegate = new RecordingPersister();
+        final AsyncConfigurationPersister persister = new AsyncConfigurationPersister(delegate, 50);
+        try {
+            persister.store(new ModelNode().set(1));
+            assertTrue("model was not written", delegate.written.await(10, TimeUnit.SECONDS));
+        } finally {
+            persister.stop();
+        }
+    }
+
+    @Test
+    public void testFlushReportsFailure() throws Exception {
+        final RecordingPersister delegate = new RecordingPersister();
+        delegate.fail = true;
+        final AsyncConfigurationPersister persister = new AsyncConfigurationPersister(delegate, 10000);
+        try {
+            persister.store(new ModelNode().set(1));
+            try {
+                persister.flush();
+                fail("Expected ConfigurationPersistenceException");
+            } catch (ConfigurationPersistenceException expected) {
+            }
+            delegate.fail = false;
+            persister.store(new ModelNode().set(2));
+            persister.flush();
+            assertEquals(2, delegate.last.asInt());
+        } finally {
+            persister.stop();
+        }
+    }
+
+    @Test
+    public void testStoreAfterStopIsSynchronous() throws Exception {
+        final RecordingPersister delegate = new RecordingPersister();
+        final AsyncConfigurationPersister persister = new AsyncConfigurationPersister(delegate, 10000);
+        persister.stop();
+        persister.store(new ModelNode().set(1));
+        assertEquals(1, delegate.stores);
+    }
+
+    private static class RecordingPersister implements ExtensibleConfigurationPersister {
+
+        final CountDownLatch written = new CountDownLatch(1);
+        volatile int stores;
+        volatile ModelNode last;
+        volatile boolean fail;
+
+        @Override
+        public void store(ModelNode model) throws ConfigurationPersistenceException {
+            if (fail) {
+                throw new ConfigurationPersistenceException("failed");
+            }
+            stores++;
+            last = model;
+            written.countDown();
+        }
+
+        @Override
+        public void marshallAsXml(ModelNode model, OutputStream output) throws ConfigurationPersistenceException {
+        }
+
+        @Override
+        public List<ModelNode> load() throws ConfigurationPersistenceException {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public void successfulBoot() throws ConfigurationPersistenceException {
+        }
+
+        @Override
+        public String snapshot() throws ConfigurationPersistenceException {
+            return null;
+        }
+
+        @Override
+        public SnapshotInfo listSnapshots() {
+            return NULL_SNAPSHOT_INFO;
+        }
+
+        @Override
+        public void deleteSnapshot(String name) {
+        }
+
+        @Override
+        public void registerSubsystemWriter(String name, XMLElementWriter<SubsystemMarshallingContext> writer) {
+        }
+
+        @Override
+        public void registerSubsystemDeploymentWriter(String name, XMLElementWriter<SubsystemMarshallingContext> writer) {
+        }
+    }
+}
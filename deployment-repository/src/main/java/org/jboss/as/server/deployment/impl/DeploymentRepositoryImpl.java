@@ -22,15 +22,13 @@
 
 package org.jboss.as.server.deployment.impl;
 
-import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
 import java.io.Closeable;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.security.DigestOutputStream;
+import java.nio.channels.FileChannel;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 
@@ -38,15 +36,17 @@ import org.jboss.as.server.deployment.api.DeploymentRepository;
 import org.jboss.logging.Logger;
 
 /**
- * Default implementation of {@link org.jboss.as.server.deployment.api.DeploymentRepository}.
+ * Default implementation of {@link org.jboss.as.server.deployment.api.DeploymentRepository}.  Content may be added
+ * concurrently; each addition hashes its own stream.
  * @author John Bailey
  */
 public class DeploymentRepositoryImpl implements DeploymentRepository {
     private static final Logger log = Logger.getLogger("org.jboss.as.server.deployment");
 
     protected static final String CONTENT = "content";
+    /** The size of the buffer content is copied through */
+    protected static final int BUFFER_SIZE = 65536;
     private final File repoRoot;
-    protected final MessageDigest messageDigest;
 
     protected DeploymentRepositoryImpl(final File repoRoot) {
         if (repoRoot == null)
@@ -63,9 +63,18 @@ public class DeploymentRepositoryImpl implements DeploymentRepository {
             throw new IllegalStateException("Failed to create a directory at " + repoRoot.getAbsolutePath());
         }
         this.repoRoot = repoRoot;
+        // fail early if SHA-1 is not available
+        createMessageDigest();
+    }
 
+    /**
+     * Create a new SHA-1 digest.  {@code MessageDigest} is not thread safe, so each hash computation uses its own.
+     *
+     * @return the digest
+     */
+    protected static MessageDigest createMessageDigest() {
         try {
-            this.messageDigest = MessageDigest.getInstance("SHA-1");
+            return MessageDigest.getInstance("SHA-1");
         } catch (NoSuchAlgorithmException e) {
             throw new IllegalStateException("Cannot obtain SHA-1 " + MessageDigest.class.getSimpleName(), e);
         }
@@ -73,25 +82,30 @@ public class DeploymentRepositoryImpl implements DeploymentRepository {
 
     @Override
     public byte[] addDeploymentContent(InputStream stream) throws IOException {
-        byte[] sha1Bytes = null;
-        File tmp = File.createTempFile(CONTENT, "tmp", repoRoot);
-        FileOutputStream fos = new FileOutputStream(tmp);
-        synchronized (messageDigest) {
-            messageDigest.reset();
+        final MessageDigest messageDigest = createMessageDigest();
+        final File tmp = File.createTempFile(CONTENT, "tmp", repoRoot);
+        boolean ok = false;
+        try {
+            final FileOutputStream fos = new FileOutputStream(tmp);
             try {
-                DigestOutputStream dos = new DigestOutputStream(fos, messageDigest);
-                BufferedInputStream bis = new BufferedInputStream(stream);
-                byte[] bytes = new byte[8192];
+                final byte[] bytes = new byte[BUFFER_SIZE];
                 int read;
-                while ((read = bis.read(bytes)) > -1) {
-                    dos.write(bytes, 0, read);
+                while ((read = stream.read(bytes)) > -1) {
+                    messageDigest.update(bytes, 0, read);
+                    fos.write(bytes, 0, read);
                 }
+                fos.close();
             }
             finally {
                 safeClose(fos);
             }
-            sha1Bytes = messageDigest.digest();
+            ok = true;
+        } finally {
+            if (!ok && !tmp.delete()) {
+                tmp.deleteOnExit();
+            }
         }
+        final byte[] sha1Bytes = messageDigest.digest();
         final File realFile = getDeploymentContentFile(sha1Bytes, true);
         if(hasDeploymentContent(sha1Bytes)) {
             // we've already got this content
@@ -155,27 +169,42 @@ public class DeploymentRepositoryImpl implements DeploymentRepository {
     private void moveTempToPermanent(File tmpFile, File permanentFile) throws IOException {
 
         if (!tmpFile.renameTo(permanentFile)) {
-            FileOutputStream fos = null;
-            BufferedOutputStream bos = null;
+            if (permanentFile.exists()) {
+                // the same content was added concurrently
+                if (!tmpFile.delete()) {
+                    tmpFile.deleteOnExit();
+                }
+                return;
+            }
+            // copy to a temporary file next to the permanent one, so the content only appears once complete
+            final File copy = File.createTempFile(CONTENT, "tmp", permanentFile.getParentFile());
             FileInputStream fis = null;
+            FileOutputStream fos = null;
             try {
-                fos = new FileOutputStream(permanentFile);
-                bos = new BufferedOutputStream(fos);
                 fis = new FileInputStream(tmpFile);
-                BufferedInputStream bis = new BufferedInputStream(fis);
-                byte[] bytes = new byte[8192];
-                int read;
-                while ((read = bis.read(bytes)) > -1) {
-                    bos.write(bytes, 0, read);
+                fos = new FileOutputStream(copy);
+                final FileChannel in = fis.getChannel();
+                final FileChannel out = fos.getChannel();
+                final long size = in.size();
+                long position = 0;
+                while (position < size) {
+                    position += in.transferTo(position, size - position, out);
                 }
+                fos.close();
             } finally {
-                safeClose(bos);
                 safeClose(fos);
                 safeClose(fis);
                 if (!tmpFile.delete()) {
                     tmpFile.deleteOnExit();
                 }
             }
+            if (!copy.renameTo(permanentFile) && !permanentFile.exists()) {
+                copy.delete();
+                throw new IOException("Cannot move content to " + permanentFile.getAbsolutePath());
+            }
+            if (copy.exists() && !copy.delete()) {
+                copy.deleteOnExit();
+            }
         }
     }
 
@@ -79,23 +79,19 @@ public class ServerDeploymentRepositoryImpl extends DeploymentRepositoryImpl imp
     /** {@inheritDoc} */
     @Override
     public byte[] addExternalFileReference(File file) throws IOException {
-        byte[] sha1Bytes = null;
         final String fileName = file.getAbsolutePath();
-        final MessageDigest messageDigest = this.messageDigest;
-        synchronized(messageDigest) {
-            messageDigest.reset();
-            if(! file.exists()) {
-                throw new FileNotFoundException(fileName);
-            }
-            final OutputStream os = new OutputStream() {
-                public void write(int b) throws IOException {
-                    //
-                }
-            };
-            final DigestOutputStream dos = new DigestOutputStream(os, messageDigest);
-            calculateHash(file, dos);
-            sha1Bytes = messageDigest.digest();
+        if(! file.exists()) {
+            throw new FileNotFoundException(fileName);
         }
+        final MessageDigest messageDigest = createMessageDigest();
+        final OutputStream os = new OutputStream() {
+            public void write(int b) throws IOException {
+                //
+            }
+        };
+        final DigestOutputStream dos = new DigestOutputStream(os, messageDigest);
+        calculateHash(file, dos);
+        final byte[] sha1Bytes = messageDigest.digest();
         final File content = getExternalFileReference(sha1Bytes, true);
         final OutputStream os = new FileOutputStream(content);
         try {
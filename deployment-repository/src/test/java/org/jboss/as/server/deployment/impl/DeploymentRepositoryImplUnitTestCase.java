@@ -0,0 +1,174 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.impl;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link DeploymentRepositoryImpl}.
+ */
+public class DeploymentRepositoryImplUnitTestCase {
+
+    private static final int THREADS = 8;
+
+    private File repoRoot;
+    private DeploymentRepositoryImpl repository;
+
+    @Before
+    public void createRepository() throws Exception {
+        repoRoot = File.createTempFile("deployment-repository", "");
+        repoRoot.delete();
+        repository = new DeploymentRepositoryImpl(repoRoot);
+    }
+
+    @After
+    public void deleteRepository() {
+        delete(repoRoot);
+    }
+
+    @Test
+    public void testAddContent() throws Exception {
+        final byte[] content = createContent(1, 200000);
+        final byte[] expected = MessageDigest.getInstance("SHA-1").digest(content);
+        assertFalse(repository.hasDeploymentContent(expected));
+
+        final byte[] hash = repository.addDeploymentContent(new ByteArrayInputStream(content));
+        assertArrayEquals(expected, hash);
+        assertTrue(repository.hasDeploymentContent(hash));
+        assertArrayEquals(content, read(repository.getDeploymentContentFile(hash)));
+    }
+
+    @Test
+    public void testConcurrentAddDistinctContent() throws Exception {
+        final List<byte[]> contents = new ArrayList<byte[]>();
+        for (int i = 0; i < THREADS; i++) {
+            contents.add(createContent(i, 1024 * 1024 + i));
+        }
+        final List<byte[]> hashes = addConcurrently(contents);
+        for (int i = 0; i < THREADS; i++) {
+            final byte[] content = contents.get(i);
+            assertArrayEquals(MessageDigest.getInstance("SHA-1").digest(content), hashes.get(i));
+            assertArrayEquals(content, read(repository.getDeploymentContentFile(hashes.get(i))));
+        }
+        assertNoTempFiles();
+    }
+
+    @Test
+    public void testConcurrentAddSameContent() throws Exception {
+        final byte[] content = createContent(42, 1024 * 1024);
+        final List<byte[]> contents = new ArrayList<byte[]>();
+        for (int i = 0; i < THREADS; i++) {
+            contents.add(content);
+        }
+        final List<byte[]> hashes = addConcurrently(contents);
+        final byte[] expected = MessageDigest.getInstance("SHA-1").digest(content);
+        for (byte[] hash : hashes) {
+            assertArrayEquals(expected, hash);
+        }
+        assertArrayEquals(content, read(repository.getDeploymentContentFile(expected)));
+        assertNoTempFiles();
+    }
+
+    private List<byte[]> addConcurrently(final List<byte[]> contents) throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(contents.size());
+        try {
+            final CountDownLatch latch = new CountDownLatch(1);
+            final List<Future<byte[]>> futures = new ArrayList<Future<byte[]>>();
+            for (final byte[] content : contents) {
+                futures.add(executor.submit(new Callable<byte[]>() {
+                    public byte[] call() throws Exception {
+                        latch.await();
+                        return repository.addDeploymentContent(new ByteArrayInputStream(content));
+                    }
+                }));
+            }
+            latch.countDown();
+            final List<byte[]> hashes = new ArrayList<byte[]>();
+            for (Future<byte[]> future : futures) {
+                hashes.add(future.get());
+            }
+            return hashes;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void assertNoTempFiles() {
+        for (File file : repoRoot.listFiles()) {
+            assertTrue(file.getName(), file.isDirectory());
+        }
+    }
+
+    private static byte[] createContent(final long seed, final int size) {
+        final byte[] content = new byte[size];
+        new Random(seed).nextBytes(content);
+        return content;
+    }
+
+    private static byte[] read(final File file) throws Exception {
+        final byte[] bytes = new byte[(int) file.length()];
+        final InputStream in = new FileInputStream(file);
+        try {
+            int off = 0;
+            int read;
+            while (off < bytes.length && (read = in.read(bytes, off, bytes.length - off)) > -1) {
+                off += read;
+            }
+            assertEquals(bytes.length, off);
+        } finally {
+            in.close();
+        }
+        return bytes;
+    }
+
+    private static void delete(final File file) {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
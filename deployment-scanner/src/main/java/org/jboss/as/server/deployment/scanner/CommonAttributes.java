@@ -31,11 +31,15 @@ interface CommonAttributes {
     String AUTO_DEPLOY_EXPLODED = "auto-deploy-exploded";
     String DEPLOYMENT_SCANNER = "deployment-scanner";
     String DEPLOYMENT_TIMEOUT = "deployment-timeout";
+    String LAST_SCAN_DURATION = "last-scan-duration";
     String NAME = "name";
     String PATH = "path";
     String RELATIVE_TO = "relative-to";
     String SCANNER = "scanner";
     String SCAN_ENABLED = "scan-enabled";
+    String SCAN_COUNT = "scan-count";
     String SCAN_INTERVAL = "scan-interval";
+    String SCAN_ON_CHANGE = "scan-on-change";
+    String TOTAL_SCAN_DURATION = "total-scan-duration";
 
 }
@@ -106,6 +106,10 @@ public class DeploymentScannerExtension implements Extension {
         scanners.registerReadWriteAttribute(Attribute.AUTO_DEPLOY_ZIPPED.getLocalName(), null, WriteAutoDeployZipAttributeHandler.INSTANCE, Storage.CONFIGURATION);
         scanners.registerReadWriteAttribute(Attribute.AUTO_DEPLOY_EXPLODED.getLocalName(), null, WriteAutoDeployExplodedAttributeHandler.INSTANCE, Storage.CONFIGURATION);
         scanners.registerReadWriteAttribute(Attribute.DEPLOYMENT_TIMEOUT.getLocalName(), null, WriteDeploymentTimeoutAttributeHandler.INSTANCE, Storage.CONFIGURATION);
+        scanners.registerReadWriteAttribute(Attribute.SCAN_ON_CHANGE.getLocalName(), null, WriteScanOnChangeAttributeHandler.INSTANCE, Storage.CONFIGURATION);
+        for (final String attributeName : DeploymentScannerMetrics.ATTRIBUTES) {
+            scanners.registerMetric(attributeName, DeploymentScannerMetrics.INSTANCE);
+        }
     }
 
     /** {@inheritDoc} */
@@ -158,6 +162,11 @@ public class DeploymentScannerExtension implements Extension {
                     if (configuration.hasDefined(CommonAttributes.DEPLOYMENT_TIMEOUT)) {
                         writer.writeAttribute(Attribute.DEPLOYMENT_TIMEOUT.getLocalName(), configuration.get(CommonAttributes.DEPLOYMENT_TIMEOUT).asString());
                     }
+                    if (configuration.hasDefined(CommonAttributes.SCAN_ON_CHANGE)) {
+                        if (configuration.get(CommonAttributes.SCAN_ON_CHANGE).asBoolean()) {
+                            writer.writeAttribute(Attribute.SCAN_ON_CHANGE.getLocalName(), Boolean.TRUE.toString());
+                        }
+                    }
                 }
                 writer.writeEndElement();
             }
@@ -208,6 +217,7 @@ public class DeploymentScannerExtension implements Extension {
             Boolean autoDeployZipped = null;
             Boolean autoDeployExploded = null;
             Long deploymentTimeout = null;
+            Boolean scanOnChange = null;
             final int attrCount = reader.getAttributeCount();
             for (int i = 0; i < attrCount; i++) {
                 requireNoNamespaceAttribute(reader, i);
@@ -246,6 +256,10 @@ public class DeploymentScannerExtension implements Extension {
                         deploymentTimeout = Long.parseLong(value);
                         break;
                     }
+                    case SCAN_ON_CHANGE: {
+                        scanOnChange = Boolean.parseBoolean(value);
+                        break;
+                    }
                     default:
                         throw ParseUtils.unexpectedAttribute(reader, i);
                 }
@@ -268,6 +282,7 @@ public class DeploymentScannerExtension implements Extension {
             if (enabled != null) operation.get(CommonAttributes.SCAN_ENABLED).set(enabled.booleanValue());
             if(relativeTo != null) operation.get(CommonAttributes.RELATIVE_TO).set(relativeTo);
             if(deploymentTimeout != null) operation.get(CommonAttributes.DEPLOYMENT_TIMEOUT).set(deploymentTimeout);
+            if (scanOnChange != null) operation.get(CommonAttributes.SCAN_ON_CHANGE).set(scanOnChange.booleanValue());
             list.add(operation);
         }
 
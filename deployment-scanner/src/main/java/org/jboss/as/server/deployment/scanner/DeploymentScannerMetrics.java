@@ -0,0 +1,84 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.scanner;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.server.deployment.scanner.CommonAttributes.LAST_SCAN_DURATION;
+import static org.jboss.as.server.deployment.scanner.CommonAttributes.SCAN_COUNT;
+import static org.jboss.as.server.deployment.scanner.CommonAttributes.TOTAL_SCAN_DURATION;
+
+import org.jboss.as.controller.BasicOperationResult;
+import org.jboss.as.controller.ModelQueryOperationHandler;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationResult;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.ResultHandler;
+import org.jboss.as.controller.RuntimeTask;
+import org.jboss.as.controller.RuntimeTaskContext;
+import org.jboss.as.controller.operations.common.Util;
+import org.jboss.as.server.deployment.scanner.api.DeploymentScanner;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceController;
+
+/**
+ * Reads the scan statistics of a {@code DeploymentScanner}. Durations are reported in milliseconds.
+ */
+class DeploymentScannerMetrics implements ModelQueryOperationHandler {
+
+    static final DeploymentScannerMetrics INSTANCE = new DeploymentScannerMetrics();
+
+    static final String[] ATTRIBUTES = new String[] {SCAN_COUNT, LAST_SCAN_DURATION, TOTAL_SCAN_DURATION};
+
+    /** {@inheritDoc} */
+    @Override
+    public OperationResult execute(final OperationContext context, final ModelNode operation, final ResultHandler resultHandler) throws OperationFailedException {
+        if (context.getRuntimeContext() != null) {
+            context.getRuntimeContext().setRuntimeTask(new RuntimeTask() {
+                public void execute(RuntimeTaskContext context) throws OperationFailedException {
+                    final String name = PathAddress.pathAddress(operation.require(OP_ADDR)).getLastElement().getValue();
+                    final String attributeName = operation.require(NAME).asString();
+                    final ServiceController<?> controller = context.getServiceRegistry().getService(DeploymentScannerService.getServiceName(name));
+                    final ModelNode result = new ModelNode();
+                    if (controller != null && controller.getState() == ServiceController.State.UP) {
+                        final DeploymentScanner scanner = (DeploymentScanner) controller.getValue();
+                        if (SCAN_COUNT.equals(attributeName)) {
+                            result.set(scanner.getScanCount());
+                        } else if (LAST_SCAN_DURATION.equals(attributeName)) {
+                            result.set(scanner.getLastScanDuration());
+                        } else if (TOTAL_SCAN_DURATION.equals(attributeName)) {
+                            result.set(scanner.getTotalScanDuration());
+                        }
+                    }
+                    resultHandler.handleResultFragment(Util.NO_LOCATION, result);
+                    resultHandler.handleResultComplete();
+                }
+            });
+        } else {
+            resultHandler.handleResultFragment(Util.NO_LOCATION, new ModelNode().set("no metrics available"));
+            resultHandler.handleResultComplete();
+        }
+        return new BasicOperationResult();
+    }
+}
@@ -82,6 +82,8 @@ class DeploymentScannerRemove implements ModelRemoveOperationHandler, Descriptio
             compensatingOperation.get(CommonAttributes.AUTO_DEPLOY_EXPLODED).set(subModel.get(CommonAttributes.AUTO_DEPLOY_EXPLODED));
         if (subModel.hasDefined(CommonAttributes.DEPLOYMENT_TIMEOUT))
             compensatingOperation.get(CommonAttributes.DEPLOYMENT_TIMEOUT).set(subModel.get(CommonAttributes.DEPLOYMENT_TIMEOUT));
+        if (subModel.hasDefined(CommonAttributes.SCAN_ON_CHANGE))
+            compensatingOperation.get(CommonAttributes.SCAN_ON_CHANGE).set(subModel.get(CommonAttributes.SCAN_ON_CHANGE));
 
 
         if (context.getRuntimeContext() != null) {
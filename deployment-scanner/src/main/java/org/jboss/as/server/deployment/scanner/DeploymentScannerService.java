@@ -59,6 +59,7 @@ public class DeploymentScannerService implements Service<DeploymentScanner> {
     private boolean autoDeployZipped;
     private boolean autoDeployExploded;
     private Long deploymentTimeout;
+    private boolean scanOnChange;
 
     /** The created scanner. */
     private DeploymentScanner scanner;
@@ -82,11 +83,12 @@ public class DeploymentScannerService implements Service<DeploymentScanner> {
      * @param scanInterval the scan interval
      * @param scanEnabled scan enabled
      * @param deploymentTimeout the deployment timeout
+     * @param scanOnChange whether to scan only when the directory changes
      * @return
      */
     public static void addService(final ServiceTarget serviceTarget, final String name, final String relativeTo, final String path,
-            final Integer scanInterval, TimeUnit unit, final Boolean autoDeployZip, final Boolean autoDeployExploded, final Boolean scanEnabled, final Long deploymentTimeout) {
-        final DeploymentScannerService service = new DeploymentScannerService(scanInterval, unit, autoDeployZip, autoDeployExploded, scanEnabled, deploymentTimeout);
+            final Integer scanInterval, TimeUnit unit, final Boolean autoDeployZip, final Boolean autoDeployExploded, final Boolean scanEnabled, final Long deploymentTimeout, final Boolean scanOnChange) {
+        final DeploymentScannerService service = new DeploymentScannerService(scanInterval, unit, autoDeployZip, autoDeployExploded, scanEnabled, deploymentTimeout, scanOnChange);
         final ServiceName serviceName = getServiceName(name);
         final ServiceName pathService = serviceName.append("path");
 
@@ -108,13 +110,14 @@ public class DeploymentScannerService implements Service<DeploymentScanner> {
     }
 
     DeploymentScannerService(final Integer interval, final TimeUnit unit, final Boolean autoDeployZipped,
-            final Boolean autoDeployExploded, final Boolean enabled, final Long deploymentTimeout) {
+            final Boolean autoDeployExploded, final Boolean enabled, final Long deploymentTimeout, final Boolean scanOnChange) {
         this.interval = interval == null ? DEFAULT_INTERVAL : interval.longValue();
         this.unit = unit;
         this.autoDeployZipped = autoDeployZipped == null ? true : autoDeployZipped.booleanValue();
         this.autoDeployExploded = autoDeployExploded == null ? false : autoDeployExploded.booleanValue();
         this.enabled = enabled == null ? true : enabled.booleanValue();
         this.deploymentTimeout = deploymentTimeout;
+        this.scanOnChange = scanOnChange == null ? false : scanOnChange.booleanValue();
     }
 
 
@@ -128,6 +131,7 @@ public class DeploymentScannerService implements Service<DeploymentScanner> {
             scanner.setScanInterval(unit.toMillis(interval));
             scanner.setAutoDeployExplodedContent(autoDeployExploded);
             scanner.setAutoDeployZippedContent(autoDeployZipped);
+            scanner.setScanOnChange(scanOnChange);
             if(deploymentTimeout != null) {
                 scanner.setDeploymentTimeout(deploymentTimeout);
             }
@@ -136,6 +136,16 @@ public class DeploymentSubsystemDescriptions {
         root.get(ATTRIBUTES, DEPLOYMENT_TIMEOUT, DESCRIPTION).set(bundle.getString("scanner.deployment.timeout"));
         root.get(ATTRIBUTES, DEPLOYMENT_TIMEOUT, REQUIRED).set(false);
         root.get(ATTRIBUTES, DEPLOYMENT_TIMEOUT, DEFAULT).set(60L);
+        root.get(ATTRIBUTES, SCAN_ON_CHANGE, TYPE).set(ModelType.BOOLEAN);
+        root.get(ATTRIBUTES, SCAN_ON_CHANGE, DESCRIPTION).set(bundle.getString("scanner.scan-on-change"));
+        root.get(ATTRIBUTES, SCAN_ON_CHANGE, REQUIRED).set(false);
+        root.get(ATTRIBUTES, SCAN_ON_CHANGE, DEFAULT).set(false);
+        root.get(ATTRIBUTES, SCAN_COUNT, TYPE).set(ModelType.LONG);
+        root.get(ATTRIBUTES, SCAN_COUNT, DESCRIPTION).set(bundle.getString("scanner.scan-count"));
+        root.get(ATTRIBUTES, LAST_SCAN_DURATION, TYPE).set(ModelType.LONG);
+        root.get(ATTRIBUTES, LAST_SCAN_DURATION, DESCRIPTION).set(bundle.getString("scanner.last-scan-duration"));
+        root.get(ATTRIBUTES, TOTAL_SCAN_DURATION, TYPE).set(ModelType.LONG);
+        root.get(ATTRIBUTES, TOTAL_SCAN_DURATION, DESCRIPTION).set(bundle.getString("scanner.total-scan-duration"));
 
         root.get(OPERATIONS);
 
@@ -177,6 +187,10 @@ public class DeploymentSubsystemDescriptions {
         operation.get(REQUEST_PROPERTIES, DEPLOYMENT_TIMEOUT, DESCRIPTION).set(bundle.getString("scanner.deployment.timeout"));
         operation.get(REQUEST_PROPERTIES, DEPLOYMENT_TIMEOUT, REQUIRED).set(false);
         operation.get(REQUEST_PROPERTIES, DEPLOYMENT_TIMEOUT, DEFAULT).set(60L);
+        operation.get(REQUEST_PROPERTIES, SCAN_ON_CHANGE, TYPE).set(ModelType.BOOLEAN);
+        operation.get(REQUEST_PROPERTIES, SCAN_ON_CHANGE, DESCRIPTION).set(bundle.getString("scanner.scan-on-change"));
+        operation.get(REQUEST_PROPERTIES, SCAN_ON_CHANGE, REQUIRED).set(false);
+        operation.get(REQUEST_PROPERTIES, SCAN_ON_CHANGE, DEFAULT).set(false);
 
         operation.get(REPLY_PROPERTIES).setEmptyObject();
 
@@ -0,0 +1,120 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.scanner;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * A cheap record of the name, size and modification time of everything a deployment scan looks at. Comparing two
+ * snapshots tells whether a full scan, which also queries the management model and checks archive completeness,
+ * could find anything new.
+ * <p>
+ * The contents of exploded deployments are only recorded when they are auto-deployed; otherwise a change to them
+ * needs a marker file to take effect, and the marker is recorded.
+ */
+final class DirectorySnapshot {
+
+    private final Map<String, Stamp> stamps;
+
+    private DirectorySnapshot(final Map<String, Stamp> stamps) {
+        this.stamps = stamps;
+    }
+
+    /**
+     * Take a snapshot of a deployment directory.
+     *
+     * @param directory the deployment directory
+     * @param filter the filter applied by the scanner
+     * @param archivePattern the pattern matching deployment names
+     * @param includeExploded {@code true} to record the contents of exploded deployments
+     * @param maxEntries the most entries to record
+     * @return the snapshot, or {@code null} if the directory holds more than {@code maxEntries} entries
+     */
+    static DirectorySnapshot create(final File directory, final FileFilter filter, final Pattern archivePattern,
+            final boolean includeExploded, final int maxEntries) {
+        final Map<String, Stamp> stamps = new HashMap<String, Stamp>();
+        if (!record(directory, filter, archivePattern, includeExploded, maxEntries, stamps)) {
+            return null;
+        }
+        return new DirectorySnapshot(stamps);
+    }
+
+    private static boolean record(final File directory, final FileFilter filter, final Pattern archivePattern,
+            final boolean includeExploded, final int maxEntries, final Map<String, Stamp> stamps) {
+        final File[] children = directory.listFiles(filter);
+        if (children == null) {
+            return true;
+        }
+        for (File child : children) {
+            if (stamps.size() >= maxEntries) {
+                return false;
+            }
+            final boolean isDirectory = child.isDirectory();
+            stamps.put(child.getPath(), new Stamp(child.lastModified(), isDirectory ? -1L : child.length()));
+            if (isDirectory && (includeExploded || !archivePattern.matcher(child.getName()).matches())) {
+                if (!record(child, filter, archivePattern, includeExploded, maxEntries, stamps)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        return obj instanceof DirectorySnapshot && stamps.equals(((DirectorySnapshot) obj).stamps);
+    }
+
+    @Override
+    public int hashCode() {
+        return stamps.hashCode();
+    }
+
+    private static final class Stamp {
+        private final long lastModified;
+        private final long length;
+
+        private Stamp(final long lastModified, final long length) {
+            this.lastModified = lastModified;
+            this.length = length;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (!(obj instanceof Stamp)) {
+                return false;
+            }
+            final Stamp other = (Stamp) obj;
+            return lastModified == other.lastModified && length == other.length;
+        }
+
+        @Override
+        public int hashCode() {
+            return (int) (lastModified ^ (lastModified >>> 32)) * 31 + (int) (length ^ (length >>> 32));
+        }
+    }
+}
@@ -103,11 +103,18 @@ class FileSystemDeploymentService implements DeploymentScanner {
     /** Default timeout for deployments to execute in seconds*/
     static final long DEFAULT_DEPLOYMENT_TIMEOUT = 60;
 
+    /** Max period, in ms, a changed deployment directory is given to settle before it is scanned in scan-on-change mode */
+    static final long CHANGE_SETTLE_DELAY = 500;
+
+    /** Max entries recorded by a {@link DirectorySnapshot} before scan-on-change mode falls back to scanning every interval */
+    static final int MAX_SNAPSHOT_ENTRIES = 10000;
+
     private File deploymentDir;
     private long scanInterval = 0;
     private volatile boolean scanEnabled = false;
     private ScheduledFuture<?> scanTask;
     private ScheduledFuture<?> rescanIncompleteTask;
+    private ScheduledFuture<?> recheckChangesTask;
     private final Lock scanLock = new ReentrantLock();
 
     private final Map<String, DeploymentMarker> deployed = new HashMap<String, DeploymentMarker>();
@@ -127,11 +134,27 @@ class FileSystemDeploymentService implements DeploymentScanner {
 
     private volatile long deploymentTimeout = DEFAULT_DEPLOYMENT_TIMEOUT;
 
+    private volatile boolean scanOnChange;
+    /** Snapshot taken by the last full scan; guarded by scanLock */
+    private DirectorySnapshot scannedSnapshot;
+    /** Changed snapshot waiting to settle; guarded by scanLock */
+    private DirectorySnapshot pendingSnapshot;
+    /** Whether the last full scan left work that needs a rescan even if nothing changes; guarded by scanLock */
+    private boolean rescanRequired;
+    private boolean snapshotOverflowLogged;
+    private volatile long scanCount;
+    private volatile long lastScanDuration;
+    private volatile long totalScanDuration;
+
     private final Runnable scanRunnable = new Runnable() {
         @Override
         public void run() {
             try {
-                scan();
+                if (scanOnChange) {
+                    scanIfChanged();
+                } else {
+                    scan();
+                }
             } catch (Exception e) {
                 log.errorf(e, "Scan of %s threw Exception", deploymentDir.getAbsolutePath());
             }
@@ -219,6 +242,31 @@ class FileSystemDeploymentService implements DeploymentScanner {
         this.deploymentTimeout = deploymentTimeout;
     }
 
+    @Override
+    public boolean isScanOnChange() {
+        return scanOnChange;
+    }
+
+    @Override
+    public void setScanOnChange(boolean scanOnChange) {
+        this.scanOnChange = scanOnChange;
+    }
+
+    @Override
+    public long getScanCount() {
+        return scanCount;
+    }
+
+    @Override
+    public long getLastScanDuration() {
+        return lastScanDuration;
+    }
+
+    @Override
+    public long getTotalScanDuration() {
+        return totalScanDuration;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -269,6 +317,57 @@ class FileSystemDeploymentService implements DeploymentScanner {
         }
     }
 
+    /**
+     * Run a full scan if a {@link DirectorySnapshot snapshot} of the deployment directory shows it changed since the
+     * last full scan and has then remained unchanged for one check, so content still being copied is not scanned on
+     * every change. If the directory holds too many entries to snapshot cheaply, every check is a full scan.
+     * <p>
+     * This method isn't private solely to allow a unit test in the same package to call it
+     */
+    void scanIfChanged() {
+        final DirectorySnapshot snapshot = takeSnapshot();
+
+        try {
+            scanLock.lockInterruptibly();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        boolean scheduleRecheck = false;
+        try {
+            if (snapshot == null || scannedSnapshot == null || rescanRequired || snapshot.equals(pendingSnapshot)) {
+                scan();
+            } else if (snapshot.equals(scannedSnapshot)) {
+                pendingSnapshot = null;
+            } else {
+                log.tracef("Change detected in %s; waiting for it to settle", deploymentDir.getAbsolutePath());
+                pendingSnapshot = snapshot;
+                scheduleRecheck = scanInterval > CHANGE_SETTLE_DELAY;
+            }
+        } finally {
+            scanLock.unlock();
+
+            if (scheduleRecheck) {
+                synchronized (this) {
+                    if (scanEnabled) {
+                        recheckChangesTask = scheduledExecutor.schedule(scanRunnable, CHANGE_SETTLE_DELAY, TimeUnit.MILLISECONDS);
+                    }
+                }
+            }
+        }
+    }
+
+    private DirectorySnapshot takeSnapshot() {
+        final DirectorySnapshot snapshot = DirectorySnapshot.create(deploymentDir, filter, ARCHIVE_PATTERN, autoDeployExploded, MAX_SNAPSHOT_ENTRIES);
+        if (snapshot == null && !snapshotOverflowLogged) {
+            snapshotOverflowLogged = true;
+            log.infof("%s holds more than %d entries; it will be fully scanned every %d ms rather than only on change",
+                    deploymentDir.getAbsolutePath(), MAX_SNAPSHOT_ENTRIES, scanInterval);
+        }
+        return snapshot;
+    }
+
     /** This method isn't private solely to allow a unit test in the same package to call it */
     void scan() {
 
@@ -280,10 +379,19 @@ class FileSystemDeploymentService implements DeploymentScanner {
         }
 
         boolean scheduleRescan = false;
+        boolean scanned = false;
+        final long start = System.nanoTime();
         try {
             if (scanEnabled) { // confirm the scan is still wanted
                 log.tracef("Scanning directory %s for deployment content changes", deploymentDir.getAbsolutePath());
 
+                if (scanOnChange) {
+                    // taken before the scan, so anything changed while scanning triggers another one
+                    scannedSnapshot = takeSnapshot();
+                    pendingSnapshot = null;
+                }
+                rescanRequired = true;
+
                 ScanContext scanContext = new ScanContext();
                 scanDirectory(deploymentDir, scanContext);
 
@@ -306,6 +414,8 @@ class FileSystemDeploymentService implements DeploymentScanner {
 
                 // Deal with any incomplete or non-scannable auto-deploy content
                 ScanStatus status = handleAutoDeployFailures(scanContext);
+                // incomplete content has to be rechecked for progress even if nothing changes
+                rescanRequired = status != ScanStatus.PROCEED || !incompleteDeployments.isEmpty();
                 if (status != ScanStatus.PROCEED) {
                     if (status == ScanStatus.RETRY && scanInterval > 1000) {
                         // in finally block, schedule a non-repeating task to try again more quickly
@@ -380,8 +490,16 @@ class FileSystemDeploymentService implements DeploymentScanner {
                     }
                 }
                 log.tracef("Scan complete");
+                scanned = true;
             }
         } finally {
+            // only full scans count; skipped scans and scans deferred by incomplete content do not
+            if (scanned) {
+                final long duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                lastScanDuration = duration;
+                totalScanDuration += duration;
+                scanCount++;
+            }
             scanLock.unlock();
 
             if (scheduleRescan) {
@@ -689,6 +807,10 @@ class FileSystemDeploymentService implements DeploymentScanner {
             rescanIncompleteTask.cancel(false);
             rescanIncompleteTask = null;
         }
+        if (recheckChangesTask != null) {
+            recheckChangesTask.cancel(false);
+            recheckChangesTask = null;
+        }
         if (scanTask != null) {
             scanTask.cancel(false);
             scanTask = null;
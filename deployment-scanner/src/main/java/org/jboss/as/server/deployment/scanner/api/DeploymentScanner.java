@@ -106,4 +106,42 @@ public interface DeploymentScanner {
      * @param timeout The deployment timeout
      */
     void setDeploymentTimeout(long timeout);
+
+    /**
+     * Gets whether a periodic scan is skipped unless a cheap check of the names, sizes and modification times in the
+     * scanned directory finds a change.
+     *
+     * @return true if the scanner only scans on change
+     */
+    boolean isScanOnChange();
+
+    /**
+     * Sets whether a periodic scan is skipped unless a cheap check of the names, sizes and modification times in the
+     * scanned directory finds a change.
+     *
+     * @param scanOnChange true if the scanner should only scan on change
+     */
+    void setScanOnChange(boolean scanOnChange);
+
+    /**
+     * Get the number of full scans performed.  Scans which are skipped because scanning is disabled, or deferred
+     * because deployment content is incomplete, are not counted.
+     *
+     * @return the scan count
+     */
+    long getScanCount();
+
+    /**
+     * Get the duration of the last full scan, including the deployment operations it triggered.
+     *
+     * @return the duration in ms
+     */
+    long getLastScanDuration();
+
+    /**
+     * Get the total duration of all full scans.
+     *
+     * @return the duration in ms
+     */
+    long getTotalScanDuration();
 }
@@ -939,6 +939,99 @@ public class FileSystemDeploymentServiceUnitTestCase {
         assertTrue(failed.exists());
     }
 
+    @Test
+    public void testScanOnChange() throws Exception {
+        TesteeSet ts = createTestee();
+        ts.testee.setScanOnChange(true);
+
+        // The first check always scans
+        ts.testee.scanIfChanged();
+        assertEquals(1, ts.testee.getScanCount());
+
+        // Nothing changed
+        ts.testee.scanIfChanged();
+        assertEquals(1, ts.testee.getScanCount());
+
+        File war = createFile("foo.war");
+        File dodeploy = createFile("foo.war" + FileSystemDeploymentService.DO_DEPLOY);
+        File deployed = new File(tmpDir, "foo.war" + FileSystemDeploymentService.DEPLOYED);
+
+        // A change is only scanned once it has settled
+        ts.testee.scanIfChanged();
+        assertEquals(1, ts.testee.getScanCount());
+        assertTrue(dodeploy.exists());
+
+        ts.controller.addCompositeSuccessResponse(1);
+        ts.testee.scanIfChanged();
+        assertEquals(2, ts.testee.getScanCount());
+        assertEquals(1, ts.repo.content.size());
+        assertTrue(war.exists());
+        assertFalse(dodeploy.exists());
+        assertTrue(deployed.exists());
+    }
+
+    @Test
+    public void testScanOnChangeUndeploy() throws Exception {
+        File war = createFile("foo.war");
+        File dodeploy = createFile("foo.war" + FileSystemDeploymentService.DO_DEPLOY);
+        File deployed = new File(tmpDir, "foo.war" + FileSystemDeploymentService.DEPLOYED);
+        File undeployed = new File(tmpDir, "foo.war" + FileSystemDeploymentService.UNDEPLOYED);
+        TesteeSet ts = createTestee();
+        ts.testee.setScanOnChange(true);
+
+        ts.controller.addCompositeSuccessResponse(1);
+        ts.testee.scanIfChanged();
+        assertTrue(war.exists());
+        assertFalse(dodeploy.exists());
+        assertTrue(deployed.exists());
+
+        // Let the markers written by the deployment settle
+        ts.testee.scanIfChanged();
+        ts.testee.scanIfChanged();
+        final long scans = ts.testee.getScanCount();
+        ts.testee.scanIfChanged();
+        assertEquals(scans, ts.testee.getScanCount());
+
+        // Removing the .deployed marker undeploys once the change settles
+        assertTrue(deployed.delete());
+        ts.controller.addCompositeSuccessResponse(1);
+        ts.testee.scanIfChanged();
+        assertEquals(scans, ts.testee.getScanCount());
+        assertFalse(undeployed.exists());
+        ts.testee.scanIfChanged();
+        assertEquals(scans + 1, ts.testee.getScanCount());
+        assertTrue(undeployed.exists());
+        assertTrue(ts.controller.deployed.isEmpty());
+    }
+
+    @Test
+    public void testScanMetrics() throws Exception {
+        File incomplete = new File(tmpDir, "foo.war");
+        File deployed = new File(tmpDir, "foo.war" + FileSystemDeploymentService.DEPLOYED);
+        testSupport.createZip(incomplete, 0, false, true, true, false);
+        TesteeSet ts = createTestee();
+        ts.testee.setAutoDeployZippedContent(true);
+
+        // A scan deferred by incomplete content is not counted
+        ts.testee.scan();
+        assertFalse(deployed.exists());
+        assertEquals(0, ts.testee.getScanCount());
+        assertEquals(0, ts.testee.getTotalScanDuration());
+
+        incomplete.delete();
+        testSupport.createZip(incomplete, 0, false, false, false, false);
+        ts.controller.addCompositeSuccessResponse(1);
+        ts.testee.scan();
+        assertTrue(deployed.exists());
+        assertEquals(1, ts.testee.getScanCount());
+        assertEquals(ts.testee.getLastScanDuration(), ts.testee.getTotalScanDuration());
+
+        // Nor is a scan once scanning is disabled
+        ts.testee.stopScanner();
+        ts.testee.scan();
+        assertEquals(1, ts.testee.getScanCount());
+    }
+
     private TesteeSet createTestee(String... existingContent) throws OperationFailedException {
         return createTestee(new MockServerController(new MockDeploymentRepository(), existingContent));
     }
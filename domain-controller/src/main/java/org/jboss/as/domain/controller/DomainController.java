@@ -41,12 +41,16 @@ public interface DomainController extends ModelController {
      * Registers a Host Controller with this domain controller.
      *
      * @param hostControllerClient client the domain controller can use to communicate with the Host Controller.
+     * @param modelEpoch the {@link DomainModelUpdate#getEpoch() epoch} of the domain model the Host Controller
+     *                   received when it last registered with this domain controller, or {@code null} if it
+     *                   has no copy of the domain model
      *
-     * @return a copy of the domain level model
+     * @return either a copy of the domain level model or the operations the Host Controller missed since
+     *         it last registered
      * @throws IllegalArgumentException if there already exists a host controller with the same id as
      * <code>hostControllerClient</code>
      */
-    ModelNode addClient(final DomainControllerSlaveClient hostControllerClient);
+    DomainModelUpdate addClient(final DomainControllerSlaveClient hostControllerClient, final String modelEpoch);
 
     /**
      * Deregisters a previously registered Host Controller.
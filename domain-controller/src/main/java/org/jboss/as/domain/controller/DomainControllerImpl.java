@@ -38,6 +38,7 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HOS
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.IGNORED;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.INPUT_STREAM_INDEX;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.IN_SERIES;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MAX_CONCURRENT_SERVERS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MAX_FAILED_SERVERS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MAX_FAILURE_PERCENTAGE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
@@ -91,6 +92,7 @@ import org.jboss.as.controller.client.Operation;
 import org.jboss.as.controller.client.OperationBuilder;
 import org.jboss.as.controller.operations.common.Util;
 import org.jboss.as.domain.controller.operations.deployment.DeploymentFullReplaceHandler;
+import org.jboss.as.domain.controller.operations.deployment.DeploymentHasContentHandler;
 import org.jboss.as.domain.controller.operations.deployment.DeploymentUploadBytesHandler;
 import org.jboss.as.domain.controller.operations.deployment.DeploymentUploadStreamAttachmentHandler;
 import org.jboss.as.domain.controller.operations.deployment.DeploymentUploadURLHandler;
@@ -131,6 +133,7 @@ public class DomainControllerImpl extends AbstractModelController<Void> implemen
         deploymentOps.add(DeploymentUploadBytesHandler.OPERATION_NAME);
         deploymentOps.add(DeploymentUploadStreamAttachmentHandler.OPERATION_NAME);
         deploymentOps.add(DeploymentUploadURLHandler.OPERATION_NAME);
+        deploymentOps.add(DeploymentHasContentHandler.OPERATION_NAME);
         DEPLOYMENT_OPS = Collections.unmodifiableSet(deploymentOps);
     }
 
@@ -141,10 +144,11 @@ public class DomainControllerImpl extends AbstractModelController<Void> implemen
     private final FileRepository fileRepository;
     private final DeploymentRepository deploymentRepository;
     private final MasterDomainControllerClient masterDomainControllerClient;
+    private final DomainModelHistory modelHistory = new DomainModelHistory();
     private final ServerOperationExecutor serverOperationExecutor = new ServerOperationExecutor() {
         @Override
-        public ModelNode executeServerOperation(ServerIdentity server, Operation operation) {
-            return executeOnHost(server.getHostName(), operation, (ControllerTransactionContext) null);
+        public OperationResult executeServerOperation(ServerIdentity server, Operation operation, ResultHandler handler) {
+            return executeOnHost(server.getHostName(), operation, handler);
         }
     };
 
@@ -175,13 +179,18 @@ public class DomainControllerImpl extends AbstractModelController<Void> implemen
 
     /** {@inheritDoc} */
     @Override
-    public ModelNode addClient(final DomainControllerSlaveClient client) {
+    public DomainModelUpdate addClient(final DomainControllerSlaveClient client, final String modelEpoch) {
         Logger.getLogger("org.jboss.domain").info("register host " + client.getId());
         if (hosts.containsKey(client.getId()) || localHostName.equals(client.getId())){
             throw new IllegalArgumentException("There is already a host named '" + client.getId() + "'");
         }
         this.hosts.put(client.getId(), client);
-        return localDomainModel.getDomainModel();
+
+        final DomainModelUpdate update = modelHistory.register(client.getId(), modelEpoch, localDomainModel);
+        if (!update.isFullModel()) {
+            log.debugf("Sending %d domain operation(s) missed by host %s", Integer.valueOf(update.getOperations().size()), client.getId());
+        }
+        return update;
     }
 
     /** {@inheritDoc} */
@@ -299,33 +308,51 @@ public class DomainControllerImpl extends AbstractModelController<Void> implemen
             return new BasicOperationResult(domainResult.compensatingOperation);
         }
 
-        // Push to servers (via hosts)
-        RolloutPlanController controller = new RolloutPlanController(domainResult.opsByGroup, domainResult.rolloutPlan, handler, serverOperationExecutor, scheduledExecutorService, false);
-        RolloutPlanController.Result controllerResult = controller.execute();
-
-        // Rollback if necessary
-        switch (controllerResult) {
-            case FAILED: {
-                controller.rollback();
-                handler.handleFailed(new ModelNode().set("Operation was not applied successfully to any servers"));
-                return new BasicOperationResult(domainResult.compensatingOperation);
-            }
-            case PARTIAL: {
-                controller.rollback();
-                // fall through
-            }
-            case SUCCESS: {
-                handler.handleResultComplete();
-                return new BasicOperationResult(domainResult.compensatingOperation);
+        // Push to servers (via hosts); the rollout completes the handler once all servers have responded
+        final RolloutPlanController controller = new RolloutPlanController(domainResult.opsByGroup, domainResult.rolloutPlan, handler, serverOperationExecutor, scheduledExecutorService, false);
+        controller.execute(new RolloutPlanController.ResultCallback() {
+            @Override
+            public void handleResult(final RolloutPlanController.Result controllerResult) {
+                try {
+                    // Rollback if necessary
+                    switch (controllerResult) {
+                        case FAILED: {
+                            controller.rollback(new RolloutPlanController.ResultCallback() {
+                                @Override
+                                public void handleResult(final RolloutPlanController.Result rollbackResult) {
+                                    handler.handleFailed(new ModelNode().set("Operation was not applied successfully to any servers"));
+                                }
+                            });
+                            break;
+                        }
+                        case PARTIAL: {
+                            controller.rollback(new RolloutPlanController.ResultCallback() {
+                                @Override
+                                public void handleResult(final RolloutPlanController.Result rollbackResult) {
+                                    handler.handleResultComplete();
+                                }
+                            });
+                            break;
+                        }
+                        case SUCCESS: {
+                            handler.handleResultComplete();
+                            break;
+                        }
+                        default:
+                            throw new IllegalStateException(String.format("Unknown %s %s", RolloutPlanController.Result.class.getCanonicalName(), controllerResult));
+                    }
+                } catch (final Throwable t) {
+                    log.errorf(t, "operation (%s) failed - address: (%s)", operation.getOperation().get(OP), operation.getOperation().get(OP_ADDR));
+                    handler.handleFailed(getFailureResult(t));
+                }
             }
-            default:
-                throw new IllegalStateException(String.format("Unknown %s %s", RolloutPlanController.Result.class.getCanonicalName(), controllerResult));
-        }
-
+        });
+        return new BasicOperationResult(domainResult.compensatingOperation);
     }
 
     private DomainLevelResult executeOnDomainControllers(Operation operation, ResultHandler handler, OperationRouting routing) throws OperationFailedException {
         ControllerTransaction  transaction = new ControllerTransaction();
+        Map<String, ModelNode> hostResults = null;
         try {
             ModelNode operationNode = operation.getOperation();
             // Get a copy of the rollout plan so it doesn't get disrupted by any handlers
@@ -334,7 +361,6 @@ public class DomainControllerImpl extends AbstractModelController<Void> implemen
 
             // System.out.println("---- Push to hosts");
             // Push to hosts, formulate plan, push to servers
-            Map<String, ModelNode> hostResults = null;
             try {
                 hostResults = pushToHosts(operation, routing, transaction);
             }
@@ -419,8 +445,37 @@ public class DomainControllerImpl extends AbstractModelController<Void> implemen
             throw ofe;
         } finally {
             transaction.commit();
+            if (hostResults != null && !transaction.isRollbackOnly()) {
+                recordDomainOperation(operation.getOperation(), hostResults);
+            }
+        }
+
+    }
+
+    /**
+     * Records a committed operation in the domain model history, if it modified the domain level model, so
+     * hosts that were not connected at the time can catch up with it when they register again.
+     */
+    private void recordDomainOperation(final ModelNode operation, final Map<String, ModelNode> hostResults) {
+        if (masterDomainControllerClient != null || !isDomainOperation(operation)) {
+            return;
         }
+        final Set<String> hosts = new HashSet<String>(hostResults.keySet());
+        hosts.remove(localHostName);
+        modelHistory.record(operation, hosts);
+    }
 
+    private static boolean isDomainOperation(final ModelNode operation) {
+        if (COMPOSITE.equals(operation.require(OP).asString()) && operation.hasDefined(STEPS)) {
+            for (ModelNode step : operation.get(STEPS).asList()) {
+                if (isDomainOperation(step)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        final PathAddress address = PathAddress.pathAddress(operation.get(OP_ADDR));
+        return address.size() == 0 || !HOST.equals(address.getElement(0).getKey());
     }
 
     @Override
@@ -538,6 +593,27 @@ public class DomainControllerImpl extends AbstractModelController<Void> implemen
         ((DomainModelImpl) localDomainModel).setInitialDomainModel(initialModel);
     }
 
+    @Override
+    public boolean applyDomainOperations(final List<ModelNode> operations) {
+        if (masterDomainControllerClient == null) {
+            throw new IllegalStateException("Cannot apply domain operations on non-slave DomainController");
+        }
+        for (ModelNode operation : operations) {
+            final ControllerTransaction transaction = new ControllerTransaction();
+            try {
+                final ModelNode result = localDomainModel.executeForDomain(OperationBuilder.Factory.create(operation).build(), transaction);
+                if (result.hasDefined(OUTCOME) && FAILED.equals(result.get(OUTCOME).asString())) {
+                    transaction.setRollbackOnly();
+                    log.warnf("Failed applying domain operation (%s) - address: (%s): %s", operation.get(OP), operation.get(OP_ADDR), result.get(FAILURE_DESCRIPTION));
+                    return false;
+                }
+            } finally {
+                transaction.commit();
+            }
+        }
+        return true;
+    }
+
     private Map<String, ModelNode> pushToHosts(Operation operation, final OperationRouting routing,
             final ControllerTransaction transaction) throws Exception {
 
@@ -756,6 +832,12 @@ public class DomainControllerImpl extends AbstractModelController<Void> implemen
                 throw new OperationFailedException(new ModelNode().set(String.format("Invalid rollout plan. Server group %s has a %s value of %s; cannot be less than 0.", prop.getName(), MAX_FAILED_SERVERS, max)));
             }
         }
+        if (plan.hasDefined(MAX_CONCURRENT_SERVERS)) {
+            int max = plan.get(MAX_CONCURRENT_SERVERS).asInt();
+            if (max < 1) {
+                throw new OperationFailedException(new ModelNode().set(String.format("Invalid rollout plan. Server group %s has a %s value of %s; cannot be less than 1.", prop.getName(), MAX_CONCURRENT_SERVERS, max)));
+            }
+        }
     }
 
     private ModelNode getDefaultRolloutPlan(Map<String, Map<ServerIdentity, ModelNode>> opsByGroup) {
@@ -3,6 +3,8 @@
  */
 package org.jboss.as.domain.controller;
 
+import java.util.List;
+
 import org.jboss.as.controller.TransactionalModelController;
 import org.jboss.dmr.ModelNode;
 
@@ -19,4 +21,13 @@ public interface DomainControllerSlave extends TransactionalModelController {
      * @param initialModel the model. Will not be {@code null}
      */
     void setInitialDomainModel(ModelNode initialModel);
+
+    /**
+     * Applies domain level operations committed by the master while this slave was not connected to it.
+     *
+     * @param operations the operations, in the order they need to be applied. Will not be {@code null}
+     * @return {@code true} if all operations were applied, {@code false} if one of them failed, in which case
+     *         the domain model of the slave no longer matches the one of the master
+     */
+    boolean applyDomainOperations(List<ModelNode> operations);
 }
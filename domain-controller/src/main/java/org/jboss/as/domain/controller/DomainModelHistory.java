@@ -0,0 +1,148 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.controller;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Bounded log of the domain level operations committed by the master domain controller. Each recorded
+ * operation advances the domain model revision by one, which allows a host controller that was disconnected
+ * for a while to catch up by replaying the operations it missed, rather than fetching the complete domain model.
+ * <p>
+ * Revisions are only meaningful within a single master domain controller process; the history is identified
+ * by a random epoch so that revisions handed out by a previous master are never mistaken for current ones.
+ * The history also tracks the revision each host controller is known to have applied, which is the revision
+ * the host registered at or the revision of the last operation pushed to it.
+ */
+public class DomainModelHistory {
+
+    /** The default maximum number of operations retained. */
+    public static final int DEFAULT_MAX_OPERATIONS = 1000;
+
+    private final String epoch = UUID.randomUUID().toString();
+    private final int maxOperations;
+    /** The operations for revisions {@code (revision - operations.size(), revision]} */
+    private final LinkedList<ModelNode> operations = new LinkedList<ModelNode>();
+    private final Map<String, Long> hostRevisions = new HashMap<String, Long>();
+    private long revision;
+
+    public DomainModelHistory() {
+        this(DEFAULT_MAX_OPERATIONS);
+    }
+
+    public DomainModelHistory(final int maxOperations) {
+        if (maxOperations < 0) {
+            throw new IllegalArgumentException("maxOperations is negative");
+        }
+        this.maxOperations = maxOperations;
+    }
+
+    /**
+     * Gets the epoch identifying this history.
+     *
+     * @return the epoch. Will not be {@code null}
+     */
+    public String getEpoch() {
+        return epoch;
+    }
+
+    /**
+     * Gets the current domain model revision.
+     *
+     * @return the revision
+     */
+    public synchronized long getRevision() {
+        return revision;
+    }
+
+    /**
+     * Records a committed domain level operation.
+     *
+     * @param operation the operation. Cannot be {@code null}
+     * @param hosts the names of the host controllers which applied the operation
+     * @return the new domain model revision
+     */
+    public synchronized long record(final ModelNode operation, final Collection<String> hosts) {
+        operations.addLast(operation.clone());
+        if (operations.size() > maxOperations) {
+            operations.removeFirst();
+        }
+        final Long newRevision = Long.valueOf(++revision);
+        for (String host : hosts) {
+            hostRevisions.put(host, newRevision);
+        }
+        return revision;
+    }
+
+    /**
+     * Determines what a registering host controller needs to bring its copy of the domain model up to date, and
+     * records that the host is at the current revision from now on.
+     *
+     * @param hostName the name of the host controller
+     * @param modelEpoch the epoch of the model the host received when it last registered, or {@code null} if it
+     *                   has no copy of the domain model
+     * @param domainModel the domain model, only read if the host needs the complete model
+     * @return the update. Will not be {@code null}
+     */
+    public synchronized DomainModelUpdate register(final String hostName, final String modelEpoch, final DomainModel domainModel) {
+        final Long hostRevision = modelEpoch == null ? null : hostRevisions.get(hostName);
+        final List<ModelNode> missed = hostRevision == null ? null : getOperationsSince(modelEpoch, hostRevision.longValue());
+        hostRevisions.put(hostName, Long.valueOf(revision));
+        if (missed != null) {
+            return DomainModelUpdate.operations(epoch, revision, missed);
+        }
+        return DomainModelUpdate.fullModel(epoch, revision, domainModel.getDomainModel());
+    }
+
+    /**
+     * Gets the operations that need to be applied to a copy of the domain model at the given revision to bring
+     * it up to date.
+     *
+     * @param epoch the epoch of the history the revision belongs to
+     * @param revision the revision of the copy
+     * @return copies of the operations, in the order they were recorded, or {@code null} if they are no
+     *         longer available and the complete model needs to be used instead
+     */
+    public synchronized List<ModelNode> getOperationsSince(final String epoch, final long revision) {
+        if (!this.epoch.equals(epoch) || revision > this.revision) {
+            return null;
+        }
+        final long missed = this.revision - revision;
+        if (missed > operations.size()) {
+            return null;
+        }
+        final List<ModelNode> result = new ArrayList<ModelNode>((int) missed);
+        for (ModelNode operation : operations.subList(operations.size() - (int) missed, operations.size())) {
+            result.add(operation.clone());
+        }
+        return result;
+    }
+}
@@ -132,6 +132,9 @@ public class DomainModelImpl extends BasicModelController implements DomainModel
     // The write lock we use. Not thread based to allow transaction commit from another thread
     private final Semaphore mutex = new Semaphore(1);
 
+    // The modules of the extensions already initialized; a slave can receive the domain model more than once
+    private final Set<String> initializedExtensions = Collections.synchronizedSet(new HashSet<String>());
+
     // The persister for the domain configuration.
     private DelegatingConfigurationPersister domainPersister;
     // The persister for the local host configuration.
@@ -218,7 +221,10 @@ public class DomainModelImpl extends BasicModelController implements DomainModel
         alwaysProvideRuntimeContext = false;
 
         ModelNode ourModel = super.getModel();
-        DomainModelUtil.updateCoreModel(ourModel);
+        synchronized (ourModel) {
+            DomainModelUtil.updateCoreModel(ourModel);
+            modelChanged();
+        }
         master = true;
         domainPersister.setDelegate(configurationPersister);
         ModelNodeRegistration registry = getRegistry();
@@ -424,6 +430,9 @@ public class DomainModelImpl extends BasicModelController implements DomainModel
             for (Property prop : model.get(EXTENSION).asPropertyList()) {
                 try {
                     String module = prop.getValue().get(ExtensionDescription.MODULE).asString();
+                    if (!initializedExtensions.add(module)) {
+                        continue;
+                    }
                     for (Extension extension : Module.loadServiceFromCallerModuleLoader(ModuleIdentifier.fromString(module), Extension.class)) {
                         extension.initialize(extensionContext);
                     }
@@ -436,10 +445,13 @@ public class DomainModelImpl extends BasicModelController implements DomainModel
 
     void setInitialDomainModel(ModelNode domainModel) {
         ModelNode root = getModel();
-        // Preserve the "host" subtree
-        ModelNode host = root.get(HOST);
-        root.set(domainModel);
-        root.get(HOST).set(host);
+        synchronized (root) {
+            // Preserve the "host" subtree
+            ModelNode host = root.get(HOST);
+            root.set(domainModel);
+            root.get(HOST).set(host);
+            modelChanged();
+        }
         // Now we know what extensions are needed
         initializeExtensions(domainModel, extensionContext);
     }
@@ -1105,6 +1117,9 @@ public class DomainModelImpl extends BasicModelController implements DomainModel
             final ModelNode model = modelSource.getModel();
             synchronized (model) {
                 model.set(localModel);
+                if (model == DomainModelImpl.this.getModel()) {
+                    modelChanged();
+                }
                 if (modelUpdated) {
                     DomainModelImpl.this.persistConfiguration(model, injectedConfigPersisterProvider);
                 }
@@ -1149,6 +1164,9 @@ public class DomainModelImpl extends BasicModelController implements DomainModel
                     } else {
                         address.navigate(model, true).set(subModel);
                     }
+                    if (model == getModel()) {
+                        modelChanged();
+                    }
                     persistConfiguration(model, operationControllerContext.getConfigurationPersisterProvider());
                 }
 
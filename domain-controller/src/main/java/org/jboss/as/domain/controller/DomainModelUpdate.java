@@ -0,0 +1,99 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.controller;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.jboss.dmr.ModelNode;
+
+/**
+ * What a host controller needs to bring its copy of the domain model up to date when registering with the
+ * master domain controller; either the complete domain model or the operations committed since the host
+ * last saw the model.
+ *
+ * @see DomainModelHistory
+ */
+public final class DomainModelUpdate {
+
+    private final String epoch;
+    private final long revision;
+    private final ModelNode domainModel;
+    private final List<ModelNode> operations;
+
+    private DomainModelUpdate(final String epoch, final long revision, final ModelNode domainModel, final List<ModelNode> operations) {
+        this.epoch = epoch;
+        this.revision = revision;
+        this.domainModel = domainModel;
+        this.operations = operations;
+    }
+
+    /**
+     * Creates an update replacing the host's copy of the domain model.
+     *
+     * @param epoch the epoch of the master's {@link DomainModelHistory}
+     * @param revision the revision of the model
+     * @param domainModel the complete domain model
+     * @return the update
+     */
+    public static DomainModelUpdate fullModel(final String epoch, final long revision, final ModelNode domainModel) {
+        return new DomainModelUpdate(epoch, revision, domainModel, null);
+    }
+
+    /**
+     * Creates an update consisting of the operations the host missed.
+     *
+     * @param epoch the epoch of the master's {@link DomainModelHistory}
+     * @param revision the revision of the model once the operations are applied
+     * @param operations the operations, in the order they need to be applied
+     * @return the update
+     */
+    public static DomainModelUpdate operations(final String epoch, final long revision, final List<ModelNode> operations) {
+        return new DomainModelUpdate(epoch, revision, null, Collections.unmodifiableList(operations));
+    }
+
+    public String getEpoch() {
+        return epoch;
+    }
+
+    public long getRevision() {
+        return revision;
+    }
+
+    /**
+     * Whether this update carries the complete domain model.
+     *
+     * @return {@code true} if {@link #getDomainModel()} should be used, {@code false} if {@link #getOperations()} should be applied
+     */
+    public boolean isFullModel() {
+        return domainModel != null;
+    }
+
+    public ModelNode getDomainModel() {
+        return domainModel;
+    }
+
+    public List<ModelNode> getOperations() {
+        return operations;
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2011 Red Hat Inc. and/or its affiliates and other contributors
+ * as indicated by the @authors tag. All rights reserved.
+ * See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This copyrighted material is made available to anyone wishing to use,
+ * modify, copy, or redistribute it subject to the terms and conditions
+ * of the GNU Lesser General Public License, v. 2.1.
+ * This program is distributed in the hope that it will be useful, but WITHOUT A
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE.  See the GNU Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License,
+ * v.2.1 along with this distribution; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston,
+ * MA  02110-1301, USA.
+ */
+package org.jboss.as.domain.controller.operations.deployment;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HAS_DEPLOYMENT_CONTENT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HASH;
+
+import java.util.Locale;
+
+import org.jboss.as.controller.BasicOperationResult;
+import org.jboss.as.controller.ModelQueryOperationHandler;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationResult;
+import org.jboss.as.controller.ResultHandler;
+import org.jboss.as.controller.descriptions.DescriptionProvider;
+import org.jboss.as.controller.descriptions.common.DeploymentDescription;
+import org.jboss.as.controller.operations.validation.ModelTypeValidator;
+import org.jboss.as.controller.operations.validation.ParametersValidator;
+import org.jboss.as.server.deployment.api.DeploymentRepository;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+
+/**
+ * Handler for the has-deployment-content operation, which lets a client check whether content with a given hash is
+ * already in the repository before uploading it. On a slave domain controller, which has no
+ * content repository, the operation always reports {@code false}.
+ */
+public class DeploymentHasContentHandler implements ModelQueryOperationHandler, DescriptionProvider {
+
+    public static final String OPERATION_NAME = HAS_DEPLOYMENT_CONTENT;
+
+    private static final String[] EMPTY = new String[0];
+    private final DeploymentRepository deploymentRepository;
+    private final ParametersValidator validator = new ParametersValidator();
+
+    public DeploymentHasContentHandler(final DeploymentRepository deploymentRepository) {
+        this.deploymentRepository = deploymentRepository;
+        this.validator.registerValidator(HASH, new ModelTypeValidator(ModelType.BYTES));
+    }
+
+    @Override
+    public ModelNode getModelDescription(Locale locale) {
+        return DeploymentDescription.getHasDeploymentContentOperation(locale);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public OperationResult execute(OperationContext context, ModelNode operation, ResultHandler resultHandler) throws OperationFailedException {
+        validator.validate(operation);
+        final byte[] hash = operation.require(HASH).asBytes();
+        // a slave domain controller has no repository; callers should upload to the master
+        final boolean present = deploymentRepository != null && deploymentRepository.hasDeploymentContent(hash);
+        resultHandler.handleResultFragment(EMPTY, new ModelNode().set(present));
+        resultHandler.handleResultComplete();
+        return new BasicOperationResult();
+    }
+}
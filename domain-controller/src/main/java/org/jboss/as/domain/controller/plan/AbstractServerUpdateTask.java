@@ -24,18 +24,23 @@ package org.jboss.as.domain.controller.plan;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CANCELLED;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
 
+import org.jboss.as.controller.OperationResult;
+import org.jboss.as.controller.client.OperationBuilder;
 import org.jboss.as.domain.controller.ServerIdentity;
 import org.jboss.dmr.ModelNode;
+import org.jboss.logging.Logger;
 
 /**
  * Base class for tasks that can perform an update on a server.
  *
  * Thread-Safety: This class is immutable, but is intended to only have its
- * {@link #run()} method executed once.
+ * {@link #execute(CompletionHandler)} method executed once.
  *
  * @author Brian Stansberry
  */
-abstract class AbstractServerUpdateTask implements Runnable {
+abstract class AbstractServerUpdateTask implements UpdateTask {
+
+    private static final Logger logger = Logger.getLogger("org.jboss.as.domain.controller");
 
     /**
      * Callback interface to allow the creator of this task to
@@ -48,28 +53,34 @@ abstract class AbstractServerUpdateTask implements Runnable {
          *
          * @param serverId the server that was updated
          * @param response the result of the update
+         * @param executionTime the time in milliseconds between sending the update and receiving the
+         *                      response, or <code>-1</code> if the update was cancelled
          */
-        void handleServerUpdateResult(ServerIdentity serverId, ModelNode response);
+        void handleServerUpdateResult(ServerIdentity serverId, ModelNode response, long executionTime);
     }
 
     protected final ServerUpdatePolicy updatePolicy;
     protected final ServerIdentity serverId;
     protected final ServerUpdateResultHandler resultHandler;
+    private final ServerOperationExecutor serverOperationExecutor;
 
     /**
      * Create a new update task.
      *
+     * @param serverOperationExecutor the executor for the server operation. Cannot be <code>null</code>
      * @param serverId the id of the server being updated. Cannot be <code>null</code>
-     * @param updateSet the updates. Cannot be <code>null</code>
      * @param updatePolicy the policy that controls whether the updates should be applied. Cannot be <code>null</code>
      * @param resultHandler handler for the result of the update. Cannot be <code>null</code>
      */
-    AbstractServerUpdateTask(final ServerIdentity serverId,
+    AbstractServerUpdateTask(final ServerOperationExecutor serverOperationExecutor,
+            final ServerIdentity serverId,
             final ServerUpdatePolicy updatePolicy,
             final ServerUpdateResultHandler resultHandler) {
+        assert serverOperationExecutor != null : "serverOperationExecutor is null";
         assert serverId != null : "serverId is null";
         assert updatePolicy != null : "updatePolicy is null";
         assert resultHandler != null : "resultHandler is null";
+        this.serverOperationExecutor = serverOperationExecutor;
         this.serverId = serverId;
         this.updatePolicy = updatePolicy;
         this.resultHandler = resultHandler;
@@ -77,28 +88,56 @@ abstract class AbstractServerUpdateTask implements Runnable {
 
     /**
      * Checks if the {@link ServerUpdatePolicy} allows the update to proceed; if
-     * sp {@link #processUpdates() executes them}, else notifies the
-     * {@link ServerUpdateResultHandler} that they were cancelled.
+     * so sends the {@link #getServerOperation() operation} to the server, else notifies the
+     * {@link ServerUpdateResultHandler} that it was cancelled. The task is complete once the
+     * server's response has been recorded.
      */
     @Override
-    public void run() {
-        if (updatePolicy.canUpdateServer(serverId)) {
-            processUpdates();
-        }
-        else {
+    public void execute(final CompletionHandler handler) {
+        if (!updatePolicy.canUpdateServer(serverId)) {
             sendCancelledResponse();
+            handler.handleComplete();
+            return;
+        }
+
+        final ModelNode op = getServerOperation();
+        logger.tracef("Applying operation to %s", serverId);
+        final long start = System.currentTimeMillis();
+        final ServerResponseHandler responseHandler = new ServerResponseHandler() {
+            @Override
+            protected void handleResponse(final ModelNode response) {
+                final long executionTime = System.currentTimeMillis() - start;
+                try {
+                    updatePolicy.recordServerResult(serverId, response);
+                    resultHandler.handleServerUpdateResult(serverId, response, executionTime);
+                } finally {
+                    handler.handleComplete();
+                }
+            }
+        };
+        OperationResult operationResult = null;
+        try {
+            operationResult = serverOperationExecutor.executeServerOperation(serverId,
+                    OperationBuilder.Factory.create(op).build(), responseHandler);
+        } catch (RuntimeException e) {
+            logger.errorf(e, "Failed applying operation to %s", serverId);
+            responseHandler.handleFailed(new ModelNode().set(e.toString()));
+        } finally {
+            responseHandler.setOperationResult(operationResult);
         }
     }
 
     /**
-     * Actually perform the updates.
+     * Gets the operation that performs the updates on the server.
+     *
+     * @return the operation. Will not be <code>null</code>
      */
-    protected abstract void processUpdates();
+    protected abstract ModelNode getServerOperation();
 
     private void sendCancelledResponse() {
         ModelNode response = new ModelNode();
         response.get(OUTCOME).set(CANCELLED);
-        resultHandler.handleServerUpdateResult(serverId, response);
+        resultHandler.handleServerUpdateResult(serverId, response, -1);
     }
 
     @Override
@@ -21,51 +21,78 @@
  */
 package org.jboss.as.domain.controller.plan;
 
-import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Future;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.jboss.logging.Logger;
 
 /**
- * A task that uses an executor service to concurrently execute other tasks
+ * A task that uses an executor to concurrently start other tasks, optionally limiting the number
+ * of tasks in progress at any time. The executor is only used to start tasks; it is not blocked
+ * while they are in progress.
  */
-class ConcurrentUpdateTask implements Runnable {
+class ConcurrentUpdateTask implements UpdateTask {
 
     private static final Logger logger = Logger.getLogger("org.jboss.as.domain.deployment");
-    private final List<Runnable> concurrentTasks;
-    private final ExecutorService executorService;
+    private final List<UpdateTask> concurrentTasks;
+    private final Executor executor;
+    private final int maxConcurrent;
 
-    ConcurrentUpdateTask(final List<Runnable> concurrentTasks, final ExecutorService executorService) {
+    /**
+     * Create a new task.
+     *
+     * @param concurrentTasks the tasks to execute
+     * @param executor the executor used to start the tasks
+     * @param maxConcurrent the maximum number of tasks in progress at any time, or <code>0</code> for no limit
+     */
+    ConcurrentUpdateTask(final List<UpdateTask> concurrentTasks, final Executor executor, final int maxConcurrent) {
         this.concurrentTasks = concurrentTasks;
-        this.executorService = executorService;
+        this.executor = executor;
+        this.maxConcurrent = maxConcurrent;
     }
 
     @Override
-    public void run() {
-
-        // Submit each task to the executor
-        List<Future<?>> futures = new ArrayList<Future<?>>();
-        for (Runnable r : concurrentTasks) {
-            futures.add(executorService.submit(r));
+    public void execute(final CompletionHandler handler) {
+        final int size = concurrentTasks.size();
+        if (size == 0) {
+            handler.handleComplete();
+            return;
+        }
+        final int initial = maxConcurrent > 0 && maxConcurrent < size ? maxConcurrent : size;
+        final AtomicInteger next = new AtomicInteger(initial);
+        final AtomicInteger remaining = new AtomicInteger(size);
+        final CompletionHandler taskHandler = new CompletionHandler() {
+            @Override
+            public void handleComplete() {
+                final int index = next.getAndIncrement();
+                if (index < size) {
+                    start(concurrentTasks.get(index), this);
+                }
+                if (remaining.decrementAndGet() == 0) {
+                    handler.handleComplete();
+                }
+            }
+        };
+        for (int i = 0; i < initial; i++) {
+            start(concurrentTasks.get(i), taskHandler);
         }
+    }
 
-        // Wait until all complete before returning
-        for (int i = 0; i < futures.size(); i++) {
-            Future<?> future = futures.get(i);
-            try {
-                future.get();
-            } catch (InterruptedException e) {
-                logger.errorf("%s caught InterruptedException waiting for task %s; returning",
-                        ConcurrentUpdateTask.class.getSimpleName(), concurrentTasks.get(i).toString());
-                Thread.currentThread().interrupt();
-                return;
-            } catch (ExecutionException e) {
-                logger.errorf(e, "%s caught ExecutionException waiting for task %s",
-                        ConcurrentUpdateTask.class.getSimpleName(), concurrentTasks.get(i).toString());
+    private void start(final UpdateTask task, final CompletionHandler handler) {
+        final Runnable r = new Runnable() {
+            @Override
+            public void run() {
+                task.execute(handler);
             }
+        };
+        try {
+            executor.execute(r);
+        } catch (RejectedExecutionException e) {
+            logger.debugf("%s could not submit task %s; executing it directly",
+                    ConcurrentUpdateTask.class.getSimpleName(), task);
+            r.run();
         }
     }
 
@@ -78,7 +105,12 @@ class ConcurrentUpdateTask implements Runnable {
             }
             sb.append(concurrentTasks.get(i).toString());
         }
-        sb.append("}}");
+        sb.append("}");
+        if (maxConcurrent > 0) {
+            sb.append(", maxConcurrent=");
+            sb.append(maxConcurrent);
+        }
+        sb.append("}");
         return sb.toString();
     }
 }
@@ -22,21 +22,20 @@
 package org.jboss.as.domain.controller.plan;
 
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
-/** A task that iterates through other tasks */
-class RollingUpdateTask implements Runnable {
+/** A task that iterates through other tasks, starting each one once its predecessor is complete */
+class RollingUpdateTask implements UpdateTask {
 
-    private final List<Runnable> rollingTasks;
+    private final List<UpdateTask> rollingTasks;
 
-    RollingUpdateTask(final List<Runnable> rollingTasks) {
+    RollingUpdateTask(final List<UpdateTask> rollingTasks) {
         this.rollingTasks = rollingTasks;
     }
 
     @Override
-    public void run() {
-        for (Runnable r : rollingTasks) {
-            r.run();
-        }
+    public void execute(final CompletionHandler handler) {
+        new Iteration(handler).next();
     }
 
     @Override
@@ -51,4 +50,37 @@ class RollingUpdateTask implements Runnable {
         sb.append("}}");
         return sb.toString();
     }
+
+    /**
+     * Starts the tasks in turn. Tasks which complete before {@code execute} returns are followed by
+     * their successor in the same loop rather than recursively, so long series do not grow the stack.
+     */
+    private class Iteration implements CompletionHandler {
+        private final CompletionHandler handler;
+        private final AtomicInteger pending = new AtomicInteger();
+        private int index;
+
+        Iteration(final CompletionHandler handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public void handleComplete() {
+            next();
+        }
+
+        void next() {
+            if (pending.getAndIncrement() != 0) {
+                // the loop below is running and will start the next task
+                return;
+            }
+            do {
+                if (index == rollingTasks.size()) {
+                    handler.handleComplete();
+                    return;
+                }
+                rollingTasks.get(index++).execute(this);
+            } while (pending.decrementAndGet() != 0);
+        }
+    }
 }
@@ -6,9 +6,11 @@ package org.jboss.as.domain.controller.plan;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CANCELLED;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.COMPENSATING_OPERATION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CONCURRENT_GROUPS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.EXECUTION_TIME;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.GRACEFUL_SHUTDOWN_TIMEOUT;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HOST;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.IN_SERIES;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MAX_CONCURRENT_SERVERS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MAX_FAILED_SERVERS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MAX_FAILURE_PERCENTAGE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
@@ -16,6 +18,7 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RES
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ROLLBACK_ACROSS_GROUPS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ROLLED_BACK;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ROLLING_TO_SERVERS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ROLLOUT_METRICS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SERVER_GROUP;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SERVER_GROUPS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SHUTDOWN;
@@ -38,6 +41,11 @@ import org.jboss.dmr.Property;
 
 /**
  * Coordinates rolling out a series of operations to the servers specified in a rollout plan.
+ * <p>
+ * The rollout is driven by the completion of the server operations: no thread waits for a server to respond.
+ * The number of servers of a concurrently updated group that are updated at the same time can be limited with
+ * the group's {@code max-concurrent-servers} policy. The time taken by each server and group is reported in
+ * the result.
  *
  * @author Brian Stansberry (c) 2011 Red Hat Inc.
  */
@@ -49,11 +57,24 @@ public class RolloutPlanController implements ServerUpdateResultHandler {
         FAILED
     }
 
+    /**
+     * Callback notified once a rollout is complete.
+     */
+    public interface ResultCallback {
+
+        /**
+         * Handle the outcome of the rollout.
+         *
+         * @param result the outcome
+         */
+        void handleResult(Result result);
+    }
+
     private final ModelNode rolloutPlan;
     private final ResultHandler resultHandler;
     private final boolean rollbackAcrossGroups;
     private final ExecutorService executor;
-    private final Runnable rootTask;
+    private final UpdateTask rootTask;
     private final Map<String, ServerUpdatePolicy> updatePolicies = new HashMap<String, ServerUpdatePolicy>();
     private final boolean shutdown;
     private final long gracefulShutdownPeriod;
@@ -75,15 +96,15 @@ public class RolloutPlanController implements ServerUpdateResultHandler {
         this.shutdown = rolloutPlan.hasDefined(SHUTDOWN) && rolloutPlan.get(SHUTDOWN).asBoolean();
         this.gracefulShutdownPeriod = rolloutPlan.hasDefined(GRACEFUL_SHUTDOWN_TIMEOUT) ? rolloutPlan.get(GRACEFUL_SHUTDOWN_TIMEOUT).asInt() : -1;
 
-        final List<Runnable> rollingTasks = new ArrayList<Runnable>();
+        final List<UpdateTask> rollingTasks = new ArrayList<UpdateTask>();
         this.rootTask = new RollingUpdateTask(rollingTasks);
 
         if (rolloutPlan.hasDefined(IN_SERIES)) {
             ConcurrentGroupServerUpdatePolicy predecessor = null;
             for (ModelNode series : rolloutPlan.get(IN_SERIES).asList()) {
 
-                final List<Runnable> seriesTasks = new ArrayList<Runnable>();
-                rollingTasks.add(new ConcurrentUpdateTask(seriesTasks, executor));
+                final List<UpdateTask> seriesTasks = new ArrayList<UpdateTask>();
+                rollingTasks.add(new ConcurrentUpdateTask(seriesTasks, executor, 0));
 
                 Set<String> groupNames = new HashSet<String>();
                 List<Property> groupPolicies = new ArrayList<Property>();
@@ -108,10 +129,12 @@ public class RolloutPlanController implements ServerUpdateResultHandler {
                         continue;
                     }
 
-                    final List<Runnable> groupTasks = new ArrayList<Runnable>();
+                    final List<UpdateTask> groupTasks = new ArrayList<UpdateTask>();
                     final ModelNode policyNode = prop.getValue();
                     final boolean rollingGroup = policyNode.hasDefined(ROLLING_TO_SERVERS) && policyNode.get(ROLLING_TO_SERVERS).asBoolean();
-                    seriesTasks.add(rollingGroup ? new RollingUpdateTask(groupTasks) : new ConcurrentUpdateTask(groupTasks, executor));
+                    final int maxConcurrent = policyNode.hasDefined(MAX_CONCURRENT_SERVERS) ? policyNode.get(MAX_CONCURRENT_SERVERS).asInt() : 0;
+                    final UpdateTask groupTask = rollingGroup ? new RollingUpdateTask(groupTasks) : new ConcurrentUpdateTask(groupTasks, executor, maxConcurrent);
+                    seriesTasks.add(new ServerGroupUpdateTask(serverGroupName, groupTask));
 
                     final Set<ServerIdentity> servers = groupEntry.keySet();
                     ServerUpdatePolicy policy;
@@ -135,13 +158,27 @@ public class RolloutPlanController implements ServerUpdateResultHandler {
                         groupTasks.add(createServerTask(entry.getKey(), entry.getValue(), policy));
                     }
                 }
+                predecessor = parent;
             }
         }
     }
 
-    public Result execute() {
-        this.rootTask.run();
+    /**
+     * Start the rollout. The callback is notified once all servers have responded or were cancelled, possibly
+     * before this method returns.
+     *
+     * @param callback the callback to notify of the outcome. Cannot be <code>null</code>
+     */
+    public void execute(final ResultCallback callback) {
+        this.rootTask.execute(new UpdateTask.CompletionHandler() {
+            @Override
+            public void handleComplete() {
+                callback.handleResult(getResult());
+            }
+        });
+    }
 
+    private Result getResult() {
         Result result = null;
         for (ServerUpdatePolicy policy : updatePolicies.values()) {
             if (policy.isFailed()) {
@@ -155,20 +192,29 @@ public class RolloutPlanController implements ServerUpdateResultHandler {
         return result;
     }
 
-    public Result rollback() {
+    /**
+     * Start rolling back the updates applied by this controller's rollout.
+     *
+     * @param callback the callback to notify of the outcome of the rollback. Cannot be <code>null</code>
+     */
+    public void rollback(final ResultCallback callback) {
         if (forRollback) {
             throw new IllegalStateException("Cannot call rollback() on a controller that itself is managing a rollback");
         }
         RolloutPlanController rollbackController = createRollbackController();
-        return rollbackController.execute();
+        rollbackController.execute(callback);
     }
 
     @Override
-    public void handleServerUpdateResult(ServerIdentity serverId, ModelNode response) {
+    public void handleServerUpdateResult(ServerIdentity serverId, ModelNode response, long executionTime) {
         String[] location = { SERVER_GROUPS, serverId.getServerGroupName(), serverId.getServerName(), HOST };
         resultHandler.handleResultFragment(location, new ModelNode().set(serverId.getHostName()));
         location[3] = RESPONSE;
         resultHandler.handleResultFragment(location, response);
+        if (executionTime >= 0) {
+            location[3] = EXECUTION_TIME;
+            resultHandler.handleResultFragment(location, new ModelNode().set(executionTime));
+        }
 
         Map<ServerIdentity, ModelNode> groupResults = serverResults.get(serverId.getServerGroupName());
         if (groupResults == null) {
@@ -181,8 +227,8 @@ public class RolloutPlanController implements ServerUpdateResultHandler {
         groupResults.put(serverId, response);
     }
 
-    private Runnable createServerTask(final ServerIdentity serverIdentity, final ModelNode serverOp, final ServerUpdatePolicy policy) {
-        Runnable result;
+    private UpdateTask createServerTask(final ServerIdentity serverIdentity, final ModelNode serverOp, final ServerUpdatePolicy policy) {
+        UpdateTask result;
         if (shutdown) {
             result = new ServerRestartTask(serverOperationExecutor, serverIdentity, policy, this, gracefulShutdownPeriod);
         }
@@ -260,7 +306,44 @@ public class RolloutPlanController implements ServerUpdateResultHandler {
         if (preRollback.hasDefined(ROLLING_TO_SERVERS)) {
             result.get(ROLLING_TO_SERVERS).set(preRollback.get(ROLLING_TO_SERVERS));
         }
+        if (preRollback.hasDefined(MAX_CONCURRENT_SERVERS)) {
+            result.get(MAX_CONCURRENT_SERVERS).set(preRollback.get(MAX_CONCURRENT_SERVERS));
+        }
         result.get(MAX_FAILURE_PERCENTAGE).set(100);
         return result;
     }
+
+    /**
+     * Reports the time taken to update all servers of a server group.
+     */
+    private class ServerGroupUpdateTask implements UpdateTask {
+        private final String serverGroupName;
+        private final UpdateTask serversTask;
+
+        ServerGroupUpdateTask(final String serverGroupName, final UpdateTask serversTask) {
+            this.serverGroupName = serverGroupName;
+            this.serversTask = serversTask;
+        }
+
+        @Override
+        public void execute(final CompletionHandler handler) {
+            final long start = System.currentTimeMillis();
+            serversTask.execute(new CompletionHandler() {
+                @Override
+                public void handleComplete() {
+                    try {
+                        String[] location = { ROLLOUT_METRICS, serverGroupName, EXECUTION_TIME };
+                        resultHandler.handleResultFragment(location, new ModelNode().set(System.currentTimeMillis() - start));
+                    } finally {
+                        handler.handleComplete();
+                    }
+                }
+            });
+        }
+
+        @Override
+        public String toString() {
+            return serversTask.toString();
+        }
+    }
 }
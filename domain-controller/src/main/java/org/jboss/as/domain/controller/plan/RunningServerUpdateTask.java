@@ -25,30 +25,25 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HOS
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RUNNING_SERVER;
 
-import org.jboss.as.controller.client.OperationBuilder;
 import org.jboss.as.domain.controller.ServerIdentity;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.Property;
-import org.jboss.logging.Logger;
 
 /**
  * {@link AbstractServerUpdateTask} that performs the updates by applying them
  * to a running server.
  *
  * Thread-Safety: This class is immutable, but is intended to only have its
- * {@link #run()} method executed once.
+ * {@link #execute(CompletionHandler)} method executed once.
  */
 class RunningServerUpdateTask extends AbstractServerUpdateTask {
 
-    private static final Logger logger = Logger.getLogger("org.jboss.as.domain.controller");
-
-    private final ServerOperationExecutor serverOperationExecutor;
     private final ModelNode serverUpdate;
 
     /**
      * Constructor.
      *
-     * @param domainController the domain controller. Cannot be <code>null</code>
+     * @param serverOperationExecutor the executor for the server operation. Cannot be <code>null</code>
      * @param serverId the id of the server being updated. Cannot be <code>null</code>
      * @param serverUpdate the actual rollback updates to apply to this server. Cannot be <code>null</code>
      * @param updatePolicy the policy that controls whether the updates should be applied. Cannot be <code>null</code>
@@ -59,24 +54,12 @@ class RunningServerUpdateTask extends AbstractServerUpdateTask {
             final ModelNode serverUpdate,
             final ServerUpdatePolicy updatePolicy,
             final ServerUpdateResultHandler resultHandler) {
-        super(serverId, updatePolicy, resultHandler);
-        this.serverOperationExecutor = serverOperationExecutor;
+        super(serverOperationExecutor, serverId, updatePolicy, resultHandler);
         this.serverUpdate = serverUpdate;
     }
 
     @Override
-    protected void processUpdates() {
-
-        logger.tracef("Applying operation to  %s", serverId);
-        ModelNode op = getServerOp();
-        ModelNode rsp =
-            serverOperationExecutor.executeServerOperation(serverId, OperationBuilder.Factory.create(op).build());
-        updatePolicy.recordServerResult(serverId, rsp);
-
-        resultHandler.handleServerUpdateResult(serverId, rsp);
-    }
-
-    private ModelNode getServerOp() {
+    protected ModelNode getServerOperation() {
         ModelNode op = serverUpdate.clone();
         ModelNode address = new ModelNode();
         address.add(HOST, serverId.getHostName());
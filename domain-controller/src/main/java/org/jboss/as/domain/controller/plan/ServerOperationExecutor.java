@@ -3,9 +3,10 @@
  */
 package org.jboss.as.domain.controller.plan;
 
+import org.jboss.as.controller.OperationResult;
+import org.jboss.as.controller.ResultHandler;
 import org.jboss.as.controller.client.Operation;
 import org.jboss.as.domain.controller.ServerIdentity;
-import org.jboss.dmr.ModelNode;
 
 /**
  * Callback from a task when it wants to execute an operation.
@@ -14,5 +15,20 @@ import org.jboss.dmr.ModelNode;
  */
 public interface ServerOperationExecutor {
 
-    ModelNode executeServerOperation(ServerIdentity server, Operation operation);
+    /**
+     * Execute an operation on a server, possibly asynchronously, sending the result to the given handler as per
+     * {@link org.jboss.as.controller.ModelController#execute(Operation, ResultHandler)}. Implementations should
+     * not block the calling thread until the server responds.
+     * <p>
+     * The domain controller's implementation hands the operation to its host, which passes it on to the server
+     * through a management client. That client still waits for the response on a thread of its own executor, one per
+     * operation in flight (see {@code AbstractModelControllerClient}), so the rollout itself holds no thread while
+     * servers process an update, but the transport does.
+     *
+     * @param server the server
+     * @param operation the operation
+     * @param handler the result handler
+     * @return a handle which may be used to cancel the operation or obtain a compensating operation
+     */
+    OperationResult executeServerOperation(ServerIdentity server, Operation operation, ResultHandler handler);
 }
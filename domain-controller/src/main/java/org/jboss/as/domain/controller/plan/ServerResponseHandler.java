@@ -0,0 +1,156 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.domain.controller.plan;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CANCELLED;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.COMPENSATING_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILED;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILURE_DESCRIPTION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
+
+import org.jboss.as.controller.OperationResult;
+import org.jboss.as.controller.ResultHandler;
+import org.jboss.dmr.ModelNode;
+
+/**
+ * {@link ResultHandler} that assembles the result of a server operation into the same response
+ * {@link org.jboss.as.controller.SynchronousOperationSupport} would return, without waiting for it.
+ * The response is passed on once the operation is complete and the {@link OperationResult} returned
+ * when it was started is known, whichever happens last.
+ */
+abstract class ServerResponseHandler implements ResultHandler {
+
+    private static final int STATUS_PENDING = 0;
+    private static final int STATUS_SUCCEEDED = 1;
+    private static final int STATUS_CANCELLED = 2;
+    private static final int STATUS_FAILED = 3;
+
+    private final ModelNode finalResult = new ModelNode();
+    private int status = STATUS_PENDING;
+    private OperationResult operationResult;
+    private boolean started;
+    private boolean done;
+
+    ServerResponseHandler() {
+        // Make the "outcome" child come first
+        finalResult.get(OUTCOME);
+        // Ensure there is a "result" child even if we receive no fragments
+        finalResult.get(RESULT);
+    }
+
+    /**
+     * Handle the assembled response.
+     *
+     * @param response the response
+     */
+    protected abstract void handleResponse(ModelNode response);
+
+    @Override
+    public void handleResultFragment(final String[] location, final ModelNode fragment) {
+        synchronized (finalResult) {
+            if (status == STATUS_PENDING) {
+                finalResult.get(RESULT).get(location).set(fragment);
+            }
+        }
+    }
+
+    @Override
+    public void handleResultComplete() {
+        complete(STATUS_SUCCEEDED, null);
+    }
+
+    @Override
+    public void handleCancellation() {
+        complete(STATUS_CANCELLED, null);
+    }
+
+    @Override
+    public void handleFailed(final ModelNode failureDescription) {
+        complete(STATUS_FAILED, failureDescription);
+    }
+
+    /**
+     * Record the result of starting the operation.
+     *
+     * @param operationResult the result. May be <code>null</code> if the operation could not be started
+     */
+    void setOperationResult(final OperationResult operationResult) {
+        final ModelNode response;
+        synchronized (finalResult) {
+            this.operationResult = operationResult;
+            started = true;
+            response = getResponse();
+        }
+        if (response != null) {
+            handleResponse(response);
+        }
+    }
+
+    private void complete(final int newStatus, final ModelNode failureDescription) {
+        final ModelNode response;
+        synchronized (finalResult) {
+            if (status != STATUS_PENDING) {
+                return;
+            }
+            status = newStatus;
+            if (failureDescription != null && failureDescription.isDefined()) {
+                finalResult.get(FAILURE_DESCRIPTION).set(failureDescription);
+            }
+            response = getResponse();
+        }
+        if (response != null) {
+            handleResponse(response);
+        }
+    }
+
+    private ModelNode getResponse() {
+        if (status == STATUS_PENDING || !started || done) {
+            return null;
+        }
+        done = true;
+        switch (status) {
+            case STATUS_SUCCEEDED: {
+                finalResult.get(OUTCOME).set(SUCCESS);
+                final ModelNode compensatingOperation = operationResult == null ? null : operationResult.getCompensatingOperation();
+                if (compensatingOperation != null) {
+                    finalResult.get(COMPENSATING_OPERATION).set(compensatingOperation);
+                }
+                break;
+            }
+            case STATUS_CANCELLED: {
+                finalResult.get(OUTCOME).set(CANCELLED);
+                finalResult.remove(RESULT);
+                break;
+            }
+            default: {
+                finalResult.get(OUTCOME).set(FAILED);
+                if (!finalResult.hasDefined(RESULT)) {
+                    // Remove the undefined node
+                    finalResult.remove(RESULT);
+                }
+            }
+        }
+        return finalResult;
+    }
+}
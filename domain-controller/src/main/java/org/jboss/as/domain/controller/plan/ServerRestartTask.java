@@ -24,7 +24,6 @@ package org.jboss.as.domain.controller.plan;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HOST;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SERVER;
 
-import org.jboss.as.controller.client.OperationBuilder;
 import org.jboss.as.controller.operations.common.Util;
 import org.jboss.as.domain.controller.ServerIdentity;
 import org.jboss.dmr.ModelNode;
@@ -35,11 +34,10 @@ import org.jboss.dmr.ModelNode;
  * model state.
  *
  * Thread-Safety: This class is immutable, but is intended to only have its
- * {@link #run()} method executed once.
+ * {@link #execute(CompletionHandler)} method executed once.
  */
 class ServerRestartTask extends AbstractServerUpdateTask {
 
-    private final ServerOperationExecutor serverOperationExecutor;
     private final long gracefulTimeout;
 
     ServerRestartTask(final ServerOperationExecutor serverOperationExecutor,
@@ -47,23 +45,13 @@ class ServerRestartTask extends AbstractServerUpdateTask {
             final ServerUpdatePolicy updatePolicy,
             final ServerUpdateResultHandler resultHandler,
             final long gracefulTimeout) {
-        super(serverId, updatePolicy, resultHandler);
-        this.serverOperationExecutor = serverOperationExecutor;
+        super(serverOperationExecutor, serverId, updatePolicy, resultHandler);
         this.gracefulTimeout = gracefulTimeout;
     }
 
     @Override
-    protected void processUpdates() {
-
-        ModelNode restartOp = getRestartOp();
-        ModelNode rsp = serverOperationExecutor.executeServerOperation(serverId, OperationBuilder.Factory.create(restartOp).build());
+    protected ModelNode getServerOperation() {
         // FIXME what if it's a rollback case?
-        updatePolicy.recordServerResult(serverId, rsp);
-
-        resultHandler.handleServerUpdateResult(serverId, rsp);
-    }
-
-    private ModelNode getRestartOp() {
         ModelNode address = new ModelNode();
         address.add(HOST, serverId.getHostName());
 
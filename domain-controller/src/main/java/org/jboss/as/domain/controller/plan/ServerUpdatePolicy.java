@@ -145,7 +145,7 @@ class ServerUpdatePolicy {
                 successCount++;
             }
             if (previousFailed <= maxFailed) {
-                if (!serverFailed && (successCount + failureCount) == servers.size()) {
+                if (failureCount <= maxFailed && (successCount + failureCount) == servers.size()) {
                     // All results are in; notify parent of success
                     parent.recordServerGroupResult(serverGroupName, false);
                 }
@@ -0,0 +1,47 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.domain.controller.plan;
+
+/**
+ * A part of a rollout plan. Tasks complete asynchronously, so the rollout holds no thread while a
+ * server processes an update; see {@link ServerOperationExecutor} for the remote host transport.
+ */
+interface UpdateTask {
+
+    /**
+     * Callback notified when a task is complete.
+     */
+    interface CompletionHandler {
+
+        /**
+         * Handle the completion of the task.
+         */
+        void handleComplete();
+    }
+
+    /**
+     * Start the task. The handler is notified exactly once, possibly before this method returns.
+     *
+     * @param handler the handler to notify when the task is complete. Cannot be <code>null</code>
+     */
+    void execute(CompletionHandler handler);
+}
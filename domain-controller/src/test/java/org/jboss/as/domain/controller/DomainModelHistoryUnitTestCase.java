@@ -0,0 +1,183 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.jboss.as.controller.ControllerTransactionContext;
+import org.jboss.as.controller.OperationResult;
+import org.jboss.as.controller.ResultHandler;
+import org.jboss.as.controller.client.Operation;
+import org.jboss.dmr.ModelNode;
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link DomainModelHistory}.
+ */
+public class DomainModelHistoryUnitTestCase {
+
+    private static final List<String> SLAVE = Collections.singletonList("slave");
+
+    @Test
+    public void testOperationsSince() {
+        final DomainModelHistory history = new DomainModelHistory(3);
+        final String epoch = history.getEpoch();
+        assertEquals(0, history.getOperationsSince(epoch, 0).size());
+        for (int i = 1; i <= 5; i++) {
+            assertEquals(i, history.record(operation(i), SLAVE));
+        }
+        assertEquals(5, history.getRevision());
+
+        assertEquals(0, history.getOperationsSince(epoch, 5).size());
+        final List<ModelNode> missed = history.getOperationsSince(epoch, 3);
+        assertEquals(2, missed.size());
+        assertEquals(4, missed.get(0).get("index").asInt());
+        assertEquals(5, missed.get(1).get("index").asInt());
+        // Oldest revision still retained
+        assertEquals(3, history.getOperationsSince(epoch, 2).size());
+    }
+
+    @Test
+    public void testGapTooLarge() {
+        final DomainModelHistory history = new DomainModelHistory(3);
+        for (int i = 1; i <= 5; i++) {
+            history.record(operation(i), SLAVE);
+        }
+        assertNull(history.getOperationsSince(history.getEpoch(), 1));
+        assertNull(history.getOperationsSince(history.getEpoch(), 0));
+    }
+
+    @Test
+    public void testUnknownEpochOrRevision() {
+        final DomainModelHistory history = new DomainModelHistory();
+        history.record(operation(1), SLAVE);
+        assertNull(history.getOperationsSince(new DomainModelHistory().getEpoch(), 0));
+        assertNull(history.getOperationsSince(history.getEpoch(), 2));
+    }
+
+    @Test
+    public void testRecordedOperationsAreCopies() {
+        final DomainModelHistory history = new DomainModelHistory();
+        final ModelNode operation = operation(1);
+        history.record(operation, SLAVE);
+        operation.get("index").set(2);
+        history.getOperationsSince(history.getEpoch(), 0).get(0).get("index").set(3);
+        assertEquals(1, history.getOperationsSince(history.getEpoch(), 0).get(0).get("index").asInt());
+    }
+
+    @Test
+    public void testRegisterWithoutModel() {
+        final DomainModelHistory history = new DomainModelHistory();
+        history.record(operation(1), SLAVE);
+        final TestDomainModel model = new TestDomainModel();
+
+        final DomainModelUpdate update = history.register("slave", null, model);
+        assertTrue(update.isFullModel());
+        assertSame(model.model, update.getDomainModel());
+        assertEquals(history.getEpoch(), update.getEpoch());
+        assertEquals(1, update.getRevision());
+    }
+
+    @Test
+    public void testReregisterGetsMissedOperations() {
+        final DomainModelHistory history = new DomainModelHistory();
+        final TestDomainModel model = new TestDomainModel();
+        final String epoch = history.register("slave", null, model).getEpoch();
+        // Applied while connected
+        history.record(operation(1), SLAVE);
+        // Missed while disconnected
+        history.record(operation(2), Collections.<String>emptyList());
+        history.record(operation(3), Arrays.asList("other"));
+        model.reads = 0;
+
+        DomainModelUpdate update = history.register("slave", epoch, model);
+        assertFalse(update.isFullModel());
+        assertEquals(0, model.reads);
+        assertEquals(3, update.getRevision());
+        assertEquals(2, update.getOperations().size());
+        assertEquals(2, update.getOperations().get(0).get("index").asInt());
+        assertEquals(3, update.getOperations().get(1).get("index").asInt());
+
+        // Registering again right away needs nothing
+        update = history.register("slave", epoch, model);
+        assertFalse(update.isFullModel());
+        assertEquals(0, update.getOperations().size());
+    }
+
+    @Test
+    public void testReregisterFallsBackToFullModel() {
+        final DomainModelHistory history = new DomainModelHistory(2);
+        final TestDomainModel model = new TestDomainModel();
+        final String epoch = history.register("slave", null, model).getEpoch();
+        for (int i = 1; i <= 3; i++) {
+            history.record(operation(i), Collections.<String>emptyList());
+        }
+        // Too many missed operations
+        assertTrue(history.register("slave", epoch, model).isFullModel());
+        // Model from a different master
+        assertTrue(history.register("slave", new DomainModelHistory().getEpoch(), model).isFullModel());
+        // Host never registered with this master
+        assertTrue(history.register("unknown", epoch, model).isFullModel());
+    }
+
+    private static ModelNode operation(final int index) {
+        final ModelNode operation = new ModelNode();
+        operation.get("operation").set("write-attribute");
+        operation.get("index").set(index);
+        return operation;
+    }
+
+    private static class TestDomainModel implements DomainModel {
+        private final ModelNode model = new ModelNode().set("domain");
+        private int reads;
+
+        @Override
+        public ModelNode getDomainModel() {
+            reads++;
+            return model;
+        }
+
+        @Override
+        public ModelNode executeForDomain(final Operation operation, final ControllerTransactionContext transaction) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public OperationResult execute(final Operation operation, final ResultHandler handler) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ModelNode execute(final Operation operation) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
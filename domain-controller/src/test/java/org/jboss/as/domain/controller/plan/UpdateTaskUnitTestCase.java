@@ -0,0 +1,227 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.controller.plan;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CANCELLED;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.COMPENSATING_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILED;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+import org.jboss.as.controller.BasicOperationResult;
+import org.jboss.as.controller.OperationResult;
+import org.jboss.as.controller.ResultHandler;
+import org.jboss.as.controller.client.Operation;
+import org.jboss.as.domain.controller.ServerIdentity;
+import org.jboss.dmr.ModelNode;
+import org.junit.Test;
+
+/**
+ * Unit tests of the rollout plan tasks, driven by a fake {@link ServerOperationExecutor}.
+ */
+public class UpdateTaskUnitTestCase {
+
+    private static final Executor DIRECT = new Executor() {
+        @Override
+        public void execute(final Runnable command) {
+            command.run();
+        }
+    };
+
+    private final TestExecutor executor = new TestExecutor();
+    private final TestResultHandler results = new TestResultHandler();
+    private final TestCompletionHandler completion = new TestCompletionHandler();
+
+    @Test
+    public void testInlineCompletion() {
+        // a long series completing inline must neither recurse nor lose a server
+        executor.inline = true;
+        final List<ServerIdentity> servers = servers("main", 5000);
+        final ServerUpdatePolicy policy = policy(null, "main", servers, 0);
+        new RollingUpdateTask(tasks(servers, policy)).execute(completion);
+
+        assertEquals(1, completion.count);
+        assertEquals(servers, new ArrayList<ServerIdentity>(results.responses.keySet()));
+        for (ModelNode response : results.responses.values()) {
+            assertEquals(SUCCESS, response.get(OUTCOME).asString());
+            assertEquals("ok", response.get(RESULT).asString());
+            // the compensating operation is known only once execute returned
+            assertTrue(response.hasDefined(COMPENSATING_OPERATION));
+        }
+        assertFalse(policy.isFailed());
+    }
+
+    @Test
+    public void testOutOfOrderCompletion() {
+        final List<ServerIdentity> servers = servers("main", 3);
+        final ServerUpdatePolicy policy = policy(null, "main", servers, 0);
+        new ConcurrentUpdateTask(tasks(servers, policy), DIRECT, 0).execute(completion);
+        assertEquals(3, executor.pending.size());
+
+        executor.complete(servers.get(2));
+        executor.complete(servers.get(0));
+        assertEquals(0, completion.count);
+        assertEquals(2, results.responses.size());
+        executor.complete(servers.get(1));
+
+        assertEquals(1, completion.count);
+        assertEquals(3, results.responses.size());
+        for (ModelNode response : results.responses.values()) {
+            assertEquals(SUCCESS, response.get(OUTCOME).asString());
+        }
+    }
+
+    @Test
+    public void testMaxConcurrent() {
+        final List<ServerIdentity> servers = servers("main", 5);
+        final ServerUpdatePolicy policy = policy(null, "main", servers, 0);
+        new ConcurrentUpdateTask(tasks(servers, policy), DIRECT, 2).execute(completion);
+
+        while (!executor.pending.isEmpty()) {
+            assertTrue(executor.pending.size() <= 2);
+            // complete the most recently started first
+            executor.complete(executor.pending.keySet().toArray(new ServerIdentity[0])[executor.pending.size() - 1]);
+        }
+        assertEquals(2, executor.maxInFlight);
+        assertEquals(5, executor.started.size());
+        assertEquals(5, results.responses.size());
+        assertEquals(1, completion.count);
+    }
+
+    @Test
+    public void testFailedSeriesCancelsSuccessor() {
+        executor.inline = true;
+        final List<ServerIdentity> first = servers("first", 2);
+        final List<ServerIdentity> second = servers("second", 2);
+        executor.failing.add(first.get(0));
+
+        final ConcurrentGroupServerUpdatePolicy firstSeries = new ConcurrentGroupServerUpdatePolicy(null, Collections.singleton("first"));
+        final ConcurrentGroupServerUpdatePolicy secondSeries = new ConcurrentGroupServerUpdatePolicy(firstSeries, Collections.singleton("second"));
+        final ServerUpdatePolicy firstPolicy = policy(firstSeries, "first", first, 0);
+        final ServerUpdatePolicy secondPolicy = policy(secondSeries, "second", second, 0);
+
+        final List<UpdateTask> series = new ArrayList<UpdateTask>();
+        series.add(new ConcurrentUpdateTask(Collections.<UpdateTask>singletonList(new RollingUpdateTask(tasks(first, firstPolicy))), DIRECT, 0));
+        series.add(new ConcurrentUpdateTask(Collections.<UpdateTask>singletonList(new RollingUpdateTask(tasks(second, secondPolicy))), DIRECT, 0));
+        new RollingUpdateTask(series).execute(completion);
+
+        assertEquals(1, completion.count);
+        assertTrue(firstPolicy.isFailed());
+        assertEquals(FAILED, results.responses.get(first.get(0)).get(OUTCOME).asString());
+        // the rest of the failed group and the whole next series are cancelled without being sent
+        assertEquals(CANCELLED, results.responses.get(first.get(1)).get(OUTCOME).asString());
+        for (ServerIdentity server : second) {
+            assertEquals(CANCELLED, results.responses.get(server).get(OUTCOME).asString());
+            assertEquals(-1L, results.times.get(server).longValue());
+        }
+        assertEquals(Collections.singletonList(first.get(0)), executor.started);
+    }
+
+    private static List<ServerIdentity> servers(final String group, final int count) {
+        final List<ServerIdentity> servers = new ArrayList<ServerIdentity>(count);
+        for (int i = 0; i < count; i++) {
+            servers.add(new ServerIdentity("host", group, group + "-" + i));
+        }
+        return servers;
+    }
+
+    private static ServerUpdatePolicy policy(final ConcurrentGroupServerUpdatePolicy parent, final String group,
+            final List<ServerIdentity> servers, final int maxFailures) {
+        final ConcurrentGroupServerUpdatePolicy series = parent != null ? parent
+                : new ConcurrentGroupServerUpdatePolicy(null, Collections.singleton(group));
+        return new ServerUpdatePolicy(series, group, new HashSet<ServerIdentity>(servers), maxFailures);
+    }
+
+    private List<UpdateTask> tasks(final List<ServerIdentity> servers, final ServerUpdatePolicy policy) {
+        final List<UpdateTask> tasks = new ArrayList<UpdateTask>(servers.size());
+        for (ServerIdentity server : servers) {
+            tasks.add(new RunningServerUpdateTask(executor, server, new ModelNode(), policy, results));
+        }
+        return tasks;
+    }
+
+    /**
+     * Completes operations either before returning or when the test says so.
+     */
+    private static class TestExecutor implements ServerOperationExecutor {
+        private final Map<ServerIdentity, ResultHandler> pending = new LinkedHashMap<ServerIdentity, ResultHandler>();
+        private final List<ServerIdentity> started = new ArrayList<ServerIdentity>();
+        private final Set<ServerIdentity> failing = new HashSet<ServerIdentity>();
+        private boolean inline;
+        private int maxInFlight;
+
+        @Override
+        public OperationResult executeServerOperation(final ServerIdentity server, final Operation operation, final ResultHandler handler) {
+            started.add(server);
+            pending.put(server, handler);
+            maxInFlight = Math.max(maxInFlight, pending.size());
+            if (inline) {
+                complete(server);
+            }
+            return new BasicOperationResult(new ModelNode().set("compensate"));
+        }
+
+        void complete(final ServerIdentity server) {
+            final ResultHandler handler = pending.remove(server);
+            if (failing.contains(server)) {
+                handler.handleFailed(new ModelNode().set("failed"));
+            } else {
+                handler.handleResultFragment(ResultHandler.EMPTY_LOCATION, new ModelNode().set("ok"));
+                handler.handleResultComplete();
+            }
+        }
+    }
+
+    private static class TestResultHandler implements AbstractServerUpdateTask.ServerUpdateResultHandler {
+        private final Map<ServerIdentity, ModelNode> responses = new LinkedHashMap<ServerIdentity, ModelNode>();
+        private final Map<ServerIdentity, Long> times = new LinkedHashMap<ServerIdentity, Long>();
+
+        @Override
+        public void handleServerUpdateResult(final ServerIdentity serverId, final ModelNode response, final long executionTime) {
+            responses.put(serverId, response);
+            times.put(serverId, Long.valueOf(executionTime));
+        }
+    }
+
+    private static class TestCompletionHandler implements UpdateTask.CompletionHandler {
+        private int count;
+
+        @Override
+        public void handleComplete() {
+            count++;
+        }
+    }
+}
@@ -113,6 +113,27 @@ public abstract class AbstractComponent implements Component {
      * {@inheritDoc}
      */
     public ComponentInstance createInstance() {
+        waitForStart();
+        //we must use the same context over the life of the instance
+        return createInstance(createObjectInstance(), new SimpleInterceptorFactoryContext(), true);
+    }
+
+    /**
+     * Re-create a component instance around an existing object instance, such as one which has been deserialized
+     * after passivation.  Injections are applied again, but the post-construct lifecycle is not.  Any context data
+     * needed by {@link #constructComponentInstance(Object, InterceptorFactoryContext)} may be put in the given
+     * context beforehand.
+     *
+     * @param objectInstance the existing object instance
+     * @param interceptorContext the interceptor factory context to use over the life of the instance
+     * @return the component instance
+     */
+    protected ComponentInstance restoreInstance(final Object objectInstance, final SimpleInterceptorFactoryContext interceptorContext) {
+        waitForStart();
+        return createInstance(objectInstance, interceptorContext, false);
+    }
+
+    private void waitForStart() {
         if (!gate) {
             // Block until successful start
             synchronized (this) {
@@ -127,12 +148,9 @@ public abstract class AbstractComponent implements Component {
                 }
             }
         }
-        //we must use the same context over the life of the instance
-        SimpleInterceptorFactoryContext interceptorContext = new SimpleInterceptorFactoryContext();
-
-        Object objectInstance = createObjectInstance();
-
+    }
 
+    private ComponentInstance createInstance(final Object objectInstance, final SimpleInterceptorFactoryContext interceptorContext, final boolean postConstruct) {
         //apply injections, and add the clean up interceptors to the pre destroy chain
         //we want interceptors that clean up injections to be last in the interceptor chain
         //so the injections are not cleaned up until all @AroundInvoke methods have been run
@@ -146,7 +164,9 @@ public abstract class AbstractComponent implements Component {
         interceptorContext.getContextData().put(AbstractComponent.INSTANCE_KEY, objectInstance);
         interceptorContext.getContextData().put(AbstractComponent.COMPONENT_INSTANCE_KEY, instance);
 
-        performLifecycle(instance, postConstruct, interceptorContext);
+        if (postConstruct) {
+            performLifecycle(instance, this.postConstruct, interceptorContext);
+        }
 
         // process the interceptors bound to individual methods
         // the interceptors are tied to the lifecycle of the instance
@@ -187,6 +207,16 @@ public abstract class AbstractComponent implements Component {
     @Override
     public void destroyInstance(ComponentInstance instance) {
         performLifecycle(instance,preDestroy,instance.getInterceptorFactoryContext());
+        releaseInstance(instance);
+    }
+
+    /**
+     * Release the injections held by a component instance without running its pre-destroy lifecycle, for example
+     * once its state has been passivated.
+     *
+     * @param instance the component instance
+     */
+    protected void releaseInstance(final ComponentInstance instance) {
         final List<ComponentInjector.InjectionHandle> injectionHandles = (List<ComponentInjector.InjectionHandle>) instance.getInterceptorFactoryContext().getContextData().get(INJECTION_HANDLE_KEY);
         if(injectionHandles != null) {
             for(ComponentInjector.InjectionHandle handle : injectionHandles) {
@@ -0,0 +1,131 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADD;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.ejb3.EJB3SubsystemModel.IDLE_TIMEOUT;
+import static org.jboss.as.ejb3.EJB3SubsystemModel.IDLE_TIMEOUT_UNIT;
+import static org.jboss.as.ejb3.EJB3SubsystemModel.MAX_SIZE;
+import static org.jboss.as.ejb3.EJB3SubsystemModel.PASSIVATION_THREADS;
+import static org.jboss.as.ejb3.EJB3SubsystemModel.STRATEGY;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.BasicOperationResult;
+import org.jboss.as.controller.ModelAddOperationHandler;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationResult;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.ResultHandler;
+import org.jboss.as.controller.RuntimeTask;
+import org.jboss.as.controller.RuntimeTaskContext;
+import org.jboss.as.controller.descriptions.DescriptionProvider;
+import org.jboss.as.controller.operations.common.Util;
+import org.jboss.as.ejb3.component.cache.CacheConfig;
+import org.jboss.as.ejb3.component.cache.CacheConfigService;
+import org.jboss.as.ejb3.component.cache.CacheStrategy;
+import org.jboss.as.server.ServerEnvironment;
+import org.jboss.as.server.ServerEnvironmentService;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceController;
+import org.jboss.msc.service.ServiceTarget;
+
+/**
+ * {@code OperationHandler} adding a named stateful session bean cache configuration to the ejb3 subsystem.
+ */
+class EJB3CacheAdd implements ModelAddOperationHandler, DescriptionProvider {
+
+    static final EJB3CacheAdd INSTANCE = new EJB3CacheAdd();
+
+    private EJB3CacheAdd() {
+        //
+    }
+
+    static ModelNode getRecreateOperation(final ModelNode address, final ModelNode existing) {
+        final ModelNode op = Util.getEmptyOperation(ADD, address);
+        op.get(STRATEGY).set(existing.get(STRATEGY));
+        if (existing.hasDefined(MAX_SIZE)) op.get(MAX_SIZE).set(existing.get(MAX_SIZE));
+        if (existing.hasDefined(IDLE_TIMEOUT)) op.get(IDLE_TIMEOUT).set(existing.get(IDLE_TIMEOUT));
+        if (existing.hasDefined(IDLE_TIMEOUT_UNIT)) op.get(IDLE_TIMEOUT_UNIT).set(existing.get(IDLE_TIMEOUT_UNIT));
+        if (existing.hasDefined(PASSIVATION_THREADS)) op.get(PASSIVATION_THREADS).set(existing.get(PASSIVATION_THREADS));
+        return op;
+    }
+
+    static CacheConfig createCacheConfig(final String name, final ModelNode model) {
+        final CacheStrategy strategy = CacheStrategy.forName(model.require(STRATEGY).asString());
+        final int maxSize = model.hasDefined(MAX_SIZE) ? model.get(MAX_SIZE).asInt() : CacheConfig.DEFAULT_MAX_SIZE;
+        final long idleTimeout = model.hasDefined(IDLE_TIMEOUT) ? model.get(IDLE_TIMEOUT).asLong() : CacheConfig.DEFAULT_IDLE_TIMEOUT;
+        final TimeUnit idleTimeoutUnit = model.hasDefined(IDLE_TIMEOUT_UNIT) ? TimeUnit.valueOf(model.get(IDLE_TIMEOUT_UNIT).asString()) : CacheConfig.DEFAULT_IDLE_TIMEOUT_UNIT;
+        final int passivationThreads = model.hasDefined(PASSIVATION_THREADS) ? model.get(PASSIVATION_THREADS).asInt() : CacheConfig.DEFAULT_PASSIVATION_THREADS;
+        return new CacheConfig(name, strategy, maxSize, idleTimeout, idleTimeoutUnit, passivationThreads);
+    }
+
+    static void installCacheConfigService(final ServiceTarget serviceTarget, final CacheConfig config) {
+        final CacheConfigService service = new CacheConfigService(config);
+        serviceTarget.addService(CacheConfig.serviceName(config.getName()), service)
+                .addDependency(ServerEnvironmentService.SERVICE_NAME, ServerEnvironment.class, service.getServerEnvironmentInjector())
+                .setInitialMode(ServiceController.Mode.ACTIVE)
+                .install();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public OperationResult execute(final OperationContext context, final ModelNode operation, final ResultHandler resultHandler) throws OperationFailedException {
+        final ModelNode opAddr = operation.require(OP_ADDR);
+        final String name = PathAddress.pathAddress(opAddr).getLastElement().getValue();
+
+        // validate before touching the model
+        final CacheConfig config;
+        try {
+            config = createCacheConfig(name, operation);
+        } catch (IllegalArgumentException e) {
+            throw new OperationFailedException(new ModelNode().set(e.getMessage()));
+        }
+
+        final ModelNode subModel = context.getSubModel();
+        subModel.get(STRATEGY).set(config.getStrategy().getLocalName());
+        subModel.get(MAX_SIZE).set(config.getMaxSize());
+        subModel.get(IDLE_TIMEOUT).set(config.getIdleTimeout());
+        subModel.get(IDLE_TIMEOUT_UNIT).set(config.getIdleTimeoutUnit().name());
+        subModel.get(PASSIVATION_THREADS).set(config.getPassivationThreads());
+
+        if (context.getRuntimeContext() != null) {
+            context.getRuntimeContext().setRuntimeTask(new RuntimeTask() {
+                public void execute(RuntimeTaskContext context) throws OperationFailedException {
+                    installCacheConfigService(context.getServiceTarget(), config);
+                    resultHandler.handleResultComplete();
+                }
+            });
+        } else {
+            resultHandler.handleResultComplete();
+        }
+        return new BasicOperationResult(Util.getResourceRemoveOperation(opAddr));
+    }
+
+    @Override
+    public ModelNode getModelDescription(final Locale locale) {
+        return EJB3SubsystemProviders.getCacheAddDescription(locale);
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.ejb3.EJB3SubsystemModel.ACTIVATION_COUNT;
+import static org.jboss.as.ejb3.EJB3SubsystemModel.ACTIVE_COUNT;
+import static org.jboss.as.ejb3.EJB3SubsystemModel.HIT_COUNT;
+import static org.jboss.as.ejb3.EJB3SubsystemModel.PASSIVATED_COUNT;
+import static org.jboss.as.ejb3.EJB3SubsystemModel.PASSIVATION_COUNT;
+import static org.jboss.as.ejb3.EJB3SubsystemModel.PASSIVATION_FAILURE_COUNT;
+
+import org.jboss.as.controller.BasicOperationResult;
+import org.jboss.as.controller.ModelQueryOperationHandler;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationResult;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.ResultHandler;
+import org.jboss.as.controller.RuntimeTask;
+import org.jboss.as.controller.RuntimeTaskContext;
+import org.jboss.as.controller.operations.common.Util;
+import org.jboss.as.ejb3.component.cache.CacheConfig;
+import org.jboss.as.ejb3.component.cache.CacheStatistics;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceController;
+
+/**
+ * Reads the runtime statistics of a named stateful session bean cache.
+ */
+class EJB3CacheMetrics implements ModelQueryOperationHandler {
+
+    static final EJB3CacheMetrics INSTANCE = new EJB3CacheMetrics();
+
+    static final String[] ATTRIBUTES = new String[] {HIT_COUNT, PASSIVATION_COUNT, ACTIVATION_COUNT, PASSIVATION_FAILURE_COUNT, ACTIVE_COUNT, PASSIVATED_COUNT};
+
+    /** {@inheritDoc} */
+    @Override
+    public OperationResult execute(final OperationContext context, final ModelNode operation, final ResultHandler resultHandler) throws OperationFailedException {
+        if (context.getRuntimeContext() != null) {
+            context.getRuntimeContext().setRuntimeTask(new RuntimeTask() {
+                public void execute(RuntimeTaskContext context) throws OperationFailedException {
+                    final String name = PathAddress.pathAddress(operation.require(OP_ADDR)).getLastElement().getValue();
+                    final String attributeName = operation.require(NAME).asString();
+                    final ServiceController<?> controller = context.getServiceRegistry().getService(CacheConfig.serviceName(name));
+                    final ModelNode result = new ModelNode();
+                    if (controller != null && controller.getState() == ServiceController.State.UP) {
+                        final CacheStatistics statistics = ((CacheConfig) controller.getValue()).getStatistics();
+                        if (HIT_COUNT.equals(attributeName)) {
+                            result.set(statistics.getHitCount());
+                        } else if (PASSIVATION_COUNT.equals(attributeName)) {
+                            result.set(statistics.getPassivationCount());
+                        } else if (ACTIVATION_COUNT.equals(attributeName)) {
+                            result.set(statistics.getActivationCount());
+                        } else if (PASSIVATION_FAILURE_COUNT.equals(attributeName)) {
+                            result.set(statistics.getPassivationFailureCount());
+                        } else if (ACTIVE_COUNT.equals(attributeName)) {
+                            result.set(statistics.getActiveCount());
+                        } else if (PASSIVATED_COUNT.equals(attributeName)) {
+                            result.set(statistics.getPassivatedCount());
+                        }
+                    }
+                    resultHandler.handleResultFragment(Util.NO_LOCATION, result);
+                    resultHandler.handleResultComplete();
+                }
+            });
+        } else {
+            resultHandler.handleResultFragment(Util.NO_LOCATION, new ModelNode().set("no metrics available"));
+            resultHandler.handleResultComplete();
+        }
+        return new BasicOperationResult();
+    }
+}
@@ -28,6 +28,7 @@ import org.jboss.as.controller.ExtensionContext;
 import org.jboss.as.controller.ModelQueryOperationHandler;
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationResult;
+import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.ResultHandler;
 import org.jboss.as.controller.SubsystemRegistration;
 import org.jboss.as.controller.descriptions.DescriptionProvider;
@@ -38,17 +39,37 @@ import org.jboss.as.controller.parsing.ParseUtils;
 import org.jboss.as.controller.persistence.SubsystemMarshallingContext;
 import org.jboss.as.controller.registry.ModelNodeRegistration;
 import org.jboss.as.controller.registry.OperationEntry;
+import org.jboss.as.ejb3.component.cache.CacheStrategy;
+import org.jboss.as.ejb3.component.pool.PoolStrategy;
 import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.Property;
 import org.jboss.staxmapper.XMLElementReader;
 import org.jboss.staxmapper.XMLElementWriter;
 import org.jboss.staxmapper.XMLExtendedStreamReader;
 import org.jboss.staxmapper.XMLExtendedStreamWriter;
 
 import javax.xml.stream.XMLStreamException;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
+import static javax.xml.stream.XMLStreamConstants.END_ELEMENT;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.*;
+import static org.jboss.as.ejb3.EJB3SubsystemModel.CACHE;
+import static org.jboss.as.ejb3.EJB3SubsystemModel.CACHES;
+import static org.jboss.as.ejb3.EJB3SubsystemModel.DEFAULT_SFSB_CACHE;
+import static org.jboss.as.ejb3.EJB3SubsystemModel.DEFAULT_SLSB_POOL;
+import static org.jboss.as.ejb3.EJB3SubsystemModel.IDLE_TIMEOUT;
+import static org.jboss.as.ejb3.EJB3SubsystemModel.IDLE_TIMEOUT_UNIT;
+import static org.jboss.as.ejb3.EJB3SubsystemModel.MAX_SIZE;
+import static org.jboss.as.ejb3.EJB3SubsystemModel.PASSIVATION_THREADS;
+import static org.jboss.as.ejb3.EJB3SubsystemModel.POOL;
+import static org.jboss.as.ejb3.EJB3SubsystemModel.POOLS;
+import static org.jboss.as.ejb3.EJB3SubsystemModel.STRATEGY;
+import static org.jboss.as.ejb3.EJB3SubsystemModel.TIMEOUT;
+import static org.jboss.as.ejb3.EJB3SubsystemModel.TIMEOUT_UNIT;
 
 /**
  * @author Emanuel Muckenhuber
@@ -68,6 +89,20 @@ public class EJB3Extension implements Extension {
         registration.registerOperationHandler(ADD, Ejb3SubsystemAdd.INSTANCE, EJB3SubsystemProviders.SUBSYSTEM_ADD, false);
         registration.registerOperationHandler(DESCRIBE, SubsystemDescribeHandler.INSTANCE, SubsystemDescribeHandler.INSTANCE, false, OperationEntry.EntryType.PRIVATE);
         subsystem.registerXMLElementWriter(parser);
+        // instance pools
+        final ModelNodeRegistration pools = registration.registerSubModel(PathElement.pathElement(POOL), EJB3SubsystemProviders.POOL_DESC);
+        pools.registerOperationHandler(ADD, EJB3PoolAdd.INSTANCE, EJB3PoolAdd.INSTANCE, false);
+        pools.registerOperationHandler(REMOVE, EJB3PoolRemove.INSTANCE, EJB3PoolRemove.INSTANCE, false);
+        for (final String attributeName : EJB3PoolMetrics.ATTRIBUTES) {
+            pools.registerMetric(attributeName, EJB3PoolMetrics.INSTANCE);
+        }
+        // stateful session bean caches
+        final ModelNodeRegistration caches = registration.registerSubModel(PathElement.pathElement(CACHE), EJB3SubsystemProviders.CACHE_DESC);
+        caches.registerOperationHandler(ADD, EJB3CacheAdd.INSTANCE, EJB3CacheAdd.INSTANCE, false);
+        caches.registerOperationHandler(REMOVE, EJB3CacheRemove.INSTANCE, EJB3CacheRemove.INSTANCE, false);
+        for (final String attributeName : EJB3CacheMetrics.ATTRIBUTES) {
+            caches.registerMetric(attributeName, EJB3CacheMetrics.INSTANCE);
+        }
     }
 
     /** {@inheritDoc} */
@@ -84,25 +119,228 @@ public class EJB3Extension implements Extension {
             // //TODO seems to be a problem with empty elements cleaning up the queue in FormattingXMLStreamWriter.runAttrQueue
             //context.startSubsystemElement(NewManagedBeansExtension.NAMESPACE, true);
             context.startSubsystemElement(NAMESPACE, false);
+            final ModelNode node = context.getModelNode();
+            if (node.hasDefined(DEFAULT_SLSB_POOL) || node.hasDefined(POOL)) {
+                writer.writeStartElement(POOLS);
+                if (node.hasDefined(DEFAULT_SLSB_POOL)) {
+                    writer.writeAttribute(DEFAULT_SLSB_POOL, node.get(DEFAULT_SLSB_POOL).asString());
+                }
+                if (node.hasDefined(POOL)) {
+                    for (Property pool : node.get(POOL).asPropertyList()) {
+                        final ModelNode poolModel = pool.getValue();
+                        writer.writeEmptyElement(POOL);
+                        writer.writeAttribute(NAME, pool.getName());
+                        writer.writeAttribute(STRATEGY, poolModel.get(STRATEGY).asString());
+                        writeAttribute(writer, poolModel, MAX_SIZE);
+                        writeAttribute(writer, poolModel, TIMEOUT);
+                        writeAttribute(writer, poolModel, TIMEOUT_UNIT);
+                    }
+                }
+                writer.writeEndElement();
+            }
+            if (node.hasDefined(DEFAULT_SFSB_CACHE) || node.hasDefined(CACHE)) {
+                writer.writeStartElement(CACHES);
+                if (node.hasDefined(DEFAULT_SFSB_CACHE)) {
+                    writer.writeAttribute(DEFAULT_SFSB_CACHE, node.get(DEFAULT_SFSB_CACHE).asString());
+                }
+                if (node.hasDefined(CACHE)) {
+                    for (Property cache : node.get(CACHE).asPropertyList()) {
+                        final ModelNode cacheModel = cache.getValue();
+                        writer.writeEmptyElement(CACHE);
+                        writer.writeAttribute(NAME, cache.getName());
+                        writer.writeAttribute(STRATEGY, cacheModel.get(STRATEGY).asString());
+                        writeAttribute(writer, cacheModel, MAX_SIZE);
+                        writeAttribute(writer, cacheModel, IDLE_TIMEOUT);
+                        writeAttribute(writer, cacheModel, IDLE_TIMEOUT_UNIT);
+                        writeAttribute(writer, cacheModel, PASSIVATION_THREADS);
+                    }
+                }
+                writer.writeEndElement();
+            }
             writer.writeEndElement();
         }
 
+        private static void writeAttribute(final XMLExtendedStreamWriter writer, final ModelNode node, final String name) throws XMLStreamException {
+            if (node.hasDefined(name)) {
+                writer.writeAttribute(name, node.get(name).asString());
+            }
+        }
+
         /** {@inheritDoc} */
         @Override
         public void readElement(final XMLExtendedStreamReader reader, final List<ModelNode> list) throws XMLStreamException {
             ParseUtils.requireNoAttributes(reader);
-            ParseUtils.requireNoContent(reader);
+            final ModelNode address = new ModelNode();
+            address.add(SUBSYSTEM, SUBSYSTEM_NAME);
+            address.protect();
+
             final ModelNode update = new ModelNode();
             update.get(OP).set(ADD);
-            update.get(OP_ADDR).add(SUBSYSTEM, SUBSYSTEM_NAME);
+            update.get(OP_ADDR).set(address);
             list.add(update);
+
+            final Set<String> elements = new HashSet<String>();
+            while (reader.hasNext() && reader.nextTag() != END_ELEMENT) {
+                if (!NAMESPACE.equals(reader.getNamespaceURI()) || !elements.add(reader.getLocalName())) {
+                    throw ParseUtils.unexpectedElement(reader);
+                }
+                if (POOLS.equals(reader.getLocalName())) {
+                    parsePools(reader, address, update, list);
+                } else if (CACHES.equals(reader.getLocalName())) {
+                    parseCaches(reader, address, update, list);
+                } else {
+                    throw ParseUtils.unexpectedElement(reader);
+                }
+            }
+        }
+
+        private static void parsePools(final XMLExtendedStreamReader reader, final ModelNode address, final ModelNode subsystemAdd, final List<ModelNode> list) throws XMLStreamException {
+            final int count = reader.getAttributeCount();
+            for (int i = 0; i < count; i++) {
+                ParseUtils.requireNoNamespaceAttribute(reader, i);
+                if (DEFAULT_SLSB_POOL.equals(reader.getAttributeLocalName(i))) {
+                    subsystemAdd.get(DEFAULT_SLSB_POOL).set(reader.getAttributeValue(i));
+                } else {
+                    throw ParseUtils.unexpectedAttribute(reader, i);
+                }
+            }
+            final Set<String> names = new HashSet<String>();
+            while (reader.hasNext() && reader.nextTag() != END_ELEMENT) {
+                if (!NAMESPACE.equals(reader.getNamespaceURI()) || !POOL.equals(reader.getLocalName())) {
+                    throw ParseUtils.unexpectedElement(reader);
+                }
+                final ModelNode poolAdd = new ModelNode();
+                poolAdd.get(OP).set(ADD);
+                String name = null;
+                for (int i = 0; i < reader.getAttributeCount(); i++) {
+                    ParseUtils.requireNoNamespaceAttribute(reader, i);
+                    final String attribute = reader.getAttributeLocalName(i);
+                    final String value = reader.getAttributeValue(i);
+                    if (NAME.equals(attribute)) {
+                        name = value;
+                    } else if (STRATEGY.equals(attribute)) {
+                        try {
+                            PoolStrategy.forName(value);
+                        } catch (IllegalArgumentException e) {
+                            throw ParseUtils.invalidAttributeValue(reader, i);
+                        }
+                        poolAdd.get(STRATEGY).set(value);
+                    } else if (MAX_SIZE.equals(attribute)) {
+                        poolAdd.get(MAX_SIZE).set(ParseUtils.parseBoundedIntegerAttribute(reader, i, 1, Integer.MAX_VALUE));
+                    } else if (TIMEOUT.equals(attribute)) {
+                        try {
+                            poolAdd.get(TIMEOUT).set(Long.parseLong(value));
+                        } catch (NumberFormatException e) {
+                            throw ParseUtils.invalidAttributeValue(reader, i);
+                        }
+                    } else if (TIMEOUT_UNIT.equals(attribute)) {
+                        try {
+                            TimeUnit.valueOf(value);
+                        } catch (IllegalArgumentException e) {
+                            throw ParseUtils.invalidAttributeValue(reader, i);
+                        }
+                        poolAdd.get(TIMEOUT_UNIT).set(value);
+                    } else {
+                        throw ParseUtils.unexpectedAttribute(reader, i);
+                    }
+                }
+                if (name == null || !poolAdd.hasDefined(STRATEGY)) {
+                    final Set<String> missing = new HashSet<String>();
+                    if (name == null) missing.add(NAME);
+                    if (!poolAdd.hasDefined(STRATEGY)) missing.add(STRATEGY);
+                    throw ParseUtils.missingRequired(reader, missing);
+                }
+                if (!names.add(name)) {
+                    throw ParseUtils.duplicateNamedElement(reader, name);
+                }
+                ParseUtils.requireNoContent(reader);
+                poolAdd.get(OP_ADDR).set(address).add(POOL, name);
+                list.add(poolAdd);
+            }
+        }
+
+        private static void parseCaches(final XMLExtendedStreamReader reader, final ModelNode address, final ModelNode subsystemAdd, final List<ModelNode> list) throws XMLStreamException {
+            final int count = reader.getAttributeCount();
+            for (int i = 0; i < count; i++) {
+                ParseUtils.requireNoNamespaceAttribute(reader, i);
+                if (DEFAULT_SFSB_CACHE.equals(reader.getAttributeLocalName(i))) {
+                    subsystemAdd.get(DEFAULT_SFSB_CACHE).set(reader.getAttributeValue(i));
+                } else {
+                    throw ParseUtils.unexpectedAttribute(reader, i);
+                }
+            }
+            final Set<String> names = new HashSet<String>();
+            while (reader.hasNext() && reader.nextTag() != END_ELEMENT) {
+                if (!NAMESPACE.equals(reader.getNamespaceURI()) || !CACHE.equals(reader.getLocalName())) {
+                    throw ParseUtils.unexpectedElement(reader);
+                }
+                final ModelNode cacheAdd = new ModelNode();
+                cacheAdd.get(OP).set(ADD);
+                String name = null;
+                for (int i = 0; i < reader.getAttributeCount(); i++) {
+                    ParseUtils.requireNoNamespaceAttribute(reader, i);
+                    final String attribute = reader.getAttributeLocalName(i);
+                    final String value = reader.getAttributeValue(i);
+                    if (NAME.equals(attribute)) {
+                        name = value;
+                    } else if (STRATEGY.equals(attribute)) {
+                        try {
+                            CacheStrategy.forName(value);
+                        } catch (IllegalArgumentException e) {
+                            throw ParseUtils.invalidAttributeValue(reader, i);
+                        }
+                        cacheAdd.get(STRATEGY).set(value);
+                    } else if (MAX_SIZE.equals(attribute)) {
+                        cacheAdd.get(MAX_SIZE).set(ParseUtils.parseBoundedIntegerAttribute(reader, i, 0, Integer.MAX_VALUE));
+                    } else if (IDLE_TIMEOUT.equals(attribute)) {
+                        try {
+                            final long idleTimeout = Long.parseLong(value);
+                            if (idleTimeout < 0L) {
+                                throw ParseUtils.invalidAttributeValue(reader, i);
+                            }
+                            cacheAdd.get(IDLE_TIMEOUT).set(idleTimeout);
+                        } catch (NumberFormatException e) {
+                            throw ParseUtils.invalidAttributeValue(reader, i);
+                        }
+                    } else if (IDLE_TIMEOUT_UNIT.equals(attribute)) {
+                        try {
+                            TimeUnit.valueOf(value);
+                        } catch (IllegalArgumentException e) {
+                            throw ParseUtils.invalidAttributeValue(reader, i);
+                        }
+                        cacheAdd.get(IDLE_TIMEOUT_UNIT).set(value);
+                    } else if (PASSIVATION_THREADS.equals(attribute)) {
+                        cacheAdd.get(PASSIVATION_THREADS).set(ParseUtils.parseBoundedIntegerAttribute(reader, i, 1, Integer.MAX_VALUE));
+                    } else {
+                        throw ParseUtils.unexpectedAttribute(reader, i);
+                    }
+                }
+                if (name == null || !cacheAdd.hasDefined(STRATEGY)) {
+                    final Set<String> missing = new HashSet<String>();
+                    if (name == null) missing.add(NAME);
+                    if (!cacheAdd.hasDefined(STRATEGY)) missing.add(STRATEGY);
+                    throw ParseUtils.missingRequired(reader, missing);
+                }
+                if (!names.add(name)) {
+                    throw ParseUtils.duplicateNamedElement(reader, name);
+                }
+                ParseUtils.requireNoContent(reader);
+                cacheAdd.get(OP_ADDR).set(address).add(CACHE, name);
+                list.add(cacheAdd);
+            }
         }
     }
 
-    private static ModelNode createAddSubSystemOperation() {
+    private static ModelNode createAddSubSystemOperation(final ModelNode model) {
         final ModelNode subsystem = new ModelNode();
         subsystem.get(OP).set(ADD);
         subsystem.get(OP_ADDR).add(ModelDescriptionConstants.SUBSYSTEM, SUBSYSTEM_NAME);
+        if (model.hasDefined(DEFAULT_SLSB_POOL)) {
+            subsystem.get(DEFAULT_SLSB_POOL).set(model.get(DEFAULT_SLSB_POOL));
+        }
+        if (model.hasDefined(DEFAULT_SFSB_CACHE)) {
+            subsystem.get(DEFAULT_SFSB_CACHE).set(model.get(DEFAULT_SFSB_CACHE));
+        }
         return subsystem;
     }
 
@@ -110,8 +348,25 @@ public class EJB3Extension implements Extension {
         static final SubsystemDescribeHandler INSTANCE = new SubsystemDescribeHandler();
         @Override
         public OperationResult execute(OperationContext context, ModelNode operation, ResultHandler resultHandler) {
+            final ModelNode model = context.getSubModel();
             ModelNode node = new ModelNode();
-            node.add(createAddSubSystemOperation());
+            node.add(createAddSubSystemOperation(model));
+            if (model.hasDefined(POOL)) {
+                for (Property pool : model.get(POOL).asPropertyList()) {
+                    final ModelNode address = new ModelNode();
+                    address.add(ModelDescriptionConstants.SUBSYSTEM, SUBSYSTEM_NAME);
+                    address.add(POOL, pool.getName());
+                    node.add(EJB3PoolAdd.getRecreateOperation(address, pool.getValue()));
+                }
+            }
+            if (model.hasDefined(CACHE)) {
+                for (Property cache : model.get(CACHE).asPropertyList()) {
+                    final ModelNode address = new ModelNode();
+                    address.add(ModelDescriptionConstants.SUBSYSTEM, SUBSYSTEM_NAME);
+                    address.add(CACHE, cache.getName());
+                    node.add(EJB3CacheAdd.getRecreateOperation(address, cache.getValue()));
+                }
+            }
 
             resultHandler.handleResultFragment(Util.NO_LOCATION, node);
             resultHandler.handleResultComplete();
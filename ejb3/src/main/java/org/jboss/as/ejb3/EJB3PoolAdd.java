@@ -0,0 +1,119 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADD;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.ejb3.EJB3SubsystemModel.MAX_SIZE;
+import static org.jboss.as.ejb3.EJB3SubsystemModel.STRATEGY;
+import static org.jboss.as.ejb3.EJB3SubsystemModel.TIMEOUT;
+import static org.jboss.as.ejb3.EJB3SubsystemModel.TIMEOUT_UNIT;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.BasicOperationResult;
+import org.jboss.as.controller.ModelAddOperationHandler;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationResult;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.ResultHandler;
+import org.jboss.as.controller.RuntimeTask;
+import org.jboss.as.controller.RuntimeTaskContext;
+import org.jboss.as.controller.descriptions.DescriptionProvider;
+import org.jboss.as.controller.operations.common.Util;
+import org.jboss.as.ejb3.component.pool.PoolConfig;
+import org.jboss.as.ejb3.component.pool.PoolStrategy;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceController;
+import org.jboss.msc.service.ValueService;
+import org.jboss.msc.value.ImmediateValue;
+
+/**
+ * {@code OperationHandler} adding a named instance pool configuration to the ejb3 subsystem.
+ */
+class EJB3PoolAdd implements ModelAddOperationHandler, DescriptionProvider {
+
+    static final EJB3PoolAdd INSTANCE = new EJB3PoolAdd();
+
+    private EJB3PoolAdd() {
+        //
+    }
+
+    static ModelNode getRecreateOperation(final ModelNode address, final ModelNode existing) {
+        final ModelNode op = Util.getEmptyOperation(ADD, address);
+        op.get(STRATEGY).set(existing.get(STRATEGY));
+        if (existing.hasDefined(MAX_SIZE)) op.get(MAX_SIZE).set(existing.get(MAX_SIZE));
+        if (existing.hasDefined(TIMEOUT)) op.get(TIMEOUT).set(existing.get(TIMEOUT));
+        if (existing.hasDefined(TIMEOUT_UNIT)) op.get(TIMEOUT_UNIT).set(existing.get(TIMEOUT_UNIT));
+        return op;
+    }
+
+    static PoolConfig createPoolConfig(final String name, final ModelNode model) {
+        final PoolStrategy strategy = PoolStrategy.forName(model.require(STRATEGY).asString());
+        final int maxSize = model.hasDefined(MAX_SIZE) ? model.get(MAX_SIZE).asInt() : PoolConfig.DEFAULT_MAX_SIZE;
+        final long timeout = model.hasDefined(TIMEOUT) ? model.get(TIMEOUT).asLong() : PoolConfig.DEFAULT_TIMEOUT;
+        final TimeUnit timeoutUnit = model.hasDefined(TIMEOUT_UNIT) ? TimeUnit.valueOf(model.get(TIMEOUT_UNIT).asString()) : PoolConfig.DEFAULT_TIMEOUT_UNIT;
+        return new PoolConfig(name, strategy, maxSize, timeout, timeoutUnit);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public OperationResult execute(final OperationContext context, final ModelNode operation, final ResultHandler resultHandler) throws OperationFailedException {
+        final ModelNode opAddr = operation.require(OP_ADDR);
+        final String name = PathAddress.pathAddress(opAddr).getLastElement().getValue();
+
+        // validate before touching the model
+        final PoolConfig config;
+        try {
+            config = createPoolConfig(name, operation);
+        } catch (IllegalArgumentException e) {
+            throw new OperationFailedException(new ModelNode().set(e.getMessage()));
+        }
+
+        final ModelNode subModel = context.getSubModel();
+        subModel.get(STRATEGY).set(config.getStrategy().getLocalName());
+        subModel.get(MAX_SIZE).set(config.getMaxSize());
+        subModel.get(TIMEOUT).set(config.getTimeout());
+        subModel.get(TIMEOUT_UNIT).set(config.getTimeoutUnit().name());
+
+        if (context.getRuntimeContext() != null) {
+            context.getRuntimeContext().setRuntimeTask(new RuntimeTask() {
+                public void execute(RuntimeTaskContext context) throws OperationFailedException {
+                    context.getServiceTarget().addService(PoolConfig.serviceName(name), new ValueService<PoolConfig>(new ImmediateValue<PoolConfig>(config)))
+                            .setInitialMode(ServiceController.Mode.ACTIVE)
+                            .install();
+                    resultHandler.handleResultComplete();
+                }
+            });
+        } else {
+            resultHandler.handleResultComplete();
+        }
+        return new BasicOperationResult(Util.getResourceRemoveOperation(opAddr));
+    }
+
+    @Override
+    public ModelNode getModelDescription(final Locale locale) {
+        return EJB3SubsystemProviders.getPoolAddDescription(locale);
+    }
+}
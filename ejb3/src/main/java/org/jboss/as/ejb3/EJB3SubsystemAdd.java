@@ -32,10 +32,13 @@ import org.jboss.as.controller.RuntimeTask;
 import org.jboss.as.controller.RuntimeTaskContext;
 import org.jboss.as.controller.operations.common.Util;
 import org.jboss.as.ejb3.component.EJBUtilities;
+import org.jboss.as.ejb3.component.cache.CacheConfig;
+import org.jboss.as.ejb3.component.pool.PoolConfig;
 import org.jboss.as.ejb3.deployment.processors.AccessTimeoutAnnotationProcessor;
 import org.jboss.as.ejb3.deployment.processors.ApplicationExceptionAnnotationProcessor;
 import org.jboss.as.ejb3.deployment.processors.AsynchronousAnnotationProcessor;
 import org.jboss.as.ejb3.deployment.processors.BusinessViewAnnotationProcessor;
+import org.jboss.as.ejb3.deployment.processors.CacheAnnotationProcessor;
 import org.jboss.as.ejb3.deployment.processors.ConcurrencyManagementAnnotationProcessor;
 import org.jboss.as.ejb3.deployment.processors.EjbAnnotationProcessor;
 import org.jboss.as.ejb3.deployment.processors.EjbContextJndiBindingProcessor;
@@ -49,6 +52,7 @@ import org.jboss.as.ejb3.deployment.processors.EjbResourceInjectionAnnotationPro
 import org.jboss.as.ejb3.deployment.processors.ImplicitLocalViewProcessor;
 import org.jboss.as.ejb3.deployment.processors.LockAnnotationProcessor;
 import org.jboss.as.ejb3.deployment.processors.MessageDrivenAnnotationProcessor;
+import org.jboss.as.ejb3.deployment.processors.PoolAnnotationProcessor;
 import org.jboss.as.ejb3.deployment.processors.ResourceAdapterAnnotationProcessor;
 import org.jboss.as.ejb3.deployment.processors.StartupAnnotationProcessor;
 import org.jboss.as.ejb3.deployment.processors.TransactionAttributeAnnotationProcessor;
@@ -63,12 +67,17 @@ import org.jboss.as.txn.TxnServices;
 import org.jboss.dmr.ModelNode;
 import org.jboss.msc.service.ServiceController;
 import org.jboss.msc.service.ServiceTarget;
+import org.jboss.msc.service.ValueService;
+import org.jboss.msc.value.ImmediateValue;
+import org.jboss.msc.value.InjectedValue;
 
 import javax.transaction.TransactionManager;
 import javax.transaction.TransactionSynchronizationRegistry;
 import javax.transaction.UserTransaction;
 
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.ejb3.EJB3SubsystemModel.DEFAULT_SFSB_CACHE;
+import static org.jboss.as.ejb3.EJB3SubsystemModel.DEFAULT_SLSB_POOL;
 
 /**
  * @author Emanuel Muckenhuber
@@ -103,6 +112,8 @@ class Ejb3SubsystemAdd implements ModelAddOperationHandler, BootOperationHandler
                             .addDependency(TxnServices.JBOSS_TXN_USER_TRANSACTION, UserTransaction.class, utilities.getUserTransactionInjector())
                             .setInitialMode(ServiceController.Mode.ACTIVE)
                             .install();
+                    installDefaultPool(serviceTarget, operation);
+                    installDefaultCache(serviceTarget, operation);
                     resultHandler.handleResultComplete(); // TODO: Listener
                 }
             });
@@ -128,6 +139,8 @@ class Ejb3SubsystemAdd implements ModelAddOperationHandler, BootOperationHandler
             updateContext.addDeploymentProcessor(Phase.PARSE, Phase.PARSE_EJB_RESOURCE_ADAPTER_ANNOTATION, new ResourceAdapterAnnotationProcessor());
             updateContext.addDeploymentProcessor(Phase.PARSE, Phase.PARSE_EJB_ASYNCHRONOUS_ANNOTATION, new AsynchronousAnnotationProcessor());
             updateContext.addDeploymentProcessor(Phase.PARSE, Phase.PARSE_EJB_APPLICATION_EXCEPTION_ANNOTATION, new ApplicationExceptionAnnotationProcessor());
+            updateContext.addDeploymentProcessor(Phase.PARSE, Phase.PARSE_EJB_POOL_ANNOTATION, new PoolAnnotationProcessor());
+            updateContext.addDeploymentProcessor(Phase.PARSE, Phase.PARSE_EJB_CACHE_ANNOTATION, new CacheAnnotationProcessor());
 
             updateContext.addDeploymentProcessor(Phase.DEPENDENCIES, Phase.DEPENDENCIES_EJB, new EjbDependencyDeploymentUnitProcessor());
 
@@ -143,9 +156,56 @@ class Ejb3SubsystemAdd implements ModelAddOperationHandler, BootOperationHandler
             // updateContext.addDeploymentProcessor(processor, priority);
         }
 
-        context.getSubModel().setEmptyObject();
+        final ModelNode subModel = context.getSubModel();
+        subModel.setEmptyObject();
+        if (operation.hasDefined(DEFAULT_SLSB_POOL)) {
+            subModel.get(DEFAULT_SLSB_POOL).set(operation.get(DEFAULT_SLSB_POOL));
+        }
+        if (operation.hasDefined(DEFAULT_SFSB_CACHE)) {
+            subModel.get(DEFAULT_SFSB_CACHE).set(operation.get(DEFAULT_SFSB_CACHE));
+        }
         resultHandler.handleResultComplete();
         return new BasicOperationResult(compensatingOperation);
     }
 
+    /**
+     * Install the pool configuration used by stateless session beans which do not name a pool: either an alias of
+     * the configured {@code default-slsb-pool}, or a strict-max pool with the historical defaults.
+     */
+    private static void installDefaultPool(final ServiceTarget serviceTarget, final ModelNode operation) {
+        if (operation.hasDefined(DEFAULT_SLSB_POOL)) {
+            final InjectedValue<PoolConfig> defaultPool = new InjectedValue<PoolConfig>();
+            serviceTarget.addService(PoolConfig.DEFAULT_SLSB_POOL_SERVICE_NAME, new ValueService<PoolConfig>(defaultPool))
+                    .addDependency(PoolConfig.serviceName(operation.get(DEFAULT_SLSB_POOL).asString()), PoolConfig.class, defaultPool)
+                    .setInitialMode(ServiceController.Mode.ACTIVE)
+                    .install();
+        } else {
+            final PoolConfig defaultPool = new PoolConfig(PoolConfig.DEFAULT_SLSB_POOL_NAME, PoolConfig.DEFAULT_STRATEGY,
+                    PoolConfig.DEFAULT_MAX_SIZE, PoolConfig.DEFAULT_TIMEOUT, PoolConfig.DEFAULT_TIMEOUT_UNIT);
+            serviceTarget.addService(PoolConfig.DEFAULT_SLSB_POOL_SERVICE_NAME, new ValueService<PoolConfig>(new ImmediateValue<PoolConfig>(defaultPool)))
+                    .setInitialMode(ServiceController.Mode.ACTIVE)
+                    .install();
+        }
+    }
+
+    /**
+     * Install the cache configuration used by stateful session beans which do not name a cache: either an alias of
+     * the configured {@code default-sfsb-cache}, or a simple cache keeping all sessions in memory.
+     */
+    private static void installDefaultCache(final ServiceTarget serviceTarget, final ModelNode operation) {
+        if (operation.hasDefined(DEFAULT_SFSB_CACHE)) {
+            final InjectedValue<CacheConfig> defaultCache = new InjectedValue<CacheConfig>();
+            serviceTarget.addService(CacheConfig.DEFAULT_SFSB_CACHE_SERVICE_NAME, new ValueService<CacheConfig>(defaultCache))
+                    .addDependency(CacheConfig.serviceName(operation.get(DEFAULT_SFSB_CACHE).asString()), CacheConfig.class, defaultCache)
+                    .setInitialMode(ServiceController.Mode.ACTIVE)
+                    .install();
+        } else {
+            final CacheConfig defaultCache = new CacheConfig(CacheConfig.DEFAULT_SFSB_CACHE_NAME, CacheConfig.DEFAULT_STRATEGY, CacheConfig.DEFAULT_MAX_SIZE,
+                    CacheConfig.DEFAULT_IDLE_TIMEOUT, CacheConfig.DEFAULT_IDLE_TIMEOUT_UNIT, CacheConfig.DEFAULT_PASSIVATION_THREADS);
+            serviceTarget.addService(CacheConfig.DEFAULT_SFSB_CACHE_SERVICE_NAME, new ValueService<CacheConfig>(new ImmediateValue<CacheConfig>(defaultCache)))
+                    .setInitialMode(ServiceController.Mode.ACTIVE)
+                    .install();
+        }
+    }
+
 }
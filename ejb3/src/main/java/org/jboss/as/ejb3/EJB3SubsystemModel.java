@@ -0,0 +1,60 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3;
+
+/**
+ * Attribute, element and child names of the ejb3 subsystem model.
+ */
+interface EJB3SubsystemModel {
+
+    String DEFAULT_SLSB_POOL = "default-slsb-pool";
+    String POOLS = "pools";
+    String POOL = "pool";
+    String STRATEGY = "strategy";
+    String MAX_SIZE = "max-size";
+    String TIMEOUT = "timeout";
+    String TIMEOUT_UNIT = "timeout-unit";
+
+    // pool metrics
+    String AVAILABLE_COUNT = "available-count";
+    String CREATE_COUNT = "create-count";
+    String REMOVE_COUNT = "remove-count";
+    String CURRENT_SIZE = "current-size";
+    String ACQUISITION_COUNT = "acquisition-count";
+    String AVERAGE_WAIT_TIME = "average-wait-time";
+    String MAX_WAIT_TIME = "max-wait-time";
+
+    String DEFAULT_SFSB_CACHE = "default-sfsb-cache";
+    String CACHES = "caches";
+    String CACHE = "cache";
+    String IDLE_TIMEOUT = "idle-timeout";
+    String IDLE_TIMEOUT_UNIT = "idle-timeout-unit";
+    String PASSIVATION_THREADS = "passivation-threads";
+
+    // cache metrics
+    String HIT_COUNT = "hit-count";
+    String PASSIVATION_COUNT = "passivation-count";
+    String ACTIVATION_COUNT = "activation-count";
+    String PASSIVATION_FAILURE_COUNT = "passivation-failure-count";
+    String ACTIVE_COUNT = "active-count";
+    String PASSIVATED_COUNT = "passivated-count";
+}
@@ -23,17 +23,48 @@
 package org.jboss.as.ejb3;
 
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADD;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ATTRIBUTES;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CHILDREN;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DESCRIPTION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HEAD_COMMENT_ALLOWED;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAMESPACE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATION_NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REMOVE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REQUEST_PROPERTIES;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REQUIRED;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.TAIL_COMMENT_ALLOWED;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.TYPE;
+import static org.jboss.as.ejb3.EJB3SubsystemModel.ACQUISITION_COUNT;
+import static org.jboss.as.ejb3.EJB3SubsystemModel.ACTIVATION_COUNT;
+import static org.jboss.as.ejb3.EJB3SubsystemModel.ACTIVE_COUNT;
+import static org.jboss.as.ejb3.EJB3SubsystemModel.AVAILABLE_COUNT;
+import static org.jboss.as.ejb3.EJB3SubsystemModel.AVERAGE_WAIT_TIME;
+import static org.jboss.as.ejb3.EJB3SubsystemModel.CACHE;
+import static org.jboss.as.ejb3.EJB3SubsystemModel.CREATE_COUNT;
+import static org.jboss.as.ejb3.EJB3SubsystemModel.CURRENT_SIZE;
+import static org.jboss.as.ejb3.EJB3SubsystemModel.DEFAULT_SFSB_CACHE;
+import static org.jboss.as.ejb3.EJB3SubsystemModel.DEFAULT_SLSB_POOL;
+import static org.jboss.as.ejb3.EJB3SubsystemModel.HIT_COUNT;
+import static org.jboss.as.ejb3.EJB3SubsystemModel.IDLE_TIMEOUT;
+import static org.jboss.as.ejb3.EJB3SubsystemModel.IDLE_TIMEOUT_UNIT;
+import static org.jboss.as.ejb3.EJB3SubsystemModel.MAX_SIZE;
+import static org.jboss.as.ejb3.EJB3SubsystemModel.MAX_WAIT_TIME;
+import static org.jboss.as.ejb3.EJB3SubsystemModel.PASSIVATED_COUNT;
+import static org.jboss.as.ejb3.EJB3SubsystemModel.PASSIVATION_COUNT;
+import static org.jboss.as.ejb3.EJB3SubsystemModel.PASSIVATION_FAILURE_COUNT;
+import static org.jboss.as.ejb3.EJB3SubsystemModel.PASSIVATION_THREADS;
+import static org.jboss.as.ejb3.EJB3SubsystemModel.POOL;
+import static org.jboss.as.ejb3.EJB3SubsystemModel.REMOVE_COUNT;
+import static org.jboss.as.ejb3.EJB3SubsystemModel.STRATEGY;
+import static org.jboss.as.ejb3.EJB3SubsystemModel.TIMEOUT;
+import static org.jboss.as.ejb3.EJB3SubsystemModel.TIMEOUT_UNIT;
 
 import java.util.Locale;
 import java.util.ResourceBundle;
 
 import org.jboss.as.controller.descriptions.DescriptionProvider;
 import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
 
 /**
  * @author Emanuel Muckenhuber
@@ -52,6 +83,20 @@ class EJB3SubsystemProviders {
             subsystem.get(TAIL_COMMENT_ALLOWED).set(true);
             subsystem.get(NAMESPACE).set(EJB3Extension.NAMESPACE);
 
+            subsystem.get(ATTRIBUTES, DEFAULT_SLSB_POOL, DESCRIPTION).set(bundle.getString("ejb3.default-slsb-pool"));
+            subsystem.get(ATTRIBUTES, DEFAULT_SLSB_POOL, TYPE).set(ModelType.STRING);
+            subsystem.get(ATTRIBUTES, DEFAULT_SLSB_POOL, REQUIRED).set(false);
+
+            subsystem.get(ATTRIBUTES, DEFAULT_SFSB_CACHE, DESCRIPTION).set(bundle.getString("ejb3.default-sfsb-cache"));
+            subsystem.get(ATTRIBUTES, DEFAULT_SFSB_CACHE, TYPE).set(ModelType.STRING);
+            subsystem.get(ATTRIBUTES, DEFAULT_SFSB_CACHE, REQUIRED).set(false);
+
+            subsystem.get(CHILDREN, POOL, DESCRIPTION).set(bundle.getString("ejb3.pools"));
+            subsystem.get(CHILDREN, POOL, REQUIRED).set(false);
+
+            subsystem.get(CHILDREN, CACHE, DESCRIPTION).set(bundle.getString("ejb3.caches"));
+            subsystem.get(CHILDREN, CACHE, REQUIRED).set(false);
+
             return subsystem;
         }
     };
@@ -65,10 +110,160 @@ class EJB3SubsystemProviders {
             op.get(OPERATION_NAME).set(ADD);
             op.get(DESCRIPTION).set(bundle.getString("ejb3.add"));
 
+            op.get(REQUEST_PROPERTIES, DEFAULT_SLSB_POOL, DESCRIPTION).set(bundle.getString("ejb3.default-slsb-pool"));
+            op.get(REQUEST_PROPERTIES, DEFAULT_SLSB_POOL, TYPE).set(ModelType.STRING);
+            op.get(REQUEST_PROPERTIES, DEFAULT_SLSB_POOL, REQUIRED).set(false);
+
+            op.get(REQUEST_PROPERTIES, DEFAULT_SFSB_CACHE, DESCRIPTION).set(bundle.getString("ejb3.default-sfsb-cache"));
+            op.get(REQUEST_PROPERTIES, DEFAULT_SFSB_CACHE, TYPE).set(ModelType.STRING);
+            op.get(REQUEST_PROPERTIES, DEFAULT_SFSB_CACHE, REQUIRED).set(false);
+
             return op;
         }
     };
 
+    static final DescriptionProvider POOL_DESC = new DescriptionProvider() {
+
+        public ModelNode getModelDescription(final Locale locale) {
+            final ResourceBundle bundle = getResourceBundle(locale);
+
+            final ModelNode node = new ModelNode();
+            node.get(DESCRIPTION).set(bundle.getString("ejb3.pool"));
+            node.get(HEAD_COMMENT_ALLOWED).set(true);
+            node.get(TAIL_COMMENT_ALLOWED).set(true);
+
+            addPoolAttributes(node.get(ATTRIBUTES), bundle);
+
+            node.get(ATTRIBUTES, AVAILABLE_COUNT, DESCRIPTION).set(bundle.getString("ejb3.pool.available-count"));
+            node.get(ATTRIBUTES, AVAILABLE_COUNT, TYPE).set(ModelType.INT);
+            node.get(ATTRIBUTES, CREATE_COUNT, DESCRIPTION).set(bundle.getString("ejb3.pool.create-count"));
+            node.get(ATTRIBUTES, CREATE_COUNT, TYPE).set(ModelType.INT);
+            node.get(ATTRIBUTES, REMOVE_COUNT, DESCRIPTION).set(bundle.getString("ejb3.pool.remove-count"));
+            node.get(ATTRIBUTES, REMOVE_COUNT, TYPE).set(ModelType.INT);
+            node.get(ATTRIBUTES, CURRENT_SIZE, DESCRIPTION).set(bundle.getString("ejb3.pool.current-size"));
+            node.get(ATTRIBUTES, CURRENT_SIZE, TYPE).set(ModelType.INT);
+            node.get(ATTRIBUTES, ACQUISITION_COUNT, DESCRIPTION).set(bundle.getString("ejb3.pool.acquisition-count"));
+            node.get(ATTRIBUTES, ACQUISITION_COUNT, TYPE).set(ModelType.LONG);
+            node.get(ATTRIBUTES, AVERAGE_WAIT_TIME, DESCRIPTION).set(bundle.getString("ejb3.pool.average-wait-time"));
+            node.get(ATTRIBUTES, AVERAGE_WAIT_TIME, TYPE).set(ModelType.LONG);
+            node.get(ATTRIBUTES, MAX_WAIT_TIME, DESCRIPTION).set(bundle.getString("ejb3.pool.max-wait-time"));
+            node.get(ATTRIBUTES, MAX_WAIT_TIME, TYPE).set(ModelType.LONG);
+
+            return node;
+        }
+    };
+
+    static final DescriptionProvider CACHE_DESC = new DescriptionProvider() {
+
+        public ModelNode getModelDescription(final Locale locale) {
+            final ResourceBundle bundle = getResourceBundle(locale);
+
+            final ModelNode node = new ModelNode();
+            node.get(DESCRIPTION).set(bundle.getString("ejb3.cache"));
+            node.get(HEAD_COMMENT_ALLOWED).set(true);
+            node.get(TAIL_COMMENT_ALLOWED).set(true);
+
+            addCacheAttributes(node.get(ATTRIBUTES), bundle);
+
+            node.get(ATTRIBUTES, HIT_COUNT, DESCRIPTION).set(bundle.getString("ejb3.cache.hit-count"));
+            node.get(ATTRIBUTES, HIT_COUNT, TYPE).set(ModelType.LONG);
+            node.get(ATTRIBUTES, PASSIVATION_COUNT, DESCRIPTION).set(bundle.getString("ejb3.cache.passivation-count"));
+            node.get(ATTRIBUTES, PASSIVATION_COUNT, TYPE).set(ModelType.LONG);
+            node.get(ATTRIBUTES, ACTIVATION_COUNT, DESCRIPTION).set(bundle.getString("ejb3.cache.activation-count"));
+            node.get(ATTRIBUTES, ACTIVATION_COUNT, TYPE).set(ModelType.LONG);
+            node.get(ATTRIBUTES, PASSIVATION_FAILURE_COUNT, DESCRIPTION).set(bundle.getString("ejb3.cache.passivation-failure-count"));
+            node.get(ATTRIBUTES, PASSIVATION_FAILURE_COUNT, TYPE).set(ModelType.LONG);
+            node.get(ATTRIBUTES, ACTIVE_COUNT, DESCRIPTION).set(bundle.getString("ejb3.cache.active-count"));
+            node.get(ATTRIBUTES, ACTIVE_COUNT, TYPE).set(ModelType.INT);
+            node.get(ATTRIBUTES, PASSIVATED_COUNT, DESCRIPTION).set(bundle.getString("ejb3.cache.passivated-count"));
+            node.get(ATTRIBUTES, PASSIVATED_COUNT, TYPE).set(ModelType.INT);
+
+            return node;
+        }
+    };
+
+    static ModelNode getPoolAddDescription(final Locale locale) {
+        final ResourceBundle bundle = getResourceBundle(locale);
+
+        final ModelNode op = new ModelNode();
+        op.get(OPERATION_NAME).set(ADD);
+        op.get(DESCRIPTION).set(bundle.getString("ejb3.pool.add"));
+        addPoolAttributes(op.get(REQUEST_PROPERTIES), bundle);
+
+        return op;
+    }
+
+    static ModelNode getPoolRemoveDescription(final Locale locale) {
+        final ResourceBundle bundle = getResourceBundle(locale);
+
+        final ModelNode op = new ModelNode();
+        op.get(OPERATION_NAME).set(REMOVE);
+        op.get(DESCRIPTION).set(bundle.getString("ejb3.pool.remove"));
+
+        return op;
+    }
+
+    private static void addPoolAttributes(final ModelNode node, final ResourceBundle bundle) {
+        node.get(STRATEGY, DESCRIPTION).set(bundle.getString("ejb3.pool.strategy"));
+        node.get(STRATEGY, TYPE).set(ModelType.STRING);
+        node.get(STRATEGY, REQUIRED).set(true);
+
+        node.get(MAX_SIZE, DESCRIPTION).set(bundle.getString("ejb3.pool.max-size"));
+        node.get(MAX_SIZE, TYPE).set(ModelType.INT);
+        node.get(MAX_SIZE, REQUIRED).set(false);
+
+        node.get(TIMEOUT, DESCRIPTION).set(bundle.getString("ejb3.pool.timeout"));
+        node.get(TIMEOUT, TYPE).set(ModelType.LONG);
+        node.get(TIMEOUT, REQUIRED).set(false);
+
+        node.get(TIMEOUT_UNIT, DESCRIPTION).set(bundle.getString("ejb3.pool.timeout-unit"));
+        node.get(TIMEOUT_UNIT, TYPE).set(ModelType.STRING);
+        node.get(TIMEOUT_UNIT, REQUIRED).set(false);
+    }
+
+    static ModelNode getCacheAddDescription(final Locale locale) {
+        final ResourceBundle bundle = getResourceBundle(locale);
+
+        final ModelNode op = new ModelNode();
+        op.get(OPERATION_NAME).set(ADD);
+        op.get(DESCRIPTION).set(bundle.getString("ejb3.cache.add"));
+        addCacheAttributes(op.get(REQUEST_PROPERTIES), bundle);
+
+        return op;
+    }
+
+    static ModelNode getCacheRemoveDescription(final Locale locale) {
+        final ResourceBundle bundle = getResourceBundle(locale);
+
+        final ModelNode op = new ModelNode();
+        op.get(OPERATION_NAME).set(REMOVE);
+        op.get(DESCRIPTION).set(bundle.getString("ejb3.cache.remove"));
+
+        return op;
+    }
+
+    private static void addCacheAttributes(final ModelNode node, final ResourceBundle bundle) {
+        node.get(STRATEGY, DESCRIPTION).set(bundle.getString("ejb3.cache.strategy"));
+        node.get(STRATEGY, TYPE).set(ModelType.STRING);
+        node.get(STRATEGY, REQUIRED).set(true);
+
+        node.get(MAX_SIZE, DESCRIPTION).set(bundle.getString("ejb3.cache.max-size"));
+        node.get(MAX_SIZE, TYPE).set(ModelType.INT);
+        node.get(MAX_SIZE, REQUIRED).set(false);
+
+        node.get(IDLE_TIMEOUT, DESCRIPTION).set(bundle.getString("ejb3.cache.idle-timeout"));
+        node.get(IDLE_TIMEOUT, TYPE).set(ModelType.LONG);
+        node.get(IDLE_TIMEOUT, REQUIRED).set(false);
+
+        node.get(IDLE_TIMEOUT_UNIT, DESCRIPTION).set(bundle.getString("ejb3.cache.idle-timeout-unit"));
+        node.get(IDLE_TIMEOUT_UNIT, TYPE).set(ModelType.STRING);
+        node.get(IDLE_TIMEOUT_UNIT, REQUIRED).set(false);
+
+        node.get(PASSIVATION_THREADS, DESCRIPTION).set(bundle.getString("ejb3.cache.passivation-threads"));
+        node.get(PASSIVATION_THREADS, TYPE).set(ModelType.INT);
+        node.get(PASSIVATION_THREADS, REQUIRED).set(false);
+    }
+
     private static ResourceBundle getResourceBundle(Locale locale) {
         if (locale == null) {
             locale = Locale.getDefault();
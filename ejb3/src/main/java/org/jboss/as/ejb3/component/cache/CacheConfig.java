@@ -0,0 +1,174 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.component.cache;
+
+import java.io.File;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.ejb3.cache.Cache;
+import org.jboss.ejb3.cache.Identifiable;
+import org.jboss.ejb3.cache.NoPassivationCache;
+import org.jboss.msc.service.ServiceName;
+
+/**
+ * A named stateful session bean cache configuration of the ejb3 subsystem.  Each component referencing the
+ * configuration gets its own {@link Cache} created through {@link #createCache(String, ClassLoader, Passivator)},
+ * while the passivation threads, the passivation directory and the statistics are shared per configuration.  The
+ * runtime resources are provided by the {@link CacheConfigService} once it is started.
+ */
+public final class CacheConfig {
+
+    /**
+     * The base service name of the installed cache configurations.
+     */
+    public static final ServiceName SERVICE_NAME = ServiceName.JBOSS.append("ejb3", "cache");
+
+    /**
+     * The service name of the cache configuration used by stateful session beans which do not name a cache.
+     */
+    public static final ServiceName DEFAULT_SFSB_CACHE_SERVICE_NAME = ServiceName.JBOSS.append("ejb3", "default-sfsb-cache");
+
+    public static final String DEFAULT_SFSB_CACHE_NAME = "sfsb-simple-cache";
+    public static final CacheStrategy DEFAULT_STRATEGY = CacheStrategy.SIMPLE;
+    public static final int DEFAULT_MAX_SIZE = 10000;
+    public static final long DEFAULT_IDLE_TIMEOUT = 0L;
+    public static final TimeUnit DEFAULT_IDLE_TIMEOUT_UNIT = TimeUnit.SECONDS;
+    public static final int DEFAULT_PASSIVATION_THREADS = 1;
+
+    private static final AtomicInteger storeCount = new AtomicInteger();
+
+    private final String name;
+    private final CacheStrategy strategy;
+    private final int maxSize;
+    private final long idleTimeout;
+    private final TimeUnit idleTimeoutUnit;
+    private final int passivationThreads;
+    private final CacheStatistics statistics = new CacheStatistics();
+    private volatile ScheduledExecutorService executor;
+    private volatile File passivationDirectory;
+
+    public CacheConfig(final String name, final CacheStrategy strategy, final int maxSize, final long idleTimeout, final TimeUnit idleTimeoutUnit, final int passivationThreads) {
+        if (name == null) {
+            throw new IllegalArgumentException("name is null");
+        }
+        if (strategy == null) {
+            throw new IllegalArgumentException("strategy is null");
+        }
+        if (idleTimeoutUnit == null) {
+            throw new IllegalArgumentException("idleTimeoutUnit is null");
+        }
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("max-size of cache " + name + " must not be negative");
+        }
+        if (idleTimeout < 0L) {
+            throw new IllegalArgumentException("idle-timeout of cache " + name + " must not be negative");
+        }
+        if (passivationThreads < 1) {
+            throw new IllegalArgumentException("passivation-threads of cache " + name + " must be at least 1");
+        }
+        this.name = name;
+        this.strategy = strategy;
+        this.maxSize = maxSize;
+        this.idleTimeout = idleTimeout;
+        this.idleTimeoutUnit = idleTimeoutUnit;
+        this.passivationThreads = passivationThreads;
+    }
+
+    /**
+     * Get the service name of the named cache configuration.
+     *
+     * @param name the cache name
+     * @return the service name
+     */
+    public static ServiceName serviceName(final String name) {
+        return SERVICE_NAME.append(name);
+    }
+
+    /**
+     * Create a new cache for a component.  The stateful object factory must still be set on the returned cache.
+     *
+     * @param componentName the name of the component
+     * @param classLoader the class loader resolving the classes of passivated state
+     * @param passivator the passivation callbacks of the component
+     * @param <T> the instance type
+     * @return the cache
+     */
+    public <T extends Identifiable> Cache<T> createCache(final String componentName, final ClassLoader classLoader, final Passivator<T> passivator) {
+        switch (strategy) {
+            case SIMPLE:
+                return new NoPassivationCache<T>();
+            case PASSIVATING: {
+                final ScheduledExecutorService executor = this.executor;
+                final File passivationDirectory = this.passivationDirectory;
+                if (executor == null || passivationDirectory == null) {
+                    throw new IllegalStateException("Cache " + name + " is not started");
+                }
+                final String storeName = componentName.replaceAll("[^A-Za-z0-9._-]", "_") + "-" + storeCount.incrementAndGet();
+                final PassivationStore store = new FilePassivationStore(new File(passivationDirectory, storeName), classLoader);
+                return new PassivatingCache<T>(componentName, passivator, store, executor, maxSize, idleTimeout, idleTimeoutUnit, statistics);
+            }
+            default:
+                throw new IllegalStateException("Unexpected cache strategy " + strategy);
+        }
+    }
+
+    void setRuntime(final ScheduledExecutorService executor, final File passivationDirectory) {
+        this.executor = executor;
+        this.passivationDirectory = passivationDirectory;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public CacheStrategy getStrategy() {
+        return strategy;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    public TimeUnit getIdleTimeoutUnit() {
+        return idleTimeoutUnit;
+    }
+
+    public int getPassivationThreads() {
+        return passivationThreads;
+    }
+
+    public CacheStatistics getStatistics() {
+        return statistics;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheConfig[" + name + ", " + strategy + ", max-size=" + maxSize + ", idle-timeout=" + idleTimeout + " " + idleTimeoutUnit
+                + ", passivation-threads=" + passivationThreads + "]";
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.component.cache;
+
+import java.io.File;
+import java.security.AccessController;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+
+import org.jboss.as.server.ServerEnvironment;
+import org.jboss.msc.service.Service;
+import org.jboss.msc.service.StartContext;
+import org.jboss.msc.service.StartException;
+import org.jboss.msc.service.StopContext;
+import org.jboss.msc.value.InjectedValue;
+import org.jboss.threads.JBossThreadFactory;
+
+/**
+ * Service providing a {@link CacheConfig}.  For a passivating cache it owns the passivation threads and the
+ * directory {@code <server data dir>/ejb3/passivation/<cache name>} below which the components store passivated
+ * instances.
+ */
+public class CacheConfigService implements Service<CacheConfig> {
+
+    private final CacheConfig config;
+    private final InjectedValue<ServerEnvironment> serverEnvironment = new InjectedValue<ServerEnvironment>();
+    private ScheduledThreadPoolExecutor executor;
+
+    public CacheConfigService(final CacheConfig config) {
+        this.config = config;
+    }
+
+    /** {@inheritDoc} */
+    public synchronized void start(final StartContext context) throws StartException {
+        if (config.getStrategy() != CacheStrategy.PASSIVATING) {
+            return;
+        }
+        final File directory = new File(new File(new File(serverEnvironment.getValue().getServerDataDir(), "ejb3"), "passivation"), config.getName());
+        final JBossThreadFactory threadFactory = new JBossThreadFactory(new ThreadGroup("EJB3 passivation " + config.getName()), Boolean.TRUE, null, "%G - %t", null, null, AccessController.getContext());
+        executor = new ScheduledThreadPoolExecutor(config.getPassivationThreads(), threadFactory);
+        config.setRuntime(executor, directory);
+    }
+
+    /** {@inheritDoc} */
+    public synchronized void stop(final StopContext context) {
+        config.setRuntime(null, null);
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    /** {@inheritDoc} */
+    public CacheConfig getValue() throws IllegalStateException {
+        return config;
+    }
+
+    public InjectedValue<ServerEnvironment> getServerEnvironmentInjector() {
+        return serverEnvironment;
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.component.cache;
+
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Statistics of a named cache configuration, aggregated over the caches of all components currently using it.
+ */
+public final class CacheStatistics {
+
+    private final Set<PassivatingCache<?>> caches = new CopyOnWriteArraySet<PassivatingCache<?>>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong passivations = new AtomicLong();
+    private final AtomicLong activations = new AtomicLong();
+    private final AtomicLong passivationFailures = new AtomicLong();
+
+    void register(final PassivatingCache<?> cache) {
+        caches.add(cache);
+    }
+
+    void unregister(final PassivatingCache<?> cache) {
+        caches.remove(cache);
+    }
+
+    void recordHit() {
+        hits.incrementAndGet();
+    }
+
+    void recordPassivation() {
+        passivations.incrementAndGet();
+    }
+
+    void recordActivation() {
+        activations.incrementAndGet();
+    }
+
+    void recordPassivationFailure() {
+        passivationFailures.incrementAndGet();
+    }
+
+    /**
+     * Get the number of times a session was found in memory.
+     *
+     * @return the number of hits
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * Get the number of sessions written to the passivation store.
+     *
+     * @return the number of passivations
+     */
+    public long getPassivationCount() {
+        return passivations.get();
+    }
+
+    /**
+     * Get the number of sessions read back from the passivation store.
+     *
+     * @return the number of activations
+     */
+    public long getActivationCount() {
+        return activations.get();
+    }
+
+    /**
+     * Get the number of times a session could not be passivated and was kept in memory.
+     *
+     * @return the number of failed passivations
+     */
+    public long getPassivationFailureCount() {
+        return passivationFailures.get();
+    }
+
+    /**
+     * Get the number of sessions held in memory.
+     *
+     * @return the number of active sessions
+     */
+    public int getActiveCount() {
+        int count = 0;
+        for (PassivatingCache<?> cache : caches) {
+            count += cache.getActiveCount();
+        }
+        return count;
+    }
+
+    /**
+     * Get the number of sessions held in the passivation store.
+     *
+     * @return the number of passivated sessions
+     */
+    public int getPassivatedCount() {
+        int count = 0;
+        for (PassivatingCache<?> cache : caches) {
+            count += cache.getPassivatedCount();
+        }
+        return count;
+    }
+}
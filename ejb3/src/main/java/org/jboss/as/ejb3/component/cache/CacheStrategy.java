@@ -0,0 +1,87 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.component.cache;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The stateful session bean cache implementations which can be selected for a named cache in the ejb3 subsystem.
+ */
+public enum CacheStrategy {
+
+    /**
+     * All sessions are kept in memory until they are removed; {@code max-size} and the idle timeout are not enforced.
+     */
+    SIMPLE("simple"),
+    /**
+     * Sessions are passivated to the local file system once more than {@code max-size} of them are in memory, least
+     * recently used first, or once they have been idle for longer than the idle timeout.
+     */
+    PASSIVATING("passivating"),
+    ;
+
+    private static final Map<String, CacheStrategy> MAP;
+
+    static {
+        final Map<String, CacheStrategy> map = new HashMap<String, CacheStrategy>();
+        for (CacheStrategy strategy : values()) {
+            map.put(strategy.localName, strategy);
+        }
+        MAP = map;
+    }
+
+    private final String localName;
+
+    CacheStrategy(final String localName) {
+        this.localName = localName;
+    }
+
+    /**
+     * Get the name used for this strategy in the management model and configuration files.
+     *
+     * @return the local name
+     */
+    public String getLocalName() {
+        return localName;
+    }
+
+    /**
+     * Get the strategy for a name as used in the management model.
+     *
+     * @param localName the local name
+     * @return the strategy
+     * @throws IllegalArgumentException if the name does not denote a known strategy
+     */
+    public static CacheStrategy forName(final String localName) {
+        final CacheStrategy strategy = localName != null ? MAP.get(localName) : null;
+        if (strategy == null) {
+            throw new IllegalArgumentException("Unknown cache strategy " + localName);
+        }
+        return strategy;
+    }
+
+    @Override
+    public String toString() {
+        return localName;
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.component.cache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jboss.logging.Logger;
+import org.jboss.marshalling.Marshaller;
+import org.jboss.marshalling.MarshallerFactory;
+import org.jboss.marshalling.Marshalling;
+import org.jboss.marshalling.MarshallingConfiguration;
+import org.jboss.marshalling.SimpleClassResolver;
+import org.jboss.marshalling.Unmarshaller;
+
+/**
+ * A {@link PassivationStore} writing each passivated instance to its own file in a directory owned by the store,
+ * using JBoss Marshalling.  Classes are resolved through the class loader of the component.  The directory is emptied
+ * when the store is started and removed when it is stopped, as passivated state does not survive a restart.
+ */
+public class FilePassivationStore implements PassivationStore {
+
+    private static final Logger log = Logger.getLogger(FilePassivationStore.class);
+
+    private final File directory;
+    private final MarshallerFactory marshallerFactory;
+    private final MarshallingConfiguration configuration;
+    private final ConcurrentMap<Serializable, File> files = new ConcurrentHashMap<Serializable, File>();
+    private final AtomicLong fileCount = new AtomicLong();
+
+    public FilePassivationStore(final File directory, final ClassLoader classLoader) {
+        if (directory == null) {
+            throw new IllegalArgumentException("directory is null");
+        }
+        this.directory = directory;
+        marshallerFactory = Marshalling.getMarshallerFactory("river", FilePassivationStore.class.getClassLoader());
+        configuration = new MarshallingConfiguration();
+        configuration.setClassResolver(new SimpleClassResolver(classLoader));
+        configuration.setVersion(3);
+    }
+
+    /** {@inheritDoc} */
+    public void start() throws IOException {
+        deleteContents(directory);
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Could not create passivation directory " + directory);
+        }
+    }
+
+    /** {@inheritDoc} */
+    public void store(final Serializable id, final Object state) throws IOException {
+        final File file = new File(directory, fileCount.incrementAndGet() + ".ser");
+        boolean ok = false;
+        final OutputStream out = new BufferedOutputStream(new FileOutputStream(file));
+        try {
+            final Marshaller marshaller = marshallerFactory.createMarshaller(configuration);
+            marshaller.start(Marshalling.createByteOutput(out));
+            marshaller.writeObject(state);
+            marshaller.finish();
+            out.close();
+            ok = true;
+        } finally {
+            safeClose(out);
+            if (!ok) {
+                delete(file);
+            }
+        }
+        final File previous = files.put(id, file);
+        if (previous != null) {
+            delete(previous);
+        }
+    }
+
+    /** {@inheritDoc} */
+    public Object load(final Serializable id) throws IOException, ClassNotFoundException {
+        final File file = files.remove(id);
+        if (file == null) {
+            return null;
+        }
+        final InputStream in = new BufferedInputStream(new FileInputStream(file));
+        try {
+            final Unmarshaller unmarshaller = marshallerFactory.createUnmarshaller(configuration);
+            unmarshaller.start(Marshalling.createByteInput(in));
+            final Object state = unmarshaller.readObject();
+            unmarshaller.finish();
+            return state;
+        } finally {
+            safeClose(in);
+            delete(file);
+        }
+    }
+
+    /** {@inheritDoc} */
+    public void remove(final Serializable id) {
+        final File file = files.remove(id);
+        if (file != null) {
+            delete(file);
+        }
+    }
+
+    /** {@inheritDoc} */
+    public void stop() {
+        files.clear();
+        deleteContents(directory);
+        delete(directory);
+    }
+
+    private static void deleteContents(final File directory) {
+        final File[] children = directory.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                if (child.isDirectory()) {
+                    deleteContents(child);
+                }
+                delete(child);
+            }
+        }
+    }
+
+    private static void delete(final File file) {
+        if (!file.delete() && file.exists()) {
+            log.debugf("Could not delete %s", file);
+        }
+    }
+
+    private static void safeClose(final Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            log.tracef(e, "Failed to close %s", closeable);
+        }
+    }
+}
@@ -0,0 +1,404 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.component.cache;
+
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.ejb.NoSuchEJBException;
+
+import org.jboss.ejb3.cache.Cache;
+import org.jboss.ejb3.cache.Identifiable;
+import org.jboss.ejb3.cache.StatefulObjectFactory;
+import org.jboss.logging.Logger;
+
+/**
+ * A stateful session cache which holds at most {@code maxSize} idle instances in memory.  When there are more, the
+ * least recently used idle instances are passivated to a {@link PassivationStore} by a task on the passivation
+ * executor, so the invoking thread never waits for a passivation.  Instances idle for longer than the idle timeout are
+ * passivated as well.  Passivated instances are activated again on their next {@link #get(Serializable)}.
+ * <p/>
+ * Instances in use, i.e. obtained through {@link #get(Serializable)} and not yet {@link #release(Identifiable)
+ * released}, are never passivated, so the number of instances in memory may temporarily exceed {@code maxSize}.  Every
+ * {@code get} must be balanced by a {@code release}, an instance obtained several times is in use until it has been
+ * released as many times.
+ *
+ * @param <T> the instance type
+ */
+public class PassivatingCache<T extends Identifiable> implements Cache<T> {
+
+    private static final Logger log = Logger.getLogger(PassivatingCache.class);
+
+    private final String name;
+    private final Passivator<T> passivator;
+    private final PassivationStore store;
+    private final ScheduledExecutorService executor;
+    private final int maxSize;
+    private final long idleTimeout;
+    private final CacheStatistics statistics;
+    private final ConcurrentMap<Serializable, Entry<T>> entries = new ConcurrentHashMap<Serializable, Entry<T>>();
+    private final AtomicInteger activeCount = new AtomicInteger();
+    private final AtomicBoolean evictionPending = new AtomicBoolean();
+    private final Runnable evictionTask = new Runnable() {
+        public void run() {
+            evictionPending.set(false);
+            passivateOverflow();
+        }
+    };
+    private final Runnable idleTask = new Runnable() {
+        public void run() {
+            passivateIdle();
+        }
+    };
+    private volatile StatefulObjectFactory<T> factory;
+    private volatile ScheduledFuture<?> idleFuture;
+    private volatile boolean started;
+    private volatile boolean passivationDisabled;
+
+    /**
+     * Construct a new instance.
+     *
+     * @param name the name used in log messages
+     * @param passivator the passivation callbacks
+     * @param store the store for passivated state
+     * @param executor the executor running the passivations
+     * @param maxSize the number of idle instances kept in memory
+     * @param idleTimeout the time after which an idle instance is passivated, or {@code 0} to not passivate idle
+     * instances
+     * @param idleTimeoutUnit the unit of the idle timeout
+     * @param statistics the statistics to update
+     */
+    public PassivatingCache(final String name, final Passivator<T> passivator, final PassivationStore store, final ScheduledExecutorService executor,
+                            final int maxSize, final long idleTimeout, final TimeUnit idleTimeoutUnit, final CacheStatistics statistics) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("maxSize is negative");
+        }
+        this.name = name;
+        this.passivator = passivator;
+        this.store = store;
+        this.executor = executor;
+        this.maxSize = maxSize;
+        this.idleTimeout = idleTimeoutUnit.toMillis(idleTimeout);
+        this.statistics = statistics;
+    }
+
+    /** {@inheritDoc} */
+    public T create() {
+        final T instance = factory.createInstance();
+        final Entry<T> entry = new Entry<T>(instance.getId(), instance);
+        entries.put(entry.id, entry);
+        activeCount.incrementAndGet();
+        checkSize();
+        return instance;
+    }
+
+    /** {@inheritDoc} */
+    public T get(final Serializable key) throws NoSuchEJBException {
+        final Entry<T> entry = entries.get(key);
+        if (entry == null) {
+            throw new NoSuchEJBException("Could not find stateful bean: " + key);
+        }
+        final T instance;
+        boolean activated = false;
+        synchronized (entry) {
+            if (entry.removed) {
+                throw new NoSuchEJBException("Could not find stateful bean: " + key);
+            }
+            if (entry.instance == null) {
+                entry.instance = activate(entry);
+                activated = true;
+            } else {
+                statistics.recordHit();
+            }
+            entry.inUse++;
+            entry.lastUsed = System.currentTimeMillis();
+            instance = entry.instance;
+        }
+        if (activated) {
+            checkSize();
+        }
+        return instance;
+    }
+
+    /** {@inheritDoc} */
+    public void release(final T obj) {
+        final Entry<T> entry = entries.get(obj.getId());
+        if (entry == null) {
+            // already discarded or removed
+            return;
+        }
+        synchronized (entry) {
+            if (entry.inUse > 0) {
+                entry.inUse--;
+            }
+            entry.lastUsed = System.currentTimeMillis();
+        }
+        checkSize();
+    }
+
+    /** {@inheritDoc} */
+    public void discard(final Serializable key) {
+        final Entry<T> entry = entries.remove(key);
+        if (entry != null) {
+            synchronized (entry) {
+                entry.removed = true;
+                if (entry.instance != null) {
+                    entry.instance = null;
+                    activeCount.decrementAndGet();
+                } else {
+                    store.remove(key);
+                }
+            }
+        }
+    }
+
+    /** {@inheritDoc} */
+    public void remove(final Serializable key) {
+        final Entry<T> entry = entries.remove(key);
+        if (entry == null) {
+            throw new NoSuchEJBException("Could not find stateful bean: " + key);
+        }
+        final T instance;
+        synchronized (entry) {
+            if (entry.removed) {
+                throw new NoSuchEJBException("Could not find stateful bean: " + key);
+            }
+            entry.removed = true;
+            // pre-destroy callbacks need the instance in memory
+            instance = entry.instance != null ? entry.instance : activate(entry);
+            entry.instance = null;
+            activeCount.decrementAndGet();
+        }
+        factory.destroyInstance(instance);
+    }
+
+    /** {@inheritDoc} */
+    public void setStatefulObjectFactory(final StatefulObjectFactory<T> factory) {
+        this.factory = factory;
+    }
+
+    /** {@inheritDoc} */
+    public void start() {
+        try {
+            store.start();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start the passivation store of " + name, e);
+        }
+        started = true;
+        statistics.register(this);
+        if (idleTimeout > 0L) {
+            final long period = Math.max(1000L, idleTimeout / 2L);
+            idleFuture = executor.scheduleWithFixedDelay(idleTask, period, period, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /** {@inheritDoc} */
+    public void stop() {
+        started = false;
+        final ScheduledFuture<?> idleFuture = this.idleFuture;
+        if (idleFuture != null) {
+            idleFuture.cancel(false);
+            this.idleFuture = null;
+        }
+        statistics.unregister(this);
+        for (Serializable key : entries.keySet()) {
+            discard(key);
+        }
+        store.stop();
+    }
+
+    /**
+     * Get the number of instances held in memory.
+     *
+     * @return the number of active instances
+     */
+    public int getActiveCount() {
+        return activeCount.get();
+    }
+
+    /**
+     * Get the number of instances held in the passivation store.
+     *
+     * @return the number of passivated instances
+     */
+    public int getPassivatedCount() {
+        return Math.max(0, entries.size() - activeCount.get());
+    }
+
+    private void checkSize() {
+        if (activeCount.get() > maxSize && started && !passivationDisabled && evictionPending.compareAndSet(false, true)) {
+            try {
+                executor.execute(evictionTask);
+            } catch (RejectedExecutionException e) {
+                evictionPending.set(false);
+                log.debugf(e, "Could not schedule passivation for %s", name);
+            }
+        }
+    }
+
+    /**
+     * Passivate the least recently used idle instances until no more than {@code maxSize} instances are in memory.
+     */
+    void passivateOverflow() {
+        int excess = activeCount.get() - maxSize;
+        if (excess <= 0 || !started) {
+            return;
+        }
+        final List<Candidate<T>> candidates = new ArrayList<Candidate<T>>();
+        for (Entry<T> entry : entries.values()) {
+            if (entry.instance != null) {
+                candidates.add(new Candidate<T>(entry));
+            }
+        }
+        Collections.sort(candidates);
+        for (Candidate<T> candidate : candidates) {
+            if (excess <= 0 || !started || passivationDisabled) {
+                break;
+            }
+            if (passivate(candidate.entry)) {
+                excess--;
+            }
+        }
+    }
+
+    /**
+     * Passivate the instances which have not been used for longer than the idle timeout.
+     */
+    void passivateIdle() {
+        final long deadline = System.currentTimeMillis() - idleTimeout;
+        for (Entry<T> entry : entries.values()) {
+            if (!started || passivationDisabled) {
+                break;
+            }
+            if (entry.instance != null && entry.lastUsed < deadline) {
+                passivate(entry);
+            }
+        }
+    }
+
+    private boolean passivate(final Entry<T> entry) {
+        synchronized (entry) {
+            final T instance = entry.instance;
+            if (instance == null || entry.inUse > 0 || entry.removed) {
+                return false;
+            }
+            final Object state;
+            try {
+                state = passivator.prePassivate(instance);
+            } catch (RuntimeException e) {
+                log.warnf(e, "Failed to prepare stateful bean %s of %s for passivation", entry.id, name);
+                statistics.recordPassivationFailure();
+                return false;
+            }
+            try {
+                store.store(entry.id, state);
+            } catch (IOException e) {
+                if (e instanceof NotSerializableException) {
+                    // every other instance will fail in the same way
+                    passivationDisabled = true;
+                    log.warnf("Disabling passivation of %s, as its state is not serializable: %s", name, e.getMessage());
+                } else {
+                    log.warnf(e, "Failed to passivate stateful bean %s of %s", entry.id, name);
+                }
+                statistics.recordPassivationFailure();
+                passivator.passivationFailed(instance);
+                return false;
+            }
+            entry.instance = null;
+            activeCount.decrementAndGet();
+            statistics.recordPassivation();
+            try {
+                passivator.passivated(instance);
+            } catch (RuntimeException e) {
+                log.warnf(e, "Failed to release passivated stateful bean %s of %s", entry.id, name);
+            }
+            return true;
+        }
+    }
+
+    // must be called holding the entry lock
+    private T activate(final Entry<T> entry) {
+        boolean ok = false;
+        try {
+            final Object state = store.load(entry.id);
+            if (state == null) {
+                throw new NoSuchEJBException("Could not find passivated state of stateful bean: " + entry.id);
+            }
+            final T instance = passivator.activate(entry.id, state);
+            activeCount.incrementAndGet();
+            statistics.recordActivation();
+            ok = true;
+            return instance;
+        } catch (IOException e) {
+            throw new NoSuchEJBException("Could not activate stateful bean " + entry.id, e);
+        } catch (ClassNotFoundException e) {
+            throw new NoSuchEJBException("Could not activate stateful bean " + entry.id, e);
+        } finally {
+            if (!ok) {
+                entry.removed = true;
+                entries.remove(entry.id, entry);
+            }
+        }
+    }
+
+    private static final class Entry<T> {
+        private final Serializable id;
+        // written holding the entry lock; read without it only to select eviction candidates
+        private volatile T instance;
+        private volatile long lastUsed;
+        private int inUse;
+        private boolean removed;
+
+        Entry(final Serializable id, final T instance) {
+            this.id = id;
+            this.instance = instance;
+            lastUsed = System.currentTimeMillis();
+        }
+    }
+
+    private static final class Candidate<T> implements Comparable<Candidate<T>> {
+        private final Entry<T> entry;
+        private final long lastUsed;
+
+        Candidate(final Entry<T> entry) {
+            this.entry = entry;
+            // take a snapshot, so the ordering is stable while sorting
+            lastUsed = entry.lastUsed;
+        }
+
+        public int compareTo(final Candidate<T> other) {
+            return lastUsed < other.lastUsed ? -1 : (lastUsed == other.lastUsed ? 0 : 1);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.component.cache;
+
+import java.io.IOException;
+import java.io.Serializable;
+
+/**
+ * Storage for the state of passivated stateful instances.
+ */
+public interface PassivationStore {
+
+    /**
+     * Prepare the store for use.
+     *
+     * @throws IOException if the store cannot be created
+     */
+    void start() throws IOException;
+
+    /**
+     * Store the state of an instance, replacing any state previously stored under the same id.
+     *
+     * @param id the instance id
+     * @param state the state
+     * @throws IOException if the state cannot be written
+     */
+    void store(Serializable id, Object state) throws IOException;
+
+    /**
+     * Load and remove the state of an instance.
+     *
+     * @param id the instance id
+     * @return the state, or {@code null} if none is stored under the id
+     * @throws IOException if the state cannot be read
+     * @throws ClassNotFoundException if a class of the state cannot be resolved
+     */
+    Object load(Serializable id) throws IOException, ClassNotFoundException;
+
+    /**
+     * Discard the state of an instance, if any.
+     *
+     * @param id the instance id
+     */
+    void remove(Serializable id);
+
+    /**
+     * Discard all stored state and release the resources of the store.
+     */
+    void stop();
+}
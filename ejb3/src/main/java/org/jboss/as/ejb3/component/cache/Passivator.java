@@ -0,0 +1,66 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.component.cache;
+
+import java.io.Serializable;
+
+/**
+ * Callbacks through which a {@link PassivatingCache} moves the state of a stateful instance out of and back into
+ * memory.  A successful passivation is {@link #prePassivate(Object)} followed by {@link #passivated(Object)}; if the
+ * state could not be stored {@link #passivationFailed(Object)} is called instead and the instance stays in memory.
+ *
+ * @param <T> the instance type
+ */
+public interface Passivator<T> {
+
+    /**
+     * Prepare an instance for passivation, e.g. by invoking its {@code @PrePassivate} methods.
+     *
+     * @param instance the instance
+     * @return the state to store, which must be serializable
+     */
+    Object prePassivate(T instance);
+
+    /**
+     * Called once the state of the instance has been stored.  The instance itself is no longer used.
+     *
+     * @param instance the instance
+     */
+    void passivated(T instance);
+
+    /**
+     * Called when the state prepared by {@link #prePassivate(Object)} could not be stored.  The instance is used again.
+     *
+     * @param instance the instance
+     */
+    void passivationFailed(T instance);
+
+    /**
+     * Recreate an instance from its stored state, e.g. re-applying its injections and invoking its
+     * {@code @PostActivate} methods.
+     *
+     * @param id the instance id
+     * @param state the state returned by {@link #prePassivate(Object)}
+     * @return the activated instance, with the given id
+     */
+    T activate(Serializable id, Object state);
+}
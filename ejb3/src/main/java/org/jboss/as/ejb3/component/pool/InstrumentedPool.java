@@ -0,0 +1,90 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.component.pool;
+
+import org.jboss.ejb3.pool.Pool;
+
+/**
+ * A {@link Pool} wrapper which records acquisitions and their wait time in the {@link PoolStatistics} of its pool
+ * configuration. The pool is part of the statistics between {@link #start()} and {@link #stop()}.
+ *
+ * @param <T> the pooled instance type
+ */
+final class InstrumentedPool<T> implements Pool<T> {
+
+    private final Pool<T> delegate;
+    private final PoolStatistics statistics;
+
+    InstrumentedPool(final Pool<T> delegate, final PoolStatistics statistics) {
+        this.delegate = delegate;
+        this.statistics = statistics;
+    }
+
+    public T get() {
+        final long start = System.nanoTime();
+        final T instance = delegate.get();
+        statistics.recordAcquisition(System.nanoTime() - start);
+        return instance;
+    }
+
+    public void release(final T obj) {
+        delegate.release(obj);
+    }
+
+    public void discard(final T obj) {
+        delegate.discard(obj);
+    }
+
+    public int getAvailableCount() {
+        return delegate.getAvailableCount();
+    }
+
+    public int getCreateCount() {
+        return delegate.getCreateCount();
+    }
+
+    public int getRemoveCount() {
+        return delegate.getRemoveCount();
+    }
+
+    public int getCurrentSize() {
+        return delegate.getCurrentSize();
+    }
+
+    public int getMaxSize() {
+        return delegate.getMaxSize();
+    }
+
+    public void setMaxSize(final int maxSize) {
+        delegate.setMaxSize(maxSize);
+    }
+
+    public void start() {
+        delegate.start();
+        statistics.register(delegate);
+    }
+
+    public void stop() {
+        statistics.unregister(delegate);
+        delegate.stop();
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.component.pool;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.ejb3.pool.Pool;
+import org.jboss.ejb3.pool.StatelessObjectFactory;
+import org.jboss.ejb3.pool.strictmax.StrictMaxPool;
+import org.jboss.msc.service.ServiceName;
+
+/**
+ * A named instance pool configuration of the ejb3 subsystem. Each component referencing the configuration gets its
+ * own {@link Pool} created through {@link #createPool(StatelessObjectFactory)}, while the statistics are kept per
+ * configuration.
+ */
+public final class PoolConfig {
+
+    /**
+     * The base service name of the installed pool configurations.
+     */
+    public static final ServiceName SERVICE_NAME = ServiceName.JBOSS.append("ejb3", "pool");
+
+    /**
+     * The service name of the pool configuration used by stateless session beans which do not name a pool.
+     */
+    public static final ServiceName DEFAULT_SLSB_POOL_SERVICE_NAME = ServiceName.JBOSS.append("ejb3", "default-slsb-pool");
+
+    public static final String DEFAULT_SLSB_POOL_NAME = "slsb-strict-max-pool";
+    public static final PoolStrategy DEFAULT_STRATEGY = PoolStrategy.STRICT_MAX;
+    public static final int DEFAULT_MAX_SIZE = 20;
+    public static final long DEFAULT_TIMEOUT = 5;
+    public static final TimeUnit DEFAULT_TIMEOUT_UNIT = TimeUnit.MINUTES;
+
+    private final String name;
+    private final PoolStrategy strategy;
+    private final int maxSize;
+    private final long timeout;
+    private final TimeUnit timeoutUnit;
+    private final PoolStatistics statistics = new PoolStatistics();
+
+    public PoolConfig(final String name, final PoolStrategy strategy, final int maxSize, final long timeout, final TimeUnit timeoutUnit) {
+        if (name == null) {
+            throw new IllegalArgumentException("name is null");
+        }
+        if (strategy == null) {
+            throw new IllegalArgumentException("strategy is null");
+        }
+        if (timeoutUnit == null) {
+            throw new IllegalArgumentException("timeoutUnit is null");
+        }
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("max-size of pool " + name + " must be at least 1");
+        }
+        this.name = name;
+        this.strategy = strategy;
+        this.maxSize = maxSize;
+        this.timeout = timeout;
+        this.timeoutUnit = timeoutUnit;
+    }
+
+    /**
+     * Get the service name of the named pool configuration.
+     *
+     * @param name the pool name
+     * @return the service name
+     */
+    public static ServiceName serviceName(final String name) {
+        return SERVICE_NAME.append(name);
+    }
+
+    /**
+     * Create a new pool for a component.
+     *
+     * @param factory the factory creating and destroying the component instances
+     * @param <T> the instance type
+     * @return the pool
+     */
+    public <T> Pool<T> createPool(final StatelessObjectFactory<T> factory) {
+        final Pool<T> pool;
+        switch (strategy) {
+            case STRICT_MAX:
+                pool = new StrictMaxPool<T>(factory, maxSize, timeout, timeoutUnit);
+                break;
+            case THREAD_LOCAL:
+                pool = new ThreadLocalPool<T>(factory, maxSize);
+                break;
+            case STRIPED:
+                pool = new StripedPool<T>(factory, maxSize);
+                break;
+            default:
+                throw new IllegalStateException("Unexpected pool strategy " + strategy);
+        }
+        return new InstrumentedPool<T>(pool, statistics);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public PoolStrategy getStrategy() {
+        return strategy;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getTimeout() {
+        return timeout;
+    }
+
+    public TimeUnit getTimeoutUnit() {
+        return timeoutUnit;
+    }
+
+    public PoolStatistics getStatistics() {
+        return statistics;
+    }
+
+    @Override
+    public String toString() {
+        return "PoolConfig[" + name + ", " + strategy + ", max-size=" + maxSize + ", timeout=" + timeout + " " + timeoutUnit + "]";
+    }
+}
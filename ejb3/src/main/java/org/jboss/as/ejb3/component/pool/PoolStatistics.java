@@ -0,0 +1,139 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.component.pool;
+
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jboss.ejb3.pool.Pool;
+
+/**
+ * Statistics of a named pool configuration, aggregated over the pools of all components currently using it.
+ */
+public final class PoolStatistics {
+
+    private final Set<Pool<?>> pools = new CopyOnWriteArraySet<Pool<?>>();
+    private final AtomicLong acquisitions = new AtomicLong();
+    private final AtomicLong totalWaitTime = new AtomicLong();
+    private final AtomicLong maxWaitTime = new AtomicLong();
+
+    void register(final Pool<?> pool) {
+        pools.add(pool);
+    }
+
+    void unregister(final Pool<?> pool) {
+        pools.remove(pool);
+    }
+
+    void recordAcquisition(final long waitNanos) {
+        acquisitions.incrementAndGet();
+        totalWaitTime.addAndGet(waitNanos);
+        long max;
+        do {
+            max = maxWaitTime.get();
+        } while (waitNanos > max && !maxWaitTime.compareAndSet(max, waitNanos));
+    }
+
+    /**
+     * Get the number of idle instances.
+     *
+     * @return the number of idle instances
+     */
+    public int getAvailableCount() {
+        int count = 0;
+        for (Pool<?> pool : pools) {
+            count += pool.getAvailableCount();
+        }
+        return count;
+    }
+
+    /**
+     * Get the number of instances created.
+     *
+     * @return the number of instances created
+     */
+    public int getCreateCount() {
+        int count = 0;
+        for (Pool<?> pool : pools) {
+            count += pool.getCreateCount();
+        }
+        return count;
+    }
+
+    /**
+     * Get the number of instances destroyed.
+     *
+     * @return the number of instances destroyed
+     */
+    public int getRemoveCount() {
+        int count = 0;
+        for (Pool<?> pool : pools) {
+            count += pool.getRemoveCount();
+        }
+        return count;
+    }
+
+    /**
+     * Get the number of instances which are either idle or in use.
+     *
+     * @return the current number of instances
+     */
+    public int getCurrentSize() {
+        int count = 0;
+        for (Pool<?> pool : pools) {
+            count += pool.getCurrentSize();
+        }
+        return count;
+    }
+
+    /**
+     * Get the number of instances handed out since the pool configuration was installed.
+     *
+     * @return the number of acquisitions
+     */
+    public long getAcquisitionCount() {
+        return acquisitions.get();
+    }
+
+    /**
+     * Get the average time spent obtaining an instance, including the time to create one when none was available.
+     *
+     * @param unit the unit of the result
+     * @return the average wait time
+     */
+    public long getAverageWaitTime(final TimeUnit unit) {
+        final long count = acquisitions.get();
+        return count == 0L ? 0L : unit.convert(totalWaitTime.get() / count, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Get the longest time spent obtaining an instance.
+     *
+     * @param unit the unit of the result
+     * @return the maximum wait time
+     */
+    public long getMaxWaitTime(final TimeUnit unit) {
+        return unit.convert(maxWaitTime.get(), TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.component.pool;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The instance pool implementations which can be selected for a named pool in the ejb3 subsystem.
+ */
+public enum PoolStrategy {
+
+    /**
+     * A bounded pool; callers block for up to the pool timeout once {@code max-size} instances are in use.
+     */
+    STRICT_MAX("strict-max"),
+    /**
+     * Each thread keeps its own instance; {@code max-size} and the timeout are not enforced.
+     */
+    THREAD_LOCAL("thread-local"),
+    /**
+     * A non-blocking pool keeping up to {@code max-size} idle instances in a striped array of slots. Instances are
+     * created on demand when no idle instance is available and discarded on release when all slots are full.
+     */
+    STRIPED("striped"),
+    ;
+
+    private static final Map<String, PoolStrategy> MAP;
+
+    static {
+        final Map<String, PoolStrategy> map = new HashMap<String, PoolStrategy>();
+        for (PoolStrategy strategy : values()) {
+            map.put(strategy.localName, strategy);
+        }
+        MAP = map;
+    }
+
+    private final String localName;
+
+    PoolStrategy(final String localName) {
+        this.localName = localName;
+    }
+
+    /**
+     * Get the name used for this strategy in the management model and configuration files.
+     *
+     * @return the local name
+     */
+    public String getLocalName() {
+        return localName;
+    }
+
+    /**
+     * Get the strategy for a name as used in the management model.
+     *
+     * @param localName the local name
+     * @return the strategy
+     * @throws IllegalArgumentException if the name does not denote a known strategy
+     */
+    public static PoolStrategy forName(final String localName) {
+        final PoolStrategy strategy = localName != null ? MAP.get(localName) : null;
+        if (strategy == null) {
+            throw new IllegalArgumentException("Unknown pool strategy " + localName);
+        }
+        return strategy;
+    }
+
+    @Override
+    public String toString() {
+        return localName;
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.component.pool;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.jboss.ejb3.pool.Pool;
+import org.jboss.ejb3.pool.StatelessObjectFactory;
+
+/**
+ * A lock-free {@link Pool} which keeps up to {@code maxSize} idle instances in an array of slots. Each thread starts
+ * probing the slots at an offset derived from its id, so that concurrent callers mostly touch different slots and
+ * never wait on each other.
+ * <p/>
+ * The pool never blocks: when no idle instance is found a new one is created, and an instance released while every
+ * slot is occupied is destroyed. {@code maxSize} therefore bounds the number of retained instances, not the number
+ * of concurrent invocations.
+ *
+ * @param <T> the pooled instance type
+ */
+public class StripedPool<T> implements Pool<T> {
+
+    private final StatelessObjectFactory<T> factory;
+    private final AtomicInteger createCount = new AtomicInteger();
+    private final AtomicInteger removeCount = new AtomicInteger();
+    private volatile AtomicReferenceArray<T> slots;
+
+    public StripedPool(final StatelessObjectFactory<T> factory, final int maxSize) {
+        if (factory == null) {
+            throw new IllegalArgumentException("factory is null");
+        }
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be at least 1");
+        }
+        this.factory = factory;
+        this.slots = new AtomicReferenceArray<T>(maxSize);
+    }
+
+    public T get() {
+        final AtomicReferenceArray<T> slots = this.slots;
+        final int length = slots.length();
+        final int start = start(length);
+        for (int i = 0; i < length; i++) {
+            final int index = (start + i) % length;
+            final T instance = slots.get(index);
+            if (instance != null && slots.compareAndSet(index, instance, null)) {
+                return instance;
+            }
+        }
+        final T instance = factory.create();
+        createCount.incrementAndGet();
+        return instance;
+    }
+
+    public void release(final T obj) {
+        AtomicReferenceArray<T> slots = this.slots;
+        if (offer(slots, obj)) {
+            // the slots may have been swapped out by setMaxSize in the meantime
+            final AtomicReferenceArray<T> current = this.slots;
+            if (current == slots || !take(slots, obj)) {
+                return;
+            }
+            if (offer(current, obj)) {
+                return;
+            }
+        }
+        destroy(obj);
+    }
+
+    public void discard(final T obj) {
+        destroy(obj);
+    }
+
+    public int getAvailableCount() {
+        final AtomicReferenceArray<T> slots = this.slots;
+        int count = 0;
+        for (int i = 0; i < slots.length(); i++) {
+            if (slots.get(i) != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public int getCreateCount() {
+        return createCount.get();
+    }
+
+    public int getRemoveCount() {
+        return removeCount.get();
+    }
+
+    public int getCurrentSize() {
+        return createCount.get() - removeCount.get();
+    }
+
+    public int getMaxSize() {
+        return slots.length();
+    }
+
+    public void setMaxSize(final int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be at least 1");
+        }
+        final AtomicReferenceArray<T> old = slots;
+        final AtomicReferenceArray<T> slots = new AtomicReferenceArray<T>(maxSize);
+        this.slots = slots;
+        drain(old, slots);
+    }
+
+    public void start() {
+    }
+
+    public void stop() {
+        drain(slots, null);
+    }
+
+    private static int start(final int length) {
+        // spread the thread ids so that threads created in sequence do not probe neighbouring slots
+        final long id = Thread.currentThread().getId() * 0x9E3779B9L;
+        return (int) ((id ^ (id >>> 32)) & 0x7fffffff) % length;
+    }
+
+    private static <T> boolean offer(final AtomicReferenceArray<T> slots, final T obj) {
+        final int length = slots.length();
+        final int start = start(length);
+        for (int i = 0; i < length; i++) {
+            final int index = (start + i) % length;
+            if (slots.get(index) == null && slots.compareAndSet(index, null, obj)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static <T> boolean take(final AtomicReferenceArray<T> slots, final T obj) {
+        for (int i = 0; i < slots.length(); i++) {
+            if (slots.get(i) == obj && slots.compareAndSet(i, obj, null)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void drain(final AtomicReferenceArray<T> from, final AtomicReferenceArray<T> to) {
+        for (int i = 0; i < from.length(); i++) {
+            final T instance = from.getAndSet(i, null);
+            if (instance != null && (to == null || !offer(to, instance))) {
+                destroy(instance);
+            }
+        }
+    }
+
+    private void destroy(final T obj) {
+        try {
+            factory.destroy(obj);
+        } finally {
+            removeCount.incrementAndGet();
+        }
+    }
+}
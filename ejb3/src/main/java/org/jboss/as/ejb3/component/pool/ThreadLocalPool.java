@@ -0,0 +1,141 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.component.pool;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.jboss.ejb3.pool.Pool;
+import org.jboss.ejb3.pool.StatelessObjectFactory;
+
+/**
+ * A {@link Pool} which keeps one idle instance per calling thread, so an invocation never touches state shared with
+ * other threads once the thread has its instance. Nested invocations on the same thread create additional instances,
+ * which are destroyed again on release. The pool size is bounded by the number of invoking threads; the configured
+ * maximum size is reported but not enforced. Instances idle on threads which have since terminated are only reclaimed
+ * when the pool is stopped.
+ *
+ * @param <T> the pooled instance type
+ */
+public class ThreadLocalPool<T> implements Pool<T> {
+
+    private final StatelessObjectFactory<T> factory;
+    private final AtomicInteger createCount = new AtomicInteger();
+    private final AtomicInteger removeCount = new AtomicInteger();
+    /**
+     * Every slot ever handed to a thread, so that {@link #stop()} can destroy the idle instances.
+     */
+    private final Queue<AtomicReference<T>> slots = new ConcurrentLinkedQueue<AtomicReference<T>>();
+    private final ThreadLocal<AtomicReference<T>> slot = new ThreadLocal<AtomicReference<T>>() {
+        @Override
+        protected AtomicReference<T> initialValue() {
+            final AtomicReference<T> slot = new AtomicReference<T>();
+            slots.add(slot);
+            return slot;
+        }
+    };
+    private volatile int maxSize;
+    private volatile boolean stopped;
+
+    public ThreadLocalPool(final StatelessObjectFactory<T> factory, final int maxSize) {
+        if (factory == null) {
+            throw new IllegalArgumentException("factory is null");
+        }
+        this.factory = factory;
+        this.maxSize = maxSize;
+    }
+
+    public T get() {
+        final T instance = slot.get().getAndSet(null);
+        if (instance != null) {
+            return instance;
+        }
+        final T created = factory.create();
+        createCount.incrementAndGet();
+        return created;
+    }
+
+    public void release(final T obj) {
+        if (!stopped && slot.get().compareAndSet(null, obj)) {
+            return;
+        }
+        destroy(obj);
+    }
+
+    public void discard(final T obj) {
+        destroy(obj);
+    }
+
+    public int getAvailableCount() {
+        int count = 0;
+        for (AtomicReference<T> slot : slots) {
+            if (slot.get() != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public int getCreateCount() {
+        return createCount.get();
+    }
+
+    public int getRemoveCount() {
+        return removeCount.get();
+    }
+
+    public int getCurrentSize() {
+        return createCount.get() - removeCount.get();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(final int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public void start() {
+        stopped = false;
+    }
+
+    public void stop() {
+        stopped = true;
+        for (AtomicReference<T> slot : slots) {
+            final T instance = slot.getAndSet(null);
+            if (instance != null) {
+                destroy(instance);
+            }
+        }
+    }
+
+    private void destroy(final T obj) {
+        try {
+            factory.destroy(obj);
+        } finally {
+            removeCount.incrementAndGet();
+        }
+    }
+}
@@ -24,14 +24,21 @@ package org.jboss.as.ejb3.component.stateful;
 
 import org.jboss.as.ee.component.AbstractComponentConfiguration;
 
+import org.jboss.as.ejb3.component.cache.CacheConfig;
 import org.jboss.as.ejb3.component.session.SessionBeanComponentDescription;
 import org.jboss.as.ejb3.deployment.EjbJarDescription;
+import org.jboss.msc.service.ServiceName;
 
 /**
  * User: jpai
  */
 public class StatefulComponentDescription extends SessionBeanComponentDescription {
 
+    /**
+     * The name of the ejb3 subsystem cache configuration used by this bean, or {@code null} for the default cache
+     */
+    private String cacheName;
+
     /**
      * Construct a new instance.
      *
@@ -53,6 +60,33 @@ public class StatefulComponentDescription extends SessionBeanComponentDescriptio
         return true;
     }
 
+    /**
+     * Returns the name of the cache configuration this bean uses, or {@code null} if it uses the default cache.
+     *
+     * @return the cache name
+     */
+    public String getCacheName() {
+        return cacheName;
+    }
+
+    /**
+     * Sets the name of the ejb3 subsystem cache configuration used for the sessions of this bean.
+     *
+     * @param cacheName the cache name, or {@code null} to use the default cache
+     */
+    public void setCacheName(final String cacheName) {
+        this.cacheName = cacheName;
+    }
+
+    /**
+     * Returns the service name of the {@link CacheConfig} used by this bean.
+     *
+     * @return the cache configuration service name
+     */
+    public ServiceName getCacheConfigServiceName() {
+        return cacheName == null ? CacheConfig.DEFAULT_SFSB_CACHE_SERVICE_NAME : CacheConfig.serviceName(cacheName);
+    }
+
     @Override
     public SessionBeanType getSessionBeanType() {
         return SessionBeanComponentDescription.SessionBeanType.STATEFUL;
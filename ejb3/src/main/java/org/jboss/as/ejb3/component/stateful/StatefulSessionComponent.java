@@ -23,18 +23,30 @@ package org.jboss.as.ejb3.component.stateful;
 
 import org.jboss.as.ee.component.AbstractComponentInstance;
 import org.jboss.as.ee.component.Component;
+import org.jboss.as.ejb3.component.cache.CacheConfig;
+import org.jboss.as.ejb3.component.cache.Passivator;
 import org.jboss.as.ejb3.component.session.SessionBeanComponent;
 import org.jboss.ejb3.cache.Cache;
-import org.jboss.ejb3.cache.NoPassivationCache;
 import org.jboss.ejb3.cache.StatefulObjectFactory;
 import org.jboss.invocation.Interceptor;
 import org.jboss.invocation.InterceptorContext;
 import org.jboss.invocation.InterceptorFactoryContext;
 import org.jboss.invocation.Interceptors;
+import org.jboss.invocation.SimpleInterceptorFactoryContext;
 
+import javax.ejb.EJBException;
+import javax.ejb.PostActivate;
+import javax.ejb.PrePassivate;
 import java.io.Serializable;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Stateful Session Bean
@@ -43,7 +55,9 @@ import java.util.Map;
  */
 public class StatefulSessionComponent extends SessionBeanComponent {
 
-    private Cache<StatefulSessionComponentInstance> cache;
+    private final Cache<StatefulSessionComponentInstance> cache;
+    private final Method[] prePassivateMethods;
+    private final Method[] postActivateMethods;
 
     /**
      * Construct a new instance.
@@ -53,8 +67,36 @@ public class StatefulSessionComponent extends SessionBeanComponent {
     protected StatefulSessionComponent(final StatefulSessionComponentConfiguration configuration) {
         super(configuration);
 
+        prePassivateMethods = findLifecycleCallbacks(getComponentClass(), PrePassivate.class);
+        postActivateMethods = findLifecycleCallbacks(getComponentClass(), PostActivate.class);
 
-        cache = new NoPassivationCache<StatefulSessionComponentInstance>();
+        final CacheConfig cacheConfig = configuration.getInjectionValue(configuration.getCacheConfigServiceName(), CacheConfig.class);
+        cache = cacheConfig.createCache(getComponentName(), getComponentClass().getClassLoader(), new Passivator<StatefulSessionComponentInstance>() {
+            @Override
+            public Object prePassivate(StatefulSessionComponentInstance instance) {
+                invokeLifecycleCallbacks(prePassivateMethods, instance.getInstance());
+                return instance.getInstance();
+            }
+
+            @Override
+            public void passivated(StatefulSessionComponentInstance instance) {
+                releaseInstance(instance);
+            }
+
+            @Override
+            public void passivationFailed(StatefulSessionComponentInstance instance) {
+                invokeLifecycleCallbacks(postActivateMethods, instance.getInstance());
+            }
+
+            @Override
+            public StatefulSessionComponentInstance activate(Serializable id, Object state) {
+                final SimpleInterceptorFactoryContext context = new SimpleInterceptorFactoryContext();
+                context.getContextData().put(StatefulSessionComponentInstance.SESSION_ID_KEY, id);
+                final StatefulSessionComponentInstance instance = (StatefulSessionComponentInstance) restoreInstance(state, context);
+                invokeLifecycleCallbacks(postActivateMethods, instance.getInstance());
+                return instance;
+            }
+        });
         cache.setStatefulObjectFactory(new StatefulObjectFactory<StatefulSessionComponentInstance>() {
             @Override
             public StatefulSessionComponentInstance createInstance() {
@@ -68,6 +110,18 @@ public class StatefulSessionComponent extends SessionBeanComponent {
         });
     }
 
+    @Override
+    public void start() {
+        cache.start();
+        super.start();
+    }
+
+    @Override
+    public void stop() {
+        super.stop();
+        cache.stop();
+    }
+
     @Override
     public Interceptor createClientInterceptor(Class<?> view) {
         final Serializable sessionId = createSession();
@@ -120,6 +174,60 @@ public class StatefulSessionComponent extends SessionBeanComponent {
         return new StatefulSessionComponentInstance(this, instance, context);
     }
 
+    private void invokeLifecycleCallbacks(final Method[] methods, final Object instance) {
+        if (methods.length == 0) {
+            return;
+        }
+        final Thread thread = Thread.currentThread();
+        final ClassLoader contextCl = thread.getContextClassLoader();
+        thread.setContextClassLoader(getComponentClass().getClassLoader());
+        try {
+            for (Method method : methods) {
+                method.invoke(instance);
+            }
+        } catch (InvocationTargetException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new EJBException((Exception) cause);
+        } catch (IllegalAccessException e) {
+            throw new EJBException(e);
+        } finally {
+            thread.setContextClassLoader(contextCl);
+        }
+    }
+
+    /**
+     * Find the no-arg methods of the bean class annotated as lifecycle callback, superclass methods first.  A method
+     * overridden in a subclass is not a callback of the subclass unless it is annotated there as well.
+     */
+    private static Method[] findLifecycleCallbacks(final Class<?> beanClass, final Class<? extends Annotation> annotationType) {
+        final List<Method> callbacks = new ArrayList<Method>();
+        final Set<String> overridden = new HashSet<String>();
+        for (Class<?> clazz = beanClass; clazz != null && clazz != Object.class; clazz = clazz.getSuperclass()) {
+            final List<Method> declared = new ArrayList<Method>();
+            for (Method method : clazz.getDeclaredMethods()) {
+                if (method.getParameterTypes().length != 0) {
+                    continue;
+                }
+                final boolean isPrivate = Modifier.isPrivate(method.getModifiers());
+                if (method.isAnnotationPresent(annotationType) && (isPrivate || !overridden.contains(method.getName()))) {
+                    method.setAccessible(true);
+                    declared.add(method);
+                }
+                if (!isPrivate) {
+                    overridden.add(method.getName());
+                }
+            }
+            callbacks.addAll(0, declared);
+        }
+        return callbacks.toArray(new Method[callbacks.size()]);
+    }
+
     @Override
     public Object invoke(Serializable sessionId, Map<String, Object> contextData, Class<?> invokedBusinessInterface, Method beanMethod, Object[] args) throws Exception {
         if (sessionId == null)
@@ -29,6 +29,8 @@ import org.jboss.invocation.ImmediateInterceptorFactory;
 import org.jboss.invocation.Interceptor;
 import org.jboss.invocation.InterceptorFactory;
 import org.jboss.invocation.InterceptorFactoryContext;
+import org.jboss.msc.service.ServiceBuilder;
+import org.jboss.msc.service.ServiceName;
 
 import javax.ejb.TransactionManagementType;
 
@@ -37,9 +39,14 @@ import javax.ejb.TransactionManagementType;
  */
 public class StatefulSessionComponentConfiguration extends SessionBeanComponentConfiguration {
 
+    private final ServiceName cacheConfigServiceName;
+
     public StatefulSessionComponentConfiguration(final StatefulComponentDescription description) {
         super(description);
 
+        cacheConfigServiceName = description.getCacheConfigServiceName();
+        description.addDependency(cacheConfigServiceName, ServiceBuilder.DependencyType.REQUIRED);
+
         addComponentSystemInterceptorFactory(new ImmediateInterceptorFactory(new ComponentInstanceInterceptor()));
 
         if(description.getTransactionManagementType().equals(TransactionManagementType.BEAN)) {
@@ -59,6 +66,10 @@ public class StatefulSessionComponentConfiguration extends SessionBeanComponentC
         }
     }
 
+    ServiceName getCacheConfigServiceName() {
+        return cacheConfigServiceName;
+    }
+
     @Override
     public AbstractComponent constructComponent() {
         return new StatefulSessionComponent(this);
@@ -32,11 +32,17 @@ import java.io.Serializable;
  * @author <a href="mailto:cdewolf@redhat.com">Carlo de Wolf</a>
  */
 public class StatefulSessionComponentInstance extends SessionBeanComponentInstance implements Identifiable {
+    /**
+     * Interceptor factory context data key of the id of an instance being activated
+     */
+    static final Object SESSION_ID_KEY = new Object();
+
     private final GUID id;
 
     protected StatefulSessionComponentInstance(final StatefulSessionComponent component, final Object instance, InterceptorFactoryContext context) {
         super(component, instance, context);
-        this.id = new GUID();
+        final GUID id = (GUID) context.getContextData().get(SESSION_ID_KEY);
+        this.id = id != null ? id : new GUID();
     }
 
     @Override
@@ -55,9 +55,13 @@ public class StatefulSessionSynchronizationInterceptor extends AbstractEJBInterc
 
         TransactionSynchronizationRegistry transactionSynchronizationRegistry = component.getTransactionSynchronizationRegistry();
         Object currentTransactionKey = transactionSynchronizationRegistry.getTransactionKey();
+        // whether this invocation holds the instance and the lock until the tx completes
+        boolean associated = false;
         if(transactionKey != null) {
-            if(!transactionKey.equals(currentTransactionKey))
+            if(!transactionKey.equals(currentTransactionKey)) {
+                release(instance, false);
                 throw new EJBException("EJB 3.1 FR 4.6 Stateful instance " + instance + " is already associated with tx " + transactionKey + " (current tx " + currentTransactionKey + ")");
+            }
         } else {
             if(currentTransactionKey != null) {
                 transactionSynchronizationRegistry.registerInterposedSynchronization(new Synchronization() {
@@ -69,26 +73,29 @@ public class StatefulSessionSynchronizationInterceptor extends AbstractEJBInterc
                     @Override
                     public void afterCompletion(int status) {
                         // TODO: afterCompletion callbacks on SessionSynchronization
-                        release(instance);
+                        release(instance, true);
                     }
                 });
                 // TODO: afterBegin callbacks on SessionSynchronization
                 transactionKey = currentTransactionKey;
+                associated = true;
             }
         }
         try {
             return context.proceed();
         }
         finally {
-            if(currentTransactionKey == null)
-                release(instance);
+            // every invocation obtained the instance from the cache and acquired the lock, only the one which
+            // associated the instance with the tx keeps them until the tx completes
+            if(!associated)
+                release(instance, false);
         }
     }
 
-    private void release(final StatefulSessionComponentInstance instance) {
-        // TODO: remove
+    private void release(final StatefulSessionComponentInstance instance, final boolean dissociate) {
         instance.getComponent().getCache().release(instance);
-        transactionKey = null;
+        if(dissociate)
+            transactionKey = null;
         lock.unlock();
     }
 }
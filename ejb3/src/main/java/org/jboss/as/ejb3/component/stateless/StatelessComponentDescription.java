@@ -24,14 +24,21 @@ package org.jboss.as.ejb3.component.stateless;
 
 import org.jboss.as.ee.component.AbstractComponentConfiguration;
 
+import org.jboss.as.ejb3.component.pool.PoolConfig;
 import org.jboss.as.ejb3.component.session.SessionBeanComponentDescription;
 import org.jboss.as.ejb3.deployment.EjbJarDescription;
+import org.jboss.msc.service.ServiceName;
 
 /**
  * User: jpai
  */
 public class StatelessComponentDescription extends SessionBeanComponentDescription {
 
+    /**
+     * The name of the ejb3 subsystem pool configuration used by this bean, or {@code null} for the default pool
+     */
+    private String poolName;
+
     /**
      * Construct a new instance.
      *
@@ -53,6 +60,33 @@ public class StatelessComponentDescription extends SessionBeanComponentDescripti
         return false;
     }
 
+    /**
+     * Returns the name of the pool configuration this bean uses, or {@code null} if it uses the default pool.
+     *
+     * @return the pool name
+     */
+    public String getPoolName() {
+        return poolName;
+    }
+
+    /**
+     * Sets the name of the ejb3 subsystem pool configuration used for the instances of this bean.
+     *
+     * @param poolName the pool name, or {@code null} to use the default pool
+     */
+    public void setPoolName(final String poolName) {
+        this.poolName = poolName;
+    }
+
+    /**
+     * Returns the service name of the {@link PoolConfig} used by this bean.
+     *
+     * @return the pool configuration service name
+     */
+    public ServiceName getPoolConfigServiceName() {
+        return poolName == null ? PoolConfig.DEFAULT_SLSB_POOL_SERVICE_NAME : PoolConfig.serviceName(poolName);
+    }
+
     @Override
     public SessionBeanType getSessionBeanType() {
         return SessionBeanComponentDescription.SessionBeanType.STATELESS;
@@ -25,11 +25,11 @@ package org.jboss.as.ejb3.component.stateless;
 import org.jboss.as.ee.component.AbstractComponentInstance;
 import org.jboss.as.ee.component.Component;
 import org.jboss.as.ee.component.ComponentInstance;
+import org.jboss.as.ejb3.component.pool.PoolConfig;
 import org.jboss.as.ejb3.component.pool.PooledComponent;
 import org.jboss.as.ejb3.component.session.SessionBeanComponent;
 import org.jboss.ejb3.pool.Pool;
 import org.jboss.ejb3.pool.StatelessObjectFactory;
-import org.jboss.ejb3.pool.strictmax.StrictMaxPool;
 import org.jboss.invocation.Interceptor;
 import org.jboss.invocation.InterceptorContext;
 import org.jboss.invocation.InterceptorFactoryContext;
@@ -38,7 +38,6 @@ import org.jboss.invocation.Interceptors;
 import java.io.Serializable;
 import java.lang.reflect.Method;
 import java.util.Map;
-import java.util.concurrent.TimeUnit;
 
 /**
  * {@link org.jboss.as.ee.component.Component} responsible for managing EJB3 stateless session beans
@@ -49,7 +48,7 @@ import java.util.concurrent.TimeUnit;
 public class StatelessSessionComponent extends SessionBeanComponent implements PooledComponent<StatelessSessionComponentInstance> {
     // some more injectable resources
     // @Resource
-    private Pool<StatelessSessionComponentInstance> pool;
+    private final Pool<StatelessSessionComponentInstance> pool;
 
     /**
      * Constructs a StatelessEJBComponent for a stateless session bean
@@ -70,7 +69,20 @@ public class StatelessSessionComponent extends SessionBeanComponent implements P
                 destroyInstance(obj);
             }
         };
-        this.pool = new StrictMaxPool<StatelessSessionComponentInstance>(factory, 20, 5, TimeUnit.MINUTES);
+        final PoolConfig poolConfig = componentConfiguration.getInjectionValue(componentConfiguration.getPoolConfigServiceName(), PoolConfig.class);
+        this.pool = poolConfig.createPool(factory);
+    }
+
+    @Override
+    public void start() {
+        pool.start();
+        super.start();
+    }
+
+    @Override
+    public void stop() {
+        super.stop();
+        pool.stop();
     }
 
     //TODO: This should be getInstance()
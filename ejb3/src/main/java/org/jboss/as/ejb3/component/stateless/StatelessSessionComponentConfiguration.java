@@ -28,6 +28,8 @@ import org.jboss.as.ee.component.ComponentInterceptorFactory;
 import org.jboss.as.ejb3.component.session.SessionBeanComponentConfiguration;
 import org.jboss.invocation.Interceptor;
 import org.jboss.invocation.InterceptorFactoryContext;
+import org.jboss.msc.service.ServiceBuilder;
+import org.jboss.msc.service.ServiceName;
 
 import javax.ejb.TransactionManagementType;
 
@@ -38,6 +40,8 @@ import static org.jboss.as.ejb3.component.pool.PooledInstanceInterceptor.pooled;
  */
 public class StatelessSessionComponentConfiguration extends SessionBeanComponentConfiguration {
 
+    private final ServiceName poolConfigServiceName;
+
     /**
      * Construct a new instance.
      *
@@ -46,6 +50,9 @@ public class StatelessSessionComponentConfiguration extends SessionBeanComponent
     public StatelessSessionComponentConfiguration(final StatelessComponentDescription description) {
         super(description);
 
+        poolConfigServiceName = description.getPoolConfigServiceName();
+        description.addDependency(poolConfigServiceName, ServiceBuilder.DependencyType.REQUIRED);
+
         addComponentSystemInterceptorFactory(pooled());
 
         if(description.getTransactionManagementType().equals(TransactionManagementType.BEAN)) {
@@ -58,6 +65,10 @@ public class StatelessSessionComponentConfiguration extends SessionBeanComponent
         }
     }
 
+    ServiceName getPoolConfigServiceName() {
+        return poolConfigServiceName;
+    }
+
     @Override
     public AbstractComponent constructComponent() {
         return new StatelessSessionComponent(this);
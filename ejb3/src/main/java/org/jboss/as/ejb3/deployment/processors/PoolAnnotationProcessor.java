@@ -0,0 +1,80 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.deployment.processors;
+
+import org.jboss.as.ejb3.component.stateless.StatelessComponentDescription;
+import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
+import org.jboss.as.server.deployment.annotation.CompositeIndex;
+import org.jboss.jandex.AnnotationInstance;
+import org.jboss.jandex.AnnotationValue;
+import org.jboss.jandex.ClassInfo;
+import org.jboss.jandex.DotName;
+import org.jboss.logging.Logger;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Processes the {@code @org.jboss.ejb3.annotation.Pool} annotation on a stateless session bean and updates the
+ * {@link StatelessComponentDescription} with the name of the ejb3 subsystem pool the bean's instances are taken from.
+ * <p/>
+ * The annotation is matched by name, so the annotation class need not be visible to the server.
+ */
+public class PoolAnnotationProcessor extends AbstractAnnotationEJBProcessor<StatelessComponentDescription> {
+
+    /**
+     * Logger
+     */
+    private static final Logger logger = Logger.getLogger(PoolAnnotationProcessor.class);
+
+    static final DotName POOL_ANNOTATION = DotName.createSimple("org.jboss.ejb3.annotation.Pool");
+
+    @Override
+    protected Class<StatelessComponentDescription> getComponentDescriptionType() {
+        return StatelessComponentDescription.class;
+    }
+
+    @Override
+    protected void processAnnotations(ClassInfo beanClass, CompositeIndex compositeIndex, StatelessComponentDescription componentDescription) throws DeploymentUnitProcessingException {
+        Map<DotName, List<AnnotationInstance>> annotationsOnBean = beanClass.annotations();
+        if (annotationsOnBean == null || annotationsOnBean.isEmpty()) {
+            return;
+        }
+        List<AnnotationInstance> poolAnnotations = annotationsOnBean.get(POOL_ANNOTATION);
+        if (poolAnnotations == null || poolAnnotations.isEmpty()) {
+            return;
+        }
+        if (poolAnnotations.size() > 1) {
+            throw new DeploymentUnitProcessingException("More than one @Pool annotation found on bean: " + componentDescription.getEJBName());
+        }
+        AnnotationInstance poolAnnotation = poolAnnotations.get(0);
+        if (poolAnnotation.target() instanceof ClassInfo == false) {
+            throw new DeploymentUnitProcessingException("@Pool can appear only on a class. Target: " + poolAnnotation.target() + " is not a class");
+        }
+        AnnotationValue poolName = poolAnnotation.value();
+        if (poolName == null || poolName.asString().trim().isEmpty()) {
+            throw new DeploymentUnitProcessingException("@Pool on bean " + componentDescription.getEJBName() + " does not name a pool");
+        }
+        componentDescription.setPoolName(poolName.asString().trim());
+        logger.debug(componentDescription.getEJBName() + " bean has been configured to use pool " + componentDescription.getPoolName());
+    }
+}
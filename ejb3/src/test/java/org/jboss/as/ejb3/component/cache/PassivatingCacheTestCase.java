@@ -0,0 +1,359 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.component.cache;
+
+import org.jboss.ejb3.cache.Identifiable;
+import org.jboss.ejb3.cache.StatefulObjectFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.ejb.NoSuchEJBException;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests the eviction, passivation and activation of the {@link PassivatingCache}.
+ */
+public class PassivatingCacheTestCase {
+
+    static class Bean implements Serializable {
+        private static final long serialVersionUID = 1L;
+        int counter;
+    }
+
+    static class NotSerializableBean extends Bean {
+        private static final long serialVersionUID = 1L;
+        final Object resource = new Object();
+
+        private void writeObject(ObjectOutputStream out) throws IOException {
+            throw new NotSerializableException(Object.class.getName());
+        }
+    }
+
+    static class Instance implements Identifiable {
+        final Integer id;
+        final Bean bean;
+
+        Instance(final Integer id, final Bean bean) {
+            this.id = id;
+            this.bean = bean;
+        }
+
+        public Serializable getId() {
+            return id;
+        }
+    }
+
+    static class InstanceFactory implements StatefulObjectFactory<Instance> {
+        final AtomicInteger ids = new AtomicInteger();
+        final AtomicInteger destroyed = new AtomicInteger();
+        volatile boolean serializable = true;
+
+        public Instance createInstance() {
+            return new Instance(ids.incrementAndGet(), serializable ? new Bean() : new NotSerializableBean());
+        }
+
+        public void destroyInstance(final Instance instance) {
+            destroyed.incrementAndGet();
+        }
+    }
+
+    static class TestPassivator implements Passivator<Instance> {
+        final AtomicInteger prePassivate = new AtomicInteger();
+        final AtomicInteger passivated = new AtomicInteger();
+        final AtomicInteger passivationFailed = new AtomicInteger();
+        final AtomicInteger activated = new AtomicInteger();
+
+        public Object prePassivate(final Instance instance) {
+            prePassivate.incrementAndGet();
+            return instance.bean;
+        }
+
+        public void passivated(final Instance instance) {
+            passivated.incrementAndGet();
+        }
+
+        public void passivationFailed(final Instance instance) {
+            passivationFailed.incrementAndGet();
+        }
+
+        public Instance activate(final Serializable id, final Object state) {
+            activated.incrementAndGet();
+            return new Instance((Integer) id, (Bean) state);
+        }
+    }
+
+    /**
+     * Keeps the serialized form of the state in memory.
+     */
+    static class InMemoryStore implements PassivationStore {
+        final Map<Serializable, byte[]> states = new ConcurrentHashMap<Serializable, byte[]>();
+
+        public void start() {
+        }
+
+        public void store(final Serializable id, final Object state) throws IOException {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            final ObjectOutputStream out = new ObjectOutputStream(bytes);
+            out.writeObject(state);
+            out.close();
+            states.put(id, bytes.toByteArray());
+        }
+
+        public Object load(final Serializable id) throws IOException, ClassNotFoundException {
+            final byte[] bytes = states.remove(id);
+            if (bytes == null) {
+                return null;
+            }
+            return new ObjectInputStream(new ByteArrayInputStream(bytes)).readObject();
+        }
+
+        public void remove(final Serializable id) {
+            states.remove(id);
+        }
+
+        public void stop() {
+            states.clear();
+        }
+    }
+
+    private ScheduledExecutorService executor;
+    private InstanceFactory factory;
+    private TestPassivator passivator;
+    private InMemoryStore store;
+    private CacheStatistics statistics;
+
+    @Before
+    public void setUp() {
+        // the passivation tasks are run explicitly, unless a test replaces the executor
+        executor = Executors.newSingleThreadScheduledExecutor();
+        executor.shutdown();
+        factory = new InstanceFactory();
+        passivator = new TestPassivator();
+        store = new InMemoryStore();
+        statistics = new CacheStatistics();
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private PassivatingCache<Instance> createCache(final int maxSize, final long idleTimeoutMillis) {
+        final PassivatingCache<Instance> cache = new PassivatingCache<Instance>("test", passivator, store, executor, maxSize, idleTimeoutMillis, TimeUnit.MILLISECONDS, statistics);
+        cache.setStatefulObjectFactory(factory);
+        cache.start();
+        return cache;
+    }
+
+    private static void use(final PassivatingCache<Instance> cache, final Serializable id) throws InterruptedException {
+        cache.release(cache.get(id));
+        // make sure the next instance used has a later last use time
+        Thread.sleep(5);
+    }
+
+    @Test
+    public void testLeastRecentlyUsedPassivated() throws Exception {
+        final PassivatingCache<Instance> cache = createCache(1, 0L);
+        final Serializable first = cache.create().getId();
+        final Serializable second = cache.create().getId();
+        final Serializable third = cache.create().getId();
+        use(cache, second);
+        use(cache, first);
+        use(cache, third);
+        cache.passivateOverflow();
+        assertEquals(1, cache.getActiveCount());
+        assertEquals(2, cache.getPassivatedCount());
+        assertTrue(store.states.containsKey(first));
+        assertTrue(store.states.containsKey(second));
+        assertEquals(2, passivator.passivated.get());
+        cache.stop();
+    }
+
+    @Test
+    public void testActivation() throws Exception {
+        final PassivatingCache<Instance> cache = createCache(0, 0L);
+        final Instance created = cache.create();
+        final Serializable id = created.getId();
+        final Instance instance = cache.get(id);
+        assertSame(created, instance);
+        instance.bean.counter = 42;
+        cache.release(instance);
+        cache.passivateOverflow();
+        assertEquals(0, cache.getActiveCount());
+        assertEquals(1, cache.getPassivatedCount());
+        assertEquals(1, statistics.getPassivationCount());
+
+        final Instance activated = cache.get(id);
+        assertNotSame(instance, activated);
+        assertEquals(id, activated.getId());
+        assertEquals(42, activated.bean.counter);
+        assertEquals(1, passivator.activated.get());
+        assertEquals(1, statistics.getActivationCount());
+        assertEquals(1, statistics.getHitCount());
+        assertEquals(1, statistics.getActiveCount());
+        assertEquals(0, statistics.getPassivatedCount());
+        assertTrue(store.states.isEmpty());
+
+        assertSame(activated, cache.get(id));
+        assertEquals(2, statistics.getHitCount());
+        cache.stop();
+    }
+
+    @Test
+    public void testInstanceInUseNotPassivated() throws Exception {
+        final PassivatingCache<Instance> cache = createCache(0, 0L);
+        final Serializable id = cache.create().getId();
+        final Instance instance = cache.get(id);
+        cache.passivateOverflow();
+        assertEquals(1, cache.getActiveCount());
+        assertEquals(0, passivator.prePassivate.get());
+        cache.release(instance);
+        cache.passivateOverflow();
+        assertEquals(0, cache.getActiveCount());
+        cache.stop();
+    }
+
+    @Test
+    public void testInstanceObtainedSeveralTimes() throws Exception {
+        // several invocations within a tx, each obtains the instance and all but the last release it
+        final PassivatingCache<Instance> cache = createCache(0, 0L);
+        final Serializable id = cache.create().getId();
+        final Instance instance = cache.get(id);
+        cache.get(id);
+        cache.get(id);
+        cache.release(instance);
+        cache.release(instance);
+        cache.passivateOverflow();
+        assertEquals(1, cache.getActiveCount());
+        assertEquals(0, passivator.prePassivate.get());
+        // the tx completes
+        cache.release(instance);
+        cache.passivateOverflow();
+        assertEquals(0, cache.getActiveCount());
+        assertEquals(1, cache.getPassivatedCount());
+        cache.stop();
+    }
+
+    @Test
+    public void testIdleTimeout() throws Exception {
+        // the idle check is scheduled once a second at the earliest, it is run explicitly here
+        executor = Executors.newSingleThreadScheduledExecutor();
+        final PassivatingCache<Instance> cache = createCache(10, 50L);
+        final Serializable first = cache.create().getId();
+        final Serializable second = cache.create().getId();
+        Thread.sleep(100);
+        cache.release(cache.get(second));
+        cache.passivateIdle();
+        assertTrue(store.states.containsKey(first));
+        assertEquals(1, cache.getActiveCount());
+        Thread.sleep(100);
+        cache.passivateIdle();
+        assertEquals(0, cache.getActiveCount());
+        assertEquals(2, cache.getPassivatedCount());
+        cache.stop();
+    }
+
+    @Test
+    public void testAsynchronousPassivation() throws Exception {
+        executor = Executors.newSingleThreadScheduledExecutor();
+        final PassivatingCache<Instance> cache = createCache(5, 0L);
+        for (int i = 0; i < 20; i++) {
+            cache.create();
+        }
+        final long deadline = System.currentTimeMillis() + 10000L;
+        while (cache.getActiveCount() > 5 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(5, cache.getActiveCount());
+        assertEquals(15, cache.getPassivatedCount());
+        cache.stop();
+    }
+
+    @Test
+    public void testNotSerializable() throws Exception {
+        factory.serializable = false;
+        final PassivatingCache<Instance> cache = createCache(0, 0L);
+        final Serializable id = cache.create().getId();
+        cache.passivateOverflow();
+        assertEquals(1, cache.getActiveCount());
+        assertEquals(1, passivator.passivationFailed.get());
+        assertEquals(0, passivator.passivated.get());
+        assertEquals(1, statistics.getPassivationFailureCount());
+        // passivation is disabled from now on
+        cache.create();
+        cache.passivateOverflow();
+        assertEquals(1, passivator.prePassivate.get());
+        assertEquals(id, cache.get(id).getId());
+        cache.stop();
+    }
+
+    @Test
+    public void testRemovePassivated() throws Exception {
+        final PassivatingCache<Instance> cache = createCache(0, 0L);
+        final Serializable id = cache.create().getId();
+        cache.passivateOverflow();
+        cache.remove(id);
+        // the instance is activated for its pre-destroy callbacks
+        assertEquals(1, passivator.activated.get());
+        assertEquals(1, factory.destroyed.get());
+        assertEquals(0, cache.getActiveCount());
+        assertEquals(0, cache.getPassivatedCount());
+        try {
+            cache.get(id);
+            fail("removed instance was returned");
+        } catch (NoSuchEJBException expected) {
+        }
+        cache.stop();
+    }
+
+    @Test
+    public void testDiscardPassivated() throws Exception {
+        final PassivatingCache<Instance> cache = createCache(0, 0L);
+        final Serializable id = cache.create().getId();
+        cache.passivateOverflow();
+        cache.discard(id);
+        assertTrue(store.states.isEmpty());
+        assertEquals(0, passivator.activated.get());
+        assertEquals(0, factory.destroyed.get());
+        assertEquals(0, cache.getPassivatedCount());
+        cache.stop();
+    }
+}
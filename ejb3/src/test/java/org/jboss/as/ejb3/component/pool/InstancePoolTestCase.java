@@ -0,0 +1,207 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.component.pool;
+
+import org.jboss.ejb3.pool.Pool;
+import org.jboss.ejb3.pool.StatelessObjectFactory;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the non-blocking instance pool strategies and the per configuration statistics.
+ */
+public class InstancePoolTestCase {
+
+    static class Instance {
+        volatile boolean inUse;
+        volatile boolean destroyed;
+    }
+
+    static class Factory implements StatelessObjectFactory<Instance> {
+        final AtomicInteger created = new AtomicInteger();
+        final AtomicInteger destroyed = new AtomicInteger();
+
+        @Override
+        public Instance create() {
+            created.incrementAndGet();
+            return new Instance();
+        }
+
+        @Override
+        public void destroy(Instance obj) {
+            assertFalse("instance destroyed twice", obj.destroyed);
+            obj.destroyed = true;
+            destroyed.incrementAndGet();
+        }
+    }
+
+    @Test
+    public void testStripedReuse() {
+        final Factory factory = new Factory();
+        final Pool<Instance> pool = new StripedPool<Instance>(factory, 2);
+        pool.start();
+        final Instance first = pool.get();
+        pool.release(first);
+        assertSame(first, pool.get());
+        final Instance second = pool.get();
+        final Instance third = pool.get();
+        assertEquals(3, pool.getCreateCount());
+        pool.release(first);
+        pool.release(second);
+        // both slots are taken, so the third instance is destroyed
+        pool.release(third);
+        assertTrue(third.destroyed);
+        assertEquals(2, pool.getAvailableCount());
+        assertEquals(2, pool.getCurrentSize());
+        pool.stop();
+        assertEquals(3, factory.destroyed.get());
+        assertEquals(0, pool.getAvailableCount());
+    }
+
+    @Test
+    public void testStripedShrink() {
+        final Factory factory = new Factory();
+        final Pool<Instance> pool = new StripedPool<Instance>(factory, 4);
+        final Instance[] instances = new Instance[4];
+        for (int i = 0; i < instances.length; i++) {
+            instances[i] = pool.get();
+        }
+        for (Instance instance : instances) {
+            pool.release(instance);
+        }
+        pool.setMaxSize(1);
+        assertEquals(1, pool.getMaxSize());
+        assertEquals(1, pool.getAvailableCount());
+        assertEquals(3, factory.destroyed.get());
+    }
+
+    @Test
+    public void testStripedConcurrentAccess() throws Exception {
+        final Factory factory = new Factory();
+        final Pool<Instance> pool = new StripedPool<Instance>(factory, 8);
+        final int threads = 8;
+        final CountDownLatch start = new CountDownLatch(1);
+        final AtomicInteger failures = new AtomicInteger();
+        final Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(new Runnable() {
+                public void run() {
+                    try {
+                        start.await();
+                        for (int i = 0; i < 10000; i++) {
+                            final Instance instance = pool.get();
+                            if (instance.inUse || instance.destroyed) {
+                                failures.incrementAndGet();
+                            }
+                            instance.inUse = true;
+                            instance.inUse = false;
+                            pool.release(instance);
+                        }
+                    } catch (InterruptedException e) {
+                        failures.incrementAndGet();
+                    }
+                }
+            });
+            workers[t].start();
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        assertEquals(0, failures.get());
+        assertTrue(pool.getAvailableCount() <= 8);
+        pool.stop();
+        assertEquals(factory.created.get(), factory.destroyed.get());
+    }
+
+    @Test
+    public void testThreadLocal() throws Exception {
+        final Factory factory = new Factory();
+        final Pool<Instance> pool = new ThreadLocalPool<Instance>(factory, 10);
+        pool.start();
+        final Instance outer = pool.get();
+        // a nested invocation on the same thread gets another instance; only one of them is kept on release
+        final Instance nested = pool.get();
+        assertNotSame(outer, nested);
+        pool.release(nested);
+        pool.release(outer);
+        assertTrue(outer.destroyed);
+        final Instance mine = pool.get();
+        assertSame(nested, mine);
+        pool.release(mine);
+
+        final Set<Instance> others = Collections.newSetFromMap(new ConcurrentHashMap<Instance, Boolean>());
+        final Thread other = new Thread(new Runnable() {
+            public void run() {
+                final Instance instance = pool.get();
+                others.add(instance);
+                pool.release(instance);
+            }
+        });
+        other.start();
+        other.join();
+        assertFalse(others.contains(mine));
+        assertEquals(2, pool.getAvailableCount());
+        pool.stop();
+        assertTrue(mine.destroyed);
+        assertEquals(3, factory.destroyed.get());
+    }
+
+    @Test
+    public void testStatistics() {
+        final PoolConfig config = new PoolConfig("test", PoolStrategy.STRIPED, 5, 1, TimeUnit.SECONDS);
+        final Factory factory = new Factory();
+        final Pool<Instance> first = config.createPool(factory);
+        final Pool<Instance> second = config.createPool(factory);
+        first.start();
+        second.start();
+        first.release(first.get());
+        second.release(second.get());
+        second.release(second.get());
+        final PoolStatistics statistics = config.getStatistics();
+        assertEquals(3, statistics.getAcquisitionCount());
+        assertEquals(2, statistics.getCreateCount());
+        assertEquals(2, statistics.getAvailableCount());
+        assertTrue(statistics.getMaxWaitTime(TimeUnit.NANOSECONDS) >= statistics.getAverageWaitTime(TimeUnit.NANOSECONDS));
+        second.stop();
+        assertEquals(1, statistics.getAvailableCount());
+        first.stop();
+        assertEquals(0, statistics.getCurrentSize());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownStrategy() {
+        PoolStrategy.forName("fifo");
+    }
+}
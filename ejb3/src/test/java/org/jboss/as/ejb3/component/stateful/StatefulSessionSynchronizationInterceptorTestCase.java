@@ -41,11 +41,16 @@ import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -123,6 +128,71 @@ public class StatefulSessionSynchronizationInterceptorTestCase {
         }
     }
 
+    /**
+     * Every invocation within a tx releases the instance it obtained from the cache, except for the
+     * first, which keeps it until the tx completes.
+     */
+    @Test
+    public void testSeveralInvocationsInTx() throws Exception {
+        final Interceptor interceptor = new StatefulSessionSynchronizationInterceptor();
+        final InterceptorContext context = new InterceptorContext();
+        context.setInterceptors(Arrays.asList(noop()));
+        final StatefulSessionComponent component = mock(StatefulSessionComponent.class);
+        context.putPrivateData(Component.class, component);
+        when(component.getAccessTimeout()).thenReturn(defaultAccessTimeout());
+        Cache<StatefulSessionComponentInstance> cache = mock(Cache.class);
+        when(component.getCache()).thenReturn(cache);
+        final TransactionSynchronizationRegistry transactionSynchronizationRegistry = mock(TransactionSynchronizationRegistry.class);
+        when(component.getTransactionSynchronizationRegistry()).thenReturn(transactionSynchronizationRegistry);
+        when(transactionSynchronizationRegistry.getTransactionKey()).thenReturn("TX1");
+        final List<Synchronization> synchronizations = new LinkedList<Synchronization>();
+        doAnswer(new Answer() {
+            @Override
+            public Object answer(InvocationOnMock invocation) throws Throwable {
+                Synchronization synchronization = (Synchronization) invocation.getArguments()[0];
+                synchronizations.add(synchronization);
+                return null;
+            }
+        }).when(transactionSynchronizationRegistry).registerInterposedSynchronization((Synchronization) any());
+        final StatefulSessionComponentInstance instance = mock(StatefulSessionComponentInstance.class);
+        when(instance.getComponent()).thenReturn(component);
+        context.putPrivateData(ComponentInstance.class, instance);
+
+        interceptor.processInvocation(context);
+        interceptor.processInvocation(context);
+        interceptor.processInvocation(context);
+
+        assertEquals(1, synchronizations.size());
+        verify(cache, times(2)).release(instance);
+
+        // commit
+        for (Synchronization synchronization : synchronizations) {
+            synchronization.beforeCompletion();
+        }
+        for (Synchronization synchronization : synchronizations) {
+            synchronization.afterCompletion(Status.STATUS_COMMITTED);
+        }
+        verify(cache, times(3)).release(instance);
+
+        // the lock is free for another thread in another tx
+        when(transactionSynchronizationRegistry.getTransactionKey()).thenReturn(null);
+        final Exception[] failure = new Exception[1];
+        final Thread thread = new Thread(new Runnable() {
+            public void run() {
+                try {
+                    interceptor.processInvocation(context);
+                } catch (Exception e) {
+                    failure[0] = e;
+                }
+            }
+        });
+        thread.start();
+        thread.join(10000);
+        assertFalse(thread.isAlive());
+        assertNull(failure[0]);
+        verify(cache, times(4)).release(instance);
+    }
+
     /**
      * After the bean is accessed within a tx and the tx has committed, the
      * association should be gone (and thus it is ready for another tx).
@@ -0,0 +1,351 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.host.controller;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.as.host.controller.mgmt.ContentChunks;
+import org.jboss.as.host.controller.mgmt.ContentManifest;
+import org.jboss.logging.Logger;
+
+/**
+ * Transfers the files below a repository path in fixed-size chunks which are fetched in parallel.  Every chunk is
+ * verified against the checksum in the manifest and retried with an increasing delay if it fails or does not match.
+ * Files are assembled in a {@code .part} file next to their final location, so a failed transfer resumes with the
+ * chunks it is missing; files which are already complete are not transferred again.  Deployment content is finally
+ * verified against its SHA-1 hash.
+ */
+final class ChunkedContentTransfer {
+
+    /**
+     * The source of a transfer.  Implementations must allow chunks to be fetched concurrently.
+     */
+    interface ChunkSource {
+
+        /**
+         * Get the manifest of the transferred path.
+         *
+         * @param chunkSize the chunk size
+         * @return the manifest, or {@code null} if the path does not exist
+         * @throws IOException if the manifest cannot be obtained
+         */
+        ContentManifest getManifest(int chunkSize) throws IOException;
+
+        /**
+         * Get the uncompressed data of a chunk.
+         *
+         * @param path the path of the file relative to the transferred path
+         * @param chunkSize the chunk size
+         * @param index the chunk index
+         * @param length the expected length of the chunk, as given by the manifest
+         * @return the chunk
+         * @throws IOException if the chunk cannot be obtained
+         */
+        byte[] getChunk(String path, int chunkSize, int index, int length) throws IOException;
+    }
+
+    static final int MAX_ATTEMPTS = 5;
+
+    private static final Logger log = Logger.getLogger("org.jboss.as.domain.controller");
+
+    private static final String PART_SUFFIX = ".part";
+    private static final String CONTENT = "content";
+
+    private final ChunkSource source;
+    private final int chunkSize;
+    private final int parallelism;
+    private final long retryDelay;
+
+    /**
+     * Construct a new instance.
+     *
+     * @param source the source
+     * @param chunkSize the chunk size
+     * @param parallelism the maximum number of chunks fetched concurrently
+     * @param retryDelay the delay in milliseconds before the first retry of a failed fetch, doubled on each retry
+     */
+    ChunkedContentTransfer(final ChunkSource source, final int chunkSize, final int parallelism, final long retryDelay) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunkSize is less than 1");
+        }
+        if (chunkSize > ContentChunks.MAX_CHUNK_SIZE) {
+            throw new IllegalArgumentException("chunkSize is greater than " + ContentChunks.MAX_CHUNK_SIZE);
+        }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism is less than 1");
+        }
+        this.source = source;
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism;
+        this.retryDelay = retryDelay;
+    }
+
+    /**
+     * Transfer the files.
+     *
+     * @param localPath the local path, which is the file itself if the transferred path is a file
+     * @param hash the SHA-1 hash of the deployment content, or {@code null} if the files are not deployment content
+     * @return the local path
+     * @throws IOException if the transfer fails
+     */
+    File transfer(final File localPath, final byte[] hash) throws IOException {
+        final ContentManifest manifest = retry(new Callable<ContentManifest>() {
+            public ContentManifest call() throws IOException {
+                return source.getManifest(chunkSize);
+            }
+        }, "manifest of " + localPath);
+        if (manifest == null) {
+            return localPath;
+        }
+        if (manifest.getEntries().isEmpty()) {
+            if (!localPath.isDirectory() && !localPath.mkdirs()) {
+                throw new IOException("Unable to create local directory: " + localPath);
+            }
+            return localPath;
+        }
+
+        final AtomicInteger threadCount = new AtomicInteger();
+        final ExecutorService executor = Executors.newFixedThreadPool(parallelism, new ThreadFactory() {
+            public Thread newThread(final Runnable r) {
+                final Thread thread = new Thread(r, "Content transfer " + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        final List<PartFile> parts = new ArrayList<PartFile>();
+        try {
+            final List<Future<Void>> futures = new ArrayList<Future<Void>>();
+            for (ContentManifest.Entry entry : manifest.getEntries()) {
+                final File target = entry.getPath().length() == 0 ? localPath : new File(localPath, entry.getPath());
+                if (isComplete(target, entry, manifest.getChunkSize())) {
+                    log.debugf("Skipping transfer of complete file %s", target);
+                    continue;
+                }
+                final File parent = target.getParentFile();
+                if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+                    throw new IOException("Unable to create local directory " + parent);
+                }
+                final PartFile part = new PartFile(entry, target, manifest.getChunkSize());
+                parts.add(part);
+                for (int i = 0; i < entry.getChunkCount(); i++) {
+                    if (!part.hasChunk(i)) {
+                        futures.add(executor.submit(part.fetchTask(i)));
+                    }
+                }
+            }
+            for (Future<Void> future : futures) {
+                try {
+                    future.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while transferring " + localPath);
+                } catch (ExecutionException e) {
+                    final Throwable cause = e.getCause();
+                    if (cause instanceof IOException) {
+                        throw (IOException) cause;
+                    }
+                    throw new IOException("Failed to transfer " + localPath, cause);
+                }
+            }
+            for (PartFile part : parts) {
+                part.complete();
+            }
+        } finally {
+            executor.shutdownNow();
+            for (PartFile part : parts) {
+                part.close();
+            }
+        }
+        if (hash != null && hash.length > 0) {
+            verify(new File(localPath, CONTENT), hash);
+        }
+        return localPath;
+    }
+
+    private <T> T retry(final Callable<T> callable, final String description) throws IOException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return callable.call();
+            } catch (IOException e) {
+                if (attempt >= MAX_ATTEMPTS) {
+                    throw e;
+                }
+                log.debugf(e, "Failed to fetch %s, retrying", description);
+            } catch (Exception e) {
+                throw new IOException("Failed to fetch " + description, e);
+            }
+            try {
+                Thread.sleep(retryDelay << (attempt - 1));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while fetching " + description);
+            }
+        }
+    }
+
+    private static boolean isComplete(final File file, final ContentManifest.Entry entry, final int chunkSize) throws IOException {
+        if (!file.isFile() || file.length() != entry.getSize()) {
+            return false;
+        }
+        final RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            final byte[] buffer = new byte[ContentChunks.getChunkLength(entry.getSize(), chunkSize, 0)];
+            for (int i = 0; i < entry.getChunkCount(); i++) {
+                final int length = ContentChunks.getChunkLength(entry.getSize(), chunkSize, i);
+                raf.readFully(buffer, 0, length);
+                if (ContentChunks.checksum(buffer, 0, length) != entry.getChecksum(i)) {
+                    return false;
+                }
+            }
+            return true;
+        } finally {
+            raf.close();
+        }
+    }
+
+    private static void verify(final File content, final byte[] hash) throws IOException {
+        if (!content.isFile()) {
+            return;
+        }
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        final InputStream is = new FileInputStream(content);
+        try {
+            final byte[] buffer = new byte[8192];
+            int read;
+            while ((read = is.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        } finally {
+            is.close();
+        }
+        if (!Arrays.equals(hash, digest.digest())) {
+            if (!content.delete()) {
+                log.warnf("Failed to delete corrupt deployment content %s", content);
+            }
+            throw new IOException("Transferred deployment content " + content + " does not match its hash");
+        }
+    }
+
+    /**
+     * A file being assembled from its chunks.  The chunks are written with positional writes, which may run
+     * concurrently.
+     */
+    private final class PartFile {
+        private final ContentManifest.Entry entry;
+        private final File target;
+        private final File part;
+        private final int chunkSize;
+        private final RandomAccessFile raf;
+        private final FileChannel channel;
+
+        PartFile(final ContentManifest.Entry entry, final File target, final int chunkSize) throws IOException {
+            this.entry = entry;
+            this.target = target;
+            this.part = new File(target.getPath() + PART_SUFFIX);
+            this.chunkSize = chunkSize;
+            // an existing part file is kept, so chunks fetched by an earlier attempt are reused
+            raf = new RandomAccessFile(part, "rw");
+            raf.setLength(entry.getSize());
+            channel = raf.getChannel();
+        }
+
+        boolean hasChunk(final int index) throws IOException {
+            final ByteBuffer buffer = ByteBuffer.allocate(ContentChunks.getChunkLength(entry.getSize(), chunkSize, index));
+            long position = (long) index * chunkSize;
+            while (buffer.hasRemaining()) {
+                final int read = channel.read(buffer, position);
+                if (read == -1) {
+                    return false;
+                }
+                position += read;
+            }
+            return ContentChunks.checksum(buffer.array(), 0, buffer.capacity()) == entry.getChecksum(index);
+        }
+
+        Callable<Void> fetchTask(final int index) {
+            final String description = "chunk " + index + " of " + target;
+            final int length = ContentChunks.getChunkLength(entry.getSize(), chunkSize, index);
+            return new Callable<Void>() {
+                public Void call() throws IOException {
+                    final byte[] chunk = retry(new Callable<byte[]>() {
+                        public byte[] call() throws IOException {
+                            final byte[] chunk = source.getChunk(entry.getPath(), chunkSize, index, length);
+                            if (chunk.length != length
+                                    || ContentChunks.checksum(chunk, 0, chunk.length) != entry.getChecksum(index)) {
+                                throw new IOException("Checksum mismatch for " + description);
+                            }
+                            return chunk;
+                        }
+                    }, description);
+                    final ByteBuffer buffer = ByteBuffer.wrap(chunk);
+                    long position = (long) index * chunkSize;
+                    while (buffer.hasRemaining()) {
+                        position += channel.write(buffer, position);
+                    }
+                    return null;
+                }
+            };
+        }
+
+        void complete() throws IOException {
+            raf.close();
+            if (target.exists() && !target.delete()) {
+                throw new IOException("Unable to replace " + target);
+            }
+            if (!part.renameTo(target)) {
+                throw new IOException("Unable to rename " + part + " to " + target);
+            }
+        }
+
+        void close() {
+            try {
+                raf.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.host.controller;
+
+import java.util.Random;
+
+/**
+ * Computes the time to wait between attempts to reconnect to the master domain controller. The upper bound
+ * doubles with each attempt until it reaches the maximum delay; the actual delay is picked at random from the
+ * upper half of the bound so that slaves which lost the connection at the same time don't all reconnect
+ * at once.
+ */
+final class ReconnectBackoff {
+
+    private final long maxDelay;
+    private final Random random;
+    private long bound;
+
+    ReconnectBackoff(final long initialDelay, final long maxDelay) {
+        this(initialDelay, maxDelay, new Random());
+    }
+
+    ReconnectBackoff(final long initialDelay, final long maxDelay, final Random random) {
+        if (initialDelay <= 0 || maxDelay < initialDelay) {
+            throw new IllegalArgumentException("Invalid delays " + initialDelay + ", " + maxDelay);
+        }
+        this.maxDelay = maxDelay;
+        this.random = random;
+        this.bound = initialDelay;
+    }
+
+    /**
+     * Gets the time to wait before the next attempt.
+     *
+     * @return the delay in milliseconds
+     */
+    long nextDelay() {
+        final long current = bound;
+        bound = Math.min(bound * 2, maxDelay);
+        final long half = current / 2;
+        return current - half + (long) (random.nextDouble() * half);
+    }
+}
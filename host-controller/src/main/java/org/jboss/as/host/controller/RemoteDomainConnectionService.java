@@ -29,6 +29,7 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
@@ -36,9 +37,15 @@ import java.net.NetworkInterface;
 import java.net.SocketException;
 import java.net.UnknownHostException;
 import java.security.AccessController;
+import java.util.ArrayList;
 import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -53,8 +60,11 @@ import org.jboss.as.controller.client.Operation;
 import org.jboss.as.controller.remote.ModelControllerClientToModelControllerAdapter;
 import org.jboss.as.controller.remote.TransactionalModelControllerOperationHandler;
 import org.jboss.as.domain.controller.DomainControllerSlave;
+import org.jboss.as.domain.controller.DomainModelUpdate;
 import org.jboss.as.domain.controller.FileRepository;
 import org.jboss.as.domain.controller.MasterDomainControllerClient;
+import org.jboss.as.host.controller.mgmt.ContentChunks;
+import org.jboss.as.host.controller.mgmt.ContentManifest;
 import org.jboss.as.host.controller.mgmt.DomainControllerProtocol;
 import org.jboss.as.host.controller.mgmt.ManagementCommunicationService;
 import org.jboss.as.protocol.ByteDataInput;
@@ -87,6 +97,11 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
 
     private static final Logger log = Logger.getLogger("org.jboss.as.domain.controller");
     private static final int CONNECTION_TIMEOUT = 5000;
+    /** The number of connections used to fetch deployment content chunks in parallel. */
+    private static final int TRANSFER_CONNECTIONS = 4;
+    private static final long TRANSFER_RETRY_DELAY = 1000;
+    private static final long RECONNECT_INITIAL_DELAY = 1000;
+    private static final long RECONNECT_MAX_DELAY = 60000;
     private final InetAddress host;
     private final int port;
     private final String name;
@@ -102,6 +117,8 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
     private final InjectedValue<ManagementCommunicationService> managementCommunicationService = new InjectedValue<ManagementCommunicationService>();
     private final AtomicBoolean shutdown = new AtomicBoolean();
     private volatile ReconnectInfo reconnectInfo;
+    /** The epoch of the master's domain model history our copy of the domain model belongs to */
+    private volatile String modelEpoch;
 
     public RemoteDomainConnectionService(final String name, final InetAddress host, final int port, final FileRepository localRepository){
         this.name = name;
@@ -148,11 +165,23 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
         }
 
         try {
-            ModelNode node = new RegisterModelControllerRequest(callbackAddress, ourPort).executeForResult(new ManagementRequestConnectionStrategy.ExistingConnectionStrategy(connection));
-            if (reconnectInfo == null) {
-                //TODO update the domain model from the reconnected host
-                slave.setInitialDomainModel(node);
+            final ManagementRequestConnectionStrategy strategy = new ManagementRequestConnectionStrategy.ExistingConnectionStrategy(connection);
+            DomainModelUpdate update = new RegisterModelControllerRequest(callbackAddress, ourPort, modelEpoch).executeForResult(strategy);
+            if (!update.isFullModel()) {
+                if (slave.applyDomainOperations(update.getOperations())) {
+                    log.infof("Applied %d domain operation(s) missed while disconnected from remote domain controller", update.getOperations().size());
+                } else {
+                    // Our copy of the domain model no longer matches the master's; start over with the complete model
+                    log.warn("Could not apply domain operations missed while disconnected from remote domain controller, retrieving complete domain model");
+                    new UnregisterModelControllerRequest().executeForResult(strategy);
+                    update = new RegisterModelControllerRequest(callbackAddress, ourPort, null).executeForResult(strategy);
+                }
+            }
+            if (update.isFullModel()) {
+                slave.setInitialDomainModel(update.getDomainModel());
             }
+            modelEpoch = update.getEpoch();
+            log.debugf("Domain model is at revision %d", update.getRevision());
         } catch (Exception e) {
             log.warnf("Error retrieving domain model from remote domain controller %s:%d: %s", host.getHostAddress(), port, e.getMessage());
             throw new IllegalStateException(e);
@@ -278,14 +307,16 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
         }
     }
 
-    private class RegisterModelControllerRequest extends RegistryRequest<ModelNode> {
+    private class RegisterModelControllerRequest extends RegistryRequest<DomainModelUpdate> {
 
         private final InetAddress localManagementAddress;
         private final int localManagementPort;
+        private final String modelEpoch;
 
-        RegisterModelControllerRequest(final InetAddress localManagementAddress, final int localManagementPort) {
+        RegisterModelControllerRequest(final InetAddress localManagementAddress, final int localManagementPort, final String modelEpoch) {
             this.localManagementAddress = localManagementAddress;
             this.localManagementPort = localManagementPort;
+            this.modelEpoch = modelEpoch;
         }
 
         @Override
@@ -312,6 +343,8 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
                 output.write(address);
                 output.writeByte(DomainControllerProtocol.PARAM_HOST_CONTROLLER_PORT);
                 output.writeInt(localManagementPort);
+                output.writeByte(DomainControllerProtocol.PARAM_MODEL_EPOCH);
+                output.writeUTF(modelEpoch == null ? "" : modelEpoch);
                 output.close();
             } finally {
                 StreamUtils.safeClose(output);
@@ -320,16 +353,34 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
 
         /** {@inheritDoc} */
         @Override
-        protected ModelNode receiveResponse(InputStream input) throws IOException {
-            expectHeader(input, DomainControllerProtocol.PARAM_MODEL);
+        protected DomainModelUpdate receiveResponse(InputStream input) throws IOException {
+            expectHeader(input, DomainControllerProtocol.PARAM_MODEL_EPOCH);
+            final String epoch = StreamUtils.readUTFZBytes(input);
+            expectHeader(input, DomainControllerProtocol.PARAM_MODEL_REVISION);
+            final long revision = StreamUtils.readLong(input);
+            final byte param = StreamUtils.readByte(input);
+            if (param == DomainControllerProtocol.PARAM_MODEL_OPERATIONS) {
+                final int count = StreamUtils.readInt(input);
+                final List<ModelNode> operations = new ArrayList<ModelNode>(count);
+                for (int i = 0; i < count; i++) {
+                    ModelNode operation = new ModelNode();
+                    operation.readExternal(input);
+                    operations.add(operation);
+                }
+                return DomainModelUpdate.operations(epoch, revision, operations);
+            } else if (param != DomainControllerProtocol.PARAM_MODEL) {
+                throw new IOException("Invalid byte token.  Expecting '" + DomainControllerProtocol.PARAM_MODEL + "' received '" + param + "'");
+            }
+
             ModelNode node = new ModelNode();
             node.readExternal(input);
 
             if (node.hasDefined("protocol-error")){
+                // e.g. the master still has our previous registration; never use this as the domain model
                 log.error(node.get("protocol-error").asString());
-                log.error("Exiting");
+                throw new IOException("Registration rejected by remote domain controller: " + node.get("protocol-error").asString());
             }
-            return node;
+            return DomainModelUpdate.fullModel(epoch, revision, node);
         }
     }
 
@@ -472,6 +523,133 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
         }
     }
 
+    private class GetFileManifestRequest extends RegistryRequest<ContentManifest> {
+        private final byte rootId;
+        private final String filePath;
+        private final int chunkSize;
+
+        private GetFileManifestRequest(final byte rootId, final String filePath, final int chunkSize) {
+            this.rootId = rootId;
+            this.filePath = filePath;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        public final byte getRequestCode() {
+            return DomainControllerProtocol.GET_FILE_MANIFEST_REQUEST;
+        }
+
+        @Override
+        protected final byte getResponseCode() {
+            return DomainControllerProtocol.GET_FILE_MANIFEST_RESPONSE;
+        }
+
+        @Override
+        protected final void sendRequest(final int protocolVersion, final OutputStream outputStream) throws IOException {
+            log.debugf("Requesting file manifest for path %s", filePath);
+            ByteDataOutput output = null;
+            try {
+                output = new SimpleByteDataOutput(outputStream);
+                output.writeByte(DomainControllerProtocol.PARAM_ROOT_ID);
+                output.writeByte(rootId);
+                output.writeByte(DomainControllerProtocol.PARAM_FILE_PATH);
+                output.writeUTF(filePath);
+                output.writeByte(DomainControllerProtocol.PARAM_CHUNK_SIZE);
+                output.writeInt(chunkSize);
+                output.close();
+            } finally {
+                StreamUtils.safeClose(output);
+            }
+        }
+
+        @Override
+        protected final ContentManifest receiveResponse(final InputStream inputStream) throws IOException {
+            ByteDataInput input = null;
+            try {
+                input = new SimpleByteDataInput(inputStream);
+                final ContentManifest manifest = ContentManifest.read(input);
+                input.close();
+                return manifest;
+            } finally {
+                StreamUtils.safeClose(input);
+            }
+        }
+    }
+
+    private class GetFileChunkRequest extends RegistryRequest<byte[]> {
+        private final byte rootId;
+        private final String filePath;
+        private final String relativePath;
+        private final int chunkSize;
+        private final int chunkIndex;
+        private final int chunkLength;
+        private final boolean compress;
+
+        private GetFileChunkRequest(final byte rootId, final String filePath, final String relativePath, final int chunkSize,
+                final int chunkIndex, final int chunkLength, final boolean compress) {
+            this.rootId = rootId;
+            this.filePath = filePath;
+            this.relativePath = relativePath;
+            this.chunkSize = chunkSize;
+            this.chunkIndex = chunkIndex;
+            this.chunkLength = chunkLength;
+            this.compress = compress;
+        }
+
+        @Override
+        public final byte getRequestCode() {
+            return DomainControllerProtocol.GET_FILE_CHUNK_REQUEST;
+        }
+
+        @Override
+        protected final byte getResponseCode() {
+            return DomainControllerProtocol.GET_FILE_CHUNK_RESPONSE;
+        }
+
+        @Override
+        protected final void sendRequest(final int protocolVersion, final OutputStream outputStream) throws IOException {
+            ByteDataOutput output = null;
+            try {
+                output = new SimpleByteDataOutput(outputStream);
+                output.writeByte(DomainControllerProtocol.PARAM_ROOT_ID);
+                output.writeByte(rootId);
+                output.writeByte(DomainControllerProtocol.PARAM_FILE_PATH);
+                output.writeUTF(filePath);
+                output.writeByte(DomainControllerProtocol.PARAM_FILE_PATH);
+                output.writeUTF(relativePath);
+                output.writeByte(DomainControllerProtocol.PARAM_CHUNK_SIZE);
+                output.writeInt(chunkSize);
+                output.writeByte(DomainControllerProtocol.PARAM_CHUNK_INDEX);
+                output.writeInt(chunkIndex);
+                output.writeByte(DomainControllerProtocol.PARAM_COMPRESSED);
+                output.writeBoolean(compress);
+                output.close();
+            } finally {
+                StreamUtils.safeClose(output);
+            }
+        }
+
+        @Override
+        protected final byte[] receiveResponse(final InputStream inputStream) throws IOException {
+            ByteDataInput input = null;
+            try {
+                input = new SimpleByteDataInput(inputStream);
+                expectHeader(input, DomainControllerProtocol.PARAM_CHUNK_DATA);
+                final boolean compressed = input.readBoolean();
+                final int length = input.readInt();
+                if (length < 0 || length > chunkLength) {
+                    throw new IOException(String.format("Invalid chunk data length [%d]", length));
+                }
+                final byte[] data = new byte[length];
+                input.readFully(data);
+                input.close();
+                return compressed ? ContentChunks.decompress(data, chunkLength) : data;
+            } finally {
+                StreamUtils.safeClose(input);
+            }
+        }
+    }
+
     private class RemoteFileRepository implements FileRepository {
         private final FileRepository localFileRepository;
 
@@ -502,12 +680,141 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
         }
 
         private File getFile(final String relativePath, final byte repoId) {
+            if (repoId == DomainControllerProtocol.PARAM_ROOT_ID_DEPLOYMENT) {
+                return getDeploymentContent(relativePath);
+            }
             try {
                 return new GetFileRequest(repoId, relativePath, localFileRepository).executeForResult(new ManagementRequestConnectionStrategy.ExistingConnectionStrategy(connection));
             } catch (Exception e) {
                 throw new RuntimeException("Failed to get file from remote repository", e);
             }
         }
+
+        private File getDeploymentContent(final String hex) {
+            final byte[] hash = HashUtil.hexStringToByteArray(hex);
+            final File localPath = localFileRepository.getDeploymentRoot(hash);
+            final RemoteChunkSource source = new RemoteChunkSource(DomainControllerProtocol.PARAM_ROOT_ID_DEPLOYMENT, hex);
+            try {
+                return new ChunkedContentTransfer(source, ContentChunks.DEFAULT_CHUNK_SIZE, TRANSFER_CONNECTIONS,
+                        TRANSFER_RETRY_DELAY).transfer(localPath, hash);
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to get file from remote repository", e);
+            } finally {
+                source.close();
+            }
+        }
+    }
+
+    /**
+     * Fetches content from the master over a fixed number of connections of its own, so the chunks of a transfer are
+     * fetched in parallel without blocking the registration connection.  A connection which fails is discarded and
+     * re-established for the next request.
+     */
+    private class RemoteChunkSource implements ChunkedContentTransfer.ChunkSource {
+        private final byte rootId;
+        private final String filePath;
+        private final ExecutorService readExecutor;
+        private final ThreadFactory threadFactory;
+        private final BlockingQueue<TransferConnectionStrategy> strategies = new LinkedBlockingQueue<TransferConnectionStrategy>();
+        private final List<TransferConnectionStrategy> allStrategies = new ArrayList<TransferConnectionStrategy>();
+
+        RemoteChunkSource(final byte rootId, final String filePath) {
+            this.rootId = rootId;
+            this.filePath = filePath;
+            threadFactory = new JBossThreadFactory(new ThreadGroup("RemoteDomainConnection-transfer-threads"), Boolean.TRUE, null, "%G - %t", null, null, AccessController.getContext());
+            readExecutor = Executors.newCachedThreadPool(threadFactory);
+            for (int i = 0; i < TRANSFER_CONNECTIONS; i++) {
+                final TransferConnectionStrategy strategy = new TransferConnectionStrategy(readExecutor, threadFactory);
+                allStrategies.add(strategy);
+                strategies.add(strategy);
+            }
+        }
+
+        @Override
+        public ContentManifest getManifest(final int chunkSize) throws IOException {
+            return execute(new GetFileManifestRequest(rootId, filePath, chunkSize));
+        }
+
+        @Override
+        public byte[] getChunk(final String path, final int chunkSize, final int index, final int length) throws IOException {
+            // the master only compresses content which is not compressed already
+            return execute(new GetFileChunkRequest(rootId, filePath, path, chunkSize, index, length, true));
+        }
+
+        private <T> T execute(final ManagementRequest<T> request) throws IOException {
+            final TransferConnectionStrategy strategy;
+            try {
+                strategy = strategies.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException();
+            }
+            try {
+                return request.executeForResult(strategy);
+            } catch (InterruptedException e) {
+                strategy.close();
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException();
+            } catch (ExecutionException e) {
+                strategy.close();
+                final Throwable cause = e.getCause();
+                throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+            } catch (IOException e) {
+                strategy.close();
+                throw e;
+            } catch (Exception e) {
+                strategy.close();
+                throw new IOException(e);
+            } finally {
+                strategies.add(strategy);
+            }
+        }
+
+        void close() {
+            for (TransferConnectionStrategy strategy : allStrategies) {
+                strategy.close();
+            }
+            readExecutor.shutdown();
+        }
+    }
+
+    /**
+     * A connection strategy which keeps its connection open for the next request.
+     */
+    private class TransferConnectionStrategy implements ManagementRequestConnectionStrategy {
+        private final ExecutorService readExecutor;
+        private final ThreadFactory threadFactory;
+        private Connection connection;
+
+        TransferConnectionStrategy(final ExecutorService readExecutor, final ThreadFactory threadFactory) {
+            this.readExecutor = readExecutor;
+            this.threadFactory = threadFactory;
+        }
+
+        @Override
+        public synchronized Connection getConnection() throws IOException {
+            if (connection == null) {
+                final ProtocolClient.Configuration config = new ProtocolClient.Configuration();
+                config.setMessageHandler(MessageHandler.NULL);
+                config.setConnectTimeout(CONNECTION_TIMEOUT);
+                config.setReadExecutor(readExecutor);
+                config.setSocketFactory(SocketFactory.getDefault());
+                config.setServerAddress(new InetSocketAddress(host, port));
+                config.setThreadFactory(threadFactory);
+                connection = new ProtocolClient(config).connect();
+            }
+            return connection;
+        }
+
+        @Override
+        public void complete() {
+            // keep the connection for the next request
+        }
+
+        synchronized void close() {
+            StreamUtils.safeClose(connection);
+            connection = null;
+        }
     }
 
     private class SlaveDomainControllerOperationHandler extends TransactionalModelControllerOperationHandler {
@@ -563,15 +870,19 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
                 log.error("Null reconnect info, cannot try to reconnect");
                 return;
             }
+            final ReconnectBackoff backoff = new ReconnectBackoff(RECONNECT_INITIAL_DELAY, RECONNECT_MAX_DELAY);
             new Thread(new Runnable() {
                 @Override
                 public void run() {
-                    try {
-                        Thread.sleep(3000);
-                    } catch (InterruptedException e) {
-                    }
-
                     while (!shutdown.get()) {
+                        try {
+                            Thread.sleep(backoff.nextDelay());
+                        } catch (InterruptedException e) {
+                        }
+                        if (shutdown.get()) {
+                            break;
+                        }
+
                         log.debug("Attempting reconnection to master...");
                         try {
                             connect(reconnectInfo.getHostName(), reconnectInfo.getOurAddress(), reconnectInfo.getOurPort(), reconnectInfo.getSlave());
@@ -579,10 +890,6 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
                             break;
                         } catch (Exception e) {
                         }
-                        try {
-                            Thread.sleep(3000);
-                        } catch (InterruptedException e) {
-                        }
                     }
                 }
             }).start();
@@ -0,0 +1,200 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.host.controller.mgmt;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Helpers for transferring file content in fixed-size chunks.
+ *
+ * @see ContentManifest
+ */
+public final class ContentChunks {
+
+    /** The default chunk size, 1 MiB. */
+    public static final int DEFAULT_CHUNK_SIZE = 1 << 20;
+
+    /** The largest chunk size that is served, 16 MiB. */
+    public static final int MAX_CHUNK_SIZE = 1 << 24;
+
+    private ContentChunks() {
+    }
+
+    /**
+     * Get the number of chunks of a file.
+     *
+     * @param size the file size
+     * @param chunkSize the chunk size
+     * @return the number of chunks
+     */
+    public static int getChunkCount(final long size, final int chunkSize) {
+        return (int) ((size + chunkSize - 1) / chunkSize);
+    }
+
+    /**
+     * Get the length of a chunk, which is the chunk size for all but the last chunk.
+     *
+     * @param size the file size
+     * @param chunkSize the chunk size
+     * @param index the chunk index
+     * @return the chunk length
+     */
+    public static int getChunkLength(final long size, final int chunkSize, final int index) {
+        return (int) Math.min(chunkSize, size - (long) index * chunkSize);
+    }
+
+    /**
+     * Compute the checksum of a chunk.
+     *
+     * @param data the data
+     * @param offset the offset of the chunk in the data
+     * @param length the length of the chunk
+     * @return the checksum
+     */
+    public static long checksum(final byte[] data, final int offset, final int length) {
+        final CRC32 crc = new CRC32();
+        crc.update(data, offset, length);
+        return crc.getValue();
+    }
+
+    /**
+     * Read a chunk of a file.
+     *
+     * @param file the file
+     * @param chunkSize the chunk size
+     * @param index the chunk index
+     * @return the chunk
+     * @throws IOException if the chunk cannot be read
+     */
+    public static byte[] readChunk(final File file, final int chunkSize, final int index) throws IOException {
+        final RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            final long offset = (long) index * chunkSize;
+            if (index < 0 || offset >= raf.length()) {
+                throw new EOFException("Chunk " + index + " is beyond the end of " + file);
+            }
+            final byte[] chunk = new byte[getChunkLength(raf.length(), chunkSize, index)];
+            raf.seek(offset);
+            raf.readFully(chunk);
+            return chunk;
+        } finally {
+            raf.close();
+        }
+    }
+
+    /**
+     * Determine whether a file is already compressed, which is the case of zip archives, such as jar, war and ear
+     * files, and of gzip files.  Deployment content is stored without its name, so this is based on the leading bytes
+     * of the file.
+     *
+     * @param file the file
+     * @return {@code true} if the file is a zip or gzip file
+     * @throws IOException if the file cannot be read
+     */
+    public static boolean isCompressed(final File file) throws IOException {
+        final byte[] magic = new byte[4];
+        final InputStream in = new FileInputStream(file);
+        try {
+            int read = 0;
+            int n;
+            while (read < magic.length && (n = in.read(magic, read, magic.length - read)) != -1) {
+                read += n;
+            }
+            if (read >= 2 && (magic[0] & 0xff) == 0x1f && (magic[1] & 0xff) == 0x8b) {
+                return true;
+            }
+            // a local file header, or the end of central directory record of an empty archive
+            return read == 4 && magic[0] == 'P' && magic[1] == 'K'
+                    && ((magic[2] == 3 && magic[3] == 4) || (magic[2] == 5 && magic[3] == 6));
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Compress a chunk.
+     *
+     * @param chunk the chunk
+     * @return the compressed chunk, or {@code null} if compression does not make it smaller
+     */
+    public static byte[] compress(final byte[] chunk) {
+        final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(chunk);
+            deflater.finish();
+            final ByteArrayOutputStream out = new ByteArrayOutputStream(chunk.length / 2);
+            final byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+                if (out.size() >= chunk.length) {
+                    return null;
+                }
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Decompress a chunk.
+     *
+     * @param compressed the compressed chunk
+     * @param length the length of the uncompressed chunk
+     * @return the chunk
+     * @throws IOException if the data is corrupt
+     */
+    public static byte[] decompress(final byte[] compressed, final int length) throws IOException {
+        final Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            final byte[] chunk = new byte[length];
+            int read = 0;
+            while (read < length && !inflater.finished()) {
+                final int n = inflater.inflate(chunk, read, length - read);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                read += n;
+            }
+            if (read != length || !inflater.finished()) {
+                throw new IOException("Corrupt compressed chunk");
+            }
+            return chunk;
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt compressed chunk: " + e.getMessage());
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,253 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.host.controller.mgmt;
+
+import static org.jboss.as.protocol.ProtocolUtils.expectHeader;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The list of files below a repository path, with the checksum of every chunk of each file, which is sent ahead of
+ * a chunked file transfer so the receiver can verify each chunk and skip the chunks it already has.
+ */
+public final class ContentManifest {
+
+    private static final int CACHE_SIZE = 64;
+
+    /** Manifests of recently requested paths; deployment content does not change once written. */
+    private static final Map<String, ContentManifest> cache = new LinkedHashMap<String, ContentManifest>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        protected boolean removeEldestEntry(final Map.Entry<String, ContentManifest> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    private final int chunkSize;
+    private final List<Entry> entries;
+    private final long fingerprint;
+
+    private ContentManifest(final int chunkSize, final List<Entry> entries, final long fingerprint) {
+        this.chunkSize = chunkSize;
+        this.entries = entries;
+        this.fingerprint = fingerprint;
+    }
+
+    /**
+     * Get the manifest of a path, which may be a file or a directory.
+     *
+     * @param root the path
+     * @param chunkSize the chunk size
+     * @return the manifest, or {@code null} if the path does not exist
+     * @throws IOException if a file cannot be read
+     */
+    public static ContentManifest create(final File root, final int chunkSize) throws IOException {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunkSize is less than 1");
+        }
+        if (!root.exists()) {
+            return null;
+        }
+        final List<File> files = new ArrayList<File>();
+        if (root.isFile()) {
+            files.add(root);
+        } else {
+            collectFiles(root, files);
+        }
+        long fingerprint = 17L;
+        for (File file : files) {
+            fingerprint = 31L * fingerprint + file.getPath().hashCode();
+            fingerprint = 31L * fingerprint + file.length();
+            fingerprint = 31L * fingerprint + file.lastModified();
+        }
+        final String key = root.getAbsolutePath() + ":" + chunkSize;
+        synchronized (cache) {
+            final ContentManifest cached = cache.get(key);
+            if (cached != null && cached.fingerprint == fingerprint) {
+                return cached;
+            }
+        }
+        final List<Entry> entries = new ArrayList<Entry>(files.size());
+        final String rootPath = root.getAbsolutePath();
+        for (File file : files) {
+            final String path = file.getAbsolutePath().substring(rootPath.length()).replace(File.separatorChar, '/');
+            entries.add(new Entry(path, file.length(), checksums(file, chunkSize)));
+        }
+        final ContentManifest manifest = new ContentManifest(chunkSize, Collections.unmodifiableList(entries), fingerprint);
+        synchronized (cache) {
+            cache.put(key, manifest);
+        }
+        return manifest;
+    }
+
+    private static void collectFiles(final File base, final List<File> files) {
+        final File[] children = base.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                if (child.isFile()) {
+                    files.add(child);
+                } else {
+                    collectFiles(child, files);
+                }
+            }
+        }
+    }
+
+    private static long[] checksums(final File file, final int chunkSize) throws IOException {
+        final RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            final long size = raf.length();
+            final long[] checksums = new long[ContentChunks.getChunkCount(size, chunkSize)];
+            final byte[] buffer = new byte[(int) Math.min(chunkSize, Math.max(size, 1))];
+            for (int i = 0; i < checksums.length; i++) {
+                final int length = ContentChunks.getChunkLength(size, chunkSize, i);
+                raf.readFully(buffer, 0, length);
+                checksums[i] = ContentChunks.checksum(buffer, 0, length);
+            }
+            return checksums;
+        } finally {
+            raf.close();
+        }
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * Write a manifest; a {@code null} manifest is written as not found.
+     *
+     * @param manifest the manifest, or {@code null}
+     * @param output the output
+     * @throws IOException if an I/O error occurs
+     */
+    public static void write(final ContentManifest manifest, final DataOutput output) throws IOException {
+        output.writeByte(DomainControllerProtocol.PARAM_NUM_FILES);
+        if (manifest == null) {
+            output.writeInt(-1);
+            return;
+        }
+        output.writeInt(manifest.entries.size());
+        output.writeByte(DomainControllerProtocol.PARAM_CHUNK_SIZE);
+        output.writeInt(manifest.chunkSize);
+        for (Entry entry : manifest.entries) {
+            output.writeByte(DomainControllerProtocol.FILE_START);
+            output.writeByte(DomainControllerProtocol.PARAM_FILE_PATH);
+            output.writeUTF(entry.path);
+            output.writeByte(DomainControllerProtocol.PARAM_FILE_SIZE);
+            output.writeLong(entry.size);
+            output.writeByte(DomainControllerProtocol.PARAM_NUM_CHUNKS);
+            output.writeInt(entry.checksums.length);
+            for (long checksum : entry.checksums) {
+                output.writeLong(checksum);
+            }
+            output.writeByte(DomainControllerProtocol.FILE_END);
+        }
+    }
+
+    /**
+     * Read a manifest.
+     *
+     * @param input the input
+     * @return the manifest, or {@code null} if the path was not found
+     * @throws IOException if an I/O error occurs
+     */
+    public static ContentManifest read(final DataInput input) throws IOException {
+        expectHeader(input, DomainControllerProtocol.PARAM_NUM_FILES);
+        final int numFiles = input.readInt();
+        if (numFiles < 0) {
+            return null;
+        }
+        expectHeader(input, DomainControllerProtocol.PARAM_CHUNK_SIZE);
+        final int chunkSize = input.readInt();
+        final List<Entry> entries = new ArrayList<Entry>(numFiles);
+        for (int i = 0; i < numFiles; i++) {
+            expectHeader(input, DomainControllerProtocol.FILE_START);
+            expectHeader(input, DomainControllerProtocol.PARAM_FILE_PATH);
+            final String path = input.readUTF();
+            expectHeader(input, DomainControllerProtocol.PARAM_FILE_SIZE);
+            final long size = input.readLong();
+            expectHeader(input, DomainControllerProtocol.PARAM_NUM_CHUNKS);
+            final long[] checksums = new long[input.readInt()];
+            if (checksums.length != ContentChunks.getChunkCount(size, chunkSize)) {
+                throw new IOException("Invalid number of chunks for " + path);
+            }
+            for (int j = 0; j < checksums.length; j++) {
+                checksums[j] = input.readLong();
+            }
+            expectHeader(input, DomainControllerProtocol.FILE_END);
+            entries.add(new Entry(path, size, checksums));
+        }
+        return new ContentManifest(chunkSize, Collections.unmodifiableList(entries), 0L);
+    }
+
+    /**
+     * A file of a manifest.
+     */
+    public static final class Entry {
+        private final String path;
+        private final long size;
+        private final long[] checksums;
+
+        Entry(final String path, final long size, final long[] checksums) {
+            this.path = path;
+            this.size = size;
+            this.checksums = checksums;
+        }
+
+        /**
+         * Get the path of the file relative to the manifest root, using {@code /} as separator; empty if the root
+         * is the file itself.
+         *
+         * @return the relative path
+         */
+        public String getPath() {
+            return path;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public int getChunkCount() {
+            return checksums.length;
+        }
+
+        public long getChecksum(final int index) {
+            return checksums[index];
+        }
+    }
+}
@@ -36,6 +36,7 @@ import java.util.List;
 import org.jboss.as.controller.HashUtil;
 import org.jboss.as.controller.remote.ModelControllerOperationHandlerImpl;
 import org.jboss.as.domain.controller.DomainController;
+import org.jboss.as.domain.controller.DomainModelUpdate;
 import org.jboss.as.domain.controller.FileRepository;
 import org.jboss.as.protocol.ByteDataInput;
 import org.jboss.as.protocol.ByteDataOutput;
@@ -74,6 +75,10 @@ public class MasterDomainControllerOperationHandlerImpl extends ModelControllerO
             return new UnregisterOperation();
         case DomainControllerProtocol.GET_FILE_REQUEST:
             return new GetFileOperation();
+        case DomainControllerProtocol.GET_FILE_MANIFEST_REQUEST:
+            return new GetFileManifestOperation();
+        case DomainControllerProtocol.GET_FILE_CHUNK_REQUEST:
+            return new GetFileChunkOperation();
         default:
             return super.operationFor(commandByte);
         }
@@ -98,6 +103,7 @@ public class MasterDomainControllerOperationHandlerImpl extends ModelControllerO
 //        Connection connection;
         InetAddress slaveAddress;
         int slavePort;
+        String modelEpoch;
 
         @Override
         protected final byte getResponseCode() {
@@ -124,6 +130,11 @@ public class MasterDomainControllerOperationHandlerImpl extends ModelControllerO
                 expectHeader(input, DomainControllerProtocol.PARAM_HOST_CONTROLLER_PORT);
                 slavePort = input.readInt();
                 slaveAddress = InetAddress.getByAddress(addressBytes);
+                expectHeader(input, DomainControllerProtocol.PARAM_MODEL_EPOCH);
+                modelEpoch = input.readUTF();
+                if (modelEpoch.length() == 0) {
+                    modelEpoch = null;
+                }
                 input.close();
             } finally {
                 StreamUtils.safeClose(input);
@@ -135,17 +146,29 @@ public class MasterDomainControllerOperationHandlerImpl extends ModelControllerO
         protected void sendResponse(final OutputStream outputStream) throws IOException {
 //            getController().addClient(new RemoteDomainControllerSlaveClient(hostId, connection));
 
-            ModelNode node;
+            DomainModelUpdate update;
             try {
-                getController().addClient(new RemoteDomainControllerSlaveClient(hostId, slaveAddress, slavePort));
-                node = getController().getDomainModel();
+                update = getController().addClient(new RemoteDomainControllerSlaveClient(hostId, slaveAddress, slavePort), modelEpoch);
             } catch (IllegalArgumentException e){
                 log.error(e);
-                node = new ModelNode();
+                ModelNode node = new ModelNode();
                 node.get("protocol-error").set(e.getMessage());
+                update = DomainModelUpdate.fullModel("", 0, node);
+            }
+            outputStream.write(DomainControllerProtocol.PARAM_MODEL_EPOCH);
+            StreamUtils.writeUTFZBytes(outputStream, update.getEpoch());
+            outputStream.write(DomainControllerProtocol.PARAM_MODEL_REVISION);
+            StreamUtils.writeLong(outputStream, update.getRevision());
+            if (update.isFullModel()) {
+                outputStream.write(DomainControllerProtocol.PARAM_MODEL);
+                update.getDomainModel().writeExternal(outputStream);
+            } else {
+                outputStream.write(DomainControllerProtocol.PARAM_MODEL_OPERATIONS);
+                StreamUtils.writeInt(outputStream, update.getOperations().size());
+                for (ModelNode operation : update.getOperations()) {
+                    operation.writeExternal(outputStream);
+                }
             }
-            outputStream.write(DomainControllerProtocol.PARAM_MODEL);
-            node.writeExternal(outputStream);
         }
     }
 
@@ -171,35 +194,14 @@ public class MasterDomainControllerOperationHandlerImpl extends ModelControllerO
 
         @Override
         protected void readRequest(final InputStream inputStream) throws IOException {
-            final byte rootId;
-            final String filePath;
-            final FileRepository localFileRepository = getController().getFileRepository();
             ByteDataInput input = null;
             try {
                 input = new SimpleByteDataInput(inputStream);
                 expectHeader(input, DomainControllerProtocol.PARAM_ROOT_ID);
-                rootId = input.readByte();
+                final byte rootId = input.readByte();
                 expectHeader(input, DomainControllerProtocol.PARAM_FILE_PATH);
-                filePath = input.readUTF();
-
-                switch (rootId) {
-                    case DomainControllerProtocol.PARAM_ROOT_ID_FILE: {
-                        localPath = localFileRepository.getFile(filePath);
-                        break;
-                    }
-                    case DomainControllerProtocol.PARAM_ROOT_ID_CONFIGURATION: {
-                        localPath = localFileRepository.getConfigurationFile(filePath);
-                        break;
-                    }
-                    case DomainControllerProtocol.PARAM_ROOT_ID_DEPLOYMENT: {
-                        byte[] hash = HashUtil.hexStringToByteArray(filePath);
-                        localPath = localFileRepository.getDeploymentRoot(hash);
-                        break;
-                    }
-                    default: {
-                        throw new IOException(String.format("Invalid root id [%d]", rootId));
-                    }
-                }
+                final String filePath = input.readUTF();
+                localPath = getLocalPath(rootId, filePath);
             } finally {
                 StreamUtils.safeClose(input);
             }
@@ -274,4 +276,130 @@ public class MasterDomainControllerOperationHandlerImpl extends ModelControllerO
             output.writeByte(DomainControllerProtocol.FILE_END);
         }
     }
+
+    private File getLocalPath(final byte rootId, final String filePath) throws IOException {
+        final FileRepository localFileRepository = getController().getFileRepository();
+        switch (rootId) {
+            case DomainControllerProtocol.PARAM_ROOT_ID_FILE: {
+                return localFileRepository.getFile(filePath);
+            }
+            case DomainControllerProtocol.PARAM_ROOT_ID_CONFIGURATION: {
+                return localFileRepository.getConfigurationFile(filePath);
+            }
+            case DomainControllerProtocol.PARAM_ROOT_ID_DEPLOYMENT: {
+                byte[] hash = HashUtil.hexStringToByteArray(filePath);
+                return localFileRepository.getDeploymentRoot(hash);
+            }
+            default: {
+                throw new IOException(String.format("Invalid root id [%d]", rootId));
+            }
+        }
+    }
+
+    private class GetFileManifestOperation extends RegistryOperation {
+        private File localPath;
+        private int chunkSize;
+
+        @Override
+        protected final byte getResponseCode() {
+            return DomainControllerProtocol.GET_FILE_MANIFEST_RESPONSE;
+        }
+
+        @Override
+        protected void readRequest(final InputStream inputStream) throws IOException {
+            ByteDataInput input = null;
+            try {
+                input = new SimpleByteDataInput(inputStream);
+                expectHeader(input, DomainControllerProtocol.PARAM_ROOT_ID);
+                final byte rootId = input.readByte();
+                expectHeader(input, DomainControllerProtocol.PARAM_FILE_PATH);
+                final String filePath = input.readUTF();
+                expectHeader(input, DomainControllerProtocol.PARAM_CHUNK_SIZE);
+                chunkSize = input.readInt();
+                if (chunkSize < 1 || chunkSize > ContentChunks.MAX_CHUNK_SIZE) {
+                    throw new IOException(String.format("Invalid chunk size [%d]", chunkSize));
+                }
+                localPath = getLocalPath(rootId, filePath);
+            } finally {
+                StreamUtils.safeClose(input);
+            }
+        }
+
+        @Override
+        protected void sendResponse(final OutputStream outputStream) throws IOException {
+            final ContentManifest manifest = localPath == null ? null : ContentManifest.create(localPath, chunkSize);
+            ByteDataOutput output = null;
+            try {
+                output = new SimpleByteDataOutput(outputStream);
+                ContentManifest.write(manifest, output);
+                output.close();
+            } finally {
+                StreamUtils.safeClose(output);
+            }
+        }
+    }
+
+    private class GetFileChunkOperation extends RegistryOperation {
+        private File file;
+        private int chunkSize;
+        private int chunkIndex;
+        private boolean compress;
+
+        @Override
+        protected final byte getResponseCode() {
+            return DomainControllerProtocol.GET_FILE_CHUNK_RESPONSE;
+        }
+
+        @Override
+        protected void readRequest(final InputStream inputStream) throws IOException {
+            ByteDataInput input = null;
+            try {
+                input = new SimpleByteDataInput(inputStream);
+                expectHeader(input, DomainControllerProtocol.PARAM_ROOT_ID);
+                final byte rootId = input.readByte();
+                expectHeader(input, DomainControllerProtocol.PARAM_FILE_PATH);
+                final String filePath = input.readUTF();
+                expectHeader(input, DomainControllerProtocol.PARAM_FILE_PATH);
+                final String relativePath = input.readUTF();
+                expectHeader(input, DomainControllerProtocol.PARAM_CHUNK_SIZE);
+                chunkSize = input.readInt();
+                expectHeader(input, DomainControllerProtocol.PARAM_CHUNK_INDEX);
+                chunkIndex = input.readInt();
+                expectHeader(input, DomainControllerProtocol.PARAM_COMPRESSED);
+                compress = input.readBoolean();
+                if (chunkSize < 1 || chunkSize > ContentChunks.MAX_CHUNK_SIZE) {
+                    throw new IOException(String.format("Invalid chunk size [%d]", chunkSize));
+                }
+                final File localPath = getLocalPath(rootId, filePath);
+                file = relativePath.length() == 0 ? localPath : new File(localPath, relativePath);
+                // only serve files below the requested path
+                final String root = localPath.getCanonicalPath();
+                final String path = file.getCanonicalPath();
+                if (!path.equals(root) && !path.startsWith(root + File.separator)) {
+                    throw new IOException("Invalid path " + relativePath);
+                }
+            } finally {
+                StreamUtils.safeClose(input);
+            }
+        }
+
+        @Override
+        protected void sendResponse(final OutputStream outputStream) throws IOException {
+            final byte[] chunk = ContentChunks.readChunk(file, chunkSize, chunkIndex);
+            // deflating zip or gzip content again costs time without making it smaller
+            final byte[] compressed = compress && !ContentChunks.isCompressed(file) ? ContentChunks.compress(chunk) : null;
+            ByteDataOutput output = null;
+            try {
+                output = new SimpleByteDataOutput(outputStream);
+                output.writeByte(DomainControllerProtocol.PARAM_CHUNK_DATA);
+                output.writeBoolean(compressed != null);
+                final byte[] data = compressed != null ? compressed : chunk;
+                output.writeInt(data.length);
+                output.write(data);
+                output.close();
+            } finally {
+                StreamUtils.safeClose(output);
+            }
+        }
+    }
 }
@@ -0,0 +1,294 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.host.controller;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import junit.framework.Assert;
+
+import org.jboss.as.host.controller.mgmt.ContentChunks;
+import org.jboss.as.host.controller.mgmt.ContentManifest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of {@link ChunkedContentTransfer} against an in-memory source.
+ */
+public class ChunkedContentTransferUnitTestCase {
+
+    private static final int CHUNK_SIZE = 1024;
+
+    private File root;
+    private File master;
+    private byte[] content;
+    private byte[] hash;
+
+    @Before
+    public void setup() throws Exception {
+        root = new File(System.getProperty("java.io.tmpdir"), "chunked-transfer-" + System.nanoTime());
+        master = new File(root, "master");
+        content = new byte[CHUNK_SIZE * 10 + 123];
+        new Random(42).nextBytes(content);
+        write(new File(master, "content"), content);
+        write(new File(master, "lib/empty.txt"), new byte[0]);
+        hash = MessageDigest.getInstance("SHA-1").digest(content);
+    }
+
+    @After
+    public void cleanup() {
+        delete(root);
+    }
+
+    @Test
+    public void testTransfer() throws Exception {
+        final TestSource source = new TestSource(0);
+        final File slave = new File(root, "slave");
+        Assert.assertEquals(slave, new ChunkedContentTransfer(source, CHUNK_SIZE, 4, 1).transfer(slave, hash));
+        Assert.assertTrue(Arrays.equals(content, read(new File(slave, "content"))));
+        Assert.assertTrue(new File(slave, "lib/empty.txt").isFile());
+        Assert.assertFalse(new File(slave, "content.part").exists());
+        Assert.assertEquals(11, source.chunks.get());
+
+        // complete files are not transferred again
+        new ChunkedContentTransfer(source, CHUNK_SIZE, 4, 1).transfer(slave, hash);
+        Assert.assertEquals(11, source.chunks.get());
+    }
+
+    @Test
+    public void testCompressedPartialLastChunk() throws Exception {
+        // compressible text whose last chunk is shorter than the chunk size
+        final StringBuilder text = new StringBuilder();
+        while (text.length() < CHUNK_SIZE * 3 + 77) {
+            text.append("<module name=\"org.jboss.as.test\"/>\n");
+        }
+        text.setLength(CHUNK_SIZE * 3 + 77);
+        final byte[] compressible = text.toString().getBytes("UTF-8");
+        write(new File(master, "lib/module.xml"), compressible);
+        // and a small file that is a single short chunk
+        final byte[] small = text.substring(0, 100).getBytes("UTF-8");
+        write(new File(master, "lib/small.xml"), small);
+
+        final TestSource source = new TestSource(0);
+        final File slave = new File(root, "slave");
+        new ChunkedContentTransfer(source, CHUNK_SIZE, 4, 1).transfer(slave, hash);
+        Assert.assertTrue(Arrays.equals(compressible, read(new File(slave, "lib/module.xml"))));
+        Assert.assertTrue(Arrays.equals(small, read(new File(slave, "lib/small.xml"))));
+        Assert.assertEquals(5, source.compressed.get());
+    }
+
+    @Test
+    public void testIsCompressed() throws Exception {
+        final File jar = new File(root, "test.jar");
+        final ZipOutputStream zip = new ZipOutputStream(new FileOutputStream(jar));
+        try {
+            zip.putNextEntry(new ZipEntry("META-INF/MANIFEST.MF"));
+            zip.write("Manifest-Version: 1.0\n".getBytes("UTF-8"));
+            zip.closeEntry();
+        } finally {
+            zip.close();
+        }
+        Assert.assertTrue(ContentChunks.isCompressed(jar));
+
+        final File empty = new File(root, "empty.zip");
+        new ZipOutputStream(new FileOutputStream(empty)).close();
+        Assert.assertTrue(ContentChunks.isCompressed(empty));
+
+        final File gzip = new File(root, "test.gz");
+        final OutputStream os = new GZIPOutputStream(new FileOutputStream(gzip));
+        try {
+            os.write(content);
+        } finally {
+            os.close();
+        }
+        Assert.assertTrue(ContentChunks.isCompressed(gzip));
+
+        Assert.assertFalse(ContentChunks.isCompressed(new File(master, "content")));
+        Assert.assertFalse(ContentChunks.isCompressed(new File(master, "lib/empty.txt")));
+    }
+
+    @Test
+    public void testMissingContent() throws Exception {
+        final File slave = new File(root, "slave");
+        delete(master);
+        new ChunkedContentTransfer(new TestSource(0), CHUNK_SIZE, 4, 1).transfer(slave, hash);
+        Assert.assertFalse(slave.exists());
+    }
+
+    @Test
+    public void testRetryFailedChunks() throws Exception {
+        final TestSource source = new TestSource(2);
+        final File slave = new File(root, "slave");
+        new ChunkedContentTransfer(source, CHUNK_SIZE, 4, 1).transfer(slave, hash);
+        Assert.assertTrue(Arrays.equals(content, read(new File(slave, "content"))));
+        Assert.assertEquals(22, source.failures.get());
+    }
+
+    @Test
+    public void testResumePartialTransfer() throws Exception {
+        final File slave = new File(root, "slave");
+        final byte[] partial = new byte[content.length];
+        System.arraycopy(content, 0, partial, 0, CHUNK_SIZE * 6);
+        write(new File(slave, "content.part"), partial);
+
+        final TestSource source = new TestSource(0);
+        new ChunkedContentTransfer(source, CHUNK_SIZE, 4, 1).transfer(slave, hash);
+        Assert.assertTrue(Arrays.equals(content, read(new File(slave, "content"))));
+        Assert.assertEquals(5, source.chunks.get());
+    }
+
+    @Test
+    public void testHashMismatch() throws Exception {
+        final File slave = new File(root, "slave");
+        final byte[] wrongHash = hash.clone();
+        wrongHash[0]++;
+        try {
+            new ChunkedContentTransfer(new TestSource(0), CHUNK_SIZE, 4, 1).transfer(slave, wrongHash);
+            Assert.fail("Transfer should have failed");
+        } catch (IOException expected) {
+        }
+        Assert.assertFalse(new File(slave, "content").exists());
+    }
+
+    @Test
+    public void testPersistentFailure() throws Exception {
+        final File slave = new File(root, "slave");
+        try {
+            new ChunkedContentTransfer(new TestSource(ChunkedContentTransfer.MAX_ATTEMPTS), CHUNK_SIZE, 4, 1).transfer(slave, hash);
+            Assert.fail("Transfer should have failed");
+        } catch (IOException expected) {
+        }
+        Assert.assertFalse(new File(slave, "content").exists());
+    }
+
+    @Test
+    public void testConcurrentSlaves() throws Exception {
+        final TestSource source = new TestSource(2);
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<File>> futures = new ArrayList<Future<File>>();
+            for (int i = 0; i < 16; i++) {
+                final File slave = new File(root, "slave" + i);
+                futures.add(executor.submit(new Callable<File>() {
+                    public File call() throws Exception {
+                        return new ChunkedContentTransfer(source, CHUNK_SIZE, 4, 1).transfer(slave, hash);
+                    }
+                }));
+            }
+            for (Future<File> future : futures) {
+                Assert.assertTrue(Arrays.equals(content, read(new File(future.get(), "content"))));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Serves the master directory, failing the first requests of every chunk.
+     */
+    private class TestSource implements ChunkedContentTransfer.ChunkSource {
+        private final int failuresPerChunk;
+        private final ConcurrentMap<String, AtomicInteger> requests = new ConcurrentHashMap<String, AtomicInteger>();
+        private final AtomicInteger chunks = new AtomicInteger();
+        private final AtomicInteger failures = new AtomicInteger();
+        private final AtomicInteger compressed = new AtomicInteger();
+
+        TestSource(final int failuresPerChunk) {
+            this.failuresPerChunk = failuresPerChunk;
+        }
+
+        public ContentManifest getManifest(final int chunkSize) throws IOException {
+            return ContentManifest.create(master, chunkSize);
+        }
+
+        public byte[] getChunk(final String path, final int chunkSize, final int index, final int length) throws IOException {
+            final String key = path + ":" + index;
+            requests.putIfAbsent(key, new AtomicInteger());
+            if (requests.get(key).incrementAndGet() <= failuresPerChunk) {
+                failures.incrementAndGet();
+                throw new IOException("Simulated failure");
+            }
+            chunks.incrementAndGet();
+            final byte[] chunk = ContentChunks.readChunk(new File(master, path), chunkSize, index);
+            final byte[] data = ContentChunks.compress(chunk);
+            if (data == null) {
+                return chunk;
+            }
+            compressed.incrementAndGet();
+            return ContentChunks.decompress(data, length);
+        }
+    }
+
+    private static void write(final File file, final byte[] data) throws IOException {
+        file.getParentFile().mkdirs();
+        final OutputStream os = new FileOutputStream(file);
+        try {
+            os.write(data);
+        } finally {
+            os.close();
+        }
+    }
+
+    private static byte[] read(final File file) throws IOException {
+        final byte[] data = new byte[(int) file.length()];
+        final InputStream is = new FileInputStream(file);
+        try {
+            int offset = 0;
+            while (offset < data.length) {
+                offset += is.read(data, offset, data.length - offset);
+            }
+        } finally {
+            is.close();
+        }
+        return data;
+    }
+
+    private static void delete(final File file) {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.host.controller;
+
+import java.util.Random;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+/**
+ * Tests of {@link ReconnectBackoff}.
+ */
+public class ReconnectBackoffUnitTestCase {
+
+    @Test
+    public void testDelaysGrowToMaximum() {
+        ReconnectBackoff backoff = new ReconnectBackoff(1000, 60000, new FixedRandom(1.0));
+        long[] expected = {1000, 2000, 4000, 8000, 16000, 32000, 60000, 60000};
+        for (long delay : expected) {
+            Assert.assertEquals(delay, backoff.nextDelay());
+        }
+    }
+
+    @Test
+    public void testJitterKeepsUpperHalf() {
+        ReconnectBackoff backoff = new ReconnectBackoff(1000, 60000, new FixedRandom(0.0));
+        Assert.assertEquals(500, backoff.nextDelay());
+        Assert.assertEquals(1000, backoff.nextDelay());
+        Assert.assertEquals(2000, backoff.nextDelay());
+
+        backoff = new ReconnectBackoff(1000, 8000);
+        long bound = 1000;
+        for (int i = 0; i < 100; i++) {
+            long delay = backoff.nextDelay();
+            Assert.assertTrue(delay + " out of range for " + bound, delay >= bound / 2 && delay <= bound);
+            bound = Math.min(bound * 2, 8000);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidDelays() {
+        new ReconnectBackoff(1000, 500);
+    }
+
+    private static class FixedRandom extends Random {
+        private static final long serialVersionUID = 1L;
+
+        private final double value;
+
+        FixedRandom(double value) {
+            this.value = value;
+        }
+
+        @Override
+        public double nextDouble() {
+            return value;
+        }
+    }
+}
@@ -41,9 +41,9 @@ public class SFSBCallStack {
     /**
      * Each thread will have its own list of SFSB invocations in progress.
      */
-    private static ThreadLocal<ArrayList<SFSBContextHandle>> SFSBInvocationStack = new ThreadLocal<ArrayList<SFSBContextHandle>>() {
-        protected ArrayList<SFSBContextHandle> initialValue() {
-            return new ArrayList<SFSBContextHandle>();
+    private static ThreadLocal<CallStack> SFSBInvocationStack = new ThreadLocal<CallStack>() {
+        protected CallStack initialValue() {
+            return new CallStack();
         }
     };
 
@@ -79,13 +79,26 @@ public class SFSBCallStack {
         return SFSBInvocationStack.get();
     }
 
+    /**
+     * Return the generation of the current SFSB call stack, which changes whenever a call is pushed or popped.
+     * Anything derived from the call stack (like the persistence context found for a persistence unit) remains
+     * valid as long as the generation does not change.
+     *
+     * @return the call stack generation
+     */
+    public static int getCallStackGeneration() {
+        return SFSBInvocationStack.get().generation;
+    }
+
     /**
      * Push the passed SFSB context handle onto the invocation call stack
      *
      * @param beanContextHandle
      */
     public static void pushCall(SFSBContextHandle beanContextHandle) {
-        currentSFSBCallStack().add(beanContextHandle);
+        CallStack stack = SFSBInvocationStack.get();
+        stack.add(beanContextHandle);
+        stack.generation++;
     }
 
     /**
@@ -94,9 +107,16 @@ public class SFSBCallStack {
      * @return the popped SFSB context handle
      */
     public static SFSBContextHandle popCall() {
-        ArrayList<SFSBContextHandle> stack = currentSFSBCallStack();
+        CallStack stack = SFSBInvocationStack.get();
         SFSBContextHandle result = stack.remove(stack.size() - 1);
         stack.trimToSize();
+        stack.generation++;
         return result;
     }
+
+    private static final class CallStack extends ArrayList<SFSBContextHandle> {
+        private static final long serialVersionUID = 1L;
+
+        private int generation;
+    }
 }
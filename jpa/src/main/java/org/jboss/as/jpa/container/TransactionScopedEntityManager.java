@@ -56,7 +56,12 @@ public class TransactionScopedEntityManager extends AbstractEntityManager {
 
     @Override
     protected EntityManager getEntityManager() {
-        EntityManager result = null;
+        // fast path, reuse the entity manager already resolved for the current transaction and SFSB call stack
+        final int callStackGeneration = SFSBCallStack.getCallStackGeneration();
+        EntityManager result = TransactionUtil.getInstance().getResolvedEntityManager(puScopedName, callStackGeneration);
+        if (result != null) {
+            return result;
+        }
         boolean isInTx;
 
         isInTx = TransactionUtil.getInstance().isInTx();
@@ -93,6 +98,9 @@ public class TransactionScopedEntityManager extends AbstractEntityManager {
                 }
             }
         }
+        if (isInTx) {
+            TransactionUtil.getInstance().putResolvedEntityManager(puScopedName, callStackGeneration, result);
+        }
         return result;
     }
 
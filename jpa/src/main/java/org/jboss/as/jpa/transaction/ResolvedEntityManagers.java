@@ -0,0 +1,127 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.jpa.transaction;
+
+import javax.persistence.EntityManager;
+import javax.transaction.Synchronization;
+import javax.transaction.Transaction;
+import javax.transaction.TransactionSynchronizationRegistry;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The transaction scoped entity managers already resolved by one thread for one transaction.  Instances are only
+ * read and updated by the owning thread; the transaction synchronization invalidates them (possibly from another
+ * thread) when the transaction completes.
+ * <p/>
+ * The resolved entity managers are only valid for the SFSB call stack generation they were resolved with, as a
+ * different call stack may hold an extended persistence context for the same persistence unit.
+ */
+final class ResolvedEntityManagers implements Synchronization {
+
+    /**
+     * Per thread slot referencing the resolved entity managers of the transaction last used by the thread.  The slot
+     * is also the key of the resolved entity managers in the transaction registry, so that a suspended and resumed
+     * transaction finds them again instead of registering another synchronization.
+     */
+    private static final ThreadLocal<Slot> slot = new ThreadLocal<Slot>() {
+        protected Slot initialValue() {
+            return new Slot();
+        }
+    };
+
+    private final Transaction transaction;
+    private volatile Map<String, EntityManager> entityManagers = new HashMap<String, EntityManager>();
+    private int callStackGeneration;
+
+    private ResolvedEntityManagers(final Transaction transaction) {
+        this.transaction = transaction;
+    }
+
+    /**
+     * Get the resolved entity managers of the current thread for the specified transaction.
+     *
+     * @param transaction the transaction associated with the current thread
+     * @return the resolved entity managers or {@code null} if none are cached or the transaction has completed
+     */
+    static ResolvedEntityManagers current(final Transaction transaction) {
+        final ResolvedEntityManagers current = slot.get().current;
+        if (current == null || current.entityManagers == null || !transaction.equals(current.transaction)) {
+            return null;
+        }
+        return current;
+    }
+
+    /**
+     * Make the resolved entity managers of the specified transaction current for this thread, creating them and
+     * registering their synchronization the first time the thread resolves an entity manager in the transaction.
+     * Precondition:  Only call while the transaction is active in the current thread.
+     *
+     * @param transaction the transaction associated with the current thread
+     * @param registry the transaction synchronization registry
+     * @return the resolved entity managers
+     */
+    static ResolvedEntityManagers bind(final Transaction transaction, final TransactionSynchronizationRegistry registry) {
+        final Slot slot = ResolvedEntityManagers.slot.get();
+        ResolvedEntityManagers resolved = (ResolvedEntityManagers) registry.getResource(slot);
+        if (resolved == null) {
+            resolved = new ResolvedEntityManagers(transaction);
+            registry.registerInterposedSynchronization(resolved);
+            registry.putResource(slot, resolved);
+        }
+        slot.current = resolved;
+        return resolved;
+    }
+
+    EntityManager get(final String scopedPuName, final int callStackGeneration) {
+        final Map<String, EntityManager> entityManagers = this.entityManagers;
+        if (entityManagers == null || callStackGeneration != this.callStackGeneration) {
+            return null;
+        }
+        return entityManagers.get(scopedPuName);
+    }
+
+    void put(final String scopedPuName, final int callStackGeneration, final EntityManager entityManager) {
+        final Map<String, EntityManager> entityManagers = this.entityManagers;
+        if (entityManagers == null) {
+            return;
+        }
+        if (callStackGeneration != this.callStackGeneration) {
+            entityManagers.clear();
+            this.callStackGeneration = callStackGeneration;
+        }
+        entityManagers.put(scopedPuName, entityManager);
+    }
+
+    public void beforeCompletion() {
+    }
+
+    public void afterCompletion(int status) {
+        // the entity managers are closed or detached from the transaction now, stop handing them out
+        entityManagers = null;
+    }
+
+    private static final class Slot {
+        private ResolvedEntityManagers current;
+    }
+}
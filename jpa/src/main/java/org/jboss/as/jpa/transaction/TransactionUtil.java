@@ -78,6 +78,43 @@ public class TransactionUtil {
         return true;
     }
 
+    /**
+     * Get the entity manager previously resolved by the current thread for the active transaction, if the SFSB call
+     * stack has not changed since.  This avoids searching the SFSB call stack and the transaction registry on every
+     * entity manager invocation.
+     *
+     * @param scopedPuName is the fully (application deployment) scoped name of persistence unit
+     * @param callStackGeneration is the current SFSB call stack generation
+     * @return the resolved entity manager or null if it needs to be resolved (again)
+     */
+    public EntityManager getResolvedEntityManager(String scopedPuName, int callStackGeneration) {
+        Transaction tx = getTransaction();
+        if (tx == null)
+            return null;
+        ResolvedEntityManagers resolved = ResolvedEntityManagers.current(tx);
+        if (resolved == null || !TxUtils.isActive(tx))
+            return null;
+        return resolved.get(scopedPuName, callStackGeneration);
+    }
+
+    /**
+     * Remember the entity manager resolved for the active transaction, until the transaction completes or the SFSB
+     * call stack changes.
+     * Precondition:  Only call while a transaction is active in the current thread.
+     *
+     * @param scopedPuName is the fully (application deployment) scoped name of persistence unit
+     * @param callStackGeneration is the SFSB call stack generation the entity manager was resolved with
+     * @param entityManager is the resolved entity manager
+     */
+    public void putResolvedEntityManager(String scopedPuName, int callStackGeneration, EntityManager entityManager) {
+        Transaction tx = getTransaction();
+        ResolvedEntityManagers resolved = ResolvedEntityManagers.current(tx);
+        if (resolved == null) {
+            resolved = ResolvedEntityManagers.bind(tx, getTransactionSynchronizationRegistry());
+        }
+        resolved.put(scopedPuName, callStackGeneration, entityManager);
+    }
+
     /**
      * Register the specified entity manager (persistence context) with the current transaction.
      * Precondition:  Only call while a transaction is active in the current thread.
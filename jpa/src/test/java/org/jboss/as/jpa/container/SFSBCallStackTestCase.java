@@ -0,0 +1,91 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.jpa.container;
+
+import org.jboss.as.jpa.spi.SFSBContextHandle;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the generation of the {@link SFSBCallStack}, which invalidates anything derived from the call stack.
+ */
+public class SFSBCallStackTestCase {
+
+    @Test
+    public void testGenerationChangesOnPushAndPop() {
+        final SFSBContextHandle first = handle();
+        final SFSBContextHandle second = handle();
+        final int initial = SFSBCallStack.getCallStackGeneration();
+
+        SFSBCallStack.pushCall(first);
+        final int pushed = SFSBCallStack.getCallStackGeneration();
+        assertTrue(pushed != initial);
+        SFSBCallStack.pushCall(second);
+        final int nested = SFSBCallStack.getCallStackGeneration();
+        assertTrue(nested != pushed);
+
+        assertSame(second, SFSBCallStack.popCall());
+        // the same call stack as before the nested call, but a new generation
+        assertEquals(1, SFSBCallStack.currentSFSBCallStack().size());
+        final int popped = SFSBCallStack.getCallStackGeneration();
+        assertFalse(popped == pushed || popped == nested);
+
+        assertSame(first, SFSBCallStack.popCall());
+        assertTrue(SFSBCallStack.currentSFSBCallStack().isEmpty());
+        assertFalse(SFSBCallStack.getCallStackGeneration() == initial);
+    }
+
+    @Test
+    public void testGenerationIsPerThread() throws Exception {
+        SFSBCallStack.pushCall(handle());
+        try {
+            final int generation = SFSBCallStack.getCallStackGeneration();
+            final int[] other = new int[1];
+            final Thread thread = new Thread(new Runnable() {
+                public void run() {
+                    SFSBCallStack.pushCall(handle());
+                    SFSBCallStack.pushCall(handle());
+                    other[0] = SFSBCallStack.getCallStackGeneration();
+                }
+            });
+            thread.start();
+            thread.join();
+            assertEquals(generation, SFSBCallStack.getCallStackGeneration());
+            assertEquals(2, other[0]);
+        } finally {
+            SFSBCallStack.popCall();
+        }
+    }
+
+    private static SFSBContextHandle handle() {
+        return new SFSBContextHandle() {
+            public Object getBeanContextHandle() {
+                return this;
+            }
+        };
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.jpa.transaction;
+
+import org.junit.Test;
+
+import javax.persistence.EntityManager;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.Transaction;
+import javax.transaction.TransactionSynchronizationRegistry;
+import javax.transaction.xa.XAResource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Tests the per thread cache of resolved transaction scoped entity managers.
+ */
+public class ResolvedEntityManagersTestCase {
+
+    private static final String PU = "app.ear/lib.jar#pu";
+
+    @Test
+    public void testResolvedForTransaction() {
+        final TestTransaction tx = new TestTransaction();
+        final EntityManager em = entityManager();
+        assertNull(ResolvedEntityManagers.current(tx));
+
+        final ResolvedEntityManagers resolved = ResolvedEntityManagers.bind(tx, tx.registry);
+        resolved.put(PU, 1, em);
+        assertSame(resolved, ResolvedEntityManagers.current(tx));
+        assertSame(em, resolved.get(PU, 1));
+        assertNull(resolved.get("other#pu", 1));
+        assertEquals(1, tx.registry.synchronizations.size());
+
+        // another transaction on this thread does not see them
+        assertNull(ResolvedEntityManagers.current(new TestTransaction()));
+    }
+
+    @Test
+    public void testCallStackGenerationChanged() {
+        final TestTransaction tx = new TestTransaction();
+        final ResolvedEntityManagers resolved = ResolvedEntityManagers.bind(tx, tx.registry);
+        final EntityManager em = entityManager();
+        resolved.put(PU, 1, em);
+        assertNull(resolved.get(PU, 2));
+
+        // resolving with the new generation drops those of the old one
+        final EntityManager other = entityManager();
+        resolved.put("other#pu", 2, other);
+        assertSame(other, resolved.get("other#pu", 2));
+        assertNull(resolved.get(PU, 2));
+        assertNull(resolved.get(PU, 1));
+    }
+
+    @Test
+    public void testInvalidatedOnCompletion() {
+        final TestTransaction tx = new TestTransaction();
+        final ResolvedEntityManagers resolved = ResolvedEntityManagers.bind(tx, tx.registry);
+        resolved.put(PU, 1, entityManager());
+        tx.registry.complete(Status.STATUS_COMMITTED);
+
+        assertNull(ResolvedEntityManagers.current(tx));
+        assertNull(resolved.get(PU, 1));
+        // late puts are ignored
+        resolved.put(PU, 1, entityManager());
+        assertNull(resolved.get(PU, 1));
+    }
+
+    @Test
+    public void testResumedTransaction() {
+        final TestTransaction tx = new TestTransaction();
+        final EntityManager em = entityManager();
+        ResolvedEntityManagers.bind(tx, tx.registry).put(PU, 1, em);
+
+        // suspend and run another transaction on this thread
+        final TestTransaction other = new TestTransaction();
+        ResolvedEntityManagers.bind(other, other.registry).put(PU, 1, entityManager());
+        assertNull(ResolvedEntityManagers.current(tx));
+
+        // resume, the resolved entity managers are found in the registry without registering again
+        final ResolvedEntityManagers resumed = ResolvedEntityManagers.bind(tx, tx.registry);
+        assertSame(em, resumed.get(PU, 1));
+        assertSame(resumed, ResolvedEntityManagers.current(tx));
+        assertEquals(1, tx.registry.synchronizations.size());
+    }
+
+    private static EntityManager entityManager() {
+        return (EntityManager) Proxy.newProxyInstance(ResolvedEntityManagersTestCase.class.getClassLoader(),
+            new Class<?>[] {EntityManager.class}, new InvocationHandler() {
+                public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                    if (method.getName().equals("equals")) {
+                        return proxy == args[0];
+                    }
+                    if (method.getName().equals("hashCode")) {
+                        return System.identityHashCode(proxy);
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                }
+            });
+    }
+
+    /**
+     * A transaction with its own synchronization registry; the registry is only used while the transaction is
+     * associated with the test thread.
+     */
+    private static class TestTransaction implements Transaction {
+        private final TestRegistry registry = new TestRegistry(this);
+
+        public void commit() {
+            throw new UnsupportedOperationException();
+        }
+
+        public boolean delistResource(XAResource xaRes, int flag) {
+            throw new UnsupportedOperationException();
+        }
+
+        public boolean enlistResource(XAResource xaRes) {
+            throw new UnsupportedOperationException();
+        }
+
+        public int getStatus() {
+            return Status.STATUS_ACTIVE;
+        }
+
+        public void registerSynchronization(Synchronization sync) {
+            throw new UnsupportedOperationException();
+        }
+
+        public void rollback() {
+            throw new UnsupportedOperationException();
+        }
+
+        public void setRollbackOnly() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private static class TestRegistry implements TransactionSynchronizationRegistry {
+        private final Transaction transaction;
+        private final Map<Object, Object> resources = new HashMap<Object, Object>();
+        private final List<Synchronization> synchronizations = new ArrayList<Synchronization>();
+
+        TestRegistry(final Transaction transaction) {
+            this.transaction = transaction;
+        }
+
+        void complete(final int status) {
+            for (Synchronization synchronization : synchronizations) {
+                synchronization.beforeCompletion();
+            }
+            for (Synchronization synchronization : synchronizations) {
+                synchronization.afterCompletion(status);
+            }
+        }
+
+        public Object getTransactionKey() {
+            return transaction;
+        }
+
+        public void putResource(Object key, Object value) {
+            resources.put(key, value);
+        }
+
+        public Object getResource(Object key) {
+            return resources.get(key);
+        }
+
+        public void registerInterposedSynchronization(Synchronization sync) {
+            synchronizations.add(sync);
+        }
+
+        public int getTransactionStatus() {
+            return Status.STATUS_ACTIVE;
+        }
+
+        public void setRollbackOnly() {
+            throw new UnsupportedOperationException();
+        }
+
+        public boolean getRollbackOnly() {
+            return false;
+        }
+    }
+}
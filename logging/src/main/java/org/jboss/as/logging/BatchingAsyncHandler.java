@@ -0,0 +1,239 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.logging;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.ErrorManager;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+
+import org.jboss.logmanager.ExtLogRecord;
+
+/**
+ * An asynchronous handler which hands records to its sub-handlers from a single background thread.  Records are
+ * queued in a fixed size ring buffer without taking a lock, and the background thread drains them in batches,
+ * flushing the sub-handlers once per batch instead of once per record.  Sub-handlers should therefore be configured
+ * without autoflush to take advantage of the batching.
+ */
+final class BatchingAsyncHandler extends Handler {
+
+    private static final long PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100L);
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50L);
+
+    private final AtomicReferenceArray<LogRecord> ring;
+    private final int mask;
+    private final int maxBatchSize;
+    private final OverflowAction overflowAction;
+    private final Handler[] handlers;
+    /** The next sequence to be claimed by a producer. */
+    private final AtomicLong tail = new AtomicLong();
+    /** The next sequence to be consumed; only written by the drain thread. */
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final Thread thread;
+    private volatile boolean waiting;
+    private volatile boolean closed;
+
+    BatchingAsyncHandler(final String name, final int queueLength, final int maxBatchSize, final OverflowAction overflowAction, final Handler[] handlers) {
+        int capacity = 1;
+        while (capacity < queueLength) {
+            capacity <<= 1;
+        }
+        ring = new AtomicReferenceArray<LogRecord>(capacity);
+        mask = capacity - 1;
+        this.maxBatchSize = maxBatchSize;
+        this.overflowAction = overflowAction;
+        this.handlers = handlers;
+        thread = new Thread(new Drain(), "Async log handler " + name);
+        thread.setDaemon(true);
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void publish(final LogRecord record) {
+        if (closed || !isLoggable(record)) {
+            return;
+        }
+        // make sure the lazily computed parts of the record (caller, MDC, NDC) are taken from the calling thread
+        if (record instanceof ExtLogRecord) {
+            ((ExtLogRecord) record).copyAll();
+        } else {
+            record.getSourceClassName();
+        }
+        final int capacity = mask + 1;
+        for (;;) {
+            final long sequence = tail.get();
+            if (sequence - head.get() >= capacity) {
+                if (overflowAction == OverflowAction.DISCARD || closed) {
+                    dropped.incrementAndGet();
+                    return;
+                }
+                wakeDrain();
+                LockSupport.parkNanos(this, BLOCK_PARK_NANOS);
+                continue;
+            }
+            if (tail.compareAndSet(sequence, sequence + 1)) {
+                ring.set((int) sequence & mask, record);
+                if (waiting) {
+                    wakeDrain();
+                }
+                return;
+            }
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void flush() {
+        for (Handler handler : handlers) {
+            handler.flush();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void close() throws SecurityException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        wakeDrain();
+        boolean interrupted = false;
+        while (thread.isAlive()) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Get the number of records waiting to be handed to the sub-handlers.
+     *
+     * @return the queue size
+     */
+    int getQueueSize() {
+        final long size = tail.get() - head.get();
+        return size < 0 ? 0 : (int) size;
+    }
+
+    /**
+     * Get the number of records discarded because the queue was full.
+     *
+     * @return the dropped record count
+     */
+    long getDroppedCount() {
+        return dropped.get();
+    }
+
+    private void wakeDrain() {
+        LockSupport.unpark(thread);
+    }
+
+    /**
+     * Drain the next batch of records to the sub-handlers.
+     *
+     * @return the number of records drained
+     */
+    int drain() {
+        final AtomicReferenceArray<LogRecord> ring = this.ring;
+        final Handler[] handlers = this.handlers;
+        long sequence = head.get();
+        int count = 0;
+        while (count < maxBatchSize) {
+            final int index = (int) sequence & mask;
+            final LogRecord record = ring.get(index);
+            if (record == null) {
+                // either empty, or the producer claimed the slot but has not stored the record yet
+                break;
+            }
+            ring.lazySet(index, null);
+            for (Handler handler : handlers) {
+                try {
+                    handler.publish(record);
+                } catch (Throwable t) {
+                    reportError("Failed to publish a log record", asException(t), ErrorManager.WRITE_FAILURE);
+                }
+            }
+            sequence++;
+            count++;
+            if ((count & 63) == 0) {
+                // release the claimed slots to blocked producers while working through a large batch
+                head.lazySet(sequence);
+            }
+        }
+        if (count > 0) {
+            head.set(sequence);
+            for (Handler handler : handlers) {
+                try {
+                    handler.flush();
+                } catch (Throwable t) {
+                    reportError("Failed to flush a log handler", asException(t), ErrorManager.FLUSH_FAILURE);
+                }
+            }
+        }
+        return count;
+    }
+
+    private static Exception asException(final Throwable t) {
+        return t instanceof Exception ? (Exception) t : new RuntimeException(t);
+    }
+
+    private final class Drain implements Runnable {
+
+        public void run() {
+            for (;;) {
+                if (drain() > 0) {
+                    continue;
+                }
+                if (closed) {
+                    if (tail.get() == head.get()) {
+                        return;
+                    }
+                    // a producer is still storing its record
+                    Thread.yield();
+                    continue;
+                }
+                waiting = true;
+                try {
+                    if (tail.get() == head.get() && !closed) {
+                        LockSupport.parkNanos(this, PARK_NANOS);
+                    }
+                } finally {
+                    waiting = false;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.logging;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+
+import org.jboss.msc.service.Service;
+import org.jboss.msc.service.StartContext;
+import org.jboss.msc.service.StartException;
+import org.jboss.msc.service.StopContext;
+import org.jboss.msc.value.InjectedValue;
+
+/**
+ * Service for a {@link BatchingAsyncHandler}.
+ */
+public final class BatchingAsyncHandlerService implements Service<Handler> {
+
+    static final int DEFAULT_QUEUE_LENGTH = 1024;
+    static final int DEFAULT_MAX_BATCH_SIZE = 256;
+
+    private final List<InjectedValue<Handler>> subhandlers = new ArrayList<InjectedValue<Handler>>();
+
+    private final String name;
+
+    private OverflowAction overflowAction = OverflowAction.BLOCK;
+
+    private int queueLength = DEFAULT_QUEUE_LENGTH;
+
+    private int maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+
+    private BatchingAsyncHandler value;
+
+    private Level level;
+
+    public BatchingAsyncHandlerService(final String name) {
+        this.name = name;
+    }
+
+    public synchronized void start(final StartContext context) throws StartException {
+        Handler[] handlers = new Handler[subhandlers.size()];
+        for (int i = 0, subhandlersSize = subhandlers.size(); i < subhandlersSize; i++) {
+            handlers[i] = subhandlers.get(i).getValue();
+        }
+        final BatchingAsyncHandler handler = new BatchingAsyncHandler(name, queueLength, maxBatchSize, overflowAction, handlers);
+        if (level != null) handler.setLevel(level);
+        handler.start();
+        value = handler;
+    }
+
+    public synchronized void stop(final StopContext context) {
+        final BatchingAsyncHandler handler = value;
+        handler.setLevel(Level.OFF);
+        handler.close();
+        value = null;
+    }
+
+    public synchronized Handler getValue() throws IllegalStateException {
+        return value;
+    }
+
+    /**
+     * Get the number of records waiting to be written by the sub-handlers.
+     *
+     * @return the queue size, or {@code -1} if the handler is not started
+     */
+    public synchronized int getQueueSize() {
+        final BatchingAsyncHandler handler = value;
+        return handler == null ? -1 : handler.getQueueSize();
+    }
+
+    /**
+     * Get the number of records which were discarded because the queue was full.
+     *
+     * @return the dropped record count, or {@code -1} if the handler is not started
+     */
+    public synchronized long getDroppedCount() {
+        final BatchingAsyncHandler handler = value;
+        return handler == null ? -1 : handler.getDroppedCount();
+    }
+
+    public synchronized void setOverflowAction(final OverflowAction overflowAction) {
+        this.overflowAction = overflowAction;
+    }
+
+    public synchronized void setQueueLength(final int queueLength) {
+        this.queueLength = queueLength;
+    }
+
+    public synchronized void setMaxBatchSize(final int maxBatchSize) {
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public synchronized void setLevel(final Level level) {
+        this.level = level;
+        final BatchingAsyncHandler handler = value;
+        if (handler != null) {
+            handler.setLevel(level);
+        }
+    }
+
+    public synchronized void addHandlers(final List<InjectedValue<Handler>> list) {
+        subhandlers.addAll(list);
+    }
+}
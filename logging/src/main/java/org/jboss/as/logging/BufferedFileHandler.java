@@ -0,0 +1,392 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.logging;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.ErrorManager;
+import java.util.logging.Formatter;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+
+/**
+ * A file handler which encodes records into a large direct buffer and writes the buffer out to the file channel as a
+ * group, either when it is full or when the flush interval elapses, instead of writing and flushing every record.
+ * The file can be rotated by size, like the size rotating file handler, and/or by the period derived from a date
+ * suffix, like the periodic rotating file handler.  Like those handlers, the formatter's head is written to every
+ * file opened and its tail to every file closed.  All handlers are flushed periodically by one shared daemon thread.
+ */
+final class BufferedFileHandler extends Handler {
+
+    private final ByteBuffer buffer;
+    private final ScheduledFuture<?> flushTask;
+
+    private File file;
+    private boolean append;
+    private long rotateSize;
+    private int maxBackupIndex = 1;
+    private SimpleDateFormat suffixFormat;
+    private int period = -1;
+    private long nextRollover = Long.MAX_VALUE;
+    private long periodStart;
+
+    private CharsetEncoder encoder;
+    private FileChannel channel;
+    private long size;
+    private boolean closed;
+
+    /**
+     * Construct a new instance.
+     *
+     * @param bufferSize the size of the buffer in bytes
+     * @param flushInterval the maximum time in milliseconds a record stays in the buffer, or {@code 0} to only
+     *      write the buffer when it is full or explicitly flushed
+     */
+    BufferedFileHandler(final int bufferSize, final long flushInterval) {
+        buffer = ByteBuffer.allocateDirect(bufferSize);
+        if (flushInterval > 0L) {
+            flushTask = Flusher.EXECUTOR.scheduleWithFixedDelay(new Runnable() {
+                public void run() {
+                    flush();
+                }
+            }, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+        } else {
+            flushTask = null;
+        }
+    }
+
+    synchronized void setAppend(final boolean append) {
+        this.append = append;
+    }
+
+    synchronized void setRotateSize(final long rotateSize) {
+        this.rotateSize = rotateSize;
+    }
+
+    synchronized void setMaxBackupIndex(final int maxBackupIndex) {
+        this.maxBackupIndex = maxBackupIndex;
+    }
+
+    /**
+     * Set the date suffix appended to the name of a rotated file.  The rotation period is the smallest calendar unit
+     * used by the suffix pattern.
+     *
+     * @param suffix the {@link SimpleDateFormat} suffix pattern, or {@code null} to not rotate periodically
+     */
+    synchronized void setSuffix(final String suffix) {
+        if (suffix == null) {
+            suffixFormat = null;
+            period = -1;
+            nextRollover = Long.MAX_VALUE;
+            return;
+        }
+        suffixFormat = new SimpleDateFormat(suffix);
+        period = getPeriod(suffix);
+        if (file != null) {
+            startPeriod(file.exists() ? file.lastModified() : System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Set the file to write to, closing the current one.
+     *
+     * @param fileName the file name
+     * @throws IOException if the file cannot be opened
+     */
+    synchronized void setFileName(final String fileName) throws IOException {
+        closeChannel();
+        file = new File(fileName);
+        if (period != -1) {
+            startPeriod(append && file.exists() ? file.lastModified() : System.currentTimeMillis());
+        }
+        openChannel(append);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized void setEncoding(final String encoding) throws SecurityException, UnsupportedEncodingException {
+        super.setEncoding(encoding);
+        encoder = null;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void publish(final LogRecord record) {
+        if (!isLoggable(record)) {
+            return;
+        }
+        final Formatter formatter = getFormatter();
+        final String formatted;
+        try {
+            formatted = formatter.format(record);
+        } catch (Exception e) {
+            reportError("Failed to format a log record", e, ErrorManager.FORMAT_FAILURE);
+            return;
+        }
+        if (formatted.length() == 0) {
+            return;
+        }
+        synchronized (this) {
+            if (closed || channel == null) {
+                return;
+            }
+            try {
+                if (record.getMillis() >= nextRollover) {
+                    rollOverPeriod(record.getMillis());
+                }
+                if (rotateSize > 0L && size + buffer.position() >= rotateSize) {
+                    rollOverSize();
+                }
+                encode(formatted);
+            } catch (IOException e) {
+                reportError("Failed to write a log record", e, ErrorManager.WRITE_FAILURE);
+            }
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized void flush() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            writeBuffer();
+        } catch (IOException e) {
+            reportError("Failed to flush the log file", e, ErrorManager.FLUSH_FAILURE);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized void close() throws SecurityException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (flushTask != null) {
+            flushTask.cancel(false);
+        }
+        closeChannel();
+    }
+
+    private void encode(final String formatted) throws IOException {
+        CharsetEncoder encoder = this.encoder;
+        if (encoder == null) {
+            final String encoding = getEncoding();
+            final Charset charset = encoding == null ? Charset.defaultCharset() : Charset.forName(encoding);
+            this.encoder = encoder = charset.newEncoder().onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE);
+        }
+        final CharBuffer chars = CharBuffer.wrap(formatted);
+        for (;;) {
+            final CoderResult result = encoder.encode(chars, buffer, true);
+            if (result.isOverflow()) {
+                writeBuffer();
+            } else {
+                break;
+            }
+        }
+        encoder.reset();
+    }
+
+    private void writeBuffer() throws IOException {
+        final ByteBuffer buffer = this.buffer;
+        if (buffer.position() == 0) {
+            return;
+        }
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                size += channel.write(buffer);
+            }
+        } finally {
+            buffer.clear();
+        }
+    }
+
+    private void openChannel(final boolean append) throws IOException {
+        final File parent = file.getParentFile();
+        if (parent != null) {
+            parent.mkdirs();
+        }
+        channel = new FileOutputStream(file, append).getChannel();
+        size = channel.size();
+        final Formatter formatter = getFormatter();
+        if (formatter != null) {
+            writeFormatted(formatter.getHead(this));
+        }
+    }
+
+    private void closeChannel() {
+        final FileChannel channel = this.channel;
+        if (channel == null) {
+            return;
+        }
+        final Formatter formatter = getFormatter();
+        if (formatter != null) {
+            writeFormatted(formatter.getTail(this));
+        }
+        try {
+            writeBuffer();
+        } catch (IOException e) {
+            reportError("Failed to flush the log file", e, ErrorManager.FLUSH_FAILURE);
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            reportError("Failed to close the log file", e, ErrorManager.CLOSE_FAILURE);
+        }
+        this.channel = null;
+    }
+
+    private void writeFormatted(final String formatted) {
+        if (formatted == null || formatted.length() == 0) {
+            return;
+        }
+        try {
+            encode(formatted);
+        } catch (IOException e) {
+            reportError("Failed to write the log file head or tail", e, ErrorManager.WRITE_FAILURE);
+        }
+    }
+
+    private void rollOverSize() throws IOException {
+        closeChannel();
+        if (maxBackupIndex > 0) {
+            final String path = file.getPath();
+            new File(path + "." + maxBackupIndex).delete();
+            for (int i = maxBackupIndex - 1; i >= 1; i--) {
+                new File(path + "." + i).renameTo(new File(path + "." + (i + 1)));
+            }
+            file.renameTo(new File(path + ".1"));
+        }
+        openChannel(false);
+    }
+
+    private void rollOverPeriod(final long now) throws IOException {
+        closeChannel();
+        file.renameTo(new File(file.getPath() + suffixFormat.format(new Date(periodStart))));
+        openChannel(false);
+        startPeriod(now);
+    }
+
+    private void startPeriod(final long time) {
+        final Calendar calendar = Calendar.getInstance();
+        calendar.setTimeInMillis(time);
+        truncate(calendar, period);
+        periodStart = calendar.getTimeInMillis();
+        if (period == Calendar.AM_PM) {
+            calendar.add(Calendar.HOUR_OF_DAY, 12);
+        } else {
+            calendar.add(period, 1);
+        }
+        nextRollover = calendar.getTimeInMillis();
+    }
+
+    private static void truncate(final Calendar calendar, final int period) {
+        calendar.set(Calendar.MILLISECOND, 0);
+        calendar.set(Calendar.SECOND, 0);
+        if (period == Calendar.MINUTE) return;
+        calendar.set(Calendar.MINUTE, 0);
+        if (period == Calendar.HOUR_OF_DAY) return;
+        if (period == Calendar.AM_PM) {
+            calendar.set(Calendar.HOUR_OF_DAY, calendar.get(Calendar.HOUR_OF_DAY) < 12 ? 0 : 12);
+            return;
+        }
+        calendar.set(Calendar.HOUR_OF_DAY, 0);
+        if (period == Calendar.DAY_OF_MONTH) return;
+        if (period == Calendar.WEEK_OF_YEAR) {
+            calendar.set(Calendar.DAY_OF_WEEK, calendar.getFirstDayOfWeek());
+            return;
+        }
+        calendar.set(Calendar.DAY_OF_MONTH, 1);
+        if (period == Calendar.MONTH) return;
+        calendar.set(Calendar.MONTH, Calendar.JANUARY);
+    }
+
+    /**
+     * Get the rotation period of a date suffix: the smallest calendar unit used in the pattern.
+     *
+     * @param suffix the suffix pattern
+     * @return the calendar field of the period
+     */
+    static int getPeriod(final String suffix) {
+        int period = Calendar.YEAR;
+        int rank = 0;
+        boolean quoted = false;
+        for (int i = 0; i < suffix.length(); i++) {
+            final char c = suffix.charAt(i);
+            if (c == '\'') {
+                quoted = !quoted;
+                continue;
+            }
+            if (quoted) {
+                continue;
+            }
+            final int field;
+            final int fieldRank;
+            switch (c) {
+                case 'M': field = Calendar.MONTH; fieldRank = 1; break;
+                case 'w': case 'W': field = Calendar.WEEK_OF_YEAR; fieldRank = 2; break;
+                case 'D': case 'd': case 'F': case 'E': field = Calendar.DAY_OF_MONTH; fieldRank = 3; break;
+                case 'a': field = Calendar.AM_PM; fieldRank = 4; break;
+                case 'H': case 'k': case 'K': case 'h': field = Calendar.HOUR_OF_DAY; fieldRank = 5; break;
+                case 'm': field = Calendar.MINUTE; fieldRank = 6; break;
+                default: continue;
+            }
+            if (fieldRank > rank) {
+                rank = fieldRank;
+                period = field;
+            }
+        }
+        return period;
+    }
+
+    private static final class Flusher {
+
+        static final ScheduledExecutorService EXECUTOR = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+            public Thread newThread(final Runnable r) {
+                final Thread thread = new Thread(r, "Log flush thread");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+}
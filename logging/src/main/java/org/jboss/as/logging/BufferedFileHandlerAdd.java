@@ -0,0 +1,139 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.logging;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REMOVE;
+import static org.jboss.as.logging.CommonAttributes.APPEND;
+import static org.jboss.as.logging.CommonAttributes.BUFFER_SIZE;
+import static org.jboss.as.logging.CommonAttributes.ENCODING;
+import static org.jboss.as.logging.CommonAttributes.FILE;
+import static org.jboss.as.logging.CommonAttributes.FLUSH_INTERVAL;
+import static org.jboss.as.logging.CommonAttributes.FORMATTER;
+import static org.jboss.as.logging.CommonAttributes.HANDLER_TYPE;
+import static org.jboss.as.logging.CommonAttributes.LEVEL;
+import static org.jboss.as.logging.CommonAttributes.MAX_BACKUP_INDEX;
+import static org.jboss.as.logging.CommonAttributes.PATH;
+import static org.jboss.as.logging.CommonAttributes.RELATIVE_TO;
+import static org.jboss.as.logging.CommonAttributes.ROTATE_SIZE;
+import static org.jboss.as.logging.CommonAttributes.SUFFIX;
+
+import java.util.logging.Handler;
+import java.util.logging.Level;
+
+import org.jboss.as.controller.BasicOperationResult;
+import org.jboss.as.controller.ModelAddOperationHandler;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationResult;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.ResultHandler;
+import org.jboss.as.controller.RuntimeTask;
+import org.jboss.as.controller.RuntimeTaskContext;
+import org.jboss.as.server.services.path.AbstractPathService;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceBuilder;
+import org.jboss.msc.service.ServiceController;
+import org.jboss.msc.service.ServiceTarget;
+
+/**
+ * Adds a {@link BufferedFileHandlerService buffered file handler}.
+ */
+class BufferedFileHandlerAdd implements ModelAddOperationHandler {
+
+    static final BufferedFileHandlerAdd INSTANCE = new BufferedFileHandlerAdd();
+
+    static final String OPERATION_NAME = "add-buffered-file-handler";
+
+    /** {@inheritDoc} */
+    @Override
+    public OperationResult execute(final OperationContext context, final ModelNode operation, final ResultHandler resultHandler) throws OperationFailedException {
+
+        final PathAddress address = PathAddress.pathAddress(operation.require(OP_ADDR));
+        final String name = address.getLastElement().getValue();
+
+        final ModelNode compensatingOperation = new ModelNode();
+        compensatingOperation.get(OP_ADDR).set(operation.require(OP_ADDR));
+        compensatingOperation.get(OP).set(REMOVE);
+
+        final String handlerType = operation.require(HANDLER_TYPE).asString();
+        final LoggerHandlerType type = LoggerHandlerType.valueOf(handlerType);
+        if(type != LoggerHandlerType.BUFFERED_FILE_HANDLER) {
+            throw new OperationFailedException(new ModelNode().set("invalid operation for handler-type: " + type));
+        }
+
+        final ModelNode subModel = context.getSubModel();
+        subModel.get(ENCODING).set(operation.get(ENCODING));
+        subModel.get(FORMATTER).set(operation.get(FORMATTER));
+        subModel.get(HANDLER_TYPE).set(handlerType);
+        subModel.get(LEVEL).set(operation.get(LEVEL));
+        subModel.get(FILE).set(operation.get(FILE));
+        subModel.get(APPEND).set(operation.get(APPEND));
+        subModel.get(BUFFER_SIZE).set(operation.get(BUFFER_SIZE));
+        subModel.get(FLUSH_INTERVAL).set(operation.get(FLUSH_INTERVAL));
+        subModel.get(ROTATE_SIZE).set(operation.get(ROTATE_SIZE));
+        subModel.get(MAX_BACKUP_INDEX).set(operation.get(MAX_BACKUP_INDEX));
+        subModel.get(SUFFIX).set(operation.get(SUFFIX));
+
+        if (context.getRuntimeContext() != null) {
+            context.getRuntimeContext().setRuntimeTask(new RuntimeTask() {
+                public void execute(RuntimeTaskContext context) throws OperationFailedException {
+                    final ServiceTarget serviceTarget = context.getServiceTarget();
+                    try {
+                        final BufferedFileHandlerService service = new BufferedFileHandlerService();
+                        final ServiceBuilder<Handler> serviceBuilder = serviceTarget.addService(LogServices.handlerName(name), service);
+                        if (operation.hasDefined(FILE)) {
+                            if (operation.get(FILE).hasDefined(RELATIVE_TO)) {
+                                serviceBuilder.addDependency(AbstractPathService.pathNameOf(operation.get(FILE, RELATIVE_TO).asString()), String.class, service.getRelativeToInjector());
+                            }
+                            service.setPath(operation.get(FILE, PATH).asString());
+                        }
+                        if (operation.hasDefined(LEVEL)) service.setLevel(Level.parse(operation.get(LEVEL).asString()));
+                        if (operation.hasDefined(ENCODING)) service.setEncoding(operation.get(ENCODING).asString());
+                        if (operation.hasDefined(FORMATTER)) service.setFormatterSpec(createFormatterSpec(operation));
+                        if (operation.hasDefined(APPEND)) service.setAppend(operation.get(APPEND).asBoolean());
+                        if (operation.hasDefined(BUFFER_SIZE)) service.setBufferSize(operation.get(BUFFER_SIZE).asInt());
+                        if (operation.hasDefined(FLUSH_INTERVAL)) service.setFlushInterval(operation.get(FLUSH_INTERVAL).asLong());
+                        if (operation.hasDefined(ROTATE_SIZE)) service.setRotateSize(operation.get(ROTATE_SIZE).asLong());
+                        if (operation.hasDefined(MAX_BACKUP_INDEX)) service.setMaxBackupIndex(operation.get(MAX_BACKUP_INDEX).asInt());
+                        if (operation.hasDefined(SUFFIX)) service.setSuffix(operation.get(SUFFIX).asString());
+                        serviceBuilder.setInitialMode(ServiceController.Mode.ACTIVE);
+                        serviceBuilder.install();
+                    } catch (Throwable t) {
+                        throw new OperationFailedException(new ModelNode().set(t.getLocalizedMessage()));
+                    }
+                    resultHandler.handleResultComplete();
+                }
+            });
+        } else {
+            resultHandler.handleResultComplete();
+        }
+
+        return new BasicOperationResult(compensatingOperation);
+    }
+
+    static AbstractFormatterSpec createFormatterSpec(final ModelNode operation) {
+        return new PatternFormatterSpec(operation.get(FORMATTER).asString());
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.logging;
+
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+
+import org.jboss.msc.inject.Injector;
+import org.jboss.msc.service.Service;
+import org.jboss.msc.service.StartContext;
+import org.jboss.msc.service.StartException;
+import org.jboss.msc.service.StopContext;
+import org.jboss.msc.value.InjectedValue;
+
+/**
+ * Service for a {@link BufferedFileHandler}.
+ */
+public final class BufferedFileHandlerService implements Service<Handler> {
+
+    static final int DEFAULT_BUFFER_SIZE = 256 * 1024;
+    static final long DEFAULT_FLUSH_INTERVAL = 1000L;
+
+    private final InjectedValue<String> relativeTo = new InjectedValue<String>();
+
+    private AbstractFormatterSpec formatterSpec;
+    private Level level;
+    private String encoding;
+    private boolean append = true;
+    private String path;
+    private int bufferSize = DEFAULT_BUFFER_SIZE;
+    private long flushInterval = DEFAULT_FLUSH_INTERVAL;
+    private long rotateSize;
+    private int maxBackupIndex = 1;
+    private String suffix;
+    private BufferedFileHandler value;
+
+    public synchronized void start(final StartContext context) throws StartException {
+        final BufferedFileHandler handler = new BufferedFileHandler(bufferSize, flushInterval);
+        if (formatterSpec != null) formatterSpec.apply(handler);
+        if (level != null) handler.setLevel(level);
+        try {
+            handler.setEncoding(encoding);
+        } catch (UnsupportedEncodingException e) {
+            handler.close();
+            throw new StartException(e);
+        }
+        handler.setAppend(append);
+        handler.setRotateSize(rotateSize);
+        handler.setMaxBackupIndex(maxBackupIndex);
+        handler.setSuffix(suffix);
+        final String relativeTo = this.relativeTo.getOptionalValue();
+        try {
+            handler.setFileName(relativeTo != null ? relativeTo + "/" + path : path);
+        } catch (IOException e) {
+            handler.close();
+            throw new StartException(e);
+        }
+        value = handler;
+    }
+
+    public synchronized void stop(final StopContext context) {
+        final BufferedFileHandler handler = value;
+        handler.close();
+        value = null;
+    }
+
+    public synchronized Handler getValue() throws IllegalStateException {
+        return value;
+    }
+
+    public synchronized void setLevel(final Level level) {
+        this.level = level;
+        final BufferedFileHandler handler = value;
+        if (handler != null) handler.setLevel(level);
+    }
+
+    public synchronized void setFormatterSpec(final AbstractFormatterSpec formatterSpec) {
+        this.formatterSpec = formatterSpec;
+        final BufferedFileHandler handler = value;
+        if (handler != null) formatterSpec.apply(handler);
+    }
+
+    public synchronized void setEncoding(final String encoding) throws UnsupportedEncodingException {
+        final BufferedFileHandler handler = value;
+        if (handler != null) handler.setEncoding(encoding);
+        this.encoding = encoding;
+    }
+
+    public synchronized void setAppend(final boolean append) {
+        this.append = append;
+    }
+
+    public synchronized void setPath(final String path) {
+        this.path = path;
+    }
+
+    public synchronized void setBufferSize(final int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    public synchronized void setFlushInterval(final long flushInterval) {
+        this.flushInterval = flushInterval;
+    }
+
+    public synchronized void setRotateSize(final long rotateSize) {
+        this.rotateSize = rotateSize;
+        final BufferedFileHandler handler = value;
+        if (handler != null) handler.setRotateSize(rotateSize);
+    }
+
+    public synchronized void setMaxBackupIndex(final int maxBackupIndex) {
+        this.maxBackupIndex = maxBackupIndex;
+        final BufferedFileHandler handler = value;
+        if (handler != null) handler.setMaxBackupIndex(maxBackupIndex);
+    }
+
+    public synchronized void setSuffix(final String suffix) {
+        this.suffix = suffix;
+        final BufferedFileHandler handler = value;
+        if (handler != null) handler.setSuffix(suffix);
+    }
+
+    public Injector<String> getRelativeToInjector() {
+        return relativeTo;
+    }
+}
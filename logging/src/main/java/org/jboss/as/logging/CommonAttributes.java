@@ -33,15 +33,20 @@ interface CommonAttributes {
     String APPEND ="append";
     String ASYNC_HANDLER ="async-handler";
     String AUTOFLUSH ="autoflush";
+    String BATCHING_ASYNC_HANDLER ="batching-async-handler";
+    String BUFFER_SIZE ="buffer-size";
+    String BUFFERED_FILE_HANDLER ="buffered-file-handler";
     String CATEGORY ="category";
     String CHANGE_LEVEL ="change-level";
     String CONSOLE_HANDLER ="console-handler";
     String DENY ="deny";
+    String DROPPED_COUNT ="dropped-count";
     String ENCODING ="encoding";
     String FILE ="file";
     String FILE_HANDLER ="file-handler";
     String FILE_NAME ="file-name";
     String FILTER ="filter";
+    String FLUSH_INTERVAL ="flush-interval";
     String FORMATTER ="formatter";
     String HANDLER_TYPE = "handler-type";
     String HANDLER ="handler";
@@ -51,6 +56,7 @@ interface CommonAttributes {
     String LOGGER ="logger";
     String MATCH ="match";
     String MAX_BACKUP_INDEX ="max-backup-index";
+    String MAX_BATCH_SIZE ="max-batch-size";
     String MAX_INCLUSIVE ="max-inclusive";
     String MAX_LEVEL ="max-level";
     String MIN_INCLUSIVE ="min-inclusive";
@@ -65,6 +71,7 @@ interface CommonAttributes {
     String PERIODIC_ROTATING_FILE_HANDLER ="periodic-rotating-file-handler";
     String PROPERTIES ="properties";
     String QUEUE_LENGTH ="queue-length";
+    String QUEUE_SIZE ="queue-size";
     String RELATIVE_TO ="relative-to";
     String REPLACE ="replace";
     String REPLACEMENT ="replacement";
@@ -37,6 +37,9 @@ public enum Element {
     ANY(CommonAttributes.ANY),
     APPEND(CommonAttributes.APPEND),
     ASYNC_HANDLER(CommonAttributes.ASYNC_HANDLER),
+    BATCHING_ASYNC_HANDLER(CommonAttributes.BATCHING_ASYNC_HANDLER),
+    BUFFER_SIZE(CommonAttributes.BUFFER_SIZE),
+    BUFFERED_FILE_HANDLER(CommonAttributes.BUFFERED_FILE_HANDLER),
     CHANGE_LEVEL(CommonAttributes.CHANGE_LEVEL),
     CONSOLE_HANDLER(CommonAttributes.CONSOLE_HANDLER),
     DENY(CommonAttributes.DENY),
@@ -44,6 +47,7 @@ public enum Element {
     FILE(CommonAttributes.FILE),
     FILE_HANDLER(CommonAttributes.FILE_HANDLER),
     FILTER(CommonAttributes.FILTER),
+    FLUSH_INTERVAL(CommonAttributes.FLUSH_INTERVAL),
     FORMATTER(CommonAttributes.FORMATTER),
     HANDLER(CommonAttributes.HANDLER),
     HANDLERS(CommonAttributes.HANDLERS),
@@ -52,6 +56,7 @@ public enum Element {
     LOGGER(CommonAttributes.LOGGER),
     MATCH(CommonAttributes.MATCH),
     MAX_BACKUP_INDEX(CommonAttributes.MAX_BACKUP_INDEX),
+    MAX_BATCH_SIZE(CommonAttributes.MAX_BATCH_SIZE),
     NOT(CommonAttributes.NOT),
     OVERFLOW_ACTION(CommonAttributes.OVERFLOW_ACTION),
     PATTERN_FORMATTER(CommonAttributes.PATTERN_FORMATTER),
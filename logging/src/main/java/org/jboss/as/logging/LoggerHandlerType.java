@@ -33,6 +33,8 @@ enum LoggerHandlerType {
     UNKNOWN(null),
 
     ASYNC_HANDLER(CommonAttributes.ASYNC_HANDLER),
+    BATCHING_ASYNC_HANDLER(CommonAttributes.BATCHING_ASYNC_HANDLER),
+    BUFFERED_FILE_HANDLER(CommonAttributes.BUFFERED_FILE_HANDLER),
     CONSOLE_HANDLER(CommonAttributes.CONSOLE_HANDLER),
     FILE_HANDLER(CommonAttributes.FILE_HANDLER),
     HANDLER(CommonAttributes.HANDLER),
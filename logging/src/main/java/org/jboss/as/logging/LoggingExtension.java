@@ -70,10 +70,15 @@ public class LoggingExtension implements Extension {
         handlers.registerOperationHandler(ADD, LoggerHandlerAdd.INSTANCE, LoggingSubsystemProviders.HANDLER_ADD, false);
         handlers.registerOperationHandler(REMOVE, LoggerHandlerRemove.INSTANCE, LoggingSubsystemProviders.HANDLER_REMOVE, false);
         handlers.registerOperationHandler(AsyncHandlerAdd.OPERATION_NAME, AsyncHandlerAdd.INSTANCE, AsyncHandlerAdd.INSTANCE, false);
+        handlers.registerOperationHandler(BatchingAsyncHandlerAdd.OPERATION_NAME, BatchingAsyncHandlerAdd.INSTANCE, BatchingAsyncHandlerAdd.INSTANCE, false);
         handlers.registerOperationHandler(ConsoleHandlerAdd.OPERATION_NAME, ConsoleHandlerAdd.INSTANCE, LoggingSubsystemProviders.CONSOLE_HANDLER_ADD, false);
         handlers.registerOperationHandler(FileHandlerAdd.OPERATION_NAME, FileHandlerAdd.INSTANCE, LoggingSubsystemProviders.FILE_HANDLER_ADD, false);
+        handlers.registerOperationHandler(BufferedFileHandlerAdd.OPERATION_NAME, BufferedFileHandlerAdd.INSTANCE, LoggingSubsystemProviders.BUFFERED_FILE_HANDLER_ADD, false);
         handlers.registerOperationHandler(PeriodicRotatingFileHandlerAdd.OPERATION_NAME, PeriodicRotatingFileHandlerAdd.INSTANCE, LoggingSubsystemProviders.PERIODIC_HANDLER_ADD, false);
         handlers.registerOperationHandler(SizeRotatingFileHandlerAdd.OPERATION_NAME, SizeRotatingFileHandlerAdd.INSTANCE, LoggingSubsystemProviders.SIZE_PERIODIC_HANDLER_ADD, false);
+        for (final String attributeName : HandlerMetrics.ATTRIBUTES) {
+            handlers.registerMetric(attributeName, HandlerMetrics.INSTANCE);
+        }
     }
 
     /** {@inheritDoc} */
@@ -29,6 +29,7 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REL
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUBSYSTEM;
 import static org.jboss.as.controller.parsing.ParseUtils.duplicateNamedElement;
 import static org.jboss.as.controller.parsing.ParseUtils.missingRequired;
+import static org.jboss.as.controller.parsing.ParseUtils.missingRequiredElement;
 import static org.jboss.as.controller.parsing.ParseUtils.readStringAttributeElement;
 import static org.jboss.as.controller.parsing.ParseUtils.requireNoContent;
 import static org.jboss.as.controller.parsing.ParseUtils.requireNoNamespaceAttribute;
@@ -36,8 +37,10 @@ import static org.jboss.as.controller.parsing.ParseUtils.unexpectedAttribute;
 import static org.jboss.as.controller.parsing.ParseUtils.unexpectedElement;
 import static org.jboss.as.logging.CommonAttributes.APPEND;
 import static org.jboss.as.logging.CommonAttributes.AUTOFLUSH;
+import static org.jboss.as.logging.CommonAttributes.BUFFER_SIZE;
 import static org.jboss.as.logging.CommonAttributes.ENCODING;
 import static org.jboss.as.logging.CommonAttributes.FILE;
+import static org.jboss.as.logging.CommonAttributes.FLUSH_INTERVAL;
 import static org.jboss.as.logging.CommonAttributes.FORMATTER;
 import static org.jboss.as.logging.CommonAttributes.HANDLER;
 import static org.jboss.as.logging.CommonAttributes.HANDLERS;
@@ -45,6 +48,7 @@ import static org.jboss.as.logging.CommonAttributes.HANDLER_TYPE;
 import static org.jboss.as.logging.CommonAttributes.LEVEL;
 import static org.jboss.as.logging.CommonAttributes.LOGGER;
 import static org.jboss.as.logging.CommonAttributes.MAX_BACKUP_INDEX;
+import static org.jboss.as.logging.CommonAttributes.MAX_BATCH_SIZE;
 import static org.jboss.as.logging.CommonAttributes.OVERFLOW_ACTION;
 import static org.jboss.as.logging.CommonAttributes.PATH;
 import static org.jboss.as.logging.CommonAttributes.QUEUE_LENGTH;
@@ -142,10 +146,18 @@ public class LoggingSubsystemParser implements XMLStreamConstants, XMLElementRea
                             parseSizeRotatingHandlerElement(reader, address, list, handlerNames);
                             break;
                         }
+                        case BUFFERED_FILE_HANDLER: {
+                            parseBufferedFileHandlerElement(reader, address, list, handlerNames);
+                            break;
+                        }
                         case ASYNC_HANDLER: {
                             parseAsyncHandlerElement(reader, address, list, handlerNames);
                             break;
                         }
+                        case BATCHING_ASYNC_HANDLER: {
+                            parseBatchingAsyncHandlerElement(reader, address, list, handlerNames);
+                            break;
+                        }
                         default: {
                             reader.handleAny(list);
                             break;
@@ -307,6 +319,82 @@ public class LoggingSubsystemParser implements XMLStreamConstants, XMLElementRea
         list.add(node);
     }
 
+    static void parseBatchingAsyncHandlerElement(final XMLExtendedStreamReader reader, final ModelNode address, final List<ModelNode> list, final Set<String> names) throws XMLStreamException {
+        // Attributes
+        String name = null;
+        final EnumSet<Attribute> required = EnumSet.of(Attribute.NAME);
+        final int count = reader.getAttributeCount();
+        for (int i = 0; i < count; i++) {
+            requireNoNamespaceAttribute(reader, i);
+            final String value = reader.getAttributeValue(i);
+            final Attribute attribute = Attribute.forName(reader.getAttributeLocalName(i));
+            required.remove(attribute);
+            switch (attribute) {
+                case NAME: {
+                    name = value;
+                    break;
+                }
+                default:
+                    throw unexpectedAttribute(reader, i);
+            }
+        }
+        if (!required.isEmpty()) {
+            throw missingRequired(reader, required);
+        }
+        if (! names.add(name)) {
+            throw duplicateNamedElement(reader, name);
+        }
+        // Elements
+        String levelName = null;
+        ModelNode subhandlers = null;
+        Integer queueLength = null;
+        Integer maxBatchSize = null;
+        OverflowAction overflowAction = null;
+        final EnumSet<Element> encountered = EnumSet.noneOf(Element.class);
+        while (reader.nextTag() != END_ELEMENT) {
+            final Element element = Element.forName(reader.getLocalName());
+            if (!encountered.add(element)) {
+                throw unexpectedElement(reader);
+            }
+            switch (element) {
+                case LEVEL: {
+                    levelName = readStringAttributeElement(reader, "name");
+                    break;
+                }
+                case SUBHANDLERS: {
+                    subhandlers = parseHandlersElement(reader);
+                    break;
+                }
+                case QUEUE_LENGTH: {
+                    queueLength = Integer.valueOf(readStringAttributeElement(reader, "value"));
+                    break;
+                }
+                case MAX_BATCH_SIZE: {
+                    maxBatchSize = Integer.valueOf(readStringAttributeElement(reader, "value"));
+                    break;
+                }
+                case OVERFLOW_ACTION: {
+                    overflowAction = OverflowAction.valueOf(readStringAttributeElement(reader, "value").toUpperCase(Locale.US));
+                    break;
+                }
+                default: {
+                    throw unexpectedElement(reader);
+                }
+            }
+        }
+
+        final ModelNode node = new ModelNode();
+        node.get(OP).set(ADD);
+        node.get(OP_ADDR).set(address).add(HANDLER, name);
+        node.get(HANDLER_TYPE).set(LoggerHandlerType.BATCHING_ASYNC_HANDLER.toString());
+        if(levelName != null) node.get(LEVEL).set(levelName);
+        if(subhandlers != null) node.get(SUBHANDLERS).set(subhandlers);
+        if(queueLength != null) node.get(QUEUE_LENGTH).set(queueLength.intValue());
+        if(maxBatchSize != null) node.get(MAX_BATCH_SIZE).set(maxBatchSize.intValue());
+        if(overflowAction != null) node.get(OVERFLOW_ACTION).set(overflowAction.toString());
+        list.add(node);
+    }
+
     static void parseRootLoggerElement(final XMLExtendedStreamReader reader, final ModelNode address, final List<ModelNode> list) throws XMLStreamException {
         // No attributes
         if (reader.getAttributeCount() > 0) {
@@ -719,6 +807,128 @@ public class LoggingSubsystemParser implements XMLStreamConstants, XMLElementRea
 
     private static final Pattern SIZE_PATTERN = Pattern.compile("(\\d+)([kKmMgGbBtT])?");
 
+    static void parseBufferedFileHandlerElement(final XMLExtendedStreamReader reader, final ModelNode address, final List<ModelNode> list, final Set<String> names) throws XMLStreamException {
+        // Attributes
+        String name = null;
+        final EnumSet<Attribute> required = EnumSet.of(Attribute.NAME);
+        final int count = reader.getAttributeCount();
+        for (int i = 0; i < count; i++) {
+            requireNoNamespaceAttribute(reader, i);
+            final String value = reader.getAttributeValue(i);
+            final Attribute attribute = Attribute.forName(reader.getAttributeLocalName(i));
+            required.remove(attribute);
+            switch (attribute) {
+                case NAME: {
+                    name = value;
+                    break;
+                }
+                default:
+                    throw unexpectedAttribute(reader, i);
+            }
+        }
+        if (!required.isEmpty()) {
+            throw missingRequired(reader, required);
+        }
+        if (! names.add(name)) {
+            throw duplicateNamedElement(reader, name);
+        }
+        // Elements
+        String levelName = null;
+        String encoding = null;
+        ModelNode fileSpec = null;
+        boolean append = true;
+        long bufferSize = 0L;
+        long flushInterval = -1L;
+        long rotateSize = 0L;
+        int maxBackupIndex = 0;
+        String suffix = null;
+        String formatterSpec = null;
+
+        final EnumSet<Element> requiredElem = EnumSet.of(Element.FILE);
+        final EnumSet<Element> encountered = EnumSet.noneOf(Element.class);
+        while (reader.nextTag() != END_ELEMENT) {
+            final Element element = Element.forName(reader.getLocalName());
+            if (!encountered.add(element)) {
+                throw unexpectedElement(reader);
+            }
+            requiredElem.remove(element);
+            switch (element) {
+                case LEVEL: {
+                    levelName = readStringAttributeElement(reader, "name");
+                    break;
+                }
+                case ENCODING: {
+                    encoding = readStringAttributeElement(reader, "value");
+                    break;
+                }
+                case FORMATTER: {
+                    formatterSpec = parseFormatterElement(reader);
+                    break;
+                }
+                case FILE: {
+                    fileSpec = parseFileElement(reader);
+                    break;
+                }
+                case APPEND: {
+                    append = Boolean.parseBoolean(readStringAttributeElement(reader, "value"));
+                    break;
+                }
+                case BUFFER_SIZE: {
+                    bufferSize = parseSize(readStringAttributeElement(reader, "value"));
+                    break;
+                }
+                case FLUSH_INTERVAL: {
+                    try {
+                        flushInterval = Long.parseLong(readStringAttributeElement(reader, "value"));
+                    } catch (NumberFormatException e) {
+                        throw new XMLStreamException(e.getMessage(), reader.getLocation(), e);
+                    }
+                    break;
+                }
+                case ROTATE_SIZE: {
+                    rotateSize = parseSize(readStringAttributeElement(reader, "value"));
+                    break;
+                }
+                case MAX_BACKUP_INDEX: {
+                    try {
+                        maxBackupIndex = Integer.parseInt(readStringAttributeElement(reader, "value"));
+                    } catch (NumberFormatException e) {
+                        throw new XMLStreamException(e.getMessage(), reader.getLocation(), e);
+                    }
+                    break;
+                }
+                case SUFFIX: {
+                    suffix = readStringAttributeElement(reader, "value");
+                    break;
+                }
+                default: {
+                    throw unexpectedElement(reader);
+                }
+            }
+        }
+        if (!requiredElem.isEmpty()) {
+            throw missingRequiredElement(reader, requiredElem);
+        }
+        if (bufferSize > Integer.MAX_VALUE) {
+            throw new XMLStreamException("Buffer size too large: " + bufferSize, reader.getLocation());
+        }
+        final ModelNode node = new ModelNode();
+        node.get(OP).set(ADD);
+        node.get(OP_ADDR).set(address).add(HANDLER, name);
+        node.get(HANDLER_TYPE).set(LoggerHandlerType.BUFFERED_FILE_HANDLER.toString());
+        if(levelName != null) node.get(LEVEL).set(levelName);
+        if(encoding != null) node.get(ENCODING).set(encoding);
+        if(formatterSpec != null) node.get(FORMATTER).set(formatterSpec);
+        node.get(FILE).set(fileSpec);
+        node.get(APPEND).set(append);
+        if (bufferSize > 0L) node.get(BUFFER_SIZE).set((int) bufferSize);
+        if (flushInterval >= 0L) node.get(FLUSH_INTERVAL).set(flushInterval);
+        if (rotateSize > 0L) node.get(ROTATE_SIZE).set(rotateSize);
+        if (maxBackupIndex > 0) node.get(MAX_BACKUP_INDEX).set(maxBackupIndex);
+        if(suffix != null) node.get(SUFFIX).set(suffix);
+        list.add(node);
+    }
+
     private static long parseSize(final String value) {
         final Matcher matcher = SIZE_PATTERN.matcher(value);
         if (!matcher.matches()) {
@@ -899,6 +1109,9 @@ public class LoggingSubsystemParser implements XMLStreamConstants, XMLElementRea
                     case ASYNC_HANDLER:
                         writeAsynchHandler(writer, handler, name);
                         break;
+                    case BATCHING_ASYNC_HANDLER:
+                        writeBatchingAsyncHandler(writer, handler, name);
+                        break;
                     case CONSOLE_HANDLER:
                         writeConsoleHandler(writer, handler, name);
                         break;
@@ -911,6 +1124,9 @@ public class LoggingSubsystemParser implements XMLStreamConstants, XMLElementRea
                     case SIZE_ROTATING_FILE_HANDLER:
                         writeSizeRotatingFileHandler(writer, handler, name);
                         break;
+                    case BUFFERED_FILE_HANDLER:
+                        writeBufferedFileHandler(writer, handler, name);
+                        break;
                 }
             }
         }
@@ -1012,6 +1228,43 @@ public class LoggingSubsystemParser implements XMLStreamConstants, XMLElementRea
         writer.writeEndElement();
     }
 
+    private void writeBufferedFileHandler(final XMLExtendedStreamWriter writer, final ModelNode node, final String name) throws XMLStreamException {
+        writer.writeStartElement(Element.BUFFERED_FILE_HANDLER.getLocalName());
+        writer.writeAttribute(Attribute.NAME.getLocalName(), name);
+        writeLevel(writer, node);
+        writeEncoding(writer, node);
+        writeFormatter(writer, node);
+        writeFile(writer, node);
+        if (node.hasDefined(BUFFER_SIZE)) {
+            writer.writeStartElement(Element.BUFFER_SIZE.getLocalName());
+            writeAttribute(writer, Attribute.VALUE, node.get(BUFFER_SIZE));
+            writer.writeEndElement();
+        }
+        if (node.hasDefined(FLUSH_INTERVAL)) {
+            writer.writeStartElement(Element.FLUSH_INTERVAL.getLocalName());
+            writeAttribute(writer, Attribute.VALUE, node.get(FLUSH_INTERVAL));
+            writer.writeEndElement();
+        }
+        if (node.hasDefined(ROTATE_SIZE)) {
+            writer.writeStartElement(Element.ROTATE_SIZE.getLocalName());
+            writeAttribute(writer, Attribute.VALUE, node.get(ROTATE_SIZE));
+            writer.writeEndElement();
+        }
+        if (node.hasDefined(MAX_BACKUP_INDEX)) {
+            writer.writeStartElement(Element.MAX_BACKUP_INDEX.getLocalName());
+            writeAttribute(writer, Attribute.VALUE, node.get(MAX_BACKUP_INDEX));
+            writer.writeEndElement();
+        }
+        if (node.hasDefined(SUFFIX)) {
+            writer.writeStartElement(Element.SUFFIX.getLocalName());
+            writeAttribute(writer, Attribute.VALUE, node.get(SUFFIX));
+            writer.writeEndElement();
+        }
+        writeAppend(writer, node);
+
+        writer.writeEndElement();
+    }
+
     private void writeAsynchHandler(final XMLExtendedStreamWriter writer, final ModelNode node, final String name) throws XMLStreamException {
         writer.writeStartElement(Element.ASYNC_HANDLER.getLocalName());
         writer.writeAttribute(Attribute.NAME.getLocalName(), name);
@@ -1036,6 +1289,33 @@ public class LoggingSubsystemParser implements XMLStreamConstants, XMLElementRea
         writer.writeEndElement();
     }
 
+    private void writeBatchingAsyncHandler(final XMLExtendedStreamWriter writer, final ModelNode node, final String name) throws XMLStreamException {
+        writer.writeStartElement(Element.BATCHING_ASYNC_HANDLER.getLocalName());
+        writer.writeAttribute(Attribute.NAME.getLocalName(), name);
+        writeLevel(writer, node);
+        if (node.hasDefined(QUEUE_LENGTH)) {
+            writer.writeStartElement(Element.QUEUE_LENGTH.getLocalName());
+            writeAttribute(writer, Attribute.VALUE, node.get(QUEUE_LENGTH));
+            writer.writeEndElement();
+        }
+        if (node.hasDefined(MAX_BATCH_SIZE)) {
+            writer.writeStartElement(Element.MAX_BATCH_SIZE.getLocalName());
+            writeAttribute(writer, Attribute.VALUE, node.get(MAX_BATCH_SIZE));
+            writer.writeEndElement();
+        }
+        if (node.hasDefined(OVERFLOW_ACTION)) {
+            writer.writeStartElement(Element.OVERFLOW_ACTION.getLocalName());
+            writer.writeAttribute(Attribute.VALUE.getLocalName(), node.get(OVERFLOW_ACTION).asString().toLowerCase(Locale.US));
+            writer.writeEndElement();
+        }
+        if (node.hasDefined(SUBHANDLERS)) {
+            final ModelNode handlers = node.get(SUBHANDLERS);
+            writeHandlersContent(writer, Element.SUBHANDLERS, handlers);
+        }
+
+        writer.writeEndElement();
+    }
+
     private void writeLogger(final XMLExtendedStreamWriter writer, String name, final ModelNode node) throws XMLStreamException {
         writer.writeStartElement(Element.LOGGER.getLocalName());
         writer.writeAttribute(Attribute.CATEGORY.getLocalName(), name);
@@ -1113,7 +1393,7 @@ public class LoggingSubsystemParser implements XMLStreamConstants, XMLElementRea
 
     private void writeHandlersContent(final XMLExtendedStreamWriter writer, Element element, final ModelNode handlers) throws XMLStreamException {
         if (handlers.getType() == ModelType.LIST) {
-            writer.writeStartElement(Element.HANDLERS.getLocalName());
+            writer.writeStartElement(element.getLocalName());
             for (ModelNode handler : handlers.asList()) {
                 if (handler.isDefined()) {
                     writer.writeStartElement(Element.HANDLER.getLocalName());
@@ -37,9 +37,15 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REQ
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.TAIL_COMMENT_ALLOWED;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.TYPE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.VALUE_TYPE;
+import static org.jboss.as.logging.CommonAttributes.DROPPED_COUNT;
 import static org.jboss.as.logging.CommonAttributes.ENCODING;
 import static org.jboss.as.logging.CommonAttributes.HANDLER;
 import static org.jboss.as.logging.CommonAttributes.LEVEL;
+import static org.jboss.as.logging.CommonAttributes.MAX_BATCH_SIZE;
+import static org.jboss.as.logging.CommonAttributes.OVERFLOW_ACTION;
+import static org.jboss.as.logging.CommonAttributes.QUEUE_LENGTH;
+import static org.jboss.as.logging.CommonAttributes.QUEUE_SIZE;
+import static org.jboss.as.logging.CommonAttributes.SUBHANDLERS;
 
 import java.util.Locale;
 import java.util.ResourceBundle;
@@ -197,6 +203,12 @@ class LoggingSubsystemProviders {
             node.get(ATTRIBUTES, ENCODING, TYPE).set(ModelType.STRING);
             node.get(ATTRIBUTES, ENCODING, DESCRIPTION).set(bundle.getString("logger.level"));
 
+            node.get(ATTRIBUTES, QUEUE_SIZE, TYPE).set(ModelType.INT);
+            node.get(ATTRIBUTES, QUEUE_SIZE, DESCRIPTION).set(bundle.getString("handler.queue-size"));
+
+            node.get(ATTRIBUTES, DROPPED_COUNT, TYPE).set(ModelType.LONG);
+            node.get(ATTRIBUTES, DROPPED_COUNT, DESCRIPTION).set(bundle.getString("handler.dropped-count"));
+
             return node;
         }
     };
@@ -230,6 +242,37 @@ class LoggingSubsystemProviders {
         return node;
     }
 
+    static final ModelNode getBatchingAsyncModelDescription(final Locale locale) {
+        final ResourceBundle bundle = getResourceBundle(locale);
+        final ModelNode node = new ModelNode();
+        node.get(OPERATION_NAME).set(BatchingAsyncHandlerAdd.OPERATION_NAME);
+        node.get(DESCRIPTION).set(bundle.getString("batching.async.handler"));
+
+        node.get(REQUEST_PROPERTIES, LEVEL, TYPE).set(ModelType.STRING);
+        node.get(REQUEST_PROPERTIES, LEVEL, DESCRIPTION).set(bundle.getString("handler.level"));
+        node.get(REQUEST_PROPERTIES, LEVEL, REQUIRED).set(false);
+
+        node.get(REQUEST_PROPERTIES, SUBHANDLERS, TYPE).set(ModelType.LIST);
+        node.get(REQUEST_PROPERTIES, SUBHANDLERS, VALUE_TYPE).set(ModelType.STRING);
+        node.get(REQUEST_PROPERTIES, SUBHANDLERS, DESCRIPTION).set(bundle.getString("async.handler.subhandlers"));
+        node.get(REQUEST_PROPERTIES, SUBHANDLERS, REQUIRED).set(true);
+
+        node.get(REQUEST_PROPERTIES, QUEUE_LENGTH, TYPE).set(ModelType.INT);
+        node.get(REQUEST_PROPERTIES, QUEUE_LENGTH, DESCRIPTION).set(bundle.getString("batching.async.handler.queue-length"));
+        node.get(REQUEST_PROPERTIES, QUEUE_LENGTH, REQUIRED).set(false);
+
+        node.get(REQUEST_PROPERTIES, MAX_BATCH_SIZE, TYPE).set(ModelType.INT);
+        node.get(REQUEST_PROPERTIES, MAX_BATCH_SIZE, DESCRIPTION).set(bundle.getString("batching.async.handler.max-batch-size"));
+        node.get(REQUEST_PROPERTIES, MAX_BATCH_SIZE, REQUIRED).set(false);
+
+        node.get(REQUEST_PROPERTIES, OVERFLOW_ACTION, TYPE).set(ModelType.STRING);
+        node.get(REQUEST_PROPERTIES, OVERFLOW_ACTION, DESCRIPTION).set(bundle.getString("async.handler.overflow-action"));
+        node.get(REQUEST_PROPERTIES, OVERFLOW_ACTION, REQUIRED).set(false);
+
+        node.get(REPLY_PROPERTIES).setEmptyObject();
+        return node;
+    }
+
     static final DescriptionProvider CONSOLE_HANDLER_ADD = new DescriptionProvider() {
         @Override
         public ModelNode getModelDescription(Locale locale) {
@@ -250,6 +293,16 @@ class LoggingSubsystemProviders {
         }
     };
 
+    static final DescriptionProvider BUFFERED_FILE_HANDLER_ADD = new DescriptionProvider() {
+        @Override
+        public ModelNode getModelDescription(Locale locale) {
+            final ResourceBundle bundle = getResourceBundle(locale);
+            final ModelNode node = new ModelNode();
+            node.get(DESCRIPTION).set(bundle.getString("buffered.file.handler"));
+            return node;
+        }
+    };
+
     static final DescriptionProvider PERIODIC_HANDLER_ADD = new DescriptionProvider() {
         @Override
         public ModelNode getModelDescription(Locale locale) {
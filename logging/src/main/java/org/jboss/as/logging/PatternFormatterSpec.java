@@ -24,8 +24,6 @@ package org.jboss.as.logging;
 
 import java.util.logging.Handler;
 
-import org.jboss.logmanager.formatters.PatternFormatter;
-
 /**
  * @author <a href="mailto:david.lloyd@redhat.com">David M. Lloyd</a>
  */
@@ -41,6 +39,6 @@ public final class PatternFormatterSpec extends AbstractFormatterSpec {
 
     @Override
     protected void apply(final Handler handler) {
-        handler.setFormatter(new PatternFormatter(pattern));
+        handler.setFormatter(new ReusablePatternFormatter(pattern));
     }
 }
@@ -0,0 +1,76 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.logging;
+
+import org.jboss.logmanager.ExtLogRecord;
+import org.jboss.logmanager.formatters.FormatStep;
+import org.jboss.logmanager.formatters.PatternFormatter;
+
+/**
+ * A pattern formatter which renders into a per-thread string builder rather than allocating a new one (and
+ * copying the format steps) for every record.
+ */
+final class ReusablePatternFormatter extends PatternFormatter {
+
+    /** Builders which grew past this size are not kept around, so one huge message does not pin the memory. */
+    private static final int MAX_RETAINED_CAPACITY = 8192;
+
+    private final ThreadLocal<StringBuilder> builder = new ThreadLocal<StringBuilder>() {
+        protected StringBuilder initialValue() {
+            return new StringBuilder(256);
+        }
+    };
+
+    private volatile FormatStep[] steps;
+
+    ReusablePatternFormatter(final String pattern) {
+        super(pattern);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void setSteps(final FormatStep[] steps) {
+        super.setSteps(steps);
+        this.steps = null;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String format(final ExtLogRecord record) {
+        FormatStep[] steps = this.steps;
+        if (steps == null) {
+            this.steps = steps = getSteps();
+        }
+        StringBuilder builder = this.builder.get();
+        if (builder.capacity() > MAX_RETAINED_CAPACITY) {
+            builder = new StringBuilder(256);
+            this.builder.set(builder);
+        } else {
+            builder.setLength(0);
+        }
+        for (FormatStep step : steps) {
+            step.render(builder, record);
+        }
+        return builder.toString();
+    }
+}
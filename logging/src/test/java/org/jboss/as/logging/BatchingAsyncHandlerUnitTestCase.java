@@ -0,0 +1,175 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.logging;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+import org.jboss.logmanager.ExtLogRecord;
+import org.jboss.logmanager.MDC;
+import org.junit.Test;
+
+/**
+ * Tests the ring buffer of the {@link BatchingAsyncHandler}.  Unless a test starts the handler, records are drained
+ * explicitly from the test thread.
+ */
+public class BatchingAsyncHandlerUnitTestCase {
+
+    @Test
+    public void testWraparound() {
+        final RecordingHandler sub = new RecordingHandler();
+        final BatchingAsyncHandler handler = new BatchingAsyncHandler("test", 4, 100, OverflowAction.DISCARD, new Handler[] {sub});
+        for (int round = 0; round < 5; round++) {
+            publish(handler, round * 3, 3);
+            assertEquals(3, handler.getQueueSize());
+            assertEquals(3, handler.drain());
+            assertEquals(0, handler.getQueueSize());
+        }
+        assertMessages(sub, 0, 15);
+        assertEquals(0, handler.getDroppedCount());
+    }
+
+    @Test
+    public void testDiscardWhenFull() {
+        final RecordingHandler sub = new RecordingHandler();
+        // the queue length is rounded up to a power of two
+        final BatchingAsyncHandler handler = new BatchingAsyncHandler("test", 3, 100, OverflowAction.DISCARD, new Handler[] {sub});
+        publish(handler, 0, 6);
+        assertEquals(4, handler.getQueueSize());
+        assertEquals(2, handler.getDroppedCount());
+
+        assertEquals(4, handler.drain());
+        assertMessages(sub, 0, 4);
+        // space is available again
+        publish(handler, 6, 1);
+        assertEquals(1, handler.drain());
+        assertEquals("6", sub.records.get(4).getMessage());
+        assertEquals(2, handler.getDroppedCount());
+    }
+
+    @Test
+    public void testBatchDrain() {
+        final RecordingHandler sub = new RecordingHandler();
+        final BatchingAsyncHandler handler = new BatchingAsyncHandler("test", 256, 100, OverflowAction.DISCARD, new Handler[] {sub});
+        publish(handler, 0, 250);
+        assertEquals(100, handler.drain());
+        assertEquals(1, sub.flushes);
+        assertEquals(100, handler.drain());
+        assertEquals(50, handler.drain());
+        assertEquals(0, handler.drain());
+        // flushed once per batch, not per record and not for an empty batch
+        assertEquals(3, sub.flushes);
+        assertMessages(sub, 0, 250);
+    }
+
+    @Test
+    public void testBlockWhenFull() throws Exception {
+        final RecordingHandler sub = new RecordingHandler();
+        final BatchingAsyncHandler handler = new BatchingAsyncHandler("test", 8, 4, OverflowAction.BLOCK, new Handler[] {sub});
+        handler.start();
+        final Thread[] producers = new Thread[4];
+        for (int i = 0; i < producers.length; i++) {
+            final int first = i * 1000;
+            producers[i] = new Thread(new Runnable() {
+                public void run() {
+                    publish(handler, first, 1000);
+                }
+            });
+            producers[i].start();
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        handler.close();
+        assertEquals(0, handler.getDroppedCount());
+        assertEquals(4000, sub.records.size());
+        // records of each producer keep their order
+        final int[] next = new int[producers.length];
+        for (LogRecord record : sub.records) {
+            final int value = Integer.parseInt(record.getMessage());
+            assertEquals(next[value / 1000]++, value % 1000);
+        }
+    }
+
+    @Test
+    public void testMdcCopiedOnPublish() {
+        final RecordingHandler sub = new RecordingHandler();
+        final BatchingAsyncHandler handler = new BatchingAsyncHandler("test", 4, 100, OverflowAction.DISCARD, new Handler[] {sub});
+        final ExtLogRecord record = new ExtLogRecord(Level.INFO, "message", getClass().getName());
+        MDC.put("request", "42");
+        try {
+            handler.publish(record);
+        } finally {
+            MDC.remove("request");
+        }
+        handler.drain();
+        assertEquals("42", ((ExtLogRecord) sub.records.get(0)).getMdc("request"));
+    }
+
+    @Test
+    public void testClosedHandlerIgnoresRecords() {
+        final RecordingHandler sub = new RecordingHandler();
+        final BatchingAsyncHandler handler = new BatchingAsyncHandler("test", 4, 100, OverflowAction.DISCARD, new Handler[] {sub});
+        handler.start();
+        handler.close();
+        publish(handler, 0, 1);
+        assertEquals(0, handler.getQueueSize());
+        assertFalse(sub.records.size() > 0);
+    }
+
+    private static void publish(final Handler handler, final int first, final int count) {
+        for (int i = first; i < first + count; i++) {
+            handler.publish(new LogRecord(Level.INFO, Integer.toString(i)));
+        }
+    }
+
+    private static void assertMessages(final RecordingHandler sub, final int first, final int count) {
+        assertEquals(count, sub.records.size());
+        for (int i = 0; i < count; i++) {
+            assertEquals(Integer.toString(first + i), sub.records.get(i).getMessage());
+        }
+    }
+
+    private static final class RecordingHandler extends Handler {
+        private final List<LogRecord> records = Collections.synchronizedList(new ArrayList<LogRecord>());
+        private volatile int flushes;
+
+        public void publish(final LogRecord record) {
+            records.add(record);
+        }
+
+        public void flush() {
+            flushes++;
+        }
+
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,269 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.logging;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.logging.Formatter;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the rotation and buffering of the {@link BufferedFileHandler}.
+ */
+public class BufferedFileHandlerUnitTestCase {
+
+    private File directory;
+    private File file;
+    private BufferedFileHandler handler;
+
+    @Before
+    public void setUp() {
+        directory = new File(System.getProperty("java.io.tmpdir"), "buffered-file-handler-" + System.nanoTime());
+        file = new File(directory, "server.log");
+        handler = new BufferedFileHandler(8192, 0L);
+        handler.setFormatter(new MessageFormatter(null, null));
+    }
+
+    @After
+    public void tearDown() {
+        handler.close();
+        final File[] files = directory.listFiles();
+        if (files != null) {
+            for (File child : files) {
+                child.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    @Test
+    public void testSuffixPeriod() {
+        assertEquals(Calendar.YEAR, BufferedFileHandler.getPeriod(".yyyy"));
+        assertEquals(Calendar.MONTH, BufferedFileHandler.getPeriod(".yyyy-MM"));
+        assertEquals(Calendar.WEEK_OF_YEAR, BufferedFileHandler.getPeriod(".yyyy-ww"));
+        assertEquals(Calendar.DAY_OF_MONTH, BufferedFileHandler.getPeriod(".yyyy-MM-dd"));
+        assertEquals(Calendar.AM_PM, BufferedFileHandler.getPeriod(".yyyy-MM-dd-a"));
+        assertEquals(Calendar.HOUR_OF_DAY, BufferedFileHandler.getPeriod(".yyyy-MM-dd-HH"));
+        assertEquals(Calendar.MINUTE, BufferedFileHandler.getPeriod(".yyyy-MM-dd-HH-mm"));
+        // the order of the fields does not matter
+        assertEquals(Calendar.HOUR_OF_DAY, BufferedFileHandler.getPeriod(".HH.yyyy"));
+        // quoted letters are not fields
+        assertEquals(Calendar.YEAR, BufferedFileHandler.getPeriod("'.dmH'yyyy"));
+        assertEquals(Calendar.DAY_OF_MONTH, BufferedFileHandler.getPeriod("'.'yyyy-MM-dd'.log'"));
+    }
+
+    @Test
+    public void testSizeRotation() throws Exception {
+        handler.setRotateSize(110L);
+        handler.setMaxBackupIndex(2);
+        handler.setFileName(file.getPath());
+        // ten records of eleven bytes fill the file up to the rotation size
+        publish(0, 10);
+        assertFalse(new File(file.getPath() + ".1").exists());
+        publish(10, 1);
+        handler.flush();
+        assertEquals(110L, new File(file.getPath() + ".1").length());
+        assertEquals(11L, file.length());
+
+        publish(11, 9);
+        publish(20, 1);
+        publish(21, 19);
+        publish(40, 1);
+        handler.flush();
+        // the oldest backup was deleted
+        assertEquals("record-020", read(new File(file.getPath() + ".2")).substring(0, 10));
+        assertEquals("record-030", read(new File(file.getPath() + ".1")).substring(0, 10));
+        assertEquals("record-040\n", read(file));
+        assertFalse(new File(file.getPath() + ".3").exists());
+    }
+
+    @Test
+    public void testDayRotation() throws Exception {
+        handler.setSuffix(".yyyy-MM-dd");
+        handler.setFileName(file.getPath());
+        final Calendar calendar = Calendar.getInstance();
+        final String today = new SimpleDateFormat(".yyyy-MM-dd").format(calendar.getTime());
+        calendar.set(Calendar.HOUR_OF_DAY, 0);
+        calendar.set(Calendar.MINUTE, 0);
+        calendar.set(Calendar.SECOND, 0);
+        calendar.set(Calendar.MILLISECOND, 0);
+        calendar.add(Calendar.DAY_OF_MONTH, 1);
+        final long midnight = calendar.getTimeInMillis();
+
+        publish(0, midnight - 1L);
+        assertFalse(new File(file.getPath() + today).exists());
+        publish(1, midnight);
+        handler.flush();
+        assertEquals("record-000\n", read(new File(file.getPath() + today)));
+        assertEquals("record-001\n", read(file));
+    }
+
+    @Test
+    public void testHourRotation() throws Exception {
+        handler.setSuffix(".yyyy-MM-dd-HH");
+        handler.setFileName(file.getPath());
+        final Calendar calendar = Calendar.getInstance();
+        final String thisHour = new SimpleDateFormat(".yyyy-MM-dd-HH").format(calendar.getTime());
+        calendar.set(Calendar.MINUTE, 0);
+        calendar.set(Calendar.SECOND, 0);
+        calendar.set(Calendar.MILLISECOND, 0);
+        calendar.add(Calendar.HOUR_OF_DAY, 1);
+        final long nextHour = calendar.getTimeInMillis();
+        final String followingHour = new SimpleDateFormat(".yyyy-MM-dd-HH").format(new Date(nextHour));
+
+        publish(0, nextHour - 1L);
+        publish(1, nextHour);
+        publish(2, nextHour + 3600000L);
+        handler.flush();
+        assertEquals("record-000\n", read(new File(file.getPath() + thisHour)));
+        assertEquals("record-001\n", read(new File(file.getPath() + followingHour)));
+        assertEquals("record-002\n", read(file));
+    }
+
+    @Test
+    public void testFlushOnClose() throws Exception {
+        handler.setFileName(file.getPath());
+        publish(0, 3);
+        // the records are still buffered
+        assertEquals(0L, file.length());
+        handler.close();
+        assertEquals("record-000\nrecord-001\nrecord-002\n", read(file));
+        // records published after close are ignored
+        publish(3, 1);
+        assertEquals(33L, file.length());
+    }
+
+    @Test
+    public void testHeadAndTail() throws Exception {
+        handler.setFormatter(new MessageFormatter("HEAD\n", "TAIL\n"));
+        handler.setRotateSize(16L);
+        handler.setFileName(file.getPath());
+        publish(0, 2);
+        handler.close();
+        assertEquals("HEAD\nrecord-000\nTAIL\n", read(new File(file.getPath() + ".1")));
+        assertEquals("HEAD\nrecord-001\nTAIL\n", read(file));
+    }
+
+    @Test
+    public void testIntervalFlush() throws Exception {
+        final File other = new File(directory, "other.log");
+        final BufferedFileHandler first = new BufferedFileHandler(8192, 20L);
+        final BufferedFileHandler second = new BufferedFileHandler(8192, 20L);
+        try {
+            first.setFormatter(new MessageFormatter(null, null));
+            second.setFormatter(new MessageFormatter(null, null));
+            first.setFileName(file.getPath());
+            second.setFileName(other.getPath());
+            first.publish(record(0, System.currentTimeMillis()));
+            second.publish(record(1, System.currentTimeMillis()));
+            final long deadline = System.currentTimeMillis() + 5000L;
+            while ((file.length() == 0L || other.length() == 0L) && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10L);
+            }
+            assertEquals("record-000\n", read(file));
+            assertEquals("record-001\n", read(other));
+            // both handlers are flushed by the same thread
+            int flushThreads = 0;
+            for (Thread thread : Thread.getAllStackTraces().keySet()) {
+                if (thread.getName().equals("Log flush thread")) {
+                    flushThreads++;
+                }
+            }
+            assertEquals(1, flushThreads);
+        } finally {
+            first.close();
+            second.close();
+        }
+    }
+
+    private void publish(final int first, final int count) {
+        for (int i = first; i < first + count; i++) {
+            handler.publish(record(i, System.currentTimeMillis()));
+        }
+    }
+
+    private void publish(final int index, final long millis) {
+        handler.publish(record(index, millis));
+    }
+
+    private static LogRecord record(final int index, final long millis) {
+        final LogRecord record = new LogRecord(Level.INFO, String.format("record-%03d", Integer.valueOf(index)));
+        record.setMillis(millis);
+        return record;
+    }
+
+    private static String read(final File file) throws IOException {
+        assertTrue(file + " does not exist", file.isFile());
+        final byte[] data = new byte[(int) file.length()];
+        final InputStream is = new FileInputStream(file);
+        try {
+            int offset = 0;
+            while (offset < data.length) {
+                offset += is.read(data, offset, data.length - offset);
+            }
+        } finally {
+            is.close();
+        }
+        return new String(data, "UTF-8");
+    }
+
+    /**
+     * Formats a record as its message on a line.
+     */
+    private static final class MessageFormatter extends Formatter {
+        private final String head;
+        private final String tail;
+
+        MessageFormatter(final String head, final String tail) {
+            this.head = head;
+            this.tail = tail;
+        }
+
+        public String format(final LogRecord record) {
+            return record.getMessage() + "\n";
+        }
+
+        public String getHead(final Handler h) {
+            return head == null ? super.getHead(h) : head;
+        }
+
+        public String getTail(final Handler h) {
+            return tail == null ? super.getTail(h) : tail;
+        }
+    }
+}
@@ -41,6 +41,8 @@ import java.util.Collections;
 import java.util.Hashtable;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import static org.jboss.as.naming.util.NamingUtils.cannotProceedException;
 import static org.jboss.as.naming.util.NamingUtils.emptyNameException;
@@ -56,6 +58,10 @@ import static org.jboss.as.naming.util.NamingUtils.notAContextException;
  * In-memory implementation of the NamingStore.  The backing for the entries is a basic tree structure with either context
  * nodes or binding nodes.  The context nodes are allowed to have children and can be represented by a NamingContext.  A
  * binding node is only allowed to have a normal object binding.
+ * <p>
+ * Readers never lock; each context node publishes its children as an immutable map which writers replace under the
+ * write lock.  Successful lookups are additionally remembered in a flat cache keyed by the full name, which is discarded
+ * whenever the tree is modified.
  *
  * @author John E. Bailey
  */
@@ -69,6 +75,9 @@ public class InMemoryNamingStore implements NamingStore {
 
     private final ReentrantLock writeLock = new ReentrantLock();
 
+    /* Lookup results by full name.  Never cleared in place; writers swap in a fresh map once the tree has changed */
+    private volatile ConcurrentMap<Name, Object> lookupCache = new ConcurrentHashMap<Name, Object>();
+
     /**
      * Construct instance with no event support.
      */
@@ -101,6 +110,7 @@ public class InMemoryNamingStore implements NamingStore {
         try {
             root.accept(new BindVisitor(true, name, object, bindType.getName()));
         } finally {
+            invalidateLookupCache();
             writeLock.unlock();
         }
     }
@@ -121,6 +131,7 @@ public class InMemoryNamingStore implements NamingStore {
         try {
             root.accept(new RebindVisitor(name, object, bindType.getName()));
         } finally {
+            invalidateLookupCache();
             writeLock.unlock();
         }
     }
@@ -141,6 +152,7 @@ public class InMemoryNamingStore implements NamingStore {
         try {
             root.accept(new UnbindVisitor(name));
         } finally {
+            invalidateLookupCache();
             writeLock.unlock();
         }
     }
@@ -159,7 +171,16 @@ public class InMemoryNamingStore implements NamingStore {
             return new NamingContext(emptyName, this, new Hashtable<String, Object>());
         }
         checkPermissions(name, JndiPermission.Action.LOOKUP);
-        return root.accept(new LookupVisitor(name));
+        // grab the cache before walking the tree, so a result raced by a concurrent write lands in a discarded map
+        final ConcurrentMap<Name, Object> cache = lookupCache;
+        Object result = cache.get(name);
+        if (result == null) {
+            result = root.accept(new LookupVisitor(name));
+            if (result != null && !(result instanceof ResolveResult)) {
+                cache.putIfAbsent((Name) name.clone(), result);
+            }
+        }
+        return result;
     }
 
     /**
@@ -198,6 +219,7 @@ public class InMemoryNamingStore implements NamingStore {
         try {
             root.clear();
         } finally {
+            invalidateLookupCache();
             writeLock.unlock();
         }
     }
@@ -228,6 +250,10 @@ public class InMemoryNamingStore implements NamingStore {
         }
     }
 
+    private void invalidateLookupCache() {
+        lookupCache = new ConcurrentHashMap<Name, Object>();
+    }
+
     private void fireEvent(final ContextNode contextNode, final Name name, final Binding existingBinding, final Binding newBinding, final int type, final String changeInfo) {
         final NamingEventCoordinator coordinator = eventCoordinator;
         if (eventCoordinator != null) {
@@ -331,12 +357,13 @@ public class InMemoryNamingStore implements NamingStore {
 
     private abstract class NodeTraversingVisitor<T> implements NodeVisitor<T> {
         private final boolean createIfMissing;
-        private Name currentName;
+        /* Index of the next component of the target name to resolve */
+        private int position;
         protected final Name targetName;
 
         protected NodeTraversingVisitor(final boolean createIfMissing, final Name targetName) {
             this.createIfMissing = createIfMissing;
-            this.targetName = currentName = targetName;
+            this.targetName = targetName;
         }
 
         protected NodeTraversingVisitor(final Name targetName) {
@@ -344,18 +371,17 @@ public class InMemoryNamingStore implements NamingStore {
         }
 
         public final T visit(final BindingNode bindingNode) throws NamingException {
-            if (isEmpty(currentName)) {
+            if (isRemainingNameEmpty()) {
                 return found(bindingNode);
             }
             return foundReferenceInsteadOfContext(bindingNode);
         }
 
         public final T visit(final ContextNode contextNode) throws NamingException {
-            if (isEmpty(currentName)) {
+            if (isRemainingNameEmpty()) {
                 return found(contextNode);
             }
-            final String childName = currentName.get(0);
-            currentName = currentName.getSuffix(1);
+            final String childName = targetName.get(position++);
             final TreeNode node = contextNode.children.get(childName);
             if (node == null) {
                 if (createIfMissing) {
@@ -368,13 +394,19 @@ public class InMemoryNamingStore implements NamingStore {
             return node.accept(this);
         }
 
+        /* Same test as NamingUtils.isEmpty, applied to the unresolved suffix without copying it */
+        private boolean isRemainingNameEmpty() {
+            final int remaining = targetName.size() - position;
+            return remaining == 0 || (remaining == 1 && "".equals(targetName.get(position)));
+        }
+
         protected abstract T found(ContextNode contextNode) throws NamingException;
 
         protected abstract T found(BindingNode bindingNode) throws NamingException;
 
         protected T foundReferenceInsteadOfContext(BindingNode bindingNode) throws NamingException {
             final Object object = bindingNode.binding.getObject();
-            checkReferenceForContinuation(currentName, object);
+            checkReferenceForContinuation(targetName.getSuffix(position), object);
             throw notAContextException(bindingNode.fullName);
         }
     }
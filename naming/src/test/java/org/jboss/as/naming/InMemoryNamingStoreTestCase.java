@@ -265,4 +265,44 @@ public class InMemoryNamingStoreTestCase {
             fail("Should have throw name not found exception");
         } catch (NameNotFoundException expected){}
     }
+
+    @Test
+    public void testLookupAfterRebind() throws Exception {
+        final Name name = new CompositeName("test/item");
+        final Object object = new Object();
+        nameStore.bind(name, object);
+        assertEquals(object, nameStore.lookup(name));
+
+        final Object newObject = new Object();
+        nameStore.rebind(name, newObject);
+        assertEquals(newObject, nameStore.lookup(name));
+    }
+
+    @Test
+    public void testLookupNameModifiedByCaller() throws Exception {
+        final Object object = new Object();
+        final Object otherObject = new Object();
+        nameStore.bind(new CompositeName("test"), object);
+        nameStore.bind(new CompositeName("other"), otherObject);
+
+        final Name name = new CompositeName("test");
+        assertEquals(object, nameStore.lookup(name));
+        name.remove(0);
+        name.add("other");
+        assertEquals(otherObject, nameStore.lookup(name));
+        assertEquals(object, nameStore.lookup(new CompositeName("test")));
+    }
+
+    @Test
+    public void testLookupAfterClose() throws Exception {
+        final Name name = new CompositeName("test");
+        nameStore.bind(name, new Object());
+        assertNotNull(nameStore.lookup(name));
+
+        nameStore.close();
+        try {
+            nameStore.lookup(name);
+            fail("Should have throw name not found exception");
+        } catch (NameNotFoundException expected){}
+    }
 }
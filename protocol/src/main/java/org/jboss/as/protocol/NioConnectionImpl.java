@@ -0,0 +1,779 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.protocol;
+
+import static org.jboss.as.protocol.ProtocolConstants.CHUNK_END;
+import static org.jboss.as.protocol.ProtocolConstants.CHUNK_START;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.concurrent.Executor;
+
+import org.jboss.logging.Logger;
+
+/**
+ * A {@link Connection} over a non-blocking {@link SocketChannel}, driven by a {@link NioSelectorThread}.  The wire
+ * format is the same chunked framing used by {@link ConnectionImpl}, and messages are still handed to the message
+ * handler one at a time, but no thread is parked on the socket while waiting for data.
+ */
+final class NioConnectionImpl implements Connection {
+
+    private static final Logger log = Logger.getLogger("org.jboss.as.protocol.connection");
+
+    /** Reads are suspended once a message has this many bytes waiting to be consumed by its handler. */
+    private static final int MAX_BUFFERED = 65536;
+
+    private static final int STATE_COMMAND = 0;
+    private static final int STATE_LENGTH = 1;
+    private static final int STATE_DATA = 2;
+
+    private final SocketChannel channel;
+    private final NioSelectorThread selectorThread;
+    private final BufferPool bufferPool;
+    private final Executor readExecutor;
+    private final ClosedCallback callback;
+    private final int writeTimeout;
+
+    private final Object lock = new Object();
+
+    // protected by {@link #lock}
+    private OutputStream sender;
+    // protected by {@link #lock}
+    private boolean readDone;
+    // protected by {@link #lock}
+    private boolean writeDone;
+
+    private final Object writeSignal = new Object();
+
+    // protected by {@link #writeSignal}
+    private boolean writable;
+
+    private volatile MessageHandler messageHandler;
+
+    private volatile Object attachment;
+
+    private volatile MessageHandler backupHandler;
+
+    // only accessed by the selector thread
+    private SelectionKey key;
+    private int state = STATE_COMMAND;
+    private int lengthBytes;
+    private int chunkRemaining;
+    private MessageInput current;
+    private MessageInput awaiting;
+    private ByteBuffer pending;
+    private boolean inputDone;
+    private long lastRead;
+
+    NioConnectionImpl(final SocketChannel channel, final NioSelectorThread selectorThread, final BufferPool bufferPool,
+            final MessageHandler handler, final Executor readExecutor, final ClosedCallback callback, final int writeTimeout) {
+        this.channel = channel;
+        this.selectorThread = selectorThread;
+        this.bufferPool = bufferPool;
+        messageHandler = handler;
+        this.readExecutor = readExecutor;
+        this.callback = callback;
+        this.writeTimeout = writeTimeout;
+        lastRead = System.currentTimeMillis();
+    }
+
+    @Override
+    public OutputStream writeMessage() throws IOException {
+        final OutputStream os;
+        synchronized (lock) {
+            if (writeDone) {
+                throw new IOException("Writes are already shut down");
+            }
+            while (sender != null) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException();
+                }
+            }
+            boolean ok = false;
+            try {
+                sender = new MessageOutputStream();
+                os = new BufferedOutputStream(sender, bufferPool.getBufferSize() - 5);
+                ok = true;
+            } finally {
+                if (! ok) {
+                    // let someone else try
+                    lock.notify();
+                }
+            }
+        }
+        return os;
+    }
+
+    @Override
+    public void shutdownWrites() throws IOException {
+        synchronized (lock) {
+            if (writeDone) return;
+            while (sender != null) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException();
+                }
+            }
+            writeDone = true;
+            if (readDone) {
+                channel.close();
+            } else {
+                channel.socket().shutdownOutput();
+            }
+            lock.notifyAll();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (lock) {
+            lock.notifyAll();
+            sender = null;
+            readDone = true;
+            writeDone = true;
+            channel.close();
+            lock.notifyAll();
+        }
+        // wake up the selector so the key gets flushed, and any writer waiting for the channel
+        selectorThread.execute(new Runnable() {
+            public void run() {
+                handleWritable();
+            }
+        });
+    }
+
+    @Override
+    public void setMessageHandler(final MessageHandler messageHandler) {
+        if (messageHandler == null) {
+            throw new IllegalArgumentException("messageHandler is null");
+        }
+        this.messageHandler = messageHandler;
+    }
+
+    @Override
+    public InetAddress getPeerAddress() {
+        return channel.socket().getInetAddress();
+    }
+
+    @Override
+    public void attach(final Object attachment) {
+        this.attachment = attachment;
+    }
+
+    @Override
+    public Object getAttachment() {
+        return attachment;
+    }
+
+    @Override
+    public void backupMessageHandler() {
+        backupHandler = messageHandler;
+    }
+
+    @Override
+    public void restoreMessageHandler() {
+        MessageHandler handler = backupHandler;
+        setMessageHandler(handler == null ? MessageHandler.NULL : handler);
+    }
+
+    SocketChannel getChannel() {
+        return channel;
+    }
+
+    // -- selector thread
+
+    void setKey(final SelectionKey key) {
+        this.key = key;
+    }
+
+    void handleReadable(final ByteBuffer buffer) {
+        final int res;
+        try {
+            res = channel.read(buffer);
+        } catch (IOException e) {
+            readFailed(e);
+            return;
+        }
+        if (res == -1) {
+            readEnded();
+            return;
+        }
+        if (res == 0) {
+            return;
+        }
+        lastRead = System.currentTimeMillis();
+        buffer.flip();
+        try {
+            process(buffer);
+        } catch (IOException e) {
+            readFailed(e);
+            return;
+        }
+        if (buffer.hasRemaining()) {
+            // the handler is behind; keep the rest until it catches up
+            final ByteBuffer pending = ByteBuffer.allocate(buffer.remaining());
+            pending.put(buffer);
+            pending.flip();
+            this.pending = pending;
+            key.interestOps(key.interestOps() & ~SelectionKey.OP_READ);
+        }
+    }
+
+    void handleWritable() {
+        final SelectionKey key = this.key;
+        if (key != null && key.isValid()) {
+            key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
+        }
+        synchronized (writeSignal) {
+            writable = true;
+            writeSignal.notifyAll();
+        }
+    }
+
+    void checkReadTimeout(final long now, final int readTimeout) {
+        final SelectionKey key = this.key;
+        if (! inputDone && key != null && key.isValid() && (key.interestOps() & SelectionKey.OP_READ) != 0 && now - lastRead > readTimeout) {
+            readFailed(new SocketTimeoutException("Read timed out"));
+        }
+    }
+
+    void selectorStopped() {
+        if (! inputDone && key != null) {
+            readFailed(new ClosedChannelException());
+        }
+        StreamUtils.safeClose(channel);
+        handleWritable();
+    }
+
+    private void resumeReads() {
+        final SelectionKey key = this.key;
+        if (inputDone || key == null || ! key.isValid() || blocked()) {
+            return;
+        }
+        final ByteBuffer pending = this.pending;
+        if (pending != null) {
+            try {
+                process(pending);
+            } catch (IOException e) {
+                readFailed(e);
+                return;
+            }
+            if (pending.hasRemaining()) {
+                return;
+            }
+            this.pending = null;
+        }
+        lastRead = System.currentTimeMillis();
+        key.interestOps(key.interestOps() | SelectionKey.OP_READ);
+    }
+
+    private boolean blocked() {
+        final MessageInput awaiting = this.awaiting;
+        if (awaiting != null) {
+            if (! awaiting.isClosed()) {
+                return true;
+            }
+            this.awaiting = null;
+        }
+        final MessageInput current = this.current;
+        return current != null && current.isFull();
+    }
+
+    private void process(final ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining() && ! blocked()) {
+            switch (state) {
+                case STATE_COMMAND: {
+                    final int cmd = buffer.get() & 0xff;
+                    switch (cmd) {
+                        case CHUNK_START: {
+                            if (current == null) {
+                                // new message!
+                                final MessageInput input = new MessageInput();
+                                current = input;
+                                readExecutor.execute(new Runnable() {
+                                    @Override
+                                    public void run() {
+                                        safeHandleMessage(input);
+                                    }
+                                });
+                            }
+                            lengthBytes = 0;
+                            chunkRemaining = 0;
+                            state = STATE_LENGTH;
+                            break;
+                        }
+                        case CHUNK_END: {
+                            log.trace("Received end data marker");
+                            final MessageInput input = current;
+                            if (input != null) {
+                                // end message; the next one is not read until this one has been handled
+                                input.finish();
+                                awaiting = input;
+                                current = null;
+                            }
+                            break;
+                        }
+                        default: {
+                            throw new IOException("Invalid command byte read: " + cmd);
+                        }
+                    }
+                    break;
+                }
+                case STATE_LENGTH: {
+                    chunkRemaining = chunkRemaining << 8 | buffer.get() & 0xff;
+                    if (++lengthBytes == 4) {
+                        if (chunkRemaining < 0) {
+                            throw new IOException("Invalid chunk size: " + chunkRemaining);
+                        }
+                        log.tracef("Received data chunk of size %d", Integer.valueOf(chunkRemaining));
+                        state = chunkRemaining == 0 ? STATE_COMMAND : STATE_DATA;
+                    }
+                    break;
+                }
+                case STATE_DATA: {
+                    final int cnt = Math.min(chunkRemaining, buffer.remaining());
+                    final byte[] bytes = new byte[cnt];
+                    buffer.get(bytes);
+                    current.add(bytes);
+                    chunkRemaining -= cnt;
+                    if (chunkRemaining == 0) {
+                        state = STATE_COMMAND;
+                    }
+                    break;
+                }
+                default: {
+                    throw new IllegalStateException();
+                }
+            }
+        }
+    }
+
+    private void readEnded() {
+        log.trace("Received end of stream");
+        inputDone = true;
+        key.interestOps(0);
+        final MessageInput input = current;
+        current = null;
+        readExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                safeHandleShutdown();
+                if (input != null) {
+                    input.finish();
+                    input.awaitClosed();
+                }
+                boolean done;
+                synchronized (lock) {
+                    readDone = true;
+                    done = writeDone;
+                }
+                if (done) {
+                    StreamUtils.safeClose(channel);
+                    safeHandleFinished();
+                }
+                closed();
+            }
+        });
+    }
+
+    private void readFailed(final IOException e) {
+        inputDone = true;
+        if (key.isValid()) {
+            key.interestOps(0);
+        }
+        final MessageInput input = current;
+        current = null;
+        pending = null;
+        readExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    safeHandlerFailure(e);
+                } finally {
+                    if (input != null) {
+                        input.finish();
+                    }
+                    closed();
+                }
+            }
+        });
+    }
+
+    // -- writer threads
+
+    private void writeFully(final ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.write(buffer) == 0) {
+                awaitWritable();
+            }
+        }
+    }
+
+    private void awaitWritable() throws IOException {
+        synchronized (writeSignal) {
+            writable = false;
+        }
+        selectorThread.execute(new Runnable() {
+            public void run() {
+                final SelectionKey key = NioConnectionImpl.this.key;
+                if (key != null && key.isValid()) {
+                    key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+                } else {
+                    handleWritable();
+                }
+            }
+        });
+        final long deadline = System.currentTimeMillis() + writeTimeout;
+        synchronized (writeSignal) {
+            while (! writable) {
+                if (! channel.isOpen()) {
+                    throw new ClosedChannelException();
+                }
+                final long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0L) {
+                    // part of a chunk may have been sent, so the connection cannot be used any more
+                    StreamUtils.safeClose(this);
+                    throw new SocketTimeoutException("Write timed out");
+                }
+                try {
+                    writeSignal.wait(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException();
+                }
+            }
+        }
+    }
+
+    // -- handler callbacks
+
+    void safeHandleMessage(final InputStream pis) {
+        try {
+            messageHandler.handleMessage(this, pis);
+        } catch (RuntimeException e) {
+            log.errorf(e, "Failed to read a message");
+        } catch (IOException e) {
+            log.errorf(e, "Failed to read a message");
+        } catch (NoClassDefFoundError e) {
+            log.errorf(e, "Failed to read a message");
+        } catch (Error e) {
+            log.errorf(e, "Failed to read a message");
+            throw e;
+        } finally {
+            StreamUtils.safeClose(pis);
+        }
+    }
+
+    void safeHandleShutdown() {
+        try {
+            messageHandler.handleShutdown(this);
+        } catch (IOException e) {
+            log.errorf(e, "Failed to handle socket shut down condition");
+        }
+    }
+
+    void safeHandleFinished() {
+        try {
+            messageHandler.handleFinished(this);
+        } catch (IOException e) {
+            log.errorf(e, "Failed to handle socket finished condition");
+        }
+    }
+
+    void safeHandlerFailure(IOException e) {
+        try {
+            messageHandler.handleFailure(this, e);
+        } catch (IOException e1) {
+            log.errorf(e1, "Failed to handle socket failure condition");
+        }
+    }
+
+    private void closed() {
+        ClosedCallback callback = this.callback;
+        if (callback != null) {
+            callback.connectionClosed();
+        }
+    }
+
+    /**
+     * The input of a single message.  Chunks are queued by the selector thread and consumed by the message handler;
+     * closing the stream discards whatever is left of the message.
+     */
+    final class MessageInput extends InputStream {
+
+        private final ArrayDeque<byte[]> chunks = new ArrayDeque<byte[]>();
+        private int position;
+        private int buffered;
+        private boolean finished;
+        private boolean closed;
+        private boolean suspended;
+
+        synchronized void add(final byte[] bytes) {
+            if (closed) {
+                return;
+            }
+            chunks.add(bytes);
+            buffered += bytes.length;
+            notifyAll();
+        }
+
+        synchronized void finish() {
+            finished = true;
+            notifyAll();
+        }
+
+        synchronized boolean isClosed() {
+            return closed;
+        }
+
+        synchronized boolean isFull() {
+            if (! closed && buffered >= MAX_BUFFERED) {
+                suspended = true;
+                return true;
+            }
+            return false;
+        }
+
+        void awaitClosed() {
+            boolean intr = false;
+            try {
+                synchronized (this) {
+                    while (! closed) {
+                        try {
+                            wait();
+                        } catch (InterruptedException e) {
+                            intr = true;
+                        }
+                    }
+                }
+            } finally {
+                if (intr) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        @Override
+        public int read() throws IOException {
+            final boolean resume;
+            final int b;
+            synchronized (this) {
+                if (! awaitData()) {
+                    return -1;
+                }
+                final byte[] head = chunks.peek();
+                b = head[position] & 0xff;
+                resume = consume(head, 1);
+            }
+            if (resume) {
+                requestResume();
+            }
+            return b;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            final boolean resume;
+            final int cnt;
+            synchronized (this) {
+                if (! awaitData()) {
+                    return -1;
+                }
+                final byte[] head = chunks.peek();
+                cnt = Math.min(len, head.length - position);
+                System.arraycopy(head, position, b, off, cnt);
+                resume = consume(head, cnt);
+            }
+            if (resume) {
+                requestResume();
+            }
+            return cnt;
+        }
+
+        /**
+         * Wait until data is buffered.  Must be called holding this lock.
+         *
+         * @return {@code true} if data is available, {@code false} if the message is finished or the stream closed
+         * @throws InterruptedIOException if the thread is interrupted while waiting
+         */
+        private boolean awaitData() throws InterruptedIOException {
+            while (buffered == 0) {
+                if (finished || closed) {
+                    return false;
+                }
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException();
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Consume bytes from the head chunk.  Must be called holding this lock.
+         *
+         * @param head the head chunk
+         * @param cnt the number of bytes consumed
+         * @return {@code true} if reads on the channel should be resumed
+         */
+        private boolean consume(final byte[] head, final int cnt) {
+            position += cnt;
+            if (position == head.length) {
+                chunks.poll();
+                position = 0;
+            }
+            buffered -= cnt;
+            final boolean resume = suspended && buffered < MAX_BUFFERED / 2;
+            if (resume) {
+                suspended = false;
+            }
+            return resume;
+        }
+
+        @Override
+        public synchronized int available() throws IOException {
+            return buffered;
+        }
+
+        @Override
+        public void close() throws IOException {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                chunks.clear();
+                buffered = 0;
+                notifyAll();
+            }
+            requestResume();
+        }
+
+        private void requestResume() {
+            selectorThread.execute(new Runnable() {
+                public void run() {
+                    resumeReads();
+                }
+            });
+        }
+    }
+
+    final class MessageOutputStream extends OutputStream {
+
+        @Override
+        public void write(final int b) throws IOException {
+            throw new IllegalStateException();
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            if (len == 0) {
+                return;
+            }
+            synchronized (lock) {
+                if (sender != this || writeDone) {
+                    if (sender == this) sender = null;
+                    lock.notifyAll();
+                    throw new IOException("Write channel closed");
+                }
+                log.tracef("Sending data chunk of size %d", Integer.valueOf(len));
+                final ByteBuffer buffer = bufferPool.allocate();
+                try {
+                    buffer.put((byte) CHUNK_START);
+                    buffer.putInt(len);
+                    int pos = off;
+                    int remaining = len;
+                    while (remaining > 0) {
+                        final int cnt = Math.min(remaining, buffer.remaining());
+                        buffer.put(b, pos, cnt);
+                        pos += cnt;
+                        remaining -= cnt;
+                        if (! buffer.hasRemaining()) {
+                            buffer.flip();
+                            writeFully(buffer);
+                            buffer.clear();
+                        }
+                    }
+                    buffer.flip();
+                    writeFully(buffer);
+                } finally {
+                    bufferPool.free(buffer);
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            synchronized (lock) {
+                if (sender != this) {
+                    return;
+                }
+                sender = null;
+                // wake up waiters
+                lock.notify();
+                if (writeDone) throw new IOException("Write channel closed");
+                if (readDone) {
+                    readExecutor.execute(new Runnable() {
+                        @Override
+                        public void run() {
+                            safeHandleFinished();
+                        }
+                    });
+                }
+                log.tracef("Sending end of message");
+                writeFully(ByteBuffer.wrap(new byte[] { (byte) CHUNK_END }));
+            }
+        }
+
+        @Override
+        protected void finalize() throws Throwable {
+            super.finalize();
+            synchronized (lock) {
+                if (sender == this) {
+                    log.warnf("Leaked a message output stream; cleaning");
+                    close();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.protocol;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadFactory;
+
+import org.jboss.logging.Logger;
+
+/**
+ * A selector loop serving any number of {@link NioConnectionImpl} instances.  All reads, and all changes to the
+ * interest set of a connection's key, happen on this thread; other threads hand work over through
+ * {@link #execute(Runnable)}.
+ */
+final class NioSelectorThread implements Runnable {
+
+    private static final Logger log = Logger.getLogger("org.jboss.as.protocol.server");
+
+    private static final long SELECT_TIMEOUT = 1000L;
+
+    private final Selector selector;
+    private final BufferPool bufferPool;
+    private final int readTimeout;
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<Runnable>();
+    private final Thread thread;
+    private volatile boolean stop;
+
+    NioSelectorThread(final ThreadFactory threadFactory, final String name, final BufferPool bufferPool, final int readTimeout) throws IOException {
+        this.bufferPool = bufferPool;
+        this.readTimeout = readTimeout;
+        selector = Selector.open();
+        thread = threadFactory.newThread(this);
+        if (thread == null) {
+            StreamUtils.safeClose(selector);
+            throw new IOException("Failed to create selector thread");
+        }
+        thread.setName(name);
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    void stop() {
+        stop = true;
+        selector.wakeup();
+    }
+
+    /**
+     * Close the selector of a thread which was never started.
+     */
+    void close() {
+        StreamUtils.safeClose(selector);
+    }
+
+    boolean isSelectorThread() {
+        return Thread.currentThread() == thread;
+    }
+
+    /**
+     * Run a task on the selector thread.
+     *
+     * @param task the task
+     */
+    void execute(final Runnable task) {
+        tasks.add(task);
+        selector.wakeup();
+    }
+
+    void register(final NioConnectionImpl connection) {
+        execute(new Runnable() {
+            public void run() {
+                final SocketChannel channel = connection.getChannel();
+                try {
+                    connection.setKey(channel.register(selector, SelectionKey.OP_READ, connection));
+                } catch (IOException e) {
+                    log.errorf(e, "Failed to register connection from %s", connection.getPeerAddress());
+                    StreamUtils.safeClose(channel);
+                }
+            }
+        });
+    }
+
+    public void run() {
+        final ByteBuffer readBuffer = bufferPool.allocate();
+        try {
+            long lastTimeoutCheck = System.currentTimeMillis();
+            while (! stop) {
+                Runnable task;
+                while ((task = tasks.poll()) != null) {
+                    try {
+                        task.run();
+                    } catch (Throwable t) {
+                        log.errorf(t, "Selector task failed");
+                    }
+                }
+                try {
+                    selector.select(SELECT_TIMEOUT);
+                } catch (IOException e) {
+                    log.errorf(e, "Selector failed");
+                    continue;
+                }
+                final Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+                while (it.hasNext()) {
+                    final SelectionKey key = it.next();
+                    it.remove();
+                    final NioConnectionImpl connection = (NioConnectionImpl) key.attachment();
+                    try {
+                        final int ready = key.readyOps();
+                        if ((ready & SelectionKey.OP_WRITE) != 0) {
+                            connection.handleWritable();
+                        }
+                        if ((ready & SelectionKey.OP_READ) != 0) {
+                            readBuffer.clear();
+                            connection.handleReadable(readBuffer);
+                        }
+                    } catch (CancelledKeyException e) {
+                        connection.handleWritable();
+                    } catch (RuntimeException e) {
+                        log.errorf(e, "Failed to handle connection from %s", connection.getPeerAddress());
+                    }
+                }
+                if (readTimeout > 0) {
+                    final long now = System.currentTimeMillis();
+                    if (now - lastTimeoutCheck >= SELECT_TIMEOUT) {
+                        lastTimeoutCheck = now;
+                        for (SelectionKey key : selector.keys()) {
+                            ((NioConnectionImpl) key.attachment()).checkReadTimeout(now, readTimeout);
+                        }
+                    }
+                }
+            }
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                try {
+                    ((NioConnectionImpl) key.attachment()).selectorStopped();
+                } catch (RuntimeException e) {
+                    log.errorf(e, "Failed to close connection");
+                    StreamUtils.safeClose(key.channel());
+                }
+            }
+            StreamUtils.safeClose(selector);
+            bufferPool.free(readBuffer);
+        }
+    }
+}
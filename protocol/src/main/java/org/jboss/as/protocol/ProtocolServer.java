@@ -27,6 +27,8 @@ import java.net.InetSocketAddress;
 import java.net.ServerSocket;
 import java.net.Socket;
 import java.net.SocketException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ThreadFactory;
 
@@ -36,6 +38,10 @@ import org.jboss.as.protocol.Connection.ClosedCallback;
 import org.jboss.logging.Logger;
 
 /**
+ * A server accepting protocol connections.  By default each connection is served by its own read thread; when
+ * {@link Configuration#setNio(boolean) NIO} is enabled the connections are instead multiplexed over a small, fixed
+ * number of selector threads.
+ *
  * @author <a href="mailto:david.lloyd@redhat.com">David M. Lloyd</a>
  */
 public final class ProtocolServer {
@@ -48,10 +54,15 @@ public final class ProtocolServer {
     private final InetSocketAddress bindAddress;
     private final int backlog;
     private final int readTimeout;
+    private final int writeTimeout;
     private final Executor readExecutor;
+    private final boolean nio;
+    private final int selectorThreadCount;
+    private final BufferPool bufferPool;
     private volatile boolean stop;
     private volatile Thread thread;
     private volatile ServerSocket serverSocket;
+    private volatile NioSelectorThread[] selectorThreads;
     private volatile InetSocketAddress boundAddress;
     private final ClosedCallback callback;
 
@@ -62,8 +73,13 @@ public final class ProtocolServer {
         bindAddress = configuration.getBindAddress();
         backlog = configuration.getBacklog();
         readTimeout = configuration.getReadTimeout();
+        writeTimeout = configuration.getWriteTimeout();
         readExecutor = configuration.getReadExecutor();
         callback = configuration.getClosedCallback();
+        nio = configuration.isNio();
+        final int selectorThreads = configuration.getSelectorThreads();
+        selectorThreadCount = selectorThreads > 0 ? selectorThreads : Runtime.getRuntime().availableProcessors();
+        bufferPool = nio ? new BufferPool(configuration.getBufferSize(), selectorThreadCount * 4) : null;
         if (bindAddress == null) {
             throw new IllegalArgumentException("bindAddress is null");
         }
@@ -74,6 +90,10 @@ public final class ProtocolServer {
 
     public void start() throws IOException {
         stop = false;
+        if (nio) {
+            startNio();
+            return;
+        }
 
         final ServerSocket serverSocket = socketFactory.createServerSocket();
         this.serverSocket = serverSocket;
@@ -132,6 +152,88 @@ public final class ProtocolServer {
             thread.interrupt();
         }
         StreamUtils.safeClose(serverSocket);
+        final NioSelectorThread[] selectorThreads = this.selectorThreads;
+        if (selectorThreads != null) {
+            this.selectorThreads = null;
+            for (NioSelectorThread selectorThread : selectorThreads) {
+                selectorThread.stop();
+            }
+        }
+    }
+
+    private void startNio() throws IOException {
+        final ServerSocketChannel serverChannel = ServerSocketChannel.open();
+        final ServerSocket serverSocket = serverChannel.socket();
+        this.serverSocket = serverSocket;
+        final NioSelectorThread[] selectorThreads = new NioSelectorThread[selectorThreadCount];
+        boolean ok = false;
+        try {
+            // Bind before opening the selectors, which are closed again if anything fails
+            serverSocket.setReuseAddress(true);
+            serverSocket.bind(bindAddress, backlog);
+            for (int i = 0; i < selectorThreads.length; i++) {
+                selectorThreads[i] = new NioSelectorThread(threadFactory, "Selector thread " + (i + 1), bufferPool, readTimeout);
+            }
+            thread = threadFactory.newThread(new Runnable() {
+                public void run() {
+                    int next = 0;
+                    try {
+                        while (serverChannel.isOpen() && ! stop) {
+                            try {
+                                final SocketChannel channel = serverChannel.accept();
+                                safeHandleConnection(channel, selectorThreads[next]);
+                                next = (next + 1) % selectorThreads.length;
+                            } catch (IOException e) {
+                                if (!stop) {
+                                    // we do not log if service is stopped, we assume the exception was caused by closing the
+                                    // channel
+                                    log.errorf(e, "Failed to accept a connection");
+                                }
+                            }
+                        }
+                    } finally {
+                        StreamUtils.safeClose(serverChannel);
+                    }
+                }
+            });
+            if (thread == null) {
+                throw new IOException("Failed to create server thread");
+            }
+            ok = true;
+        } finally {
+            if (! ok) {
+                for (NioSelectorThread selectorThread : selectorThreads) {
+                    if (selectorThread != null) {
+                        selectorThread.close();
+                    }
+                }
+                StreamUtils.safeClose(serverChannel);
+            }
+        }
+        thread.setName("Accept thread");
+        boundAddress = (InetSocketAddress) serverSocket.getLocalSocketAddress();
+        for (NioSelectorThread selectorThread : selectorThreads) {
+            selectorThread.start();
+        }
+        this.selectorThreads = selectorThreads;
+        thread.start();
+    }
+
+    private void safeHandleConnection(final SocketChannel channel, final NioSelectorThread selectorThread) {
+        boolean ok = false;
+        try {
+            channel.configureBlocking(false);
+            final NioConnectionImpl connection = new NioConnectionImpl(channel, selectorThread, bufferPool, MessageHandler.NULL, readExecutor, callback, writeTimeout);
+            connection.setMessageHandler(connectionHandler.handleConnected(connection));
+            selectorThread.register(connection);
+            ok = true;
+        } catch (IOException e) {
+            log.errorf(e, "Failed to handle incoming connection");
+        } finally {
+            if (! ok) {
+                StreamUtils.safeClose(channel);
+            }
+        }
     }
 
     private void safeHandleConnection(final Socket socket) {
@@ -171,8 +273,12 @@ public final class ProtocolServer {
         private InetSocketAddress bindAddress;
         private int backlog;
         private int readTimeout;
+        private int writeTimeout = 30000;
         private Executor readExecutor;
         private ClosedCallback closedCallback;
+        private boolean nio;
+        private int selectorThreads;
+        private int bufferSize = 16384;
 
         public ThreadFactory getThreadFactory() {
             return threadFactory;
@@ -230,6 +336,23 @@ public final class ProtocolServer {
             this.readTimeout = readTimeout;
         }
 
+        public int getWriteTimeout() {
+            return writeTimeout;
+        }
+
+        /**
+         * Set how long, in milliseconds, a write in NIO mode waits for the peer to accept more data.  When it times
+         * out the write fails and the connection is closed.  The default is 30 seconds.
+         *
+         * @param writeTimeout the write timeout
+         */
+        public void setWriteTimeout(final int writeTimeout) {
+            if (writeTimeout <= 0) {
+                throw new IllegalArgumentException("writeTimeout must be positive");
+            }
+            this.writeTimeout = writeTimeout;
+        }
+
         public Executor getReadExecutor() {
             return readExecutor;
         }
@@ -246,5 +369,47 @@ public final class ProtocolServer {
         public void setCallback(ClosedCallback closedCallback) {
             this.closedCallback = closedCallback;
         }
+
+        public boolean isNio() {
+            return nio;
+        }
+
+        /**
+         * Use non-blocking channels multiplexed over {@link #setSelectorThreads(int) selector threads} instead of a
+         * read thread per connection.  The {@link #setSocketFactory(ServerSocketFactory) socket factory} is not used
+         * in this mode.
+         *
+         * @param nio {@code true} to use NIO
+         */
+        public void setNio(final boolean nio) {
+            this.nio = nio;
+        }
+
+        public int getSelectorThreads() {
+            return selectorThreads;
+        }
+
+        /**
+         * Set the number of selector threads used in NIO mode; {@code 0} (the default) uses one per available
+         * processor.
+         *
+         * @param selectorThreads the number of selector threads
+         */
+        public void setSelectorThreads(final int selectorThreads) {
+            this.selectorThreads = selectorThreads;
+        }
+
+        public int getBufferSize() {
+            return bufferSize;
+        }
+
+        /**
+         * Set the size of the pooled direct buffers used in NIO mode.
+         *
+         * @param bufferSize the buffer size
+         */
+        public void setBufferSize(final int bufferSize) {
+            this.bufferSize = bufferSize;
+        }
     }
 }
@@ -0,0 +1,306 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.protocol;
+
+import static org.jboss.as.protocol.ProtocolConstants.CHUNK_END;
+import static org.jboss.as.protocol.ProtocolConstants.CHUNK_START;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Exercises the NIO transport of {@link ProtocolServer} with an echo handler, and checks that a large number of
+ * connections does not cost more server threads.
+ */
+public final class NioProtocolServerTest {
+
+    private static final int SELECTOR_THREADS = 2;
+
+    private final AtomicInteger serverThreads = new AtomicInteger();
+    private ExecutorService executor;
+    private ProtocolServer server;
+    private volatile boolean singleByteReads;
+
+    @Before
+    public void startServer() throws Exception {
+        executor = Executors.newCachedThreadPool();
+        server = new ProtocolServer(configuration(new InetSocketAddress(InetAddress.getByName("127.0.0.1"), 0)));
+        server.start();
+    }
+
+    private ProtocolServer.Configuration configuration(final InetSocketAddress bindAddress) {
+        final ProtocolServer.Configuration config = new ProtocolServer.Configuration();
+        config.setBindAddress(bindAddress);
+        config.setThreadFactory(new ThreadFactory() {
+            public Thread newThread(final Runnable r) {
+                serverThreads.incrementAndGet();
+                final Thread thread = new Thread(r);
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        config.setReadExecutor(executor);
+        config.setBacklog(1000);
+        config.setNio(true);
+        config.setSelectorThreads(SELECTOR_THREADS);
+        config.setConnectionHandler(new ConnectionHandler() {
+            public MessageHandler handleConnected(final Connection connection) throws IOException {
+                return new EchoHandler(singleByteReads);
+            }
+        });
+        return config;
+    }
+
+    @After
+    public void stopServer() throws Exception {
+        server.stop();
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testManyConnections() throws Exception {
+        final int connections = 500;
+        final int rounds = 10;
+        final Socket[] sockets = new Socket[connections];
+        try {
+            for (int i = 0; i < connections; i++) {
+                sockets[i] = new Socket();
+                sockets[i].connect(server.getBoundAddress());
+            }
+            // the accept thread plus the selector threads, however many connections there are
+            assertEquals(SELECTOR_THREADS + 1, serverThreads.get());
+
+            for (int round = 0; round < rounds; round++) {
+                for (int i = 0; i < connections; i++) {
+                    final byte[] payload = ("message " + round + " on connection " + i).getBytes("UTF-8");
+                    writeMessage(sockets[i].getOutputStream(), payload, 7);
+                    assertArrayEquals(payload, readMessage(sockets[i].getInputStream()));
+                }
+            }
+            // no thread was added to serve the messages
+            assertEquals(SELECTOR_THREADS + 1, serverThreads.get());
+        } finally {
+            for (Socket socket : sockets) {
+                if (socket != null) {
+                    socket.close();
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testLargeMessages() throws Exception {
+        final Socket socket = new Socket();
+        try {
+            socket.connect(server.getBoundAddress());
+            final Random rng = new Random(123L);
+            final OutputStream os = socket.getOutputStream();
+            final InputStream is = socket.getInputStream();
+            for (int size : new int[] { 1, 8192, 100000, 1 << 20 }) {
+                final byte[] payload = new byte[size];
+                rng.nextBytes(payload);
+                writeMessage(os, payload, 8192);
+                assertArrayEquals(payload, readMessage(is));
+            }
+        } finally {
+            socket.close();
+        }
+    }
+
+    @Test
+    public void testPipelinedMessages() throws Exception {
+        final Socket socket = new Socket();
+        try {
+            socket.connect(server.getBoundAddress());
+            final OutputStream os = socket.getOutputStream();
+            final InputStream is = socket.getInputStream();
+            final int count = 100;
+            for (int i = 0; i < count; i++) {
+                writeMessage(os, ("message " + i).getBytes("UTF-8"), 3);
+            }
+            for (int i = 0; i < count; i++) {
+                assertEquals("message " + i, new String(readMessage(is), "UTF-8"));
+            }
+        } finally {
+            socket.close();
+        }
+    }
+
+    @Test
+    public void testSingleByteReads() throws Exception {
+        singleByteReads = true;
+        final Socket socket = new Socket();
+        try {
+            socket.connect(server.getBoundAddress());
+            final Random rng = new Random(456L);
+            final OutputStream os = socket.getOutputStream();
+            final InputStream is = socket.getInputStream();
+            for (int size : new int[] { 1, 5000, 100000 }) {
+                final byte[] payload = new byte[size];
+                rng.nextBytes(payload);
+                writeMessage(os, payload, 777);
+                assertArrayEquals(payload, readMessage(is));
+            }
+        } finally {
+            socket.close();
+        }
+    }
+
+    @Test
+    public void testWriteTimeout() throws Exception {
+        final ProtocolServer.Configuration config = configuration(new InetSocketAddress(InetAddress.getByName("127.0.0.1"), 0));
+        config.setWriteTimeout(200);
+        final ProtocolServer other = new ProtocolServer(config);
+        other.start();
+        final Socket socket = new Socket();
+        try {
+            socket.connect(other.getBoundAddress());
+            // the reply is much larger than the socket buffers and is not read in time
+            final byte[] payload = new byte[32 << 20];
+            writeMessage(socket.getOutputStream(), payload, 1 << 20);
+            Thread.sleep(1000L);
+            socket.setSoTimeout(10000);
+            final InputStream is = socket.getInputStream();
+            final byte[] buffer = new byte[65536];
+            long received = 0L;
+            try {
+                int n;
+                while ((n = is.read(buffer)) != -1) {
+                    received += n;
+                }
+            } catch (SocketException reset) {
+            }
+            // the server gave up on the write and closed the connection
+            assertTrue(received < payload.length);
+        } finally {
+            socket.close();
+            other.stop();
+        }
+    }
+
+    @Test
+    public void testBindFailure() throws Exception {
+        final int threads = serverThreads.get();
+        final ProtocolServer other = new ProtocolServer(configuration(server.getBoundAddress()));
+        try {
+            other.start();
+            other.stop();
+            fail("Bound to an address in use");
+        } catch (IOException expected) {
+        }
+        // the address is bound before any selector or thread is created
+        assertEquals(threads, serverThreads.get());
+    }
+
+    private static void writeMessage(final OutputStream os, final byte[] payload, final int chunkSize) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(bytes);
+        for (int off = 0; off < payload.length; off += chunkSize) {
+            final int len = Math.min(chunkSize, payload.length - off);
+            out.writeByte(CHUNK_START);
+            out.writeInt(len);
+            out.write(payload, off, len);
+        }
+        out.writeByte(CHUNK_END);
+        os.write(bytes.toByteArray());
+        os.flush();
+    }
+
+    private static byte[] readMessage(final InputStream is) throws IOException {
+        final DataInputStream in = new DataInputStream(is);
+        final ByteArrayOutputStream message = new ByteArrayOutputStream();
+        for (;;) {
+            final int cmd = in.readUnsignedByte();
+            if (cmd == CHUNK_END) {
+                return message.toByteArray();
+            }
+            assertEquals(CHUNK_START, cmd);
+            final byte[] chunk = new byte[in.readInt()];
+            in.readFully(chunk);
+            message.write(chunk);
+        }
+    }
+
+    private static final class EchoHandler implements MessageHandler {
+
+        private final boolean singleByteReads;
+
+        private EchoHandler(final boolean singleByteReads) {
+            this.singleByteReads = singleByteReads;
+        }
+
+        public void handleMessage(final Connection connection, final InputStream dataStream) throws IOException {
+            final ByteArrayOutputStream message = new ByteArrayOutputStream();
+            // the stream is closed once the reply is written, so replies come back in order
+            if (singleByteReads) {
+                int b;
+                while ((b = dataStream.read()) != -1) {
+                    message.write(b);
+                }
+            } else {
+                StreamUtils.copyStream(dataStream, message);
+            }
+            final OutputStream os = connection.writeMessage();
+            try {
+                os.write(message.toByteArray());
+            } finally {
+                os.close();
+            }
+        }
+
+        public void handleShutdown(final Connection connection) throws IOException {
+            connection.shutdownWrites();
+        }
+
+        public void handleFailure(final Connection connection, final IOException e) throws IOException {
+            connection.close();
+        }
+
+        public void handleFinished(final Connection connection) throws IOException {
+            connection.close();
+        }
+    }
+}
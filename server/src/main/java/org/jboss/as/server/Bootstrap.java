@@ -29,6 +29,7 @@ import javax.xml.namespace.QName;
 
 import org.jboss.as.controller.parsing.Namespace;
 import org.jboss.as.controller.parsing.StandaloneXml;
+import org.jboss.as.controller.persistence.AsyncConfigurationPersister;
 import org.jboss.as.controller.persistence.BackupXmlConfigurationPersister;
 import org.jboss.as.controller.persistence.ExtensibleConfigurationPersister;
 import org.jboss.as.controller.persistence.NullConfigurationPersister;
@@ -138,7 +139,7 @@ public interface Bootstrap {
                 else {
                     QName rootElement = new QName(Namespace.CURRENT.getUriString(), "server");
                     StandaloneXml parser = new StandaloneXml(Module.getBootModuleLoader());
-                    configurationPersister = new BackupXmlConfigurationPersister(serverEnvironment.getServerConfigurationFile(), rootElement, parser, parser);
+                    configurationPersister = AsyncConfigurationPersister.wrapIfEnabled(new BackupXmlConfigurationPersister(serverEnvironment.getServerConfigurationFile(), rootElement, parser, parser));
                 }
             }
             return configurationPersister;
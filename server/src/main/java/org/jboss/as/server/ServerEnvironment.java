@@ -159,6 +159,17 @@ public class ServerEnvironment implements Serializable {
      */
     public static final String QUALIFIED_HOST_NAME = "jboss.qualified.host.name";
 
+    /**
+     * Constant that holds the name of the system property for specifying
+     * whether the resource roots of deployments are indexed when their module
+     * is created, so that class and resource lookups which miss a root do not
+     * touch VFS. Files added to an exploded deployment afterwards are not seen
+     * until it is redeployed.
+     *
+     * <p>Defaults to <tt>false</tt>.
+     */
+    public static final String INDEX_RESOURCE_ROOTS = "jboss.deployment.index.resource.roots";
+
     private final String qualifiedHostName;
     private final String hostName;
     private final String serverName;
@@ -177,6 +188,7 @@ public class ServerEnvironment implements Serializable {
     private final File serverTempDir;
     private final boolean standalone;
     private final File serverSystemDeployDir;
+    private final boolean indexResourceRoots;
 
     public ServerEnvironment(Properties props, Map<String, String> env, String serverConfig, boolean standalone) {
         this.standalone = standalone;
@@ -295,6 +307,8 @@ public class ServerEnvironment implements Serializable {
             tmp = new File(serverBaseDir, "tmp");
         }
         serverTempDir = tmp;
+
+        indexResourceRoots = Boolean.parseBoolean(props.getProperty(INDEX_RESOURCE_ROOTS));
     }
 
     void install() {
@@ -406,6 +420,10 @@ public class ServerEnvironment implements Serializable {
         return standalone;
     }
 
+    public boolean isIndexResourceRoots() {
+        return indexResourceRoots;
+    }
+
     /**
      * Get a File from configuration.
      *
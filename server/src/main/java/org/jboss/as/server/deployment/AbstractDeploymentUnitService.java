@@ -67,6 +67,9 @@ public abstract class AbstractDeploymentUnitService implements Service<Deploymen
         target.addListener(listener);
         deploymentUnit = createAndInitializeDeploymentUnit(context.getController().getServiceContainer());
         deploymentUnit.putAttachment(Attachments.STATUS_LISTENER, listener);
+        if (DeploymentTimings.isEnabled()) {
+            deploymentUnit.putAttachment(Attachments.DEPLOYMENT_TIMINGS, new DeploymentTimings(deploymentUnit.getName()));
+        }
 
         final ServiceName serviceName = deploymentUnit.getServiceName().append(FIRST_PHASE_NAME);
         final Phase firstPhase = Phase.values()[0];
@@ -74,6 +74,11 @@ public final class Attachments {
      */
     public static final AttachmentKey<AbstractDeploymentUnitService.DeploymentServiceListener> STATUS_LISTENER = AttachmentKey.create(AbstractDeploymentUnitService.DeploymentServiceListener.class);
 
+    /**
+     * The time spent by each processor on the deployment unit; only present if {@link DeploymentTimings#isEnabled()}.
+     */
+    public static final AttachmentKey<DeploymentTimings> DEPLOYMENT_TIMINGS = AttachmentKey.create(DeploymentTimings.class);
+
     //
     // STRUCTURE
     //
@@ -0,0 +1,279 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * The time spent by each {@link DeploymentUnitProcessor} on a deployment unit, per phase. Recorded when the
+ * {@value #ENABLED_PROPERTY} system property is set to {@code true}; the wall clock time, the CPU time and the
+ * number of bytes allocated by the deploying thread are measured around each call to
+ * {@link DeploymentUnitProcessor#deploy(DeploymentPhaseContext)}.
+ * <p>
+ * CPU time and allocated bytes are {@code -1} if the JVM cannot measure them.
+ */
+public final class DeploymentTimings {
+
+    /** The system property enabling the recording of deployment timings. */
+    public static final String ENABLED_PROPERTY = "org.jboss.as.server.deployment.timings";
+
+    private static final boolean ENABLED = Boolean.getBoolean(ENABLED_PROPERTY);
+
+    private final String deploymentUnitName;
+    private final List<Entry> entries = new ArrayList<Entry>();
+
+    DeploymentTimings(final String deploymentUnitName) {
+        this.deploymentUnitName = deploymentUnitName;
+    }
+
+    /**
+     * Determine whether deployment timings should be recorded.
+     *
+     * @return {@code true} if they should be recorded
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Run a processor, recording the time it took.
+     *
+     * @param phase the phase
+     * @param processor the processor
+     * @param phaseContext the phase context to pass to the processor
+     * @throws DeploymentUnitProcessingException if the processor fails
+     */
+    void deploy(final Phase phase, final DeploymentUnitProcessor processor, final DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
+        final long cpuTime = ThreadClock.cpuTime();
+        final long allocatedBytes = ThreadClock.allocatedBytes();
+        final long start = System.nanoTime();
+        try {
+            processor.deploy(phaseContext);
+        } finally {
+            final long wallTime = System.nanoTime() - start;
+            final long cpuTimeAfter = ThreadClock.cpuTime();
+            final long allocatedBytesAfter = ThreadClock.allocatedBytes();
+            add(new Entry(deploymentUnitName, phase, processor.getClass().getName(), wallTime,
+                    cpuTime == -1 || cpuTimeAfter == -1 ? -1 : cpuTimeAfter - cpuTime,
+                    allocatedBytes == -1 || allocatedBytesAfter == -1 ? -1 : allocatedBytesAfter - allocatedBytes));
+        }
+    }
+
+    /**
+     * Discard the timings of a phase, before it is run again.
+     *
+     * @param phase the phase
+     */
+    synchronized void clear(final Phase phase) {
+        final Iterator<Entry> iterator = entries.iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().getPhase() == phase) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private synchronized void add(final Entry entry) {
+        entries.add(entry);
+    }
+
+    /**
+     * Get the recorded timings, in the order the processors ran.
+     *
+     * @return a copy of the timings
+     */
+    public synchronized List<Entry> getEntries() {
+        return new ArrayList<Entry>(entries);
+    }
+
+    /**
+     * Get the timings of a deployment unit and all its sub deployments.
+     *
+     * @param deploymentUnit the deployment unit
+     * @return the timings, which are empty unless {@link #isEnabled()}
+     */
+    public static List<Entry> getTimings(final DeploymentUnit deploymentUnit) {
+        final List<Entry> entries = new ArrayList<Entry>();
+        final DeploymentTimings timings = deploymentUnit.getAttachment(Attachments.DEPLOYMENT_TIMINGS);
+        if (timings != null) {
+            entries.addAll(timings.getEntries());
+        }
+        for (DeploymentUnit subDeployment : deploymentUnit.getAttachmentList(Attachments.SUB_DEPLOYMENTS)) {
+            entries.addAll(getTimings(subDeployment));
+        }
+        return entries;
+    }
+
+    /**
+     * Create a report of the processors which took the longest, for the log.
+     *
+     * @param deploymentName the name of the deployment
+     * @param timings the timings of the deployment unit and its sub deployments
+     * @param max the maximum number of processors to include
+     * @return the report
+     */
+    static String createReport(final String deploymentName, final List<Entry> timings, final int max) {
+        final List<Entry> sorted = new ArrayList<Entry>(timings);
+        Collections.sort(sorted, new Comparator<Entry>() {
+            public int compare(final Entry o1, final Entry o2) {
+                return o1.getWallTime() < o2.getWallTime() ? 1 : o1.getWallTime() == o2.getWallTime() ? 0 : -1;
+            }
+        });
+        long total = 0;
+        for (Entry entry : sorted) {
+            total += entry.getWallTime();
+        }
+        final StringBuilder builder = new StringBuilder();
+        builder.append(String.format("Processed deployment \"%s\" in %dms; slowest processors (wall ms, cpu ms, allocated KB):", deploymentName, Long.valueOf(total / 1000000L)));
+        for (Entry entry : sorted.subList(0, Math.min(max, sorted.size()))) {
+            builder.append(String.format("%n    %-24s %-16s %-70s %8d %8d %10d", entry.getDeploymentUnit(), entry.getPhase(), entry.getProcessor(),
+                    Long.valueOf(entry.getWallTime() / 1000000L), Long.valueOf(entry.getCpuTime() == -1 ? -1 : entry.getCpuTime() / 1000000L),
+                    Long.valueOf(entry.getAllocatedBytes() == -1 ? -1 : entry.getAllocatedBytes() / 1024L)));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * The time a processor spent in a phase.
+     */
+    public static final class Entry {
+        private final String deploymentUnit;
+        private final Phase phase;
+        private final String processor;
+        private final long wallTime;
+        private final long cpuTime;
+        private final long allocatedBytes;
+
+        Entry(final String deploymentUnit, final Phase phase, final String processor, final long wallTime, final long cpuTime, final long allocatedBytes) {
+            this.deploymentUnit = deploymentUnit;
+            this.phase = phase;
+            this.processor = processor;
+            this.wallTime = wallTime;
+            this.cpuTime = cpuTime;
+            this.allocatedBytes = allocatedBytes;
+        }
+
+        /**
+         * Get the name of the deployment unit the processor ran on.
+         *
+         * @return the name
+         */
+        public String getDeploymentUnit() {
+            return deploymentUnit;
+        }
+
+        public Phase getPhase() {
+            return phase;
+        }
+
+        /**
+         * Get the class name of the processor.
+         *
+         * @return the class name
+         */
+        public String getProcessor() {
+            return processor;
+        }
+
+        /**
+         * Get the wall clock time.
+         *
+         * @return the time in nanoseconds
+         */
+        public long getWallTime() {
+            return wallTime;
+        }
+
+        /**
+         * Get the CPU time of the deploying thread.
+         *
+         * @return the time in nanoseconds, or {@code -1} if not available
+         */
+        public long getCpuTime() {
+            return cpuTime;
+        }
+
+        /**
+         * Get the number of bytes allocated by the deploying thread.
+         *
+         * @return the number of bytes, or {@code -1} if not available
+         */
+        public long getAllocatedBytes() {
+            return allocatedBytes;
+        }
+    }
+
+    /**
+     * Access to the per thread counters of the JVM, only initialized once timings are recorded.
+     */
+    private static final class ThreadClock {
+        private static final ThreadMXBean THREAD_BEAN = ManagementFactory.getThreadMXBean();
+        private static final boolean CPU_TIME_SUPPORTED;
+        /** {@code com.sun.management.ThreadMXBean.getThreadAllocatedBytes(long)}, where available */
+        private static final Method ALLOCATED_BYTES;
+
+        static {
+            boolean cpuTimeSupported = false;
+            try {
+                cpuTimeSupported = THREAD_BEAN.isCurrentThreadCpuTimeSupported() && THREAD_BEAN.isThreadCpuTimeEnabled();
+            } catch (UnsupportedOperationException e) {
+                // not supported
+            }
+            CPU_TIME_SUPPORTED = cpuTimeSupported;
+            Method allocatedBytes = null;
+            try {
+                final Class<?> beanClass = Class.forName("com.sun.management.ThreadMXBean");
+                if (beanClass.isInstance(THREAD_BEAN)
+                        && Boolean.TRUE.equals(beanClass.getMethod("isThreadAllocatedMemorySupported").invoke(THREAD_BEAN))
+                        && Boolean.TRUE.equals(beanClass.getMethod("isThreadAllocatedMemoryEnabled").invoke(THREAD_BEAN))) {
+                    allocatedBytes = beanClass.getMethod("getThreadAllocatedBytes", long.class);
+                }
+            } catch (Exception e) {
+                // not available on this JVM
+            }
+            ALLOCATED_BYTES = allocatedBytes;
+        }
+
+        static long cpuTime() {
+            return CPU_TIME_SUPPORTED ? THREAD_BEAN.getCurrentThreadCpuTime() : -1;
+        }
+
+        static long allocatedBytes() {
+            if (ALLOCATED_BYTES == null) {
+                return -1;
+            }
+            try {
+                return ((Long) ALLOCATED_BYTES.invoke(THREAD_BEAN, Long.valueOf(Thread.currentThread().getId()))).longValue();
+            } catch (Exception e) {
+                return -1;
+            }
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+
+import org.jboss.as.controller.BasicOperationResult;
+import org.jboss.as.controller.ModelQueryOperationHandler;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationHandler;
+import org.jboss.as.controller.OperationResult;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.ResultHandler;
+import org.jboss.as.controller.RuntimeTask;
+import org.jboss.as.controller.RuntimeTaskContext;
+import org.jboss.as.controller.operations.common.Util;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceController;
+
+/**
+ * Reads the {@link DeploymentTimings} of a deployment and its sub deployments.
+ */
+public final class DeploymentTimingsHandler implements ModelQueryOperationHandler {
+
+    public static final String ATTRIBUTE_NAME = "processor-timings";
+    public static final OperationHandler INSTANCE = new DeploymentTimingsHandler();
+
+    static final String DEPLOYMENT_UNIT = "deployment-unit";
+    static final String PHASE = "phase";
+    static final String PROCESSOR = "processor";
+    static final String WALL_TIME = "wall-time";
+    static final String CPU_TIME = "cpu-time";
+    static final String ALLOCATED_BYTES = "allocated-bytes";
+
+    private static final ModelNode NO_METRICS = new ModelNode().set("no metrics available");
+
+    private DeploymentTimingsHandler() {
+        //
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public OperationResult execute(final OperationContext context, final ModelNode operation, final ResultHandler resultHandler) throws OperationFailedException {
+        final String deploymentName = PathAddress.pathAddress(operation.get(OP_ADDR)).getLastElement().getValue();
+        if (context.getRuntimeContext() != null && DeploymentTimings.isEnabled()) {
+            context.getRuntimeContext().setRuntimeTask(new RuntimeTask() {
+                @Override
+                public void execute(final RuntimeTaskContext context) throws OperationFailedException {
+                    final ServiceController<?> controller = context.getServiceRegistry().getService(Services.deploymentUnitName(deploymentName));
+                    final DeploymentUnit deploymentUnit = controller == null ? null : (DeploymentUnit) controller.getValue();
+                    if (deploymentUnit != null) {
+                        resultHandler.handleResultFragment(Util.NO_LOCATION, toModelNode(deploymentUnit));
+                    } else {
+                        resultHandler.handleResultFragment(Util.NO_LOCATION, NO_METRICS);
+                    }
+                    resultHandler.handleResultComplete();
+                }
+            });
+        } else {
+            resultHandler.handleResultFragment(Util.NO_LOCATION, NO_METRICS);
+            resultHandler.handleResultComplete();
+        }
+        return new BasicOperationResult();
+    }
+
+    static ModelNode toModelNode(final DeploymentUnit deploymentUnit) {
+        final ModelNode result = new ModelNode();
+        result.setEmptyList();
+        for (DeploymentTimings.Entry entry : DeploymentTimings.getTimings(deploymentUnit)) {
+            final ModelNode node = result.add();
+            node.get(DEPLOYMENT_UNIT).set(entry.getDeploymentUnit());
+            node.get(PHASE).set(entry.getPhase().name());
+            node.get(PROCESSOR).set(entry.getProcessor());
+            node.get(WALL_TIME).set(entry.getWallTime());
+            node.get(CPU_TIME).set(entry.getCpuTime());
+            node.get(ALLOCATED_BYTES).set(entry.getAllocatedBytes());
+        }
+        return result;
+    }
+}
@@ -55,6 +55,9 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
 
     private static final Logger log = Logger.getLogger("org.jboss.as.server.deployment");
 
+    /** The number of processors listed in the timing report logged once a deployment is processed */
+    private static final int REPORTED_PROCESSORS = 10;
+
     private DeploymentUnitPhaseService(final DeploymentUnit deploymentUnit, final Phase phase, final AttachmentKey<T> valueKey) {
         this.deploymentUnit = deploymentUnit;
         this.phase = phase;
@@ -78,6 +81,10 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
         final ServiceContainer container = context.getController().getServiceContainer();
         final ServiceTarget serviceTarget = context.getChildTarget().subTarget();
         final DeploymentPhaseContext processorContext = new DeploymentPhaseContextImpl(serviceTarget, new DelegatingServiceRegistry(container), deploymentUnit, phase);
+        final DeploymentTimings timings = deploymentUnit.getAttachment(Attachments.DEPLOYMENT_TIMINGS);
+        if (timings != null) {
+            timings.clear(phase);
+        }
 
         // attach any injected values from the last phase
         for (AttachedDependency attachedDependency : injectedAttachedDepenendencies) {
@@ -99,7 +106,11 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
         while (iterator.hasNext()) {
             final DeploymentUnitProcessor processor = iterator.next();
             try {
-                processor.deploy(processorContext);
+                if (timings == null) {
+                    processor.deploy(processorContext);
+                } else {
+                    timings.deploy(phase, processor, processorContext);
+                }
             } catch (Throwable e) {
                 while (iterator.hasPrevious()) {
                     final DeploymentUnitProcessor prev = iterator.previous();
@@ -143,6 +154,8 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
             }
 
             phaseServiceBuilder.install();
+        } else if (timings != null && deploymentUnit.getParent() == null) {
+            log.info(DeploymentTimings.createReport(deploymentUnit.getName(), DeploymentTimings.getTimings(deploymentUnit), REPORTED_PROCESSORS));
         }
     }
 
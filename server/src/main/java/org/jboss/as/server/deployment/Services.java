@@ -51,6 +51,10 @@ public final class Services {
      * The service name of the deployment extension index service.
      */
     public static final ServiceName JBOSS_DEPLOYMENT_EXTENSION_INDEX = JBOSS_DEPLOYMENT.append("extension-index");
+    /**
+     * The service name of the executor used to build annotation indexes.
+     */
+    public static final ServiceName JBOSS_DEPLOYMENT_ANNOTATION_INDEX_EXECUTOR = JBOSS_DEPLOYMENT.append("annotation-index-executor");
 
     /**
      * Get the service name of a top-level deployment unit.
@@ -0,0 +1,190 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.annotation;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+
+import org.jboss.jandex.Index;
+import org.jboss.jandex.IndexReader;
+import org.jboss.jandex.IndexWriter;
+import org.jboss.logging.Logger;
+import org.jboss.vfs.VFSUtils;
+
+/**
+ * An on-disk cache of annotation indexes, keyed by the content they were built from.  Entries are only ever added
+ * for immutable content (resource roots of deployments stored in the deployment repository), so a cached index
+ * never has to be invalidated; the least recently used entries are dropped once the cache grows beyond a fixed
+ * number of entries.
+ */
+final class AnnotationIndexCache {
+
+    private static final Logger log = Logger.getLogger("org.jboss.as.server.deployment");
+
+    private static final String SUFFIX = ".idx";
+    private static final int MAX_ENTRIES = 2048;
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final File cacheDir;
+
+    AnnotationIndexCache(final File cacheDir) {
+        this.cacheDir = cacheDir;
+    }
+
+    /**
+     * Compute the cache key of a resource root.
+     *
+     * @param deploymentHash the repository hash of the top level deployment
+     * @param path the path of the resource root relative to the top level deployment root
+     * @param ignorePaths the paths excluded from the index, or {@code null}
+     * @return the key
+     */
+    static String createKey(final byte[] deploymentHash, final String path, final Collection<String> ignorePaths) {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        digest.update(deploymentHash);
+        update(digest, path);
+        if (ignorePaths != null) {
+            final String[] sorted = ignorePaths.toArray(new String[ignorePaths.size()]);
+            Arrays.sort(sorted);
+            for (String ignorePath : sorted) {
+                update(digest, ignorePath);
+            }
+        }
+        final byte[] bytes = digest.digest();
+        final char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i * 2] = HEX[(bytes[i] >> 4) & 0xf];
+            chars[i * 2 + 1] = HEX[bytes[i] & 0xf];
+        }
+        return new String(chars);
+    }
+
+    private static void update(final MessageDigest digest, final String value) {
+        final int length = value.length();
+        for (int i = 0; i < length; i++) {
+            final char c = value.charAt(i);
+            digest.update((byte) (c >> 8));
+            digest.update((byte) c);
+        }
+        // separator
+        digest.update((byte) 0);
+        digest.update((byte) 0);
+    }
+
+    /**
+     * Get a cached index.
+     *
+     * @param key the key
+     * @return the index, or {@code null} if there is no usable entry
+     */
+    Index get(final String key) {
+        final File file = new File(cacheDir, key + SUFFIX);
+        if (! file.isFile()) {
+            return null;
+        }
+        InputStream in = null;
+        try {
+            in = new BufferedInputStream(new FileInputStream(file));
+            final Index index = new IndexReader(in).read();
+            file.setLastModified(System.currentTimeMillis());
+            return index;
+        } catch (Exception e) {
+            // corrupt, or written by an incompatible jandex version
+            log.debugf(e, "Discarding cached annotation index %s", file);
+            VFSUtils.safeClose(in);
+            in = null;
+            file.delete();
+            return null;
+        } finally {
+            VFSUtils.safeClose(in);
+        }
+    }
+
+    /**
+     * Store an index.  Failures are logged and otherwise ignored.
+     *
+     * @param key the key
+     * @param index the index
+     */
+    void put(final String key, final Index index) {
+        if (! cacheDir.isDirectory() && ! cacheDir.mkdirs()) {
+            log.debugf("Cannot create annotation index cache directory %s", cacheDir);
+            return;
+        }
+        final File file = new File(cacheDir, key + SUFFIX);
+        final File tempFile = new File(cacheDir, key + SUFFIX + "." + Thread.currentThread().getId() + ".tmp");
+        OutputStream out = null;
+        try {
+            out = new BufferedOutputStream(new FileOutputStream(tempFile));
+            new IndexWriter(out).write(index);
+            out.close();
+            out = null;
+            if (! tempFile.renameTo(file)) {
+                file.delete();
+                if (! tempFile.renameTo(file)) {
+                    throw new IOException("Failed to rename " + tempFile + " to " + file);
+                }
+            }
+        } catch (IOException e) {
+            log.debugf(e, "Failed to cache annotation index %s", file);
+            VFSUtils.safeClose(out);
+            tempFile.delete();
+            return;
+        }
+        evict();
+    }
+
+    private void evict() {
+        final File[] files = cacheDir.listFiles();
+        if (files == null || files.length <= MAX_ENTRIES) {
+            return;
+        }
+        Arrays.sort(files, new Comparator<File>() {
+            public int compare(final File o1, final File o2) {
+                final long m1 = o1.lastModified();
+                final long m2 = o2.lastModified();
+                return m1 < m2 ? -1 : m1 == m2 ? 0 : 1;
+            }
+        });
+        for (int i = 0; i < files.length - MAX_ENTRIES; i++) {
+            files[i].delete();
+        }
+    }
+}
@@ -22,12 +22,17 @@
 
 package org.jboss.as.server.deployment.annotation;
 
+import java.io.File;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
-
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
 import org.jboss.as.server.deployment.Attachments;
 import org.jboss.as.server.deployment.DeploymentPhaseContext;
 import org.jboss.as.server.deployment.DeploymentUnit;
@@ -36,6 +41,8 @@ import org.jboss.as.server.deployment.DeploymentUnitProcessor;
 import org.jboss.as.server.deployment.module.ResourceRoot;
 import org.jboss.jandex.Index;
 import org.jboss.jandex.Indexer;
+import org.jboss.logging.Logger;
+import org.jboss.msc.value.Value;
 import org.jboss.vfs.VFSUtils;
 import org.jboss.vfs.VirtualFile;
 import org.jboss.vfs.VirtualFileFilter;
@@ -44,12 +51,41 @@ import org.jboss.vfs.util.SuffixMatchFilter;
 
 /**
  * Deployment unit processor responsible for creating and attaching an annotation index for a resource root
+ * <p>
+ * Resource roots are indexed in parallel on the {@link AnnotationIndexExecutorService executor}, if one is given.  If
+ * a cache directory is given, the indexes of resource roots of deployments stored in the deployment repository are
+ * also kept on disk, keyed by the deployment content hash, so that unchanged content does not have to be scanned again
+ * on the next boot or redeploy.
  *
  * @author John E. Bailey
  * @author Stuart Douglas
  */
 public class AnnotationIndexProcessor implements DeploymentUnitProcessor {
 
+    private static final Logger log = Logger.getLogger("org.jboss.as.server.deployment");
+
+    private final AnnotationIndexCache cache;
+    private final Value<ExecutorService> executor;
+
+    /**
+     * Construct a new instance which does not cache indexes and indexes resource roots one at a time.
+     */
+    public AnnotationIndexProcessor() {
+        this(null, null);
+    }
+
+    /**
+     * Construct a new instance.
+     *
+     * @param cacheDir the directory holding cached indexes, or {@code null} to disable caching
+     * @param executor the executor used to index resource roots in parallel, or {@code null} to index them one at a
+     *      time
+     */
+    public AnnotationIndexProcessor(final File cacheDir, final Value<ExecutorService> executor) {
+        cache = cacheDir == null ? null : new AnnotationIndexCache(cacheDir);
+        this.executor = executor;
+    }
+
     /**
      * Process this deployment for annotations.  This will use an annotation indexer to create an index of all annotations
      * found in this deployment and attach it to the deployment unit context.
@@ -59,12 +95,24 @@ public class AnnotationIndexProcessor implements DeploymentUnitProcessor {
      *
      */
     public void deploy(DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
+        final DeploymentUnit deploymentUnit = phaseContext.getDeploymentUnit();
         final List<ResourceRoot> allResourceRoots = new ArrayList<ResourceRoot>();
-        final List<ResourceRoot> resourceRoots = phaseContext.getDeploymentUnit().getAttachment(Attachments.RESOURCE_ROOTS);
+        final List<ResourceRoot> resourceRoots = deploymentUnit.getAttachment(Attachments.RESOURCE_ROOTS);
         if (resourceRoots != null) {
             allResourceRoots.addAll(resourceRoots);
         }
-        allResourceRoots.add(phaseContext.getDeploymentUnit().getAttachment(Attachments.DEPLOYMENT_ROOT));
+        allResourceRoots.add(deploymentUnit.getAttachment(Attachments.DEPLOYMENT_ROOT));
+
+        // the content hash and root of the top level deployment, used to key the cache
+        DeploymentUnit topLevel = deploymentUnit;
+        while (topLevel.getParent() != null) {
+            topLevel = topLevel.getParent();
+        }
+        final byte[] deploymentHash = cache == null ? null : topLevel.getAttachment(Attachments.DEPLOYMENT_HASH);
+        final ResourceRoot topLevelRoot = topLevel.getAttachment(Attachments.DEPLOYMENT_ROOT);
+
+        final List<ResourceRoot> toIndex = new ArrayList<ResourceRoot>();
+        final List<Callable<Index>> tasks = new ArrayList<Callable<Index>>();
         for (ResourceRoot resourceRoot : allResourceRoots) {
             if (resourceRoot.getAttachment(Attachments.ANNOTATION_INDEX) != null) {
                 continue;
@@ -83,35 +131,119 @@ public class AnnotationIndexProcessor implements DeploymentUnitProcessor {
                 indexIgnorePaths = null;
             }
 
-            final VirtualFile virtualFile = resourceRoot.getRoot();
-            final Indexer indexer = new Indexer();
-            try {
-                final VisitorAttributes visitorAttributes = new VisitorAttributes();
-                visitorAttributes.setLeavesOnly(true);
-                visitorAttributes.setRecurseFilter(new VirtualFileFilter() {
-                    public boolean accepts(VirtualFile file) {
-                        return indexIgnorePaths == null || !indexIgnorePaths.contains(file.getPathNameRelativeTo(virtualFile));
-                    }
-                });
-
-                final List<VirtualFile> classChildren = virtualFile.getChildren(new SuffixMatchFilter(".class", visitorAttributes));
-                for (VirtualFile classFile : classChildren) {
-                    InputStream inputStream = null;
-                    try {
-                        inputStream = classFile.openStream();
-                        indexer.index(inputStream);
-                    } finally {
-                        VFSUtils.safeClose(inputStream);
-                    }
+            final String cacheKey;
+            if (deploymentHash != null && topLevelRoot != null) {
+                final String path = relativePath(resourceRoot.getRoot(), topLevelRoot.getRoot());
+                cacheKey = path == null ? null : AnnotationIndexCache.createKey(deploymentHash, path, indexIgnorePaths);
+            } else {
+                cacheKey = null;
+            }
+            toIndex.add(resourceRoot);
+            tasks.add(new IndexTask(resourceRoot.getRoot(), indexIgnorePaths, cacheKey));
+        }
+
+        final ExecutorService executor = tasks.size() > 1 ? getExecutor() : null;
+        if (executor == null) {
+            for (int i = 0; i < tasks.size(); i++) {
+                try {
+                    toIndex.get(i).putAttachment(Attachments.ANNOTATION_INDEX, tasks.get(i).call());
+                } catch (Throwable t) {
+                    throw new DeploymentUnitProcessingException("Failed to index deployment root for annotations", t);
                 }
-                final Index index = indexer.complete();
-                resourceRoot.putAttachment(Attachments.ANNOTATION_INDEX, index);
-            } catch (Throwable t) {
-                throw new DeploymentUnitProcessingException("Failed to index deployment root for annotations", t);
+            }
+            return;
+        }
+        final List<Future<Index>> futures = new ArrayList<Future<Index>>(tasks.size());
+        try {
+            for (Callable<Index> task : tasks) {
+                futures.add(executor.submit(task));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                toIndex.get(i).putAttachment(Attachments.ANNOTATION_INDEX, futures.get(i).get());
+            }
+        } catch (ExecutionException e) {
+            throw new DeploymentUnitProcessingException("Failed to index deployment root for annotations", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DeploymentUnitProcessingException("Interrupted while indexing deployment root for annotations", e);
+        } finally {
+            for (Future<Index> future : futures) {
+                future.cancel(true);
             }
         }
     }
 
     public void undeploy(final DeploymentUnit context) {
     }
+
+    private ExecutorService getExecutor() {
+        if (executor == null) {
+            return null;
+        }
+        try {
+            return executor.getValue();
+        } catch (IllegalStateException e) {
+            // the executor service is not up
+            return null;
+        }
+    }
+
+    private static String relativePath(final VirtualFile file, final VirtualFile root) {
+        if (file.equals(root)) {
+            return "";
+        }
+        try {
+            return file.getPathNameRelativeTo(root);
+        } catch (IllegalArgumentException e) {
+            // not part of the deployment content
+            return null;
+        }
+    }
+
+    private final class IndexTask implements Callable<Index> {
+
+        private final VirtualFile virtualFile;
+        private final Set<String> indexIgnorePaths;
+        private final String cacheKey;
+
+        IndexTask(final VirtualFile virtualFile, final Set<String> indexIgnorePaths, final String cacheKey) {
+            this.virtualFile = virtualFile;
+            this.indexIgnorePaths = indexIgnorePaths;
+            this.cacheKey = cacheKey;
+        }
+
+        public Index call() throws Exception {
+            if (cacheKey != null) {
+                final Index index = cache.get(cacheKey);
+                if (index != null) {
+                    log.tracef("Using cached annotation index for %s", virtualFile);
+                    return index;
+                }
+            }
+            final Indexer indexer = new Indexer();
+            final VisitorAttributes visitorAttributes = new VisitorAttributes();
+            visitorAttributes.setLeavesOnly(true);
+            visitorAttributes.setRecurseFilter(new VirtualFileFilter() {
+                public boolean accepts(VirtualFile file) {
+                    return indexIgnorePaths == null || !indexIgnorePaths.contains(file.getPathNameRelativeTo(virtualFile));
+                }
+            });
+
+            final List<VirtualFile> classChildren = virtualFile.getChildren(new SuffixMatchFilter(".class", visitorAttributes));
+            for (VirtualFile classFile : classChildren) {
+                InputStream inputStream = null;
+                try {
+                    inputStream = classFile.openStream();
+                    indexer.index(inputStream);
+                } finally {
+                    VFSUtils.safeClose(inputStream);
+                }
+            }
+            final Index index = indexer.complete();
+            if (cacheKey != null) {
+                cache.put(cacheKey, index);
+            }
+            return index;
+        }
+    }
 }
@@ -58,6 +58,24 @@ public class ModuleSpecProcessor implements DeploymentUnitProcessor {
 
     private static final AttachmentKey<Boolean> MARKER = AttachmentKey.create(Boolean.class);
 
+    private final boolean indexResourceRoots;
+
+    /**
+     * Construct a new instance which does not index resource roots.
+     */
+    public ModuleSpecProcessor() {
+        this(false);
+    }
+
+    /**
+     * Construct a new instance.
+     *
+     * @param indexResourceRoots {@code true} to index each resource root when its loader is created
+     */
+    public ModuleSpecProcessor(final boolean indexResourceRoots) {
+        this.indexResourceRoots = indexResourceRoots;
+    }
+
     public void deploy(DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
         final DeploymentUnit deploymentUnit = phaseContext.getDeploymentUnit();
 
@@ -189,11 +207,11 @@ public class ModuleSpecProcessor implements DeploymentUnitProcessor {
         return ModuleLoadService.install(phaseContext.getServiceTarget(), moduleIdentifier, dependencies);
     }
 
-    private static void addResourceRoot(final ModuleSpec.Builder specBuilder, final ResourceRoot resource)
+    private void addResourceRoot(final ModuleSpec.Builder specBuilder, final ResourceRoot resource)
             throws DeploymentUnitProcessingException {
         try {
             specBuilder.addResourceRoot(ResourceLoaderSpec.createResourceLoaderSpec(new VFSResourceLoader(resource
-                    .getRootName(), resource.getRoot())));
+                    .getRootName(), resource.getRoot(), indexResourceRoots)));
         } catch (IOException e) {
             throw new DeploymentUnitProcessingException("Failed to create VFSResourceLoader for root ["
                     + resource.getRootName() + "]", e);
@@ -45,12 +45,19 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.jar.Attributes;
 import java.util.jar.Manifest;
 
 /**
  * Resource loader capable of loading resources from VFS archives.
+ * <p>
+ * An indexed loader records the paths of all entries under the root when it is created, so lookups of classes and
+ * resources which are not in the root (the common case when searching many roots) are answered without probing
+ * VFS. The index is not updated afterwards, so entries added to the root later are not visible.
  *
  * @author John Bailey
  */
@@ -60,6 +67,10 @@ public class VFSResourceLoader implements ResourceLoader {
     private final String rootName;
     private final Manifest manifest;
     private final URL rootUrl;
+    /** The relative paths of all files and directories under the root, or {@code null} if not indexed */
+    private final Set<String> entries;
+    /** The relative paths of all directories under the root, including the root itself, or {@code null} if not indexed */
+    private final List<String> directories;
 
     /**
      * Construct new instance.
@@ -69,14 +80,73 @@ public class VFSResourceLoader implements ResourceLoader {
      * @throws IOException if the manifest could not be read or the root URL is invalid
      */
     public VFSResourceLoader(final String rootName, final VirtualFile root) throws IOException {
+        this(rootName, root, false);
+    }
+
+    /**
+     * Construct new instance.
+     *
+     * @param rootName The module root name
+     * @param root The root virtual file
+     * @param indexed {@code true} to index the entries under the root
+     * @throws IOException if the manifest could not be read, the root URL is invalid or the root could not be indexed
+     */
+    public VFSResourceLoader(final String rootName, final VirtualFile root, final boolean indexed) throws IOException {
         this.root = root;
         this.rootName = rootName;
         manifest = VFSUtils.getManifest(root);
         rootUrl = root.asFileURL();
+        if (indexed) {
+            final Set<String> entries = new HashSet<String>();
+            final List<String> directories = new ArrayList<String>();
+            directories.add("");
+            for (VirtualFile file : root.getChildrenRecursively()) {
+                final String path = file.getPathNameRelativeTo(root);
+                entries.add(path);
+                if (file.isDirectory()) {
+                    directories.add(path);
+                }
+            }
+            this.entries = Collections.unmodifiableSet(entries);
+            this.directories = Collections.unmodifiableList(directories);
+        } else {
+            this.entries = null;
+            this.directories = null;
+        }
+    }
+
+    /**
+     * Determine whether the index shows that there is no entry with the given name. Names which are not in
+     * canonical form are left to VFS.
+     */
+    private boolean isIndexedMiss(final String name) {
+        return entries != null && isCanonical(name) && !entries.contains(name);
+    }
+
+    private static boolean isCanonical(final String name) {
+        if (name.length() == 0 || name.charAt(0) == '/' || name.charAt(name.length() - 1) == '/' || name.indexOf('\\') != -1) {
+            return false;
+        }
+        int start = 0;
+        while (start <= name.length()) {
+            int end = name.indexOf('/', start);
+            if (end == -1) {
+                end = name.length();
+            }
+            final int length = end - start;
+            if (length == 0 || (length == 1 && name.charAt(start) == '.') || (length == 2 && name.startsWith("..", start))) {
+                return false;
+            }
+            start = end + 1;
+        }
+        return true;
     }
 
     /** {@inheritDoc} */
     public ClassSpec getClassSpec(final String name) throws IOException {
+        if (isIndexedMiss(name)) {
+            return null;
+        }
         final VirtualFile file = root.getChild(name);
         if (!file.exists()) {
             return null;
@@ -148,6 +218,9 @@ public class VFSResourceLoader implements ResourceLoader {
 
     /** {@inheritDoc} */
     public Resource getResource(final String name) {
+        if (isIndexedMiss(name)) {
+            return null;
+        }
         try {
             final VirtualFile file = root.getChild(name);
             if (!file.exists()) {
@@ -183,6 +256,10 @@ public class VFSResourceLoader implements ResourceLoader {
             }
         }
 
+        if (directories != null) {
+            return new ArrayList<String>(directories);
+        }
+
         FilterVirtualFileVisitor visitor = new FilterVirtualFileVisitor(new VirtualFileFilter() {
             @Override
             public boolean accepts(VirtualFile file) {
@@ -29,29 +29,46 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
- * A short-lived index of all the declared fields and methods of a class.
+ * An index of all the declared fields and methods of a class.  Instances are immutable once constructed.
  *
- * The ClassReflectionIndex is only available during the deployment.
+ * Methods are kept in a flat array sorted by name, so a lookup is a binary search on the name followed by a scan
+ * of the (usually very few) overloads.
  *
  * @param <T> the type being indexed
  * @author <a href="mailto:david.lloyd@redhat.com">David M. Lloyd</a>
  */
 public final class ClassReflectionIndex<T> {
+    private static final Class<?>[] NO_TYPES = new Class<?>[0];
+
+    private static final Comparator<Method> METHOD_NAME_COMPARATOR = new Comparator<Method>() {
+        public int compare(final Method o1, final Method o2) {
+            return o1.getName().compareTo(o2.getName());
+        }
+    };
+
     private final Class<T> indexedClass;
     private final Map<String, Field> fields;
-    private final Map<ParamList, Constructor<T>> constructors;
-    private final Map<String, Map<ParamList, Map<Class<?>, Method>>> methods;
+    private final Constructor<T>[] constructors;
+    private final Class<?>[][] constructorParameterTypes;
+    /** Distinct method names, sorted. */
+    private final String[] methodNames;
+    /** Start offset into {@link #methods} of the methods of each name, plus a final end offset. */
+    private final int[] methodOffsets;
+    private final Method[] methods;
+    private final Class<?>[][] methodParameterTypes;
 
     @SuppressWarnings( { "unchecked" })
     ClassReflectionIndex(final Class<T> indexedClass) {
         this.indexedClass = indexedClass;
         // -- fields --
         final Field[] declaredFields = indexedClass.getDeclaredFields();
-        final Map<String, Field> fields = new HashMap<String, Field>();
+        final Map<String, Field> fields = new HashMap<String, Field>(declaredFields.length * 2);
         for (Field field : declaredFields) {
             field.setAccessible(true);
             fields.put(field.getName(), field);
@@ -59,45 +76,51 @@ public final class ClassReflectionIndex<T> {
         this.fields = fields;
         // -- methods --
         final Method[] declaredMethods = indexedClass.getDeclaredMethods();
-        final Map<String, Map<ParamList, Map<Class<?>, Method>>> methods = new HashMap<String, Map<ParamList, Map<Class<?>, Method>>>();
+        final Map<MethodKey, Method> methodMap = new HashMap<MethodKey, Method>();
         for (Method method : declaredMethods) {
             method.setAccessible(true);
-            addMethod(methods, method);
+            methodMap.put(new MethodKey(method), method);
         }
         // add all public methods as well
         for (Method method : indexedClass.getMethods()) {
-            addMethod(methods, method);
+            methodMap.put(new MethodKey(method), method);
+        }
+        final Method[] methods = methodMap.values().toArray(new Method[methodMap.size()]);
+        Arrays.sort(methods, METHOD_NAME_COMPARATOR);
+        final Class<?>[][] methodParameterTypes = new Class<?>[methods.length][];
+        final List<String> names = new ArrayList<String>();
+        final int[] offsets = new int[methods.length + 1];
+        int nameCount = 0;
+        for (int i = 0; i < methods.length; i++) {
+            methodParameterTypes[i] = parameterTypes(methods[i].getParameterTypes());
+            final String name = methods[i].getName();
+            if (nameCount == 0 || ! names.get(nameCount - 1).equals(name)) {
+                names.add(name);
+                offsets[nameCount++] = i;
+            }
         }
+        offsets[nameCount] = methods.length;
         this.methods = methods;
+        this.methodParameterTypes = methodParameterTypes;
+        methodNames = names.toArray(new String[nameCount]);
+        methodOffsets = Arrays.copyOf(offsets, nameCount + 1);
         // -- constructors --
         final Constructor<T>[] declaredConstructors = (Constructor<T>[]) indexedClass.getDeclaredConstructors();
-        final Map<ParamList, Constructor<T>> constructors = new HashMap<ParamList, Constructor<T>>();
-        for (Constructor<T> constructor : declaredConstructors) {
-            constructor.setAccessible(true);
-            constructors.put(createParamList(constructor.getParameterTypes()), constructor);
+        final Class<?>[][] constructorParameterTypes = new Class<?>[declaredConstructors.length][];
+        for (int i = 0; i < declaredConstructors.length; i++) {
+            declaredConstructors[i].setAccessible(true);
+            constructorParameterTypes[i] = parameterTypes(declaredConstructors[i].getParameterTypes());
         }
-        this.constructors = constructors;
+        constructors = declaredConstructors;
+        this.constructorParameterTypes = constructorParameterTypes;
     }
 
-    private static final ParamList EMPTY = new ParamList(new Class<?>[0]);
-
-    private static void addMethod(Map<String, Map<ParamList, Map<Class<?>, Method>>> methods, Method method) {
-        final String name = method.getName();
-        Map<ParamList, Map<Class<?>, Method>> nameMap = methods.get(name);
-        if (nameMap == null) {
-            methods.put(name, nameMap = new HashMap<ParamList, Map<Class<?>, Method>>());
-        }
-        final Class<?>[] types = method.getParameterTypes();
-        final ParamList list = createParamList(types);
-        Map<Class<?>, Method> paramsMap = nameMap.get(list);
-        if (paramsMap == null) {
-            nameMap.put(list, paramsMap = new HashMap<Class<?>, Method>());
-        }
-        paramsMap.put(method.getReturnType(), method);
+    private static Class<?>[] parameterTypes(final Class<?>[] types) {
+        return types == null || types.length == 0 ? NO_TYPES : types;
     }
 
-    private static ParamList createParamList(final Class<?>[] types) {
-        return types == null || types.length == 0 ? EMPTY : new ParamList(types);
+    private int firstMethod(final String name) {
+        return Arrays.binarySearch(methodNames, name);
     }
 
     /**
@@ -137,15 +160,17 @@ public final class ClassReflectionIndex<T> {
      * @return the method, or {@code null} if no method of that description exists
      */
     public Method getMethod(Class<?> returnType, String name, Class<?>... paramTypes) {
-        final Map<ParamList, Map<Class<?>, Method>> nameMap = methods.get(name);
-        if (nameMap == null) {
+        final int idx = firstMethod(name);
+        if (idx < 0) {
             return null;
         }
-        final Map<Class<?>, Method> paramsMap = nameMap.get(createParamList(paramTypes));
-        if (paramsMap == null) {
-            return null;
+        final Class<?>[] types = parameterTypes(paramTypes);
+        for (int i = methodOffsets[idx]; i < methodOffsets[idx + 1]; i++) {
+            if (methods[i].getReturnType() == returnType && Arrays.equals(methodParameterTypes[i], types)) {
+                return methods[i];
+            }
         }
-        return paramsMap.get(returnType);
+        return null;
     }
 
     /**
@@ -156,15 +181,21 @@ public final class ClassReflectionIndex<T> {
      * @return the (possibly empty) collection of methods matching the description
      */
     public Collection<Method> getMethods(String name, Class<?>... paramTypes) {
-        final Map<ParamList, Map<Class<?>, Method>> nameMap = methods.get(name);
-        if (nameMap == null) {
+        final int idx = firstMethod(name);
+        if (idx < 0) {
             return Collections.emptySet();
         }
-        final Map<Class<?>, Method> paramsMap = nameMap.get(createParamList(paramTypes));
-        if (paramsMap == null) {
-            return Collections.emptySet();
+        final Class<?>[] types = parameterTypes(paramTypes);
+        List<Method> found = null;
+        for (int i = methodOffsets[idx]; i < methodOffsets[idx + 1]; i++) {
+            if (Arrays.equals(methodParameterTypes[i], types)) {
+                if (found == null) {
+                    found = new ArrayList<Method>(1);
+                }
+                found.add(methods[i]);
+            }
         }
-        return Collections.unmodifiableCollection(paramsMap.values());
+        return found == null ? Collections.<Method>emptySet() : Collections.unmodifiableCollection(found);
     }
 
     /**
@@ -174,15 +205,11 @@ public final class ClassReflectionIndex<T> {
      * @return the (possibly empty) collection of methods with the given name
      */
     public Collection<Method> getAllMethods(String name) {
-        final Map<ParamList, Map<Class<?>, Method>> nameMap = methods.get(name);
-        if (nameMap == null) {
+        final int idx = firstMethod(name);
+        if (idx < 0) {
             return Collections.emptySet();
         }
-        final Collection<Method> methods = new ArrayList<Method>();
-        for (Map<Class<?>, Method> map : nameMap.values()) {
-            methods.addAll(map.values());
-        }
-        return methods;
+        return new ArrayList<Method>(Arrays.asList(methods).subList(methodOffsets[idx], methodOffsets[idx + 1]));
     }
 
     /**
@@ -191,14 +218,7 @@ public final class ClassReflectionIndex<T> {
      * @return the (possibly empty) collection of all declared methods
      */
     public Collection<Method> getMethods() {
-        final Collection<Method> methods = new ArrayList<Method>();
-        for (Map.Entry<String, Map<ParamList, Map<Class<?>, Method>>> entry : this.methods.entrySet()) {
-            final Map<ParamList, Map<Class<?>, Method>> nameMap = entry.getValue();
-            for (Map<Class<?>, Method> map : nameMap.values()) {
-                methods.addAll(map.values());
-            }
-        }
-        return methods;
+        return new ArrayList<Method>(Arrays.asList(methods));
     }
 
     /**
@@ -207,7 +227,7 @@ public final class ClassReflectionIndex<T> {
      * @return the constructors
      */
     public Collection<Constructor<T>> getConstructors() {
-        return Collections.unmodifiableCollection(constructors.values());
+        return Collections.unmodifiableCollection(Arrays.asList(constructors));
     }
 
     /**
@@ -217,28 +237,34 @@ public final class ClassReflectionIndex<T> {
      * @return the constructor, or {@code null} of no such constructor exists
      */
     public Constructor<T> getConstructor(Class<?>... paramTypes) {
-        return constructors.get(createParamList(paramTypes));
+        final Class<?>[] types = parameterTypes(paramTypes);
+        for (int i = 0; i < constructors.length; i++) {
+            if (Arrays.equals(constructorParameterTypes[i], types)) {
+                return constructors[i];
+            }
+        }
+        return null;
     }
 
-    private static final class ParamList {
+    private static final class MethodKey {
+        private final String name;
+        private final Class<?> returnType;
         private final Class<?>[] types;
         private final int hashCode;
 
-        ParamList(final Class<?>[] types) {
-            this.types = types;
-            hashCode = Arrays.hashCode(types);
-        }
-
-        Class<?>[] getTypes() {
-            return types;
+        MethodKey(final Method method) {
+            name = method.getName();
+            returnType = method.getReturnType();
+            types = method.getParameterTypes();
+            hashCode = (name.hashCode() * 31 + returnType.hashCode()) * 31 + Arrays.hashCode(types);
         }
 
         public boolean equals(Object other) {
-            return other instanceof ParamList && equals((ParamList)other);
+            return other instanceof MethodKey && equals((MethodKey) other);
         }
 
-        public boolean equals(ParamList other) {
-            return this == other || other != null && Arrays.equals(types, other.types);
+        public boolean equals(MethodKey other) {
+            return this == other || other != null && name.equals(other.name) && returnType == other.returnType && Arrays.equals(types, other.types);
         }
 
         public int hashCode() {
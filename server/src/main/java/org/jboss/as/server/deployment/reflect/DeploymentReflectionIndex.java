@@ -23,16 +23,32 @@
 package org.jboss.as.server.deployment.reflect;
 
 import java.security.Permission;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+import org.jboss.as.server.moduleservice.ServiceModuleLoader;
+import org.jboss.modules.ModuleClassLoader;
 
 /**
- * A reflection index for a deployment.  Not safe for multi-threaded access.
+ * A reflection index for a deployment.  Safe for multi-threaded access; each class is indexed at most once.
+ * <p>
+ * Indexes of classes which do not belong to a deployment (JDK classes and classes of static modules) are kept in a
+ * single shared table, so deployments using the same libraries do not reflect on them again.
  *
  * @author <a href="mailto:david.lloyd@redhat.com">David M. Lloyd</a>
  */
 public final class DeploymentReflectionIndex {
-    private final Map<Class<?>, ClassReflectionIndex<?>> classes = new HashMap<Class<?>, ClassReflectionIndex<?>>();
+
+    /**
+     * Indexes of classes loaded by the JDK or by static modules.  Static modules live as long as the server, so
+     * these entries are never removed.
+     */
+    private static final ConcurrentMap<Class<?>, FutureTask<ClassReflectionIndex<?>>> sharedClasses = new ConcurrentHashMap<Class<?>, FutureTask<ClassReflectionIndex<?>>>();
+
+    private final ConcurrentMap<Class<?>, FutureTask<ClassReflectionIndex<?>>> classes = new ConcurrentHashMap<Class<?>, FutureTask<ClassReflectionIndex<?>>>();
 
     DeploymentReflectionIndex() {
     }
@@ -59,11 +75,48 @@ public final class DeploymentReflectionIndex {
      * @return the index
      */
     @SuppressWarnings( { "unchecked" })
-    public synchronized <T> ClassReflectionIndex<T> getClassIndex(Class<T> clazz) {
-        ClassReflectionIndex<T> index = (ClassReflectionIndex<T>) classes.get(clazz);
-        if (index == null) {
-            classes.put(clazz, index = new ClassReflectionIndex<T>(clazz));
+    public <T> ClassReflectionIndex<T> getClassIndex(final Class<T> clazz) {
+        final ConcurrentMap<Class<?>, FutureTask<ClassReflectionIndex<?>>> classes = isShareable(clazz) ? sharedClasses : this.classes;
+        FutureTask<ClassReflectionIndex<?>> future = classes.get(clazz);
+        if (future == null) {
+            final FutureTask<ClassReflectionIndex<?>> newFuture = new FutureTask<ClassReflectionIndex<?>>(new Callable<ClassReflectionIndex<?>>() {
+                public ClassReflectionIndex<?> call() {
+                    return new ClassReflectionIndex<T>(clazz);
+                }
+            });
+            future = classes.putIfAbsent(clazz, newFuture);
+            if (future == null) {
+                future = newFuture;
+                future.run();
+            }
+        }
+        try {
+            return (ClassReflectionIndex<T>) future.get();
+        } catch (ExecutionException e) {
+            // don't keep the failure around; a later call may succeed
+            classes.remove(clazz, future);
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while indexing " + clazz, e);
+        }
+    }
+
+    private static boolean isShareable(final Class<?> clazz) {
+        final ClassLoader classLoader = clazz.getClassLoader();
+        if (classLoader == null) {
+            return true;
+        }
+        if (classLoader instanceof ModuleClassLoader) {
+            final String moduleName = ((ModuleClassLoader) classLoader).getModule().getIdentifier().getName();
+            return ! moduleName.startsWith(ServiceModuleLoader.MODULE_PREFIX);
         }
-        return index;
+        return false;
     }
 }
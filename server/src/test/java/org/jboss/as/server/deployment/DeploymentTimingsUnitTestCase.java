@@ -0,0 +1,121 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link DeploymentTimings}.
+ */
+public class DeploymentTimingsUnitTestCase {
+
+    @Test
+    public void testRecord() throws Exception {
+        final DeploymentTimings timings = new DeploymentTimings("test.war");
+        timings.deploy(Phase.PARSE, new SleepingProcessor(20), null);
+        timings.deploy(Phase.INSTALL, new SleepingProcessor(0), null);
+
+        final List<DeploymentTimings.Entry> entries = timings.getEntries();
+        assertEquals(2, entries.size());
+        final DeploymentTimings.Entry parse = entries.get(0);
+        assertEquals("test.war", parse.getDeploymentUnit());
+        assertSame(Phase.PARSE, parse.getPhase());
+        assertEquals(SleepingProcessor.class.getName(), parse.getProcessor());
+        assertTrue(parse.getWallTime() >= 20000000L);
+        assertTrue(parse.getCpuTime() >= -1);
+        assertTrue(parse.getAllocatedBytes() >= -1);
+        assertSame(Phase.INSTALL, entries.get(1).getPhase());
+    }
+
+    @Test
+    public void testRecordFailure() throws Exception {
+        final DeploymentTimings timings = new DeploymentTimings("test.war");
+        try {
+            timings.deploy(Phase.PARSE, new FailingProcessor(), null);
+            fail("Processor did not fail");
+        } catch (DeploymentUnitProcessingException e) {
+            // expected
+        }
+        assertEquals(1, timings.getEntries().size());
+    }
+
+    @Test
+    public void testClearPhase() throws Exception {
+        final DeploymentTimings timings = new DeploymentTimings("test.war");
+        timings.deploy(Phase.PARSE, new SleepingProcessor(0), null);
+        timings.deploy(Phase.INSTALL, new SleepingProcessor(0), null);
+        timings.clear(Phase.PARSE);
+
+        final List<DeploymentTimings.Entry> entries = timings.getEntries();
+        assertEquals(1, entries.size());
+        assertSame(Phase.INSTALL, entries.get(0).getPhase());
+    }
+
+    @Test
+    public void testReport() throws Exception {
+        final DeploymentTimings.Entry fast = new DeploymentTimings.Entry("test.war", Phase.PARSE, "org.jboss.test.Fast", 1000000L, -1, -1);
+        final DeploymentTimings.Entry slow = new DeploymentTimings.Entry("test.war", Phase.INSTALL, "org.jboss.test.Slow", 30000000L, 20000000L, 4096);
+        final DeploymentTimings.Entry slowest = new DeploymentTimings.Entry("lib.jar", Phase.PARSE, "org.jboss.test.Slowest", 50000000L, 40000000L, 8192);
+        final String report = DeploymentTimings.createReport("test.ear", Arrays.asList(fast, slow, slowest), 2);
+
+        assertTrue(report, report.startsWith("Processed deployment \"test.ear\" in 81ms"));
+        assertTrue(report, report.indexOf("org.jboss.test.Slowest") < report.indexOf("org.jboss.test.Slow "));
+        assertTrue(report, report.indexOf("org.jboss.test.Fast") == -1);
+    }
+
+    private static class SleepingProcessor implements DeploymentUnitProcessor {
+        private final long millis;
+
+        SleepingProcessor(final long millis) {
+            this.millis = millis;
+        }
+
+        public void deploy(final DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        public void undeploy(final DeploymentUnit context) {
+        }
+    }
+
+    private static class FailingProcessor implements DeploymentUnitProcessor {
+        public void deploy(final DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
+            throw new DeploymentUnitProcessingException("failed");
+        }
+
+        public void undeploy(final DeploymentUnit context) {
+        }
+    }
+}
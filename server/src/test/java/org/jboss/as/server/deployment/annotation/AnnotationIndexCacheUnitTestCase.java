@@ -0,0 +1,123 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.annotation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.util.Arrays;
+
+import org.jboss.jandex.DotName;
+import org.jboss.jandex.Index;
+import org.jboss.jandex.Indexer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link AnnotationIndexCache}.
+ */
+public class AnnotationIndexCacheUnitTestCase {
+
+    private static final byte[] HASH = new byte[] { 1, 2, 3, 4 };
+
+    private File cacheDir;
+
+    @Before
+    public void createCacheDir() throws Exception {
+        cacheDir = File.createTempFile("annotation-index", "");
+        cacheDir.delete();
+    }
+
+    @After
+    public void deleteCacheDir() {
+        final File[] files = cacheDir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        cacheDir.delete();
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        final Indexer indexer = new Indexer();
+        index(indexer, AnnotationIndexCacheUnitTestCase.class);
+        index(indexer, AnnotationIndexCache.class);
+        final Index index = indexer.complete();
+
+        final AnnotationIndexCache cache = new AnnotationIndexCache(cacheDir);
+        final String key = AnnotationIndexCache.createKey(HASH, "lib/test.jar", null);
+        assertNull(cache.get(key));
+        cache.put(key, index);
+
+        final Index cached = cache.get(key);
+        assertNotNull(cached);
+        assertEquals(index.getKnownClasses().size(), cached.getKnownClasses().size());
+        assertNotNull(cached.getClassByName(DotName.createSimple(AnnotationIndexCache.class.getName())));
+        assertEquals(index.getAnnotations(DotName.createSimple(Test.class.getName())).size(),
+                cached.getAnnotations(DotName.createSimple(Test.class.getName())).size());
+    }
+
+    @Test
+    public void testKeys() {
+        final String key = AnnotationIndexCache.createKey(HASH, "lib/a.jar", null);
+        assertEquals(key, AnnotationIndexCache.createKey(HASH, "lib/a.jar", null));
+        assertFalse(key.equals(AnnotationIndexCache.createKey(HASH, "lib/b.jar", null)));
+        assertFalse(key.equals(AnnotationIndexCache.createKey(new byte[] { 4, 3, 2, 1 }, "lib/a.jar", null)));
+        assertFalse(key.equals(AnnotationIndexCache.createKey(HASH, "lib/a.jar", Arrays.asList("META-INF"))));
+        assertEquals(AnnotationIndexCache.createKey(HASH, "", Arrays.asList("a", "b")),
+                AnnotationIndexCache.createKey(HASH, "", Arrays.asList("b", "a")));
+    }
+
+    @Test
+    public void testCorruptEntryIsDiscarded() throws Exception {
+        final AnnotationIndexCache cache = new AnnotationIndexCache(cacheDir);
+        final String key = AnnotationIndexCache.createKey(HASH, "", null);
+        cacheDir.mkdirs();
+        final File file = new File(cacheDir, key + ".idx");
+        final FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(new byte[] { 0, 1, 2, 3, 4, 5, 6, 7 });
+        } finally {
+            out.close();
+        }
+        assertNull(cache.get(key));
+        assertFalse(file.exists());
+    }
+
+    private static void index(final Indexer indexer, final Class<?> clazz) throws Exception {
+        final InputStream in = clazz.getResourceAsStream(clazz.getSimpleName() + ".class");
+        try {
+            indexer.index(in);
+        } finally {
+            in.close();
+        }
+    }
+}
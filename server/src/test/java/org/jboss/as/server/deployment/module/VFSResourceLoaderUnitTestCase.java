@@ -0,0 +1,144 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.module;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.jboss.modules.ClassSpec;
+import org.jboss.vfs.VFS;
+import org.jboss.vfs.VirtualFile;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link VFSResourceLoader}, checking that an indexed loader answers like an unindexed one.
+ */
+public class VFSResourceLoaderUnitTestCase {
+
+    private static final byte[] CLASS_BYTES = new byte[] { (byte) 0xCA, (byte) 0xFE, (byte) 0xBA, (byte) 0xBE };
+
+    private File rootDir;
+    private VirtualFile root;
+
+    @Before
+    public void createRoot() throws Exception {
+        rootDir = File.createTempFile("vfs-resource-loader", "");
+        rootDir.delete();
+        write("org/jboss/test/Foo.class", CLASS_BYTES);
+        write("org/jboss/test/foo.properties", new byte[] { 'a', '=', 'b' });
+        write("META-INF/services/org.jboss.test.Service", new byte[0]);
+        root = VFS.getChild(rootDir.getAbsolutePath());
+    }
+
+    @After
+    public void deleteRoot() {
+        delete(rootDir);
+    }
+
+    @Test
+    public void testClassSpec() throws Exception {
+        for (VFSResourceLoader loader : loaders()) {
+            final ClassSpec spec = loader.getClassSpec("org/jboss/test/Foo.class");
+            assertNotNull(spec);
+            assertArrayEquals(CLASS_BYTES, spec.getBytes());
+            assertNull(loader.getClassSpec("org/jboss/test/Bar.class"));
+            assertNull(loader.getClassSpec("java/lang/Object.class"));
+        }
+    }
+
+    @Test
+    public void testResource() throws Exception {
+        for (VFSResourceLoader loader : loaders()) {
+            assertNotNull(loader.getResource("org/jboss/test/foo.properties"));
+            assertNotNull(loader.getResource("META-INF/services/org.jboss.test.Service"));
+            assertNotNull(loader.getResource("META-INF/services"));
+            assertNull(loader.getResource("META-INF/services/org.jboss.test.Other"));
+            assertNull(loader.getResource("missing.xml"));
+        }
+    }
+
+    @Test
+    public void testNonCanonicalNames() throws Exception {
+        for (VFSResourceLoader loader : loaders()) {
+            assertNotNull(loader.getResource("/org/jboss/test/foo.properties"));
+            assertNotNull(loader.getResource("org/jboss/../jboss/test/foo.properties"));
+            assertNotNull(loader.getResource("org//jboss/test/./foo.properties"));
+            assertNull(loader.getResource("/org/jboss/test/bar.properties"));
+        }
+    }
+
+    @Test
+    public void testPaths() throws Exception {
+        final List<String> expected = sorted(new VFSResourceLoader("test", root).getPaths());
+        assertEquals(expected, sorted(new VFSResourceLoader("test", root, true).getPaths()));
+        assertEquals(6, expected.size());
+    }
+
+    private List<VFSResourceLoader> loaders() throws IOException {
+        final List<VFSResourceLoader> loaders = new ArrayList<VFSResourceLoader>();
+        loaders.add(new VFSResourceLoader("test", root));
+        loaders.add(new VFSResourceLoader("test", root, true));
+        return loaders;
+    }
+
+    private static List<String> sorted(final Iterable<String> paths) {
+        final List<String> result = new ArrayList<String>();
+        for (String path : paths) {
+            result.add(path);
+        }
+        Collections.sort(result);
+        return result;
+    }
+
+    private void write(final String path, final byte[] bytes) throws IOException {
+        final File file = new File(rootDir, path);
+        file.getParentFile().mkdirs();
+        final FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(bytes);
+        } finally {
+            out.close();
+        }
+    }
+
+    private static void delete(final File file) {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.reflect;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link DeploymentReflectionIndex} and {@link ClassReflectionIndex}.
+ */
+public class DeploymentReflectionIndexUnitTestCase {
+
+    @Test
+    public void testLookups() throws Exception {
+        final ClassReflectionIndex<Sample> index = DeploymentReflectionIndex.create().getClassIndex(Sample.class);
+        assertSame(Sample.class, index.getIndexedClass());
+
+        assertNotNull(index.getField("value"));
+        assertNull(index.getField("missing"));
+        assertEquals(1, index.getFields().size());
+
+        assertEquals(Sample.class.getDeclaredMethod("run"), index.getMethod(void.class, "run"));
+        assertEquals(Sample.class.getDeclaredMethod("run", int.class), index.getMethod(void.class, "run", int.class));
+        assertEquals(Sample.class.getDeclaredMethod("compute", String.class), index.getMethod(int.class, "compute", String.class));
+        assertNull(index.getMethod(long.class, "compute", String.class));
+        assertNull(index.getMethod(void.class, "run", long.class));
+        assertNull(index.getMethod(void.class, "missing"));
+
+        assertEquals(2, index.getAllMethods("run").size());
+        assertEquals(1, index.getMethods("run", int.class).size());
+        assertTrue(index.getMethods("missing").isEmpty());
+        // inherited public methods are included
+        assertNotNull(index.getMethod(String.class, "toString"));
+        assertEquals(1, index.getAllMethods("hashCode").size());
+
+        assertNotNull(index.getConstructor());
+        assertNotNull(index.getConstructor(int.class));
+        assertNull(index.getConstructor(String.class));
+        assertEquals(2, index.getConstructors().size());
+    }
+
+    @Test
+    public void testJdkClassesAreShared() {
+        final ClassReflectionIndex<Runnable> first = DeploymentReflectionIndex.create().getClassIndex(Runnable.class);
+        final ClassReflectionIndex<Runnable> second = DeploymentReflectionIndex.create().getClassIndex(Runnable.class);
+        assertSame(first, second);
+    }
+
+    @Test
+    public void testConcurrentAccessIndexesOnce() throws Exception {
+        final DeploymentReflectionIndex reflectionIndex = DeploymentReflectionIndex.create();
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<ClassReflectionIndex<Sample>>> futures = new ArrayList<Future<ClassReflectionIndex<Sample>>>();
+            for (int i = 0; i < 64; i++) {
+                futures.add(executor.submit(new Callable<ClassReflectionIndex<Sample>>() {
+                    public ClassReflectionIndex<Sample> call() {
+                        return reflectionIndex.getClassIndex(Sample.class);
+                    }
+                }));
+            }
+            final ClassReflectionIndex<Sample> index = futures.get(0).get();
+            for (Future<ClassReflectionIndex<Sample>> future : futures) {
+                assertSame(index, future.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testMethodsAreAccessible() throws Exception {
+        final ClassReflectionIndex<Sample> index = DeploymentReflectionIndex.create().getClassIndex(Sample.class);
+        final Method method = index.getMethod(int.class, "compute", String.class);
+        assertEquals(Integer.valueOf(3), method.invoke(new Sample(), "abc"));
+    }
+
+    @SuppressWarnings("unused")
+    static class Sample {
+        private int value;
+
+        Sample() {
+        }
+
+        Sample(int value) {
+            this.value = value;
+        }
+
+        void run() {
+        }
+
+        void run(int times) {
+        }
+
+        private int compute(String s) {
+            return s.length();
+        }
+    }
+}
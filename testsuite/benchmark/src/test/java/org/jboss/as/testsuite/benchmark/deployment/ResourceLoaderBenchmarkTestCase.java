@@ -0,0 +1,141 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.testsuite.benchmark.deployment;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jboss.as.server.deployment.module.VFSResourceLoader;
+import org.jboss.vfs.VFS;
+import org.jboss.vfs.VirtualFile;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Compares class loading through indexed and unindexed {@link VFSResourceLoader}s for a web application with 15000
+ * classes spread over its resource roots. Each class is looked up root by root, as for a package split over
+ * several jars, followed by a lookup of its absent {@code BeanInfo} class.
+ */
+public class ResourceLoaderBenchmarkTestCase {
+
+    private static final int ROOTS = 16;
+    private static final int PACKAGES = 300;
+    private static final int CLASSES = 15000;
+    private static final int ITERATIONS = 5;
+
+    private static final byte[] CLASS_BYTES = new byte[256];
+
+    private File baseDir;
+    private final List<VirtualFile> roots = new ArrayList<VirtualFile>();
+    private final List<String> classNames = new ArrayList<String>();
+
+    @Before
+    public void createRoots() throws IOException {
+        baseDir = File.createTempFile("resource-loader-benchmark", "");
+        baseDir.delete();
+        for (int i = 0; i < ROOTS; i++) {
+            final File rootDir = new File(baseDir, "WEB-INF/lib/lib" + i + ".jar");
+            rootDir.mkdirs();
+            roots.add(VFS.getChild(rootDir.getAbsolutePath()));
+        }
+        for (int i = 0; i < CLASSES; i++) {
+            final String name = "org/jboss/benchmark/p" + (i % PACKAGES) + "/Class" + i + ".class";
+            final File file = new File(baseDir, "WEB-INF/lib/lib" + (i % ROOTS) + ".jar/" + name);
+            file.getParentFile().mkdirs();
+            final FileOutputStream out = new FileOutputStream(file);
+            try {
+                out.write(CLASS_BYTES);
+            } finally {
+                out.close();
+            }
+            classNames.add(name);
+        }
+    }
+
+    @After
+    public void deleteRoots() {
+        delete(baseDir);
+    }
+
+    @Test
+    public void testClassLoading() throws IOException {
+        run(false);
+        run(true);
+        for (int i = 0; i < ITERATIONS; i++) {
+            report("unindexed", run(false));
+            report("indexed", run(true));
+        }
+    }
+
+    /**
+     * Create the loaders and look up every class, returning the time taken to create the loaders and the total time,
+     * in milliseconds.
+     */
+    private long[] run(final boolean indexed) throws IOException {
+        final long start = System.nanoTime();
+        final List<VFSResourceLoader> loaders = new ArrayList<VFSResourceLoader>(ROOTS);
+        for (int i = 0; i < ROOTS; i++) {
+            loaders.add(new VFSResourceLoader("lib" + i + ".jar", roots.get(i), indexed));
+        }
+        final long created = System.nanoTime();
+        int found = 0;
+        for (String name : classNames) {
+            for (VFSResourceLoader loader : loaders) {
+                if (loader.getClassSpec(name) != null) {
+                    found++;
+                    break;
+                }
+            }
+            final String beanInfo = name.substring(0, name.length() - 6) + "BeanInfo.class";
+            for (VFSResourceLoader loader : loaders) {
+                if (loader.getClassSpec(beanInfo) != null) {
+                    found++;
+                }
+            }
+        }
+        final long end = System.nanoTime();
+        assertEquals(CLASSES, found);
+        return new long[] { (created - start) / 1000000L, (end - start) / 1000000L };
+    }
+
+    private static void report(final String mode, final long[] times) {
+        System.out.printf("%s: %d classes in %d roots, loaders created in %d ms, total %d ms%n", mode, CLASSES, ROOTS,
+                times[0], times[1]);
+    }
+
+    private static void delete(final File file) {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
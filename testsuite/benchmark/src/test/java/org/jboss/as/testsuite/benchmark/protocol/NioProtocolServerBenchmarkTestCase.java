@@ -0,0 +1,189 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.testsuite.benchmark.protocol;
+
+import static org.jboss.as.protocol.ProtocolConstants.CHUNK_END;
+import static org.jboss.as.protocol.ProtocolConstants.CHUNK_START;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.net.ServerSocketFactory;
+
+import org.jboss.as.protocol.Connection;
+import org.jboss.as.protocol.ConnectionHandler;
+import org.jboss.as.protocol.MessageHandler;
+import org.jboss.as.protocol.ProtocolServer;
+import org.jboss.as.protocol.StreamUtils;
+import org.junit.Test;
+
+/**
+ * Opens many connections to an echo {@link ProtocolServer}, once with the blocking transport and once with the NIO
+ * transport, and reports how many server threads the connections cost along with the round trip latency.
+ * <p>
+ * The number of connections is taken from the {@code jboss.benchmark.connections} system property.
+ */
+public class NioProtocolServerBenchmarkTestCase {
+
+    private static final String CONNECTIONS_PROPERTY = "jboss.benchmark.connections";
+    private static final int ROUNDS = 10;
+    private static final int SELECTOR_THREADS = 2;
+
+    @Test
+    public void testBlockingTransport() throws Exception {
+        run(false);
+    }
+
+    @Test
+    public void testNioTransport() throws Exception {
+        run(true);
+    }
+
+    private void run(final boolean nio) throws Exception {
+        final int connections = Integer.getInteger(CONNECTIONS_PROPERTY, 2000);
+        final AtomicInteger serverThreads = new AtomicInteger();
+        final ExecutorService executor = Executors.newCachedThreadPool();
+        final ProtocolServer.Configuration config = new ProtocolServer.Configuration();
+        config.setBindAddress(new InetSocketAddress(InetAddress.getByName("127.0.0.1"), 0));
+        config.setThreadFactory(new ThreadFactory() {
+            public Thread newThread(final Runnable r) {
+                serverThreads.incrementAndGet();
+                final Thread thread = new Thread(r);
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        config.setSocketFactory(ServerSocketFactory.getDefault());
+        config.setReadExecutor(executor);
+        config.setBacklog(1000);
+        config.setNio(nio);
+        config.setSelectorThreads(SELECTOR_THREADS);
+        config.setConnectionHandler(new ConnectionHandler() {
+            public MessageHandler handleConnected(final Connection connection) throws IOException {
+                return new EchoHandler();
+            }
+        });
+        final ProtocolServer server = new ProtocolServer(config);
+        server.start();
+        final Socket[] sockets = new Socket[connections];
+        try {
+            for (int i = 0; i < connections; i++) {
+                sockets[i] = new Socket();
+                sockets[i].connect(server.getBoundAddress());
+            }
+            final long[] latencies = new long[connections * ROUNDS];
+            int n = 0;
+            for (int round = 0; round < ROUNDS; round++) {
+                for (int i = 0; i < connections; i++) {
+                    final byte[] payload = ("message " + round + " on connection " + i).getBytes("UTF-8");
+                    final long start = System.nanoTime();
+                    writeMessage(sockets[i].getOutputStream(), payload);
+                    assertArrayEquals(payload, readMessage(sockets[i].getInputStream()));
+                    latencies[n++] = System.nanoTime() - start;
+                }
+            }
+            Arrays.sort(latencies);
+            System.out.printf("%s transport: %d connections; server threads: %d; round trip latency (us) median: %d, 99th percentile: %d, max: %d%n",
+                    nio ? "NIO" : "Blocking", Integer.valueOf(connections), Integer.valueOf(serverThreads.get()),
+                    Long.valueOf(latencies[latencies.length / 2] / 1000L),
+                    Long.valueOf(latencies[latencies.length * 99 / 100] / 1000L),
+                    Long.valueOf(latencies[latencies.length - 1] / 1000L));
+        } finally {
+            for (Socket socket : sockets) {
+                if (socket != null) {
+                    socket.close();
+                }
+            }
+            server.stop();
+            executor.shutdown();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    private static void writeMessage(final OutputStream os, final byte[] payload) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(CHUNK_START);
+        out.writeInt(payload.length);
+        out.write(payload);
+        out.writeByte(CHUNK_END);
+        os.write(bytes.toByteArray());
+        os.flush();
+    }
+
+    private static byte[] readMessage(final InputStream is) throws IOException {
+        final DataInputStream in = new DataInputStream(is);
+        final ByteArrayOutputStream message = new ByteArrayOutputStream();
+        for (;;) {
+            final int cmd = in.readUnsignedByte();
+            if (cmd == CHUNK_END) {
+                return message.toByteArray();
+            }
+            assertEquals(CHUNK_START, cmd);
+            final byte[] chunk = new byte[in.readInt()];
+            in.readFully(chunk);
+            message.write(chunk);
+        }
+    }
+
+    private static final class EchoHandler implements MessageHandler {
+
+        public void handleMessage(final Connection connection, final InputStream dataStream) throws IOException {
+            final ByteArrayOutputStream message = new ByteArrayOutputStream();
+            StreamUtils.copyStream(dataStream, message);
+            final OutputStream os = connection.writeMessage();
+            try {
+                os.write(message.toByteArray());
+            } finally {
+                os.close();
+            }
+        }
+
+        public void handleShutdown(final Connection connection) throws IOException {
+            connection.shutdownWrites();
+        }
+
+        public void handleFailure(final Connection connection, final IOException e) throws IOException {
+            connection.close();
+        }
+
+        public void handleFinished(final Connection connection) throws IOException {
+            connection.close();
+        }
+    }
+}
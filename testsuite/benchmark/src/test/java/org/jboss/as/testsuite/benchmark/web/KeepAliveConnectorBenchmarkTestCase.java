@@ -0,0 +1,226 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.testsuite.benchmark.web;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Opens many keep-alive HTTP connections to a running server and keeps them open, to compare the blocking and the
+ * non-blocking HTTP connectors. Run it once with the http connector's protocol set to {@code HTTP/1.1} and once with
+ * {@code HTTP/1.1-NIO}. A blocking connector ties up a worker thread for each idle keep-alive connection, so requests
+ * on connections beyond its thread count time out.
+ * <p>
+ * The server URL is taken from the {@code jboss.benchmark.url} system property and the number of connections from
+ * {@code jboss.benchmark.connections}. The test is skipped when no server answers.
+ */
+public class KeepAliveConnectorBenchmarkTestCase {
+
+    private static final String URL_PROPERTY = "jboss.benchmark.url";
+    private static final String CONNECTIONS_PROPERTY = "jboss.benchmark.connections";
+    private static final int TIMEOUT = 5000;
+
+    @Test
+    public void testKeepAliveConnections() throws Exception {
+        final URL url = new URL(System.getProperty(URL_PROPERTY, "http://localhost:8080/"));
+        final int connections = Integer.getInteger(CONNECTIONS_PROPERTY, 10000);
+        final InetSocketAddress address = new InetSocketAddress(url.getHost(), url.getPort() == -1 ? 80 : url.getPort());
+        assumeTrue(isReachable(address));
+
+        final List<Connection> open = new ArrayList<Connection>(connections);
+        try {
+            long start = System.nanoTime();
+            for (int i = 0; i < connections; i++) {
+                final Connection connection = new Connection();
+                if (connection.connect(address) && connection.request(url)) {
+                    open.add(connection);
+                } else {
+                    connection.close();
+                }
+            }
+            report("new connections", connections, open.size(), System.nanoTime() - start);
+            assertTrue("No request was served", open.size() > 0);
+
+            final int kept = open.size();
+            start = System.nanoTime();
+            for (int i = open.size() - 1; i >= 0; i--) {
+                final Connection connection = open.get(i);
+                if (!connection.request(url)) {
+                    connection.close();
+                    open.remove(i);
+                }
+            }
+            report("kept-alive connections", kept, open.size(), System.nanoTime() - start);
+        } finally {
+            for (Connection connection : open) {
+                connection.close();
+            }
+        }
+    }
+
+    private static boolean isReachable(final InetSocketAddress address) {
+        final Connection connection = new Connection();
+        try {
+            return connection.connect(address);
+        } finally {
+            connection.close();
+        }
+    }
+
+    private static void report(final String pass, final int attempted, final int served, final long nanos) {
+        final long millis = nanos / 1000000L;
+        System.out.printf("%s: %d of %d requests served in %d ms (%d us per request)%n", pass, served, attempted, millis,
+                served == 0 ? 0 : nanos / 1000L / served);
+    }
+
+    private static final class Connection {
+        private Socket socket;
+        private InputStream in;
+        private OutputStream out;
+
+        boolean connect(final InetSocketAddress address) {
+            try {
+                socket = new Socket();
+                socket.connect(address, TIMEOUT);
+                socket.setSoTimeout(TIMEOUT);
+                in = new BufferedInputStream(socket.getInputStream());
+                out = socket.getOutputStream();
+                return true;
+            } catch (IOException e) {
+                return false;
+            }
+        }
+
+        /**
+         * Send a GET request and read the whole response.
+         *
+         * @return {@code true} if the response was read and the connection is still open
+         */
+        boolean request(final URL url) {
+            try {
+                final String path = url.getFile().length() == 0 ? "/" : url.getFile();
+                out.write(("GET " + path + " HTTP/1.1\r\nHost: " + url.getHost() + "\r\n\r\n").getBytes("US-ASCII"));
+                out.flush();
+                final String status = readLine();
+                if (status == null || !status.startsWith("HTTP/1.1 ")) {
+                    return false;
+                }
+                long length = -1;
+                boolean chunked = false;
+                boolean keepAlive = true;
+                String line;
+                while ((line = readLine()) != null && line.length() > 0) {
+                    final int colon = line.indexOf(':');
+                    if (colon == -1) {
+                        continue;
+                    }
+                    final String name = line.substring(0, colon).trim();
+                    final String value = line.substring(colon + 1).trim();
+                    if (name.equalsIgnoreCase("Content-Length")) {
+                        length = Long.parseLong(value);
+                    } else if (name.equalsIgnoreCase("Transfer-Encoding")) {
+                        chunked = value.equalsIgnoreCase("chunked");
+                    } else if (name.equalsIgnoreCase("Connection")) {
+                        keepAlive = !value.equalsIgnoreCase("close");
+                    }
+                }
+                if (line == null) {
+                    return false;
+                }
+                if (chunked) {
+                    long size;
+                    do {
+                        final String chunk = readLine();
+                        if (chunk == null) {
+                            return false;
+                        }
+                        final int extension = chunk.indexOf(';');
+                        size = Long.parseLong((extension == -1 ? chunk : chunk.substring(0, extension)).trim(), 16);
+                        skip(size);
+                        readLine();
+                    } while (size > 0);
+                } else if (length > 0) {
+                    skip(length);
+                } else if (length == -1) {
+                    return false;
+                }
+                return keepAlive;
+            } catch (IOException e) {
+                return false;
+            } catch (NumberFormatException e) {
+                return false;
+            }
+        }
+
+        private String readLine() throws IOException {
+            final StringBuilder builder = new StringBuilder();
+            int b;
+            while ((b = in.read()) != -1) {
+                if (b == '\n') {
+                    final int length = builder.length();
+                    if (length > 0 && builder.charAt(length - 1) == '\r') {
+                        builder.setLength(length - 1);
+                    }
+                    return builder.toString();
+                }
+                builder.append((char) b);
+            }
+            return null;
+        }
+
+        private void skip(long count) throws IOException {
+            while (count > 0) {
+                final long skipped = in.skip(count);
+                if (skipped <= 0) {
+                    if (in.read() == -1) {
+                        throw new IOException("Unexpected end of response");
+                    }
+                    count--;
+                } else {
+                    count -= skipped;
+                }
+            }
+        }
+
+        void close() {
+            if (socket != null) {
+                try {
+                    socket.close();
+                } catch (IOException ignore) {
+                }
+            }
+        }
+    }
+}
@@ -53,4 +53,15 @@ class CommonAttributes {
     static final String UNBOUNDED_QUEUE_THREAD_POOL = "unbounded-queue-thread-pool";
     static final String UNIT = "unit";
     static final String VALUE = "value";
+
+    // runtime metrics
+    static final String AVERAGE_QUEUE_WAIT_TIME = "average-queue-wait-time";
+    static final String AVERAGE_RUN_TIME = "average-run-time";
+    static final String COMPLETED_TASK_COUNT = "completed-task-count";
+    static final String CURRENT_THREAD_COUNT = "current-thread-count";
+    static final String LARGEST_THREAD_COUNT = "largest-thread-count";
+    static final String MAX_QUEUE_WAIT_TIME = "max-queue-wait-time";
+    static final String MAX_RUN_TIME = "max-run-time";
+    static final String QUEUE_SIZE = "queue-size";
+    static final String REJECTED_TASK_COUNT = "rejected-task-count";
 }
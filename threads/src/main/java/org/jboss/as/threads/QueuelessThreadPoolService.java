@@ -41,9 +41,10 @@ import java.util.concurrent.ThreadFactory;
  *
  * @author John E. Bailey
  */
-public class QueuelessThreadPoolService implements Service<ExecutorService> {
+public class QueuelessThreadPoolService implements Service<ExecutorService>, ManagedThreadPoolService {
     private final InjectedValue<ThreadFactory> threadFactoryValue = new InjectedValue<ThreadFactory>();
     private final InjectedValue<Executor> handoffExecutorValue = new InjectedValue<Executor>();
+    private final ThreadPoolStatistics statistics = new ThreadPoolStatistics();
 
     private QueuelessExecutor executor;
     private ExecutorService value;
@@ -61,10 +62,10 @@ public class QueuelessThreadPoolService implements Service<ExecutorService> {
     public synchronized void start(final StartContext context) throws StartException {
         final TimeSpec keepAliveSpec = keepAlive;
         long keepAlive = keepAliveSpec == null ? Long.MAX_VALUE : keepAliveSpec.getDuration();
-        executor = new QueuelessExecutor(threadFactoryValue.getValue(), JBossExecutors.directExecutor(), handoffExecutorValue.getOptionalValue(), keepAlive);
+        executor = new QueuelessExecutor(statistics.measure(threadFactoryValue.getValue()), JBossExecutors.directExecutor(), handoffExecutorValue.getOptionalValue(), keepAlive);
         executor.setMaxThreads(maxThreads);
         executor.setBlocking(blocking);
-        value = JBossExecutors.protectedExecutorService(executor);
+        value = JBossExecutors.protectedExecutorService(statistics.measure(executor));
     }
 
     public synchronized void stop(final StopContext context) {
@@ -99,6 +100,10 @@ public class QueuelessThreadPoolService implements Service<ExecutorService> {
         return handoffExecutorValue;
     }
 
+    public ThreadPoolStatistics getStatistics() {
+        return statistics;
+    }
+
     public synchronized void setMaxThreads(int maxThreads) {
         this.maxThreads = maxThreads;
         final QueuelessExecutor executor = this.executor;
@@ -30,18 +30,23 @@ import org.jboss.msc.service.StopContext;
 import org.jboss.msc.value.InjectedValue;
 import org.jboss.threads.JBossExecutors;
 
+import java.util.concurrent.Delayed;
+import java.util.concurrent.RejectedExecutionHandler;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Service responsible for creating, starting and stopping a scheduled thread pool executor.
  *
  * @author <a href="mailto:david.lloyd@redhat.com">David M. Lloyd</a>
  */
-public final class ScheduledThreadPoolService implements Service<ScheduledExecutorService> {
+public final class ScheduledThreadPoolService implements Service<ScheduledExecutorService>, ManagedThreadPoolService {
 
     private final InjectedValue<ThreadFactory> threadFactoryValue = new InjectedValue<ThreadFactory>();
+    private final ThreadPoolStatistics statistics = new ThreadPoolStatistics();
 
     private ScheduledThreadPoolExecutor executor;
     private ScheduledExecutorService value;
@@ -56,7 +61,8 @@ public final class ScheduledThreadPoolService implements Service<ScheduledExecut
     }
 
     public synchronized void start(final StartContext context) throws StartException {
-        executor = new ExecutorImpl(0, threadFactoryValue.getValue());
+        executor = new ExecutorImpl(0, statistics.measure(threadFactoryValue.getValue()));
+        statistics.setQueue(executor.getQueue());
         executor.setCorePoolSize(maxThreads);
         if(keepAlive != null)
             executor.setKeepAliveTime(keepAlive.getDuration(), keepAlive.getUnit());
@@ -87,10 +93,40 @@ public final class ScheduledThreadPoolService implements Service<ScheduledExecut
         return threadFactoryValue;
     }
 
+    public ThreadPoolStatistics getStatistics() {
+        return statistics;
+    }
+
     private class ExecutorImpl extends ScheduledThreadPoolExecutor {
 
+        private final ThreadLocal<Long> startTime = new ThreadLocal<Long>();
+
         ExecutorImpl(final int corePoolSize, final ThreadFactory threadFactory) {
             super(corePoolSize, threadFactory);
+            final RejectedExecutionHandler rejectedExecutionHandler = getRejectedExecutionHandler();
+            setRejectedExecutionHandler(new RejectedExecutionHandler() {
+                public void rejectedExecution(final Runnable r, final ThreadPoolExecutor executor) {
+                    statistics.taskRejected();
+                    rejectedExecutionHandler.rejectedExecution(r, executor);
+                }
+            });
+        }
+
+        protected void beforeExecute(final Thread t, final Runnable r) {
+            super.beforeExecute(t, r);
+            // scheduled tasks are due when their delay runs out, so the queue wait is how late they start
+            final long wait = r instanceof Delayed ? -((Delayed) r).getDelay(TimeUnit.NANOSECONDS) : 0L;
+            statistics.taskStarted(Math.max(0L, wait));
+            startTime.set(Long.valueOf(System.nanoTime()));
+        }
+
+        protected void afterExecute(final Runnable r, final Throwable t) {
+            final Long start = startTime.get();
+            if (start != null) {
+                startTime.remove();
+                statistics.taskFinished(System.nanoTime() - start.longValue());
+            }
+            super.afterExecute(r, t);
         }
 
         protected void terminated() {
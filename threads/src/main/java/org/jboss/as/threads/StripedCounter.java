@@ -0,0 +1,75 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.threads;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A counter spreading its updates over several cache line padded cells, selected by thread, so that pool threads
+ * updating it concurrently do not contend on a single value.  Reading the sum is comparatively expensive and not an
+ * atomic snapshot.
+ */
+final class StripedCounter {
+
+    /** The number of longs in a cache line, so that each cell is on its own line. */
+    private static final int PADDING = 8;
+    private static final int MAX_CELLS = 64;
+
+    private final AtomicLongArray cells;
+    private final int mask;
+
+    StripedCounter() {
+        final int wanted = Runtime.getRuntime().availableProcessors() * 2;
+        int count = 1;
+        while (count < wanted && count < MAX_CELLS) {
+            count <<= 1;
+        }
+        cells = new AtomicLongArray(count * PADDING);
+        mask = count - 1;
+    }
+
+    void increment() {
+        add(1L);
+    }
+
+    void add(final long delta) {
+        cells.getAndAdd(cell(), delta);
+    }
+
+    long sum() {
+        long sum = 0L;
+        for (int i = 0; i < cells.length(); i += PADDING) {
+            sum += cells.get(i);
+        }
+        return sum;
+    }
+
+    private int cell() {
+        final long id = Thread.currentThread().getId();
+        int h = (int) (id ^ (id >>> 32));
+        h ^= (h >>> 16);
+        h *= 0x85ebca6b;
+        h ^= (h >>> 13);
+        return (h & mask) * PADDING;
+    }
+}
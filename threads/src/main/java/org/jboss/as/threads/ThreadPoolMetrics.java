@@ -0,0 +1,108 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.threads;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.threads.CommonAttributes.AVERAGE_QUEUE_WAIT_TIME;
+import static org.jboss.as.threads.CommonAttributes.AVERAGE_RUN_TIME;
+import static org.jboss.as.threads.CommonAttributes.COMPLETED_TASK_COUNT;
+import static org.jboss.as.threads.CommonAttributes.CURRENT_THREAD_COUNT;
+import static org.jboss.as.threads.CommonAttributes.LARGEST_THREAD_COUNT;
+import static org.jboss.as.threads.CommonAttributes.MAX_QUEUE_WAIT_TIME;
+import static org.jboss.as.threads.CommonAttributes.MAX_RUN_TIME;
+import static org.jboss.as.threads.CommonAttributes.QUEUE_SIZE;
+import static org.jboss.as.threads.CommonAttributes.REJECTED_TASK_COUNT;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.BasicOperationResult;
+import org.jboss.as.controller.ModelQueryOperationHandler;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationResult;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.ResultHandler;
+import org.jboss.as.controller.RuntimeTask;
+import org.jboss.as.controller.RuntimeTaskContext;
+import org.jboss.as.controller.operations.common.Util;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.Service;
+import org.jboss.msc.service.ServiceController;
+
+/**
+ * Reads the runtime statistics of a thread pool. Times are reported in milliseconds.
+ */
+class ThreadPoolMetrics implements ModelQueryOperationHandler {
+
+    static final ThreadPoolMetrics INSTANCE = new ThreadPoolMetrics();
+
+    static final String[] ATTRIBUTES = new String[] {CURRENT_THREAD_COUNT, LARGEST_THREAD_COUNT, QUEUE_SIZE, COMPLETED_TASK_COUNT,
+            REJECTED_TASK_COUNT, AVERAGE_QUEUE_WAIT_TIME, MAX_QUEUE_WAIT_TIME, AVERAGE_RUN_TIME, MAX_RUN_TIME};
+
+    /** {@inheritDoc} */
+    @Override
+    public OperationResult execute(final OperationContext context, final ModelNode operation, final ResultHandler resultHandler) throws OperationFailedException {
+        if (context.getRuntimeContext() != null) {
+            context.getRuntimeContext().setRuntimeTask(new RuntimeTask() {
+                public void execute(RuntimeTaskContext context) throws OperationFailedException {
+                    final String name = PathAddress.pathAddress(operation.require(OP_ADDR)).getLastElement().getValue();
+                    final String attributeName = operation.require(NAME).asString();
+                    final ServiceController<?> controller = context.getServiceRegistry().getService(ThreadsServices.executorName(name));
+                    final ModelNode result = new ModelNode();
+                    if (controller != null && controller.getState() == ServiceController.State.UP) {
+                        final Service<?> service = controller.getService();
+                        if (service instanceof ManagedThreadPoolService) {
+                            final ThreadPoolStatistics statistics = ((ManagedThreadPoolService) service).getStatistics();
+                            if (CURRENT_THREAD_COUNT.equals(attributeName)) {
+                                result.set(statistics.getCurrentThreadCount());
+                            } else if (LARGEST_THREAD_COUNT.equals(attributeName)) {
+                                result.set(statistics.getLargestThreadCount());
+                            } else if (QUEUE_SIZE.equals(attributeName)) {
+                                result.set(statistics.getQueueSize());
+                            } else if (COMPLETED_TASK_COUNT.equals(attributeName)) {
+                                result.set(statistics.getCompletedTaskCount());
+                            } else if (REJECTED_TASK_COUNT.equals(attributeName)) {
+                                result.set(statistics.getRejectedTaskCount());
+                            } else if (AVERAGE_QUEUE_WAIT_TIME.equals(attributeName)) {
+                                result.set(statistics.getAverageQueueWaitTime(TimeUnit.MILLISECONDS));
+                            } else if (MAX_QUEUE_WAIT_TIME.equals(attributeName)) {
+                                result.set(statistics.getMaxQueueWaitTime(TimeUnit.MILLISECONDS));
+                            } else if (AVERAGE_RUN_TIME.equals(attributeName)) {
+                                result.set(statistics.getAverageRunTime(TimeUnit.MILLISECONDS));
+                            } else if (MAX_RUN_TIME.equals(attributeName)) {
+                                result.set(statistics.getMaxRunTime(TimeUnit.MILLISECONDS));
+                            }
+                        }
+                    }
+                    resultHandler.handleResultFragment(Util.NO_LOCATION, result);
+                    resultHandler.handleResultComplete();
+                }
+            });
+        } else {
+            resultHandler.handleResultFragment(Util.NO_LOCATION, new ModelNode().set("no metrics available"));
+            resultHandler.handleResultComplete();
+        }
+        return new BasicOperationResult();
+    }
+}
@@ -0,0 +1,379 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.threads;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jboss.threads.BlockingExecutor;
+
+/**
+ * Runtime statistics of a thread pool.  The pool services decorate their thread factory and executor with the
+ * measuring wrappers returned by this class; the per task counters are striped so they can stay enabled on busy
+ * pools.
+ */
+public final class ThreadPoolStatistics {
+
+    private final AtomicInteger currentThreads = new AtomicInteger();
+    private final AtomicInteger largestThreads = new AtomicInteger();
+    private final StripedCounter accepted = new StripedCounter();
+    private final StripedCounter started = new StripedCounter();
+    private final StripedCounter completed = new StripedCounter();
+    private final StripedCounter rejected = new StripedCounter();
+    private final StripedCounter totalWaitTime = new StripedCounter();
+    private final StripedCounter totalRunTime = new StripedCounter();
+    private final AtomicLong maxWaitTime = new AtomicLong();
+    private final AtomicLong maxRunTime = new AtomicLong();
+    private volatile Collection<?> queue;
+
+    /**
+     * Decorate a thread factory so that the threads it creates are counted while they run.
+     *
+     * @param threadFactory the pool's thread factory
+     * @return the counting thread factory
+     */
+    ThreadFactory measure(final ThreadFactory threadFactory) {
+        return new ThreadFactory() {
+            public Thread newThread(final Runnable r) {
+                return threadFactory.newThread(new Runnable() {
+                    public void run() {
+                        threadStarted();
+                        try {
+                            r.run();
+                        } finally {
+                            currentThreads.decrementAndGet();
+                        }
+                    }
+                });
+            }
+        };
+    }
+
+    /**
+     * Decorate an executor so that the tasks submitted to it are measured.
+     *
+     * @param executor the pool's executor
+     * @return the measuring executor
+     */
+    BlockingExecutor measure(final BlockingExecutor executor) {
+        return new MeasuredBlockingExecutor(executor);
+    }
+
+    /**
+     * Decorate an executor service so that the tasks submitted to it are measured.
+     *
+     * @param executor the pool's executor service
+     * @return the measuring executor service
+     */
+    ExecutorService measure(final ExecutorService executor) {
+        return new MeasuredExecutorService(executor);
+    }
+
+    /**
+     * Use the size of the given queue as the queue size, for pools which do not submit through a measuring executor.
+     *
+     * @param queue the pool's work queue
+     */
+    void setQueue(final Collection<?> queue) {
+        this.queue = queue;
+    }
+
+    /**
+     * Record that a pool thread picked up a task.
+     *
+     * @param waitNanos the time the task spent waiting for a thread
+     */
+    void taskStarted(final long waitNanos) {
+        started.increment();
+        totalWaitTime.add(waitNanos);
+        updateMax(maxWaitTime, waitNanos);
+    }
+
+    /**
+     * Record that a pool thread finished running a task, successfully or not.
+     *
+     * @param runNanos the time the task ran
+     */
+    void taskFinished(final long runNanos) {
+        completed.increment();
+        totalRunTime.add(runNanos);
+        updateMax(maxRunTime, runNanos);
+    }
+
+    void taskRejected() {
+        rejected.increment();
+    }
+
+    private void threadStarted() {
+        final int current = currentThreads.incrementAndGet();
+        int largest;
+        do {
+            largest = largestThreads.get();
+        } while (current > largest && !largestThreads.compareAndSet(largest, current));
+    }
+
+    private static void updateMax(final AtomicLong max, final long value) {
+        long current;
+        do {
+            current = max.get();
+        } while (value > current && !max.compareAndSet(current, value));
+    }
+
+    /**
+     * Get the number of threads currently in the pool.
+     *
+     * @return the current thread count
+     */
+    public int getCurrentThreadCount() {
+        return currentThreads.get();
+    }
+
+    /**
+     * Get the largest number of threads which were in the pool at the same time.
+     *
+     * @return the largest thread count
+     */
+    public int getLargestThreadCount() {
+        return largestThreads.get();
+    }
+
+    /**
+     * Get the number of tasks waiting for a thread.
+     *
+     * @return the queue size
+     */
+    public long getQueueSize() {
+        final Collection<?> queue = this.queue;
+        if (queue != null) {
+            return queue.size();
+        }
+        // read started first, so concurrent submissions cannot make the difference negative
+        final long started = this.started.sum();
+        return Math.max(0L, accepted.sum() - started);
+    }
+
+    /**
+     * Get the number of tasks which finished running.
+     *
+     * @return the completed task count
+     */
+    public long getCompletedTaskCount() {
+        return completed.sum();
+    }
+
+    /**
+     * Get the number of tasks the pool refused to accept.
+     *
+     * @return the rejected task count
+     */
+    public long getRejectedTaskCount() {
+        return rejected.sum();
+    }
+
+    /**
+     * Get the average time tasks waited for a thread.
+     *
+     * @param unit the unit of the result
+     * @return the average queue wait time
+     */
+    public long getAverageQueueWaitTime(final TimeUnit unit) {
+        final long count = started.sum();
+        return count == 0L ? 0L : unit.convert(totalWaitTime.sum() / count, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Get the longest time a task waited for a thread.
+     *
+     * @param unit the unit of the result
+     * @return the maximum queue wait time
+     */
+    public long getMaxQueueWaitTime(final TimeUnit unit) {
+        return unit.convert(maxWaitTime.get(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Get the average time tasks ran.
+     *
+     * @param unit the unit of the result
+     * @return the average run time
+     */
+    public long getAverageRunTime(final TimeUnit unit) {
+        final long count = completed.sum();
+        return count == 0L ? 0L : unit.convert(totalRunTime.sum() / count, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Get the longest time a task ran.
+     *
+     * @param unit the unit of the result
+     * @return the maximum run time
+     */
+    public long getMaxRunTime(final TimeUnit unit) {
+        return unit.convert(maxRunTime.get(), TimeUnit.NANOSECONDS);
+    }
+
+    private Runnable accept(final Runnable task) {
+        accepted.increment();
+        return new MeasuredTask(task);
+    }
+
+    private void notAccepted(final boolean rejected) {
+        accepted.add(-1L);
+        if (rejected) {
+            taskRejected();
+        }
+    }
+
+    private final class MeasuredTask implements Runnable {
+        private final Runnable delegate;
+        private final long submitted = System.nanoTime();
+
+        MeasuredTask(final Runnable delegate) {
+            this.delegate = delegate;
+        }
+
+        public void run() {
+            final long start = System.nanoTime();
+            taskStarted(start - submitted);
+            try {
+                delegate.run();
+            } finally {
+                taskFinished(System.nanoTime() - start);
+            }
+        }
+    }
+
+    private final class MeasuredBlockingExecutor implements BlockingExecutor {
+        private final BlockingExecutor delegate;
+
+        MeasuredBlockingExecutor(final BlockingExecutor delegate) {
+            this.delegate = delegate;
+        }
+
+        public void execute(final Runnable task) throws RejectedExecutionException {
+            final Runnable measured = accept(task);
+            try {
+                delegate.execute(measured);
+            } catch (RejectedExecutionException e) {
+                notAccepted(true);
+                throw e;
+            } catch (RuntimeException e) {
+                notAccepted(false);
+                throw e;
+            }
+        }
+
+        public void executeBlocking(final Runnable task) throws RejectedExecutionException, InterruptedException {
+            final Runnable measured = accept(task);
+            try {
+                delegate.executeBlocking(measured);
+            } catch (RejectedExecutionException e) {
+                notAccepted(true);
+                throw e;
+            } catch (RuntimeException e) {
+                notAccepted(false);
+                throw e;
+            } catch (InterruptedException e) {
+                notAccepted(false);
+                throw e;
+            }
+        }
+
+        public void executeBlocking(final Runnable task, final long timeout, final TimeUnit unit) throws RejectedExecutionException, InterruptedException {
+            final Runnable measured = accept(task);
+            try {
+                delegate.executeBlocking(measured, timeout, unit);
+            } catch (RejectedExecutionException e) {
+                notAccepted(true);
+                throw e;
+            } catch (RuntimeException e) {
+                notAccepted(false);
+                throw e;
+            } catch (InterruptedException e) {
+                notAccepted(false);
+                throw e;
+            }
+        }
+
+        public void executeNonBlocking(final Runnable task) throws RejectedExecutionException {
+            final Runnable measured = accept(task);
+            try {
+                delegate.executeNonBlocking(measured);
+            } catch (RejectedExecutionException e) {
+                notAccepted(true);
+                throw e;
+            } catch (RuntimeException e) {
+                notAccepted(false);
+                throw e;
+            }
+        }
+    }
+
+    private final class MeasuredExecutorService extends AbstractExecutorService {
+        private final ExecutorService delegate;
+
+        MeasuredExecutorService(final ExecutorService delegate) {
+            this.delegate = delegate;
+        }
+
+        public void execute(final Runnable task) {
+            final Runnable measured = accept(task);
+            try {
+                delegate.execute(measured);
+            } catch (RejectedExecutionException e) {
+                notAccepted(true);
+                throw e;
+            } catch (RuntimeException e) {
+                notAccepted(false);
+                throw e;
+            }
+        }
+
+        public void shutdown() {
+            delegate.shutdown();
+        }
+
+        public List<Runnable> shutdownNow() {
+            return delegate.shutdownNow();
+        }
+
+        public boolean isShutdown() {
+            return delegate.isShutdown();
+        }
+
+        public boolean isTerminated() {
+            return delegate.isTerminated();
+        }
+
+        public boolean awaitTermination(final long timeout, final TimeUnit unit) throws InterruptedException {
+            return delegate.awaitTermination(timeout, unit);
+        }
+    }
+}
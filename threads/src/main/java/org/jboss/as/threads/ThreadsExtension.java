@@ -146,6 +146,13 @@ public class ThreadsExtension implements Extension {
         final ModelNodeRegistration scheduledThreadPools = subsystem.registerSubModel(PathElement.pathElement(SCHEDULED_THREAD_POOL), SCHEDULED_THREAD_POOL_DESC);
         scheduledThreadPools.registerOperationHandler(ADD, ScheduledThreadPoolAdd.INSTANCE, ScheduledThreadPoolAdd.INSTANCE, false);
         scheduledThreadPools.registerOperationHandler(REMOVE, ScheduledThreadPoolRemove.INSTANCE, ScheduledThreadPoolRemove.INSTANCE, false);
+
+        for (final String attributeName : ThreadPoolMetrics.ATTRIBUTES) {
+            boundedQueueThreadPools.registerMetric(attributeName, ThreadPoolMetrics.INSTANCE);
+            unboundedQueueThreadPools.registerMetric(attributeName, ThreadPoolMetrics.INSTANCE);
+            queuelessThreadPools.registerMetric(attributeName, ThreadPoolMetrics.INSTANCE);
+            scheduledThreadPools.registerMetric(attributeName, ThreadPoolMetrics.INSTANCE);
+        }
     }
 
     @Override
@@ -37,19 +37,28 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.TAI
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.TYPE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.VALUE_TYPE;
 import static org.jboss.as.threads.CommonAttributes.ALLOW_CORE_TIMEOUT;
+import static org.jboss.as.threads.CommonAttributes.AVERAGE_QUEUE_WAIT_TIME;
+import static org.jboss.as.threads.CommonAttributes.AVERAGE_RUN_TIME;
 import static org.jboss.as.threads.CommonAttributes.BLOCKING;
 import static org.jboss.as.threads.CommonAttributes.BOUNDED_QUEUE_THREAD_POOL;
+import static org.jboss.as.threads.CommonAttributes.COMPLETED_TASK_COUNT;
 import static org.jboss.as.threads.CommonAttributes.CORE_THREADS;
 import static org.jboss.as.threads.CommonAttributes.COUNT;
+import static org.jboss.as.threads.CommonAttributes.CURRENT_THREAD_COUNT;
 import static org.jboss.as.threads.CommonAttributes.GROUP_NAME;
 import static org.jboss.as.threads.CommonAttributes.HANDOFF_EXECUTOR;
 import static org.jboss.as.threads.CommonAttributes.KEEPALIVE_TIME;
+import static org.jboss.as.threads.CommonAttributes.LARGEST_THREAD_COUNT;
+import static org.jboss.as.threads.CommonAttributes.MAX_QUEUE_WAIT_TIME;
+import static org.jboss.as.threads.CommonAttributes.MAX_RUN_TIME;
 import static org.jboss.as.threads.CommonAttributes.MAX_THREADS;
 import static org.jboss.as.threads.CommonAttributes.PER_CPU;
 import static org.jboss.as.threads.CommonAttributes.PRIORITY;
 import static org.jboss.as.threads.CommonAttributes.PROPERTIES;
 import static org.jboss.as.threads.CommonAttributes.QUEUELESS_THREAD_POOL;
 import static org.jboss.as.threads.CommonAttributes.QUEUE_LENGTH;
+import static org.jboss.as.threads.CommonAttributes.QUEUE_SIZE;
+import static org.jboss.as.threads.CommonAttributes.REJECTED_TASK_COUNT;
 import static org.jboss.as.threads.CommonAttributes.SCHEDULED_THREAD_POOL;
 import static org.jboss.as.threads.CommonAttributes.THREAD_FACTORY;
 import static org.jboss.as.threads.CommonAttributes.THREAD_NAME_PATTERN;
@@ -259,6 +268,25 @@ class ThreadsSubsystemProviders {
         node.get(ATTRIBUTES, KEEPALIVE_TIME, VALUE_TYPE, UNIT, DESCRIPTION).set(bundle.getString("threadpool.common.keepalive.unit"));
         node.get(ATTRIBUTES, KEEPALIVE_TIME, VALUE_TYPE, UNIT, TYPE).set(ModelType.STRING);
         node.get(ATTRIBUTES, KEEPALIVE_TIME, VALUE_TYPE, UNIT, REQUIRED).set(true);
+
+        node.get(ATTRIBUTES, CURRENT_THREAD_COUNT, DESCRIPTION).set(bundle.getString("threadpool.common.current-thread-count"));
+        node.get(ATTRIBUTES, CURRENT_THREAD_COUNT, TYPE).set(ModelType.INT);
+        node.get(ATTRIBUTES, LARGEST_THREAD_COUNT, DESCRIPTION).set(bundle.getString("threadpool.common.largest-thread-count"));
+        node.get(ATTRIBUTES, LARGEST_THREAD_COUNT, TYPE).set(ModelType.INT);
+        node.get(ATTRIBUTES, QUEUE_SIZE, DESCRIPTION).set(bundle.getString("threadpool.common.queue-size"));
+        node.get(ATTRIBUTES, QUEUE_SIZE, TYPE).set(ModelType.LONG);
+        node.get(ATTRIBUTES, COMPLETED_TASK_COUNT, DESCRIPTION).set(bundle.getString("threadpool.common.completed-task-count"));
+        node.get(ATTRIBUTES, COMPLETED_TASK_COUNT, TYPE).set(ModelType.LONG);
+        node.get(ATTRIBUTES, REJECTED_TASK_COUNT, DESCRIPTION).set(bundle.getString("threadpool.common.rejected-task-count"));
+        node.get(ATTRIBUTES, REJECTED_TASK_COUNT, TYPE).set(ModelType.LONG);
+        node.get(ATTRIBUTES, AVERAGE_QUEUE_WAIT_TIME, DESCRIPTION).set(bundle.getString("threadpool.common.average-queue-wait-time"));
+        node.get(ATTRIBUTES, AVERAGE_QUEUE_WAIT_TIME, TYPE).set(ModelType.LONG);
+        node.get(ATTRIBUTES, MAX_QUEUE_WAIT_TIME, DESCRIPTION).set(bundle.getString("threadpool.common.max-queue-wait-time"));
+        node.get(ATTRIBUTES, MAX_QUEUE_WAIT_TIME, TYPE).set(ModelType.LONG);
+        node.get(ATTRIBUTES, AVERAGE_RUN_TIME, DESCRIPTION).set(bundle.getString("threadpool.common.average-run-time"));
+        node.get(ATTRIBUTES, AVERAGE_RUN_TIME, TYPE).set(ModelType.LONG);
+        node.get(ATTRIBUTES, MAX_RUN_TIME, DESCRIPTION).set(bundle.getString("threadpool.common.max-run-time"));
+        node.get(ATTRIBUTES, MAX_RUN_TIME, TYPE).set(ModelType.LONG);
         return node;
     }
 
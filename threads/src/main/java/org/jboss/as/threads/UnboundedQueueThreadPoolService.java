@@ -41,8 +41,9 @@ import java.util.concurrent.ThreadFactory;
  *
  * @author John E. Bailey
  */
-public class UnboundedQueueThreadPoolService implements Service<ExecutorService> {
+public class UnboundedQueueThreadPoolService implements Service<ExecutorService>, ManagedThreadPoolService {
     private final InjectedValue<ThreadFactory> threadFactoryValue = new InjectedValue<ThreadFactory>();
+    private final ThreadPoolStatistics statistics = new ThreadPoolStatistics();
 
     private JBossThreadPoolExecutor executor;
     private ExecutorService value;
@@ -56,8 +57,8 @@ public class UnboundedQueueThreadPoolService implements Service<ExecutorService>
     }
 
     public synchronized void start(final StartContext context) throws StartException {
-        executor = new JBossThreadPoolExecutor(maxThreads, maxThreads, keepAlive.getDuration(), keepAlive.getUnit(), new LinkedBlockingQueue<Runnable>(), threadFactoryValue.getValue());
-        value = JBossExecutors.protectedExecutorService(executor);
+        executor = new JBossThreadPoolExecutor(maxThreads, maxThreads, keepAlive.getDuration(), keepAlive.getUnit(), new LinkedBlockingQueue<Runnable>(), statistics.measure(threadFactoryValue.getValue()));
+        value = JBossExecutors.protectedExecutorService(statistics.measure(executor));
     }
 
     public synchronized void stop(final StopContext context) {
@@ -88,6 +89,10 @@ public class UnboundedQueueThreadPoolService implements Service<ExecutorService>
         return threadFactoryValue;
     }
 
+    public ThreadPoolStatistics getStatistics() {
+        return statistics;
+    }
+
     public synchronized void setMaxThreads(final int maxThreads) {
         this.maxThreads = maxThreads;
         final JBossThreadPoolExecutor executor = this.executor;
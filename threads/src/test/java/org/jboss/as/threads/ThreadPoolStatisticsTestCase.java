@@ -0,0 +1,125 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.threads;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Tests of {@link ThreadPoolStatistics}.
+ */
+public class ThreadPoolStatisticsTestCase {
+
+    @Test
+    public void testTaskStatistics() throws Exception {
+        final ThreadPoolStatistics statistics = new ThreadPoolStatistics();
+        final ThreadFactory threadFactory = statistics.measure(Executors.defaultThreadFactory());
+        final ExecutorService executor = statistics.measure(new ThreadPoolExecutor(1, 1, 30L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(), threadFactory));
+        try {
+            final CountDownLatch release = new CountDownLatch(1);
+            final CountDownLatch running = new CountDownLatch(1);
+            executor.execute(new Runnable() {
+                public void run() {
+                    running.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            });
+            running.await();
+            executor.submit(new Runnable() {
+                public void run() {
+                }
+            });
+            assertEquals(1, statistics.getCurrentThreadCount());
+            assertEquals(1L, statistics.getQueueSize());
+            Thread.sleep(20L);
+            release.countDown();
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10L, TimeUnit.SECONDS));
+
+            assertEquals(2L, statistics.getCompletedTaskCount());
+            assertEquals(0L, statistics.getQueueSize());
+            assertEquals(1, statistics.getLargestThreadCount());
+            assertTrue(statistics.getMaxRunTime(TimeUnit.MILLISECONDS) >= 20L);
+            assertTrue(statistics.getMaxQueueWaitTime(TimeUnit.MILLISECONDS) >= 20L);
+            assertTrue(statistics.getAverageQueueWaitTime(TimeUnit.MILLISECONDS) >= 10L);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testRejectedTask() throws Exception {
+        final ThreadPoolStatistics statistics = new ThreadPoolStatistics();
+        final ExecutorService executor = statistics.measure(Executors.newSingleThreadExecutor());
+        executor.shutdown();
+        try {
+            executor.execute(new Runnable() {
+                public void run() {
+                }
+            });
+            fail("Task should have been rejected");
+        } catch (RejectedExecutionException expected) {
+        }
+        assertEquals(1L, statistics.getRejectedTaskCount());
+        assertEquals(0L, statistics.getQueueSize());
+        assertEquals(0L, statistics.getCompletedTaskCount());
+    }
+
+    @Test
+    public void testStripedCounter() throws Exception {
+        final StripedCounter counter = new StripedCounter();
+        final Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(new Runnable() {
+                public void run() {
+                    for (int j = 0; j < 10000; j++) {
+                        counter.increment();
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        counter.add(-1L);
+        assertEquals(39999L, counter.sum());
+    }
+}
@@ -52,12 +52,14 @@ enum Attribute {
     FLAGS(Constants.FLAGS),
     GENERATE_STRINGS_AS_CHAR_ARRAYS(Constants.GENERATE_STRINGS_AS_CHAR_ARRAYS),
     JAVA_ENCODING(Constants.JAVA_ENCODING),
+    KEEP_ALIVE_TIMEOUT(Constants.KEEP_ALIVE_TIMEOUT),
     KEEP_GENERATED(Constants.KEEP_GENERATED),
     KEY_ALIAS(Constants.KEY_ALIAS),
     LISTINGS(Constants.LISTINGS),
     MAPPED_FILE(Constants.MAPPED_FILE),
     MAX_CONNECTIONS(Constants.MAX_CONNECTIONS),
     MAX_DEPTH(Constants.MAX_DEPTH),
+    MAX_KEEP_ALIVE_REQUESTS(Constants.MAX_KEEP_ALIVE_REQUESTS),
     MAX_POST_SIZE(Constants.MAX_POST_SIZE),
     MODIFIFICATION_TEST_INTERVAL(Constants.MODIFIFICATION_TEST_INTERVAL),
     MAX_SAVE_POST_SIZE(Constants.MAX_SAVE_POST_SIZE),
@@ -66,6 +68,7 @@ enum Attribute {
     PASSWORD(Constants.PASSWORD),
     PATH(Constants.PATH),
     PATTERN(Constants.PATTERN),
+    POLLER_THREADS(Constants.POLLER_THREADS),
     PREFIX(Constants.PREFIX),
     PROTOCOL(Constants.PROTOCOL),
     PROXY_NAME(Constants.PROXY_NAME),
@@ -26,12 +26,11 @@ import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
 
-import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamReader;
 
+import org.jboss.as.web.deployment.MetaDataCache;
 import org.jboss.dmr.ModelNode;
 import org.jboss.metadata.parser.jsp.TldMetaDataParser;
-import org.jboss.metadata.parser.util.NoopXmlResolver;
 import org.jboss.metadata.web.spec.TldMetaData;
 import org.jboss.modules.Module;
 import org.jboss.modules.ModuleClassLoader;
@@ -47,14 +46,22 @@ class SharedTldsMetaDataBuilder {
 
     private static final String[] JSF_TAGLIBS = { "html_basic.tld", "jsf_core.tld", "mojarra_ext.tld" };
     private static final String[] JSTL_TAGLIBS = { "c-1_0-rt.tld", "c-1_0.tld", "c.tld", "fmt-1_0-rt.tld", "fmt-1_0.tld", "fmt.tld", "fn.tld", "permittedTaglibs.tld", "scriptfree.tld", "sql-1_0-rt.tld", "sql-1_0.tld", "sql.tld", "x-1_0-rt.tld", "x-1_0.tld", "x.tld" };
+    private static final MetaDataCache.Parser<TldMetaData> PARSER = new MetaDataCache.Parser<TldMetaData>() {
+        public TldMetaData parse(XMLStreamReader reader) throws Exception {
+            return TldMetaDataParser.parse(reader);
+        }
+    };
+
     final List<TldMetaData> tlds = new ArrayList<TldMetaData>();
+    private final MetaDataCache metaDataCache;
 
     // Not used right now due to hardcoding
     /** The common container config. */
     //private final ModelNode containerConfig;
 
-    SharedTldsMetaDataBuilder(final ModelNode containerConfig) {
+    SharedTldsMetaDataBuilder(final ModelNode containerConfig, final MetaDataCache metaDataCache) {
         //this.containerConfig = containerConfig;
+        this.metaDataCache = metaDataCache;
         init();
     }
 
@@ -98,10 +105,7 @@ class SharedTldsMetaDataBuilder {
     private TldMetaData parseTLD(String tld, InputStream is)
     throws Exception {
         try {
-            final XMLInputFactory inputFactory = XMLInputFactory.newInstance();
-            inputFactory.setXMLResolver(NoopXmlResolver.create());
-            XMLStreamReader xmlReader = inputFactory.createXMLStreamReader(is);
-            return TldMetaDataParser.parse(xmlReader);
+            return metaDataCache.parse("tld", is, PARSER);
         } finally {
             try {
                 if (is != null) {
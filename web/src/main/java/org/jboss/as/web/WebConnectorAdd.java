@@ -33,15 +33,19 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_
 import static org.jboss.as.web.Constants.ENABLED;
 import static org.jboss.as.web.Constants.ENABLE_LOOKUPS;
 import static org.jboss.as.web.Constants.EXECUTOR;
+import static org.jboss.as.web.Constants.KEEP_ALIVE_TIMEOUT;
 import static org.jboss.as.web.Constants.MAX_CONNECTIONS;
+import static org.jboss.as.web.Constants.MAX_KEEP_ALIVE_REQUESTS;
 import static org.jboss.as.web.Constants.MAX_POST_SIZE;
 import static org.jboss.as.web.Constants.MAX_SAVE_POST_SIZE;
+import static org.jboss.as.web.Constants.POLLER_THREADS;
 import static org.jboss.as.web.Constants.PROTOCOL;
 import static org.jboss.as.web.Constants.PROXY_NAME;
 import static org.jboss.as.web.Constants.PROXY_PORT;
 import static org.jboss.as.web.Constants.REDIRECT_PORT;
 import static org.jboss.as.web.Constants.SCHEME;
 import static org.jboss.as.web.Constants.SECURE;
+import static org.jboss.as.web.Constants.SENDFILE;
 import static org.jboss.as.web.Constants.SOCKET_BINDING;
 import static org.jboss.as.web.Constants.SSL;
 import static org.jboss.as.web.Constants.VIRTUAL_SERVER;
@@ -83,6 +87,10 @@ class WebConnectorAdd implements ModelAddOperationHandler, DescriptionProvider {
         if (existing.hasDefined(MAX_POST_SIZE)) op.get(MAX_POST_SIZE).set(existing.get(MAX_POST_SIZE).asInt());
         if (existing.hasDefined(MAX_SAVE_POST_SIZE)) op.get(MAX_SAVE_POST_SIZE).set(existing.get(MAX_SAVE_POST_SIZE).asInt());
         if (existing.hasDefined(MAX_CONNECTIONS)) op.get(Constants.MAX_CONNECTIONS).set(existing.get(Constants.MAX_CONNECTIONS).asInt());
+        if (existing.hasDefined(POLLER_THREADS)) op.get(POLLER_THREADS).set(existing.get(POLLER_THREADS).asInt());
+        if (existing.hasDefined(MAX_KEEP_ALIVE_REQUESTS)) op.get(MAX_KEEP_ALIVE_REQUESTS).set(existing.get(MAX_KEEP_ALIVE_REQUESTS).asInt());
+        if (existing.hasDefined(KEEP_ALIVE_TIMEOUT)) op.get(KEEP_ALIVE_TIMEOUT).set(existing.get(KEEP_ALIVE_TIMEOUT).asInt());
+        if (existing.hasDefined(SENDFILE)) op.get(SENDFILE).set(existing.get(SENDFILE).asBoolean());
         op.get(Constants.VIRTUAL_SERVER).set(existing.get(Constants.VIRTUAL_SERVER));
         op.get(Constants.SSL).set(existing.get(Constants.SSL));
 
@@ -120,6 +128,10 @@ class WebConnectorAdd implements ModelAddOperationHandler, DescriptionProvider {
         if(operation.hasDefined(MAX_POST_SIZE)) subModel.get(MAX_POST_SIZE).set(operation.get(MAX_POST_SIZE).asInt());
         if(operation.hasDefined(MAX_SAVE_POST_SIZE)) subModel.get(MAX_SAVE_POST_SIZE).set(operation.get(MAX_SAVE_POST_SIZE).asInt());
         if(operation.hasDefined(MAX_CONNECTIONS)) subModel.get(Constants.MAX_CONNECTIONS).set(operation.get(Constants.MAX_CONNECTIONS).asInt());
+        if(operation.hasDefined(POLLER_THREADS)) subModel.get(POLLER_THREADS).set(operation.get(POLLER_THREADS).asInt());
+        if(operation.hasDefined(MAX_KEEP_ALIVE_REQUESTS)) subModel.get(MAX_KEEP_ALIVE_REQUESTS).set(operation.get(MAX_KEEP_ALIVE_REQUESTS).asInt());
+        if(operation.hasDefined(KEEP_ALIVE_TIMEOUT)) subModel.get(KEEP_ALIVE_TIMEOUT).set(operation.get(KEEP_ALIVE_TIMEOUT).asInt());
+        if(operation.hasDefined(SENDFILE)) subModel.get(SENDFILE).set(operation.get(SENDFILE).asBoolean());
         subModel.get(Constants.VIRTUAL_SERVER).set(operation.get(Constants.VIRTUAL_SERVER));
         subModel.get(Constants.SSL).set(operation.get(Constants.SSL));
 
@@ -128,10 +140,15 @@ class WebConnectorAdd implements ModelAddOperationHandler, DescriptionProvider {
                 public void execute(RuntimeTaskContext context) throws OperationFailedException {
                     final boolean enabled = operation.hasDefined(ENABLED) ? operation.get(ENABLED).asBoolean() : true;
                     WebConnectorService serv = null;
-                    if(operation.require(PROTOCOL).asString().equals("http")) {
-                       serv = new WebConnectorService(operation.require(PROTOCOL).asString(), operation.get(SCHEME).asString());
+                    final String protocol = operation.require(PROTOCOL).asString();
+                    if (WebConnectorService.isNioProtocol(protocol) && !WebConnectorService.isNioProtocolHandlerAvailable()) {
+                        throw new OperationFailedException(new ModelNode().set("Protocol " + protocol + " is not supported, as "
+                                + WebConnectorService.NIO_PROTOCOL_HANDLER + " is not available in the web container"));
+                    }
+                    if(WebConnectorService.isHttpProtocol(protocol)) {
+                       serv = new WebConnectorService(protocol, operation.get(SCHEME).asString());
                     } else {
-                        serv = new SipConnectorService(operation.require(PROTOCOL).asString(), operation.get(SCHEME).asString());
+                        serv = new SipConnectorService(protocol, operation.get(SCHEME).asString());
                     }
                     final WebConnectorService service = serv;
                     if (operation.hasDefined(SECURE)) service.setSecure(operation.get(SECURE).asBoolean());
@@ -147,6 +164,14 @@ class WebConnectorAdd implements ModelAddOperationHandler, DescriptionProvider {
                         service.setMaxSavePostSize(operation.get(MAX_SAVE_POST_SIZE).asInt());
                     if (operation.hasDefined(MAX_CONNECTIONS))
                         service.setMaxConnections(operation.get(MAX_CONNECTIONS).asInt());
+                    if (operation.hasDefined(POLLER_THREADS))
+                        service.setPollerThreads(operation.get(POLLER_THREADS).asInt());
+                    if (operation.hasDefined(MAX_KEEP_ALIVE_REQUESTS))
+                        service.setMaxKeepAliveRequests(operation.get(MAX_KEEP_ALIVE_REQUESTS).asInt());
+                    if (operation.hasDefined(KEEP_ALIVE_TIMEOUT))
+                        service.setKeepAliveTimeout(operation.get(KEEP_ALIVE_TIMEOUT).asInt());
+                    if (operation.hasDefined(SENDFILE))
+                        service.setSendfile(operation.get(SENDFILE).asBoolean());
                     if (operation.hasDefined(VIRTUAL_SERVER))
                         service.setVirtualServers(operation.get(VIRTUAL_SERVER).clone());
                     if (operation.hasDefined(SSL)) {
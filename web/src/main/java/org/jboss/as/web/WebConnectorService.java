@@ -34,6 +34,7 @@ import org.apache.coyote.http11.Http11Protocol;
 import org.jboss.as.server.services.net.ManagedBinding;
 import org.jboss.as.server.services.net.SocketBinding;
 import org.jboss.dmr.ModelNode;
+import org.jboss.logging.Logger;
 import org.jboss.msc.service.Service;
 import org.jboss.msc.service.StartContext;
 import org.jboss.msc.service.StartException;
@@ -47,6 +48,12 @@ import org.jboss.msc.value.InjectedValue;
  */
 class WebConnectorService implements Service<Connector> {
 
+    private static final Logger log = Logger.getLogger("org.jboss.as.web");
+
+    /** The protocol name selecting the pure Java, non-blocking HTTP connector. */
+    static final String NIO_PROTOCOL = "HTTP/1.1-NIO";
+    static final String NIO_PROTOCOL_HANDLER = "org.apache.coyote.http11.Http11NioProtocol";
+
     private String protocol = "HTTP/1.1";
     private String scheme = "http";
 
@@ -58,6 +65,10 @@ class WebConnectorService implements Service<Connector> {
     private Integer maxPostSize = null;
     private Integer maxSavePostSize = null;
     private Integer maxConnections = null;
+    private Integer pollerThreads = null;
+    private Integer maxKeepAliveRequests = null;
+    private Integer keepAliveTimeout = null;
+    private Boolean sendfile = null;
     private ModelNode ssl;
     private ModelNode virtualServers;
 
@@ -84,7 +95,7 @@ class WebConnectorService implements Service<Connector> {
         final Executor executor = this.executor.getOptionalValue();
         try {
             // Create connector
-            final Connector connector = new Connector(protocol);
+            final Connector connector = new Connector(NIO_PROTOCOL.equals(protocol) ? NIO_PROTOCOL_HANDLER : protocol);
             connector.setPort(address.getPort());
             connector.setScheme(scheme);
             if(enableLookups != null) connector.setEnableLookups(enableLookups);
@@ -116,6 +127,18 @@ class WebConnectorService implements Service<Connector> {
                  // Not all connectors will have this
                 }
             }
+            if (pollerThreads != null) {
+                setProtocolProperty(connector, Constants.POLLER_THREADS, "setPollerThreadCount", Integer.TYPE, pollerThreads);
+            }
+            if (maxKeepAliveRequests != null) {
+                setProtocolProperty(connector, Constants.MAX_KEEP_ALIVE_REQUESTS, "setMaxKeepAliveRequests", Integer.TYPE, maxKeepAliveRequests);
+            }
+            if (keepAliveTimeout != null) {
+                setProtocolProperty(connector, Constants.KEEP_ALIVE_TIMEOUT, "setKeepAliveTimeout", Integer.TYPE, keepAliveTimeout);
+            }
+            if (sendfile != null) {
+                setProtocolProperty(connector, Constants.SENDFILE, "setUseSendfile", Boolean.TYPE, sendfile);
+            }
             if (virtualServers != null) {
                 HashSet<String> virtualServersList = new HashSet<String>();
                 for (final ModelNode virtualServer : virtualServers.asList()) {
@@ -127,7 +150,8 @@ class WebConnectorService implements Service<Connector> {
                 boolean nativeSSL = false;
                 if (connector.getProtocolHandler() instanceof Http11AprProtocol) {
                     nativeSSL = true;
-                } else if (!(connector.getProtocolHandler() instanceof Http11Protocol)) {
+                } else if (!(connector.getProtocolHandler() instanceof Http11Protocol)
+                        && !NIO_PROTOCOL_HANDLER.equals(connector.getProtocolHandler().getClass().getName())) {
                     throw new StartException("Non HTTP connectors do not support SSL");
                 }
                 // Enable SSL
@@ -181,7 +205,7 @@ class WebConnectorService implements Service<Connector> {
                         throw new StartException(e);
                     }
                 } else {
-                    // JSSE configuration
+                    // JSSE configuration, also used by the NIO connector for its SSLEngine
                     try {
                         if (ssl.hasDefined(Constants.KEY_ALIAS)) {
                             Method m = connector.getProtocolHandler().getClass().getMethod("setKeyAlias", String.class);
@@ -247,6 +271,49 @@ class WebConnectorService implements Service<Connector> {
         return connector;
     }
 
+    /**
+     * Determine whether the given connector protocol is served by this service rather than the SIP connector.
+     *
+     * @param protocol the protocol name or protocol handler class name
+     * @return {@code true} if this is an HTTP protocol
+     */
+    static boolean isHttpProtocol(final String protocol) {
+        return "http".equals(protocol) || protocol.startsWith("HTTP/") || protocol.startsWith("org.apache.coyote.http11.");
+    }
+
+    /**
+     * Determine whether the given connector protocol selects the non-blocking HTTP connector.
+     *
+     * @param protocol the protocol name or protocol handler class name
+     * @return {@code true} if this is the NIO protocol
+     */
+    static boolean isNioProtocol(final String protocol) {
+        return NIO_PROTOCOL.equals(protocol) || NIO_PROTOCOL_HANDLER.equals(protocol);
+    }
+
+    /**
+     * Determine whether the web container provides the protocol handler of the non-blocking HTTP connector.
+     *
+     * @return {@code true} if the protocol handler class can be loaded
+     */
+    static boolean isNioProtocolHandlerAvailable() {
+        try {
+            Class.forName(NIO_PROTOCOL_HANDLER, false, Connector.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    private static void setProtocolProperty(final Connector connector, final String attribute, final String setter, final Class<?> type, final Object value) throws Exception {
+        try {
+            Method m = connector.getProtocolHandler().getClass().getMethod(setter, type);
+            m.invoke(connector.getProtocolHandler(), value);
+        } catch (NoSuchMethodException e) {
+            log.warnf("Ignoring connector attribute %s, which is not supported by protocol %s", attribute, connector.getProtocol());
+        }
+    }
+
     void setSsl(final ModelNode ssl) {
         this.ssl = ssl;
     }
@@ -319,6 +386,22 @@ class WebConnectorService implements Service<Connector> {
         this.maxConnections = maxConnections;
     }
 
+    protected void setPollerThreads(int pollerThreads) {
+        this.pollerThreads = pollerThreads;
+    }
+
+    protected void setMaxKeepAliveRequests(int maxKeepAliveRequests) {
+        this.maxKeepAliveRequests = maxKeepAliveRequests;
+    }
+
+    protected void setKeepAliveTimeout(int keepAliveTimeout) {
+        this.keepAliveTimeout = keepAliveTimeout;
+    }
+
+    protected void setSendfile(boolean sendfile) {
+        this.sendfile = sendfile;
+    }
+
     InjectedValue<Executor> getExecutor() {
         return executor;
     }
@@ -334,6 +334,22 @@ class WebSubsystemDescriptions {
         node.get(type, Constants.MAX_CONNECTIONS, DESCRIPTION).set(bundle.getString("web.connector.max-connections"));
         node.get(type, Constants.MAX_CONNECTIONS, REQUIRED).set(false);
 
+        node.get(type, Constants.POLLER_THREADS, TYPE).set(ModelType.INT);
+        node.get(type, Constants.POLLER_THREADS, DESCRIPTION).set(bundle.getString("web.connector.poller-threads"));
+        node.get(type, Constants.POLLER_THREADS, REQUIRED).set(false);
+
+        node.get(type, Constants.MAX_KEEP_ALIVE_REQUESTS, TYPE).set(ModelType.INT);
+        node.get(type, Constants.MAX_KEEP_ALIVE_REQUESTS, DESCRIPTION).set(bundle.getString("web.connector.max-keep-alive-requests"));
+        node.get(type, Constants.MAX_KEEP_ALIVE_REQUESTS, REQUIRED).set(false);
+
+        node.get(type, Constants.KEEP_ALIVE_TIMEOUT, TYPE).set(ModelType.INT);
+        node.get(type, Constants.KEEP_ALIVE_TIMEOUT, DESCRIPTION).set(bundle.getString("web.connector.keep-alive-timeout"));
+        node.get(type, Constants.KEEP_ALIVE_TIMEOUT, REQUIRED).set(false);
+
+        node.get(type, Constants.SENDFILE, TYPE).set(ModelType.BOOLEAN);
+        node.get(type, Constants.SENDFILE, DESCRIPTION).set(bundle.getString("web.connector.sendfile"));
+        node.get(type, Constants.SENDFILE, REQUIRED).set(false);
+
         node.get(type, Constants.VIRTUAL_SERVER, TYPE).set(ModelType.LIST);
         node.get(type, Constants.VIRTUAL_SERVER, DESCRIPTION).set(bundle.getString("web.connector.virtual-server"));
         node.get(type, Constants.VIRTUAL_SERVER, REQUIRED).set(false);
@@ -55,7 +55,9 @@ import static org.jboss.as.web.Constants.FLAGS;
 import static org.jboss.as.web.Constants.JSP_CONFIGURATION;
 import static org.jboss.as.web.Constants.KEY_ALIAS;
 import static org.jboss.as.web.Constants.LISTINGS;
+import static org.jboss.as.web.Constants.KEEP_ALIVE_TIMEOUT;
 import static org.jboss.as.web.Constants.MAX_CONNECTIONS;
+import static org.jboss.as.web.Constants.MAX_KEEP_ALIVE_REQUESTS;
 import static org.jboss.as.web.Constants.MAX_DEPTH;
 import static org.jboss.as.web.Constants.MAX_POST_SIZE;
 import static org.jboss.as.web.Constants.MAX_SAVE_POST_SIZE;
@@ -65,6 +67,7 @@ import static org.jboss.as.web.Constants.PASSWORD;
 import static org.jboss.as.web.Constants.PATH;
 import static org.jboss.as.web.Constants.PATTERN;
 import static org.jboss.as.web.Constants.PREFIX;
+import static org.jboss.as.web.Constants.POLLER_THREADS;
 import static org.jboss.as.web.Constants.PROTOCOL;
 import static org.jboss.as.web.Constants.PROXY_NAME;
 import static org.jboss.as.web.Constants.PROXY_PORT;
@@ -148,6 +151,10 @@ class WebSubsystemParser implements XMLStreamConstants, XMLElementReader<List<Mo
                 writeAttribute(writer, Attribute.MAX_POST_SIZE.getLocalName(), config);
                 writeAttribute(writer, Attribute.MAX_SAVE_POST_SIZE.getLocalName(), config);
                 writeAttribute(writer, Attribute.MAX_CONNECTIONS.getLocalName(), config);
+                writeAttribute(writer, Attribute.POLLER_THREADS.getLocalName(), config);
+                writeAttribute(writer, Attribute.MAX_KEEP_ALIVE_REQUESTS.getLocalName(), config);
+                writeAttribute(writer, Attribute.KEEP_ALIVE_TIMEOUT.getLocalName(), config);
+                writeAttribute(writer, Attribute.SENDFILE.getLocalName(), config);
                 if (config.hasDefined(SSL)) {
                     writer.writeStartElement(Element.SSL.getLocalName());
                     final ModelNode sslConfig = config.get(SSL);
@@ -662,6 +669,10 @@ class WebSubsystemParser implements XMLStreamConstants, XMLElementReader<List<Mo
         String secure = null;
         String redirectPort = null;
         String maxConnections = null;
+        String pollerThreads = null;
+        String maxKeepAliveRequests = null;
+        String keepAliveTimeout = null;
+        String sendfile = null;
         final int count = reader.getAttributeCount();
         for (int i = 0; i < count; i++) {
             requireNoNamespaceAttribute(reader, i);
@@ -710,6 +721,18 @@ class WebSubsystemParser implements XMLStreamConstants, XMLElementReader<List<Mo
             case MAX_CONNECTIONS:
                 maxConnections = value;
                 break;
+            case POLLER_THREADS:
+                pollerThreads = value;
+                break;
+            case MAX_KEEP_ALIVE_REQUESTS:
+                maxKeepAliveRequests = value;
+                break;
+            case KEEP_ALIVE_TIMEOUT:
+                keepAliveTimeout = value;
+                break;
+            case SENDFILE:
+                sendfile = value;
+                break;
             default:
                 unexpectedAttribute(reader, i);
             }
@@ -757,6 +780,10 @@ class WebSubsystemParser implements XMLStreamConstants, XMLElementReader<List<Mo
         if(secure != null) connector.get(SECURE).set(secure);
         if(redirectPort != null) connector.get(REDIRECT_PORT).set(redirectPort);
         if(maxConnections != null) connector.get(MAX_CONNECTIONS).set(maxConnections);
+        if(pollerThreads != null) connector.get(POLLER_THREADS).set(pollerThreads);
+        if(maxKeepAliveRequests != null) connector.get(MAX_KEEP_ALIVE_REQUESTS).set(maxKeepAliveRequests);
+        if(keepAliveTimeout != null) connector.get(KEEP_ALIVE_TIMEOUT).set(keepAliveTimeout);
+        if(sendfile != null) connector.get(SENDFILE).set(sendfile);
         list.add(connector);
     }
 
@@ -0,0 +1,393 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.web.deployment;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileFilter;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamReader;
+
+import org.jboss.logging.Logger;
+import org.jboss.metadata.parser.util.NoopXmlResolver;
+
+/**
+ * A cache of parsed web descriptors (web.xml, web-fragment.xml and TLDs) keyed by the SHA-1 hash of the descriptor
+ * content, so unchanged descriptors are not parsed again.  The parsed metadata is kept in serialized form, in memory
+ * up to a total size, least recently used first out, and, if a directory is given, on disk so it survives a
+ * restart, up to a total size on disk as well.  Every lookup returns a new copy, since the deployment processors modify the metadata they obtain.
+ * Metadata which fails to serialize is simply not cached.
+ * <p/>
+ * The keys include the cache format and the version of the metadata classes, so entries written by another version
+ * are not read, and their files are deleted once the cache writes to the directory.  Entries which fail to
+ * deserialize anyway are discarded, from memory and disk.
+ */
+public final class MetaDataCache {
+
+    private static final Logger log = Logger.getLogger("org.jboss.as.web");
+
+    private static final String SUFFIX = ".ser";
+
+    /** The default limit of the serialized metadata held in memory, 4 MiB. */
+    public static final long DEFAULT_MAX_MEMORY = 4L << 20;
+
+    /** The default limit of the serialized metadata held on disk, 64 MiB. */
+    public static final long DEFAULT_MAX_DISK = 64L << 20;
+
+    /** Changes whenever the format of the cache entries changes. */
+    private static final int FORMAT = 1;
+
+    static final String VERSION = FORMAT + "-" + metaDataVersion();
+
+    private final File directory;
+    private final long maxMemory;
+    private final long maxDisk;
+    // access ordered, guarded by itself
+    private final LinkedHashMap<String, byte[]> entries = new LinkedHashMap<String, byte[]>(16, 0.75f, true);
+    private long memory;
+
+    /**
+     * Construct a new instance, holding up to {@link #DEFAULT_MAX_MEMORY} in memory and {@link #DEFAULT_MAX_DISK} on
+     * disk.
+     *
+     * @param directory the directory to store the cached metadata in, or {@code null} to only cache in memory
+     */
+    public MetaDataCache(final File directory) {
+        this(directory, DEFAULT_MAX_MEMORY);
+    }
+
+    /**
+     * Construct a new instance.
+     *
+     * @param directory the directory to store the cached metadata in, or {@code null} to only cache in memory
+     * @param maxMemory the maximum total size of the serialized metadata held in memory, {@code 0} to keep it on
+     * disk only
+     */
+    public MetaDataCache(final File directory, final long maxMemory) {
+        this(directory, maxMemory, DEFAULT_MAX_DISK);
+    }
+
+    /**
+     * Construct a new instance.
+     *
+     * @param directory the directory to store the cached metadata in, or {@code null} to only cache in memory
+     * @param maxMemory the maximum total size of the serialized metadata held in memory, {@code 0} to keep it on
+     * disk only
+     * @param maxDisk the maximum total size of the files in the directory; the least recently used are deleted first
+     */
+    public MetaDataCache(final File directory, final long maxMemory, final long maxDisk) {
+        if (maxMemory < 0L) {
+            throw new IllegalArgumentException("maxMemory is negative");
+        }
+        if (maxDisk < 0L) {
+            throw new IllegalArgumentException("maxDisk is negative");
+        }
+        this.directory = directory;
+        this.maxMemory = maxMemory;
+        this.maxDisk = maxDisk;
+    }
+
+    /**
+     * A descriptor parser.
+     *
+     * @param <T> the metadata type
+     */
+    public interface Parser<T> {
+
+        /**
+         * Parse a descriptor.
+         *
+         * @param reader the reader positioned at the start of the document
+         * @return the metadata
+         * @throws Exception if the descriptor cannot be parsed
+         */
+        T parse(XMLStreamReader reader) throws Exception;
+    }
+
+    /**
+     * Get the metadata of a descriptor, parsing it only if the same content has not been parsed by the given kind of
+     * parser before.  The stream is not closed.
+     *
+     * @param kind the kind of descriptor, which distinguishes the parsers
+     * @param is the descriptor content
+     * @param parser the parser to use if the metadata is not cached
+     * @param <T> the metadata type
+     * @return the metadata
+     * @throws Exception if the descriptor cannot be read or parsed
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T parse(final String kind, final InputStream is, final Parser<T> parser) throws Exception {
+        final byte[] content = readFully(is);
+        final String key = kind + "-" + VERSION + "-" + digest(content);
+        byte[] data = get(key);
+        if (data == null && directory != null) {
+            data = readFile(key);
+            if (data != null) {
+                put(key, data);
+            }
+        }
+        if (data != null) {
+            try {
+                return (T) deserialize(data);
+            } catch (Exception e) {
+                log.debugf(e, "Discarding cached metadata %s", key);
+                remove(key);
+                if (directory != null) {
+                    new File(directory, key + SUFFIX).delete();
+                }
+            }
+        }
+        final XMLInputFactory inputFactory = XMLInputFactory.newInstance();
+        inputFactory.setXMLResolver(NoopXmlResolver.create());
+        final T metaData = parser.parse(inputFactory.createXMLStreamReader(new ByteArrayInputStream(content)));
+        store(key, metaData);
+        return metaData;
+    }
+
+    private void store(final String key, final Object metaData) {
+        final byte[] data;
+        try {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            final ObjectOutputStream out = new ObjectOutputStream(bytes);
+            out.writeObject(metaData);
+            out.close();
+            data = bytes.toByteArray();
+        } catch (IOException e) {
+            log.debugf(e, "Metadata %s cannot be cached", key);
+            return;
+        }
+        put(key, data);
+        if (directory != null) {
+            writeFile(key, data);
+        }
+    }
+
+    private byte[] get(final String key) {
+        synchronized (entries) {
+            return entries.get(key);
+        }
+    }
+
+    private void put(final String key, final byte[] data) {
+        if (data.length > maxMemory) {
+            return;
+        }
+        synchronized (entries) {
+            final byte[] previous = entries.put(key, data);
+            memory += data.length - (previous == null ? 0 : previous.length);
+            final Iterator<byte[]> iterator = entries.values().iterator();
+            while (memory > maxMemory) {
+                // the least recently used entries come first
+                memory -= iterator.next().length;
+                iterator.remove();
+            }
+        }
+    }
+
+    private void remove(final String key) {
+        synchronized (entries) {
+            final byte[] previous = entries.remove(key);
+            if (previous != null) {
+                memory -= previous.length;
+            }
+        }
+    }
+
+    /**
+     * Get the total size of the serialized metadata held in memory.
+     *
+     * @return the size in bytes
+     */
+    long getMemorySize() {
+        synchronized (entries) {
+            return memory;
+        }
+    }
+
+    private Object deserialize(final byte[] data) throws IOException, ClassNotFoundException {
+        final ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(data)) {
+            protected Class<?> resolveClass(final ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+                try {
+                    return Class.forName(desc.getName(), false, MetaDataCache.class.getClassLoader());
+                } catch (ClassNotFoundException e) {
+                    return super.resolveClass(desc);
+                }
+            }
+        };
+        try {
+            return in.readObject();
+        } finally {
+            in.close();
+        }
+    }
+
+    private byte[] readFile(final String key) {
+        final File file = new File(directory, key + SUFFIX);
+        if (!file.isFile()) {
+            return null;
+        }
+        InputStream is = null;
+        try {
+            is = new FileInputStream(file);
+            final byte[] data = readFully(is);
+            // the modification time orders the entries for pruning
+            file.setLastModified(System.currentTimeMillis());
+            return data;
+        } catch (IOException e) {
+            log.debugf(e, "Failed to read cached metadata %s", file);
+            return null;
+        } finally {
+            safeClose(is);
+        }
+    }
+
+    private void writeFile(final String key, final byte[] data) {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            log.debugf("Failed to create metadata cache directory %s", directory);
+            return;
+        }
+        // write to a temporary file first, so a concurrent or interrupted write never leaves a partial entry
+        final File file = new File(directory, key + SUFFIX);
+        final File tmp = new File(directory, key + "." + Thread.currentThread().getId() + ".tmp");
+        OutputStream os = null;
+        try {
+            os = new FileOutputStream(tmp);
+            os.write(data);
+            os.close();
+            os = null;
+            if (!tmp.renameTo(file)) {
+                tmp.delete();
+            }
+        } catch (IOException e) {
+            log.debugf(e, "Failed to write cached metadata %s", file);
+            tmp.delete();
+        } finally {
+            safeClose(os);
+        }
+        pruneFiles();
+    }
+
+    /**
+     * Delete the files of other versions, and the least recently used files of this version until their total size
+     * is within the limit.
+     */
+    private synchronized void pruneFiles() {
+        final File[] files = directory.listFiles(new FileFilter() {
+            public boolean accept(final File file) {
+                return file.getName().endsWith(SUFFIX);
+            }
+        });
+        if (files == null) {
+            return;
+        }
+        final String current = "-" + VERSION + "-";
+        final Map<File, Long> lastModified = new HashMap<File, Long>();
+        long total = 0L;
+        for (File file : files) {
+            if (file.getName().contains(current)) {
+                lastModified.put(file, Long.valueOf(file.lastModified()));
+                total += file.length();
+            } else if (!file.delete()) {
+                log.debugf("Failed to delete cached metadata %s", file);
+            }
+        }
+        if (total <= maxDisk) {
+            return;
+        }
+        final File[] entries = lastModified.keySet().toArray(new File[lastModified.size()]);
+        Arrays.sort(entries, new Comparator<File>() {
+            public int compare(final File o1, final File o2) {
+                return lastModified.get(o1).compareTo(lastModified.get(o2));
+            }
+        });
+        for (File file : entries) {
+            if (total <= maxDisk) {
+                break;
+            }
+            final long length = file.length();
+            if (file.delete()) {
+                total -= length;
+            }
+        }
+    }
+
+    private static String metaDataVersion() {
+        final String version = NoopXmlResolver.class.getPackage() == null ? null : NoopXmlResolver.class.getPackage().getImplementationVersion();
+        // keep the version usable as part of a file name
+        return version == null ? "unknown" : version.replaceAll("[^A-Za-z0-9._]", "_");
+    }
+
+    static String digest(final byte[] content) {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        final byte[] hash = digest.digest(content);
+        final StringBuilder builder = new StringBuilder(hash.length * 2);
+        for (byte b : hash) {
+            builder.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return builder.toString();
+    }
+
+    private static byte[] readFully(final InputStream is) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[8192];
+        int n;
+        while ((n = is.read(buffer)) != -1) {
+            out.write(buffer, 0, n);
+        }
+        return out.toByteArray();
+    }
+
+    private static void safeClose(final Closeable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (IOException e) {
+                // Ignore
+            }
+        }
+    }
+}
@@ -27,7 +27,6 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamReader;
 
 import org.jboss.as.ee.structure.DeploymentType;
@@ -39,7 +38,6 @@ import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
 import org.jboss.as.server.deployment.DeploymentUnitProcessor;
 import org.jboss.as.server.deployment.module.ResourceRoot;
 import org.jboss.metadata.parser.jsp.TldMetaDataParser;
-import org.jboss.metadata.parser.util.NoopXmlResolver;
 import org.jboss.metadata.web.spec.TldMetaData;
 import org.jboss.vfs.VirtualFile;
 
@@ -55,6 +53,18 @@ public class TldParsingDeploymentProcessor implements DeploymentUnitProcessor {
     private static final String LIB = "lib";
     private static final String IMPLICIT_TLD = "implicit.tld";
 
+    private static final MetaDataCache.Parser<TldMetaData> PARSER = new MetaDataCache.Parser<TldMetaData>() {
+        public TldMetaData parse(XMLStreamReader reader) throws Exception {
+            return TldMetaDataParser.parse(reader);
+        }
+    };
+
+    private final MetaDataCache metaDataCache;
+
+    public TldParsingDeploymentProcessor(final MetaDataCache metaDataCache) {
+        this.metaDataCache = metaDataCache;
+    }
+
     public void deploy(DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
         final DeploymentUnit deploymentUnit = phaseContext.getDeploymentUnit();
         if (!DeploymentTypeMarker.isType(DeploymentType.WAR, deploymentUnit)) {
@@ -115,10 +125,7 @@ public class TldParsingDeploymentProcessor implements DeploymentUnitProcessor {
         InputStream is = null;
         try {
             is = tld.openStream();
-            final XMLInputFactory inputFactory = XMLInputFactory.newInstance();
-            inputFactory.setXMLResolver(NoopXmlResolver.create());
-            XMLStreamReader xmlReader = inputFactory.createXMLStreamReader(is);
-            return TldMetaDataParser.parse(xmlReader);
+            return metaDataCache.parse("tld", is, PARSER);
         } catch (Exception e) {
             throw new DeploymentUnitProcessingException("Failed to parse " + tld, e);
         } finally {
@@ -27,7 +27,6 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamReader;
 
 import org.jboss.as.ee.structure.DeploymentType;
@@ -39,7 +38,6 @@ import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
 import org.jboss.as.server.deployment.DeploymentUnitProcessor;
 import org.jboss.as.server.deployment.module.ResourceRoot;
 import org.jboss.metadata.parser.servlet.WebFragmentMetaDataParser;
-import org.jboss.metadata.parser.util.NoopXmlResolver;
 import org.jboss.metadata.web.spec.WebFragmentMetaData;
 import org.jboss.vfs.VirtualFile;
 
@@ -50,6 +48,18 @@ public class WebFragmentParsingDeploymentProcessor implements DeploymentUnitProc
 
     private static final String WEB_FRAGMENT_XML = "META-INF/web-fragment.xml";
 
+    private static final MetaDataCache.Parser<WebFragmentMetaData> PARSER = new MetaDataCache.Parser<WebFragmentMetaData>() {
+        public WebFragmentMetaData parse(XMLStreamReader reader) throws Exception {
+            return WebFragmentMetaDataParser.parse(reader);
+        }
+    };
+
+    private final MetaDataCache metaDataCache;
+
+    public WebFragmentParsingDeploymentProcessor(final MetaDataCache metaDataCache) {
+        this.metaDataCache = metaDataCache;
+    }
+
     public void deploy(DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
         final DeploymentUnit deploymentUnit = phaseContext.getDeploymentUnit();
         if (!DeploymentTypeMarker.isType(DeploymentType.WAR, deploymentUnit)) {
@@ -73,10 +83,7 @@ public class WebFragmentParsingDeploymentProcessor implements DeploymentUnitProc
                     InputStream is = null;
                     try {
                         is = webFragment.openStream();
-                        final XMLInputFactory inputFactory = XMLInputFactory.newInstance();
-                        inputFactory.setXMLResolver(NoopXmlResolver.create());
-                        XMLStreamReader xmlReader = inputFactory.createXMLStreamReader(is);
-                        webFragments.put(resourceRoot.getRootName(), WebFragmentMetaDataParser.parse(xmlReader));
+                        webFragments.put(resourceRoot.getRootName(), metaDataCache.parse("web-fragment", is, PARSER));
                     } catch (Exception e) {
                         throw new DeploymentUnitProcessingException("Failed to parse " + webFragment, e);
                     } finally {
@@ -35,9 +35,12 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
- * The web injection container.
+ * The web injection container.  Only instances which have to be released when they are destroyed, because of
+ * pre-destroy lifecycle methods or injections, are tracked; others, such as plain tag handlers, are simply created.
  *
  * @author Emanuel Muckenhuber
  */
@@ -47,6 +50,7 @@ public class WebInjectionContainer implements InstanceManager {
     private final Map<String,ComponentInstantiator> webComponentInstantiatorMap = new HashMap<String,ComponentInstantiator>();
     private final Set<ServiceName> serviceNames = new HashSet<ServiceName>();
     private final Map<Object,ManagedReference> instanceMap;
+    private final ConcurrentMap<String, Class<?>> classes = new ConcurrentHashMap<String, Class<?>>();
 
     public WebInjectionContainer(ClassLoader classloader) {
         this.classloader = classloader;
@@ -69,7 +73,7 @@ public class WebInjectionContainer implements InstanceManager {
     }
 
     public Object newInstance(String className) throws IllegalAccessException, InvocationTargetException, NamingException, InstantiationException, ClassNotFoundException {
-        return newInstance(classloader.loadClass(className));
+        return newInstance(loadClass(className));
     }
 
     public Object newInstance(Class<?> clazz) throws IllegalAccessException, InvocationTargetException, NamingException, InstantiationException {
@@ -90,15 +94,26 @@ public class WebInjectionContainer implements InstanceManager {
         if(instantiator != null) {
             return instantiate(instantiator);
         }
-        return cl.loadClass(className).newInstance();
+        return (cl == classloader ? loadClass(className) : cl.loadClass(className)).newInstance();
     }
 
     private Object instantiate(ComponentInstantiator instantiator) {
         ManagedReference reference =  instantiator.getReference();
-        instanceMap.put(reference.getInstance(),reference);
+        if (instantiator.isReleaseRequired()) {
+            instanceMap.put(reference.getInstance(),reference);
+        }
         return reference.getInstance();
     }
 
+    private Class<?> loadClass(String className) throws ClassNotFoundException {
+        Class<?> clazz = classes.get(className);
+        if (clazz == null) {
+            clazz = classloader.loadClass(className);
+            classes.putIfAbsent(className, clazz);
+        }
+        return clazz;
+    }
+
     public Set<ServiceName> getServiceNames() {
         return Collections.unmodifiableSet(serviceNames);
     }
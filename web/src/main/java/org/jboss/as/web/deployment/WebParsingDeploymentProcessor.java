@@ -24,7 +24,6 @@ package org.jboss.as.web.deployment;
 import java.io.IOException;
 import java.io.InputStream;
 
-import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamReader;
 
 import org.jboss.as.ee.structure.DeploymentType;
@@ -36,7 +35,7 @@ import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
 import org.jboss.as.server.deployment.DeploymentUnitProcessor;
 import org.jboss.as.server.deployment.module.ResourceRoot;
 import org.jboss.metadata.parser.servlet.WebMetaDataParser;
-import org.jboss.metadata.parser.util.NoopXmlResolver;
+import org.jboss.metadata.web.spec.WebMetaData;
 import org.jboss.vfs.VirtualFile;
 
 /**
@@ -46,6 +45,18 @@ public class WebParsingDeploymentProcessor implements DeploymentUnitProcessor {
 
     private static final String WEB_XML = "WEB-INF/web.xml";
 
+    private static final MetaDataCache.Parser<WebMetaData> PARSER = new MetaDataCache.Parser<WebMetaData>() {
+        public WebMetaData parse(XMLStreamReader reader) throws Exception {
+            return WebMetaDataParser.parse(reader);
+        }
+    };
+
+    private final MetaDataCache metaDataCache;
+
+    public WebParsingDeploymentProcessor(final MetaDataCache metaDataCache) {
+        this.metaDataCache = metaDataCache;
+    }
+
     public void deploy(DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
         final DeploymentUnit deploymentUnit = phaseContext.getDeploymentUnit();
         if (!DeploymentTypeMarker.isType(DeploymentType.WAR, deploymentUnit)) {
@@ -59,10 +70,7 @@ public class WebParsingDeploymentProcessor implements DeploymentUnitProcessor {
             InputStream is = null;
             try {
                 is = webXml.openStream();
-                final XMLInputFactory inputFactory = XMLInputFactory.newInstance();
-                inputFactory.setXMLResolver(NoopXmlResolver.create());
-                XMLStreamReader xmlReader = inputFactory.createXMLStreamReader(is);
-                warMetaData.setWebMetaData(WebMetaDataParser.parse(xmlReader));
+                warMetaData.setWebMetaData(metaDataCache.parse("web", is, PARSER));
             } catch (Exception e) {
                 throw new DeploymentUnitProcessingException("Failed to parse " + webXml, e);
             } finally {
@@ -38,4 +38,12 @@ public interface ComponentInstantiator extends ManagedReferenceFactory{
      * @return The service names this component depends upon
      */
     Set<ServiceName> getServiceNames();
+
+    /**
+     * Whether the references obtained from this instantiator have to be released when the web container destroys
+     * the instance.  If not, the instance does not need to be tracked until it is destroyed.
+     *
+     * @return {@code true} if the references must be released
+     */
+    boolean isReleaseRequired();
 }
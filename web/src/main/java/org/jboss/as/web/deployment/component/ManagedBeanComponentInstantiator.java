@@ -75,5 +75,10 @@ public class ManagedBeanComponentInstantiator implements ComponentInstantiator {
         return serviceNames;
     }
 
+    @Override
+    public boolean isReleaseRequired() {
+        return true;
+    }
+
 
 }
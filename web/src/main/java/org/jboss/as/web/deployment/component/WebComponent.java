@@ -36,6 +36,8 @@ import java.io.Serializable;
  */
 public class WebComponent extends AbstractComponent {
 
+    private final boolean destroyRequired;
+
     /**
      * Construct a new instance.
      *
@@ -43,6 +45,17 @@ public class WebComponent extends AbstractComponent {
      */
     public WebComponent(final WebComponentConfiguration configuration) {
         super(configuration);
+        destroyRequired = configuration.isDestroyRequired();
+    }
+
+    /**
+     * Whether instances of this component have to be destroyed, because they have pre-destroy lifecycle methods or
+     * injections which must be released.
+     *
+     * @return {@code true} if instances must be destroyed
+     */
+    public boolean isDestroyRequired() {
+        return destroyRequired;
     }
 
     /** {@inheritDoc} */
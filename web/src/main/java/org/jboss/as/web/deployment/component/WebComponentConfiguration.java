@@ -23,6 +23,7 @@
 package org.jboss.as.web.deployment.component;
 
 import org.jboss.as.ee.component.AbstractComponentConfiguration;
+import org.jboss.as.ee.component.InterceptorDescription;
 
 /**
  * The component configuration web components
@@ -31,6 +32,8 @@ import org.jboss.as.ee.component.AbstractComponentConfiguration;
  */
 public class WebComponentConfiguration extends AbstractComponentConfiguration {
 
+    private final boolean preDestroyRequired;
+
     /**
      * Construct a new instance.
      *
@@ -38,6 +41,37 @@ public class WebComponentConfiguration extends AbstractComponentConfiguration {
      */
     public WebComponentConfiguration(final WebComponentDescription description) {
         super(description);
+        preDestroyRequired = isPreDestroyRequired(description);
+    }
+
+    /**
+     * Whether the description declares any pre-destroy lifecycle, either on the component class, on its interceptor
+     * classes, or as explicitly registered pre-destroy interceptors.
+     *
+     * @param description the component description
+     * @return {@code true} if instances have pre-destroy lifecycle
+     */
+    private static boolean isPreDestroyRequired(final WebComponentDescription description) {
+        if (!description.getPreDestroys().isEmpty() || !description.getInterceptorPreDestroys().isEmpty()
+                || !description.getPreDestroyInterceptorFactories().isEmpty()) {
+            return true;
+        }
+        for (InterceptorDescription interceptor : description.getAllInterceptors().values()) {
+            if (!interceptor.getInterceptorPreDestroys().isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Whether instances of the component have to be destroyed.  This is the case if the component or its
+     * interceptors have pre-destroy lifecycle, or if component injections have to be released.
+     *
+     * @return {@code true} if instances must be destroyed
+     */
+    boolean isDestroyRequired() {
+        return preDestroyRequired || !getComponentInjectors().isEmpty();
     }
 
     /** {@inheritDoc} */
@@ -50,13 +50,7 @@ public class WebComponentInstantiator implements ComponentInstantiator {
 
     @Override
     public ManagedReference getReference() {
-        if (component == null) {
-            synchronized (this) {
-                if (component == null) {
-                    component = ((ServiceController<WebComponent>) serviceRegistry.getRequiredService(serviceName)).getValue();
-                }
-            }
-        }
+        final WebComponent component = getComponent();
         return new ManagedReference() {
 
             private final ComponentInstance instance = component.createInstance();
@@ -83,5 +77,21 @@ public class WebComponentInstantiator implements ComponentInstantiator {
         return Collections.singleton(serviceName);
     }
 
+    @Override
+    public boolean isReleaseRequired() {
+        return getComponent().isDestroyRequired();
+    }
+
+    private WebComponent getComponent() {
+        if (component == null) {
+            synchronized (this) {
+                if (component == null) {
+                    component = ((ServiceController<WebComponent>) serviceRegistry.getRequiredService(serviceName)).getValue();
+                }
+            }
+        }
+        return component;
+    }
+
 
 }
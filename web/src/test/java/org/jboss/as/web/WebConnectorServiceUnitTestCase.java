@@ -0,0 +1,60 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.web;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.catalina.connector.Connector;
+import org.junit.Test;
+
+/**
+ * Tests the protocol selection of {@link WebConnectorService}.
+ */
+public class WebConnectorServiceUnitTestCase {
+
+    @Test
+    public void testHttpProtocol() {
+        assertTrue(WebConnectorService.isHttpProtocol("http"));
+        assertTrue(WebConnectorService.isHttpProtocol("HTTP/1.1"));
+        assertTrue(WebConnectorService.isHttpProtocol("HTTP/1.1-NIO"));
+        assertTrue(WebConnectorService.isHttpProtocol("org.apache.coyote.http11.Http11AprProtocol"));
+        assertFalse(WebConnectorService.isHttpProtocol("SIP/2.0"));
+    }
+
+    @Test
+    public void testNioProtocol() {
+        assertTrue(WebConnectorService.isNioProtocol("HTTP/1.1-NIO"));
+        assertTrue(WebConnectorService.isNioProtocol("org.apache.coyote.http11.Http11NioProtocol"));
+        assertFalse(WebConnectorService.isNioProtocol("HTTP/1.1"));
+        assertFalse(WebConnectorService.isNioProtocol("http"));
+    }
+
+    @Test
+    public void testNioProtocolHandler() throws Exception {
+        assertTrue(WebConnectorService.isNioProtocolHandlerAvailable());
+        final Connector connector = new Connector(WebConnectorService.NIO_PROTOCOL_HANDLER);
+        assertEquals(WebConnectorService.NIO_PROTOCOL_HANDLER, connector.getProtocolHandler().getClass().getName());
+    }
+}
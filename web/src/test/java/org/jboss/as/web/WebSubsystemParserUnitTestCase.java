@@ -0,0 +1,115 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.web;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.web.Constants.CONNECTOR;
+import static org.jboss.as.web.Constants.KEEP_ALIVE_TIMEOUT;
+import static org.jboss.as.web.Constants.MAX_KEEP_ALIVE_REQUESTS;
+import static org.jboss.as.web.Constants.POLLER_THREADS;
+import static org.jboss.as.web.Constants.PROTOCOL;
+import static org.jboss.as.web.Constants.SENDFILE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+
+import org.jboss.as.controller.persistence.SubsystemMarshallingContext;
+import org.jboss.dmr.ModelNode;
+import org.jboss.staxmapper.XMLElementWriter;
+import org.jboss.staxmapper.XMLExtendedStreamWriter;
+import org.jboss.staxmapper.XMLMapper;
+import org.junit.Test;
+
+/**
+ * Tests the connector attributes of the {@link WebSubsystemParser}.
+ */
+public class WebSubsystemParserUnitTestCase {
+
+    private static final String SUBSYSTEM = "<subsystem xmlns=\"" + Namespace.CURRENT.getUriString() + "\">"
+            + "<connector name=\"http\" protocol=\"HTTP/1.1-NIO\" socket-binding=\"http\" poller-threads=\"4\""
+            + " max-keep-alive-requests=\"200\" keep-alive-timeout=\"15000\" sendfile=\"false\"/>"
+            + "<connector name=\"ajp\" protocol=\"AJP/1.3\" socket-binding=\"ajp\"/>"
+            + "</subsystem>";
+
+    @Test
+    public void testConnectorAttributes() throws Exception {
+        final List<ModelNode> operations = parse(SUBSYSTEM);
+        assertEquals(3, operations.size());
+        final ModelNode http = operations.get(1);
+        assertEquals("HTTP/1.1-NIO", http.get(PROTOCOL).asString());
+        assertEquals(4, http.get(POLLER_THREADS).asInt());
+        assertEquals(200, http.get(MAX_KEEP_ALIVE_REQUESTS).asInt());
+        assertEquals(15000, http.get(KEEP_ALIVE_TIMEOUT).asInt());
+        assertFalse(http.get(SENDFILE).asBoolean());
+        final ModelNode ajp = operations.get(2);
+        assertFalse(ajp.hasDefined(POLLER_THREADS));
+        assertFalse(ajp.hasDefined(MAX_KEEP_ALIVE_REQUESTS));
+        assertFalse(ajp.hasDefined(KEEP_ALIVE_TIMEOUT));
+        assertFalse(ajp.hasDefined(SENDFILE));
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        final List<ModelNode> operations = parse(SUBSYSTEM);
+        final ModelNode model = new ModelNode();
+        for (ModelNode operation : operations) {
+            final ModelNode address = operation.get(OP_ADDR);
+            final ModelNode node = address.asList().size() == 1 ? model
+                    : model.get(CONNECTOR, address.asPropertyList().get(1).getValue().asString());
+            for (String key : operation.keys()) {
+                if (!OP.equals(key) && !OP_ADDR.equals(key)) {
+                    node.get(key).set(operation.get(key));
+                }
+            }
+        }
+        assertEquals(operations, parse(marshal(model)));
+    }
+
+    private static List<ModelNode> parse(final String xml) throws XMLStreamException {
+        final XMLMapper mapper = XMLMapper.Factory.create();
+        mapper.registerRootElement(new QName(Namespace.CURRENT.getUriString(), "subsystem"), WebSubsystemParser.getInstance());
+        final List<ModelNode> operations = new ArrayList<ModelNode>();
+        mapper.parseDocument(operations, XMLInputFactory.newInstance().createXMLStreamReader(new StringReader(xml)));
+        return operations;
+    }
+
+    private static String marshal(final ModelNode model) throws XMLStreamException {
+        final StringWriter out = new StringWriter();
+        XMLMapper.Factory.create().deparseDocument(new XMLElementWriter<ModelNode>() {
+            public void writeContent(final XMLExtendedStreamWriter writer, final ModelNode value) throws XMLStreamException {
+                WebSubsystemParser.getInstance().writeContent(writer, new SubsystemMarshallingContext(value, writer));
+            }
+        }, model, XMLOutputFactory.newInstance().createXMLStreamWriter(out));
+        return out.toString();
+    }
+}
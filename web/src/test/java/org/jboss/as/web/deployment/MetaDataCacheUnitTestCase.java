@@ -0,0 +1,232 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.web.deployment;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.xml.stream.XMLStreamReader;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the {@link MetaDataCache}.
+ */
+public class MetaDataCacheUnitTestCase {
+
+    private static final String WEB_XML = "<web-app version=\"3.0\"><display-name>test</display-name></web-app>";
+
+    private File directory;
+
+    @Before
+    public void setUp() {
+        directory = new File(System.getProperty("java.io.tmpdir"), "metadata-cache-" + System.nanoTime());
+    }
+
+    @After
+    public void tearDown() {
+        final File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    @Test
+    public void testHit() throws Exception {
+        final MetaDataCache cache = new MetaDataCache(directory);
+        final TestParser parser = new TestParser();
+        final TestMetaData first = parse(cache, WEB_XML, parser);
+        final TestMetaData second = parse(cache, WEB_XML, parser);
+        assertEquals(1, parser.count.get());
+        assertEquals("web-app", second.rootElement);
+        // every lookup returns a copy
+        assertNotSame(first, second);
+
+        // the entry survives a restart
+        final MetaDataCache restarted = new MetaDataCache(directory);
+        assertEquals("web-app", parse(restarted, WEB_XML, parser).rootElement);
+        assertEquals(1, parser.count.get());
+    }
+
+    @Test
+    public void testMiss() throws Exception {
+        final MetaDataCache cache = new MetaDataCache(null);
+        final TestParser parser = new TestParser();
+        parse(cache, WEB_XML, parser);
+        assertEquals("web-fragment", parse(cache, "<web-fragment/>", parser).rootElement);
+        assertEquals(2, parser.count.get());
+        // the same content parsed by another kind of parser
+        cache.parse("tld", new ByteArrayInputStream(WEB_XML.getBytes("UTF-8")), parser);
+        assertEquals(3, parser.count.get());
+    }
+
+    @Test
+    public void testCorruptEntry() throws Exception {
+        final TestParser parser = new TestParser();
+        parse(new MetaDataCache(directory), WEB_XML, parser);
+        final File[] files = directory.listFiles();
+        assertEquals(1, files.length);
+        assertTrue(files[0].getName().startsWith("web-" + MetaDataCache.VERSION + "-"));
+        final FileOutputStream os = new FileOutputStream(files[0]);
+        try {
+            os.write(new byte[] {1, 2, 3, 4});
+        } finally {
+            os.close();
+        }
+
+        final MetaDataCache cache = new MetaDataCache(directory);
+        assertEquals("web-app", parse(cache, WEB_XML, parser).rootElement);
+        assertEquals(2, parser.count.get());
+        // the corrupt entry was replaced
+        parse(new MetaDataCache(directory), WEB_XML, parser);
+        assertEquals(2, parser.count.get());
+    }
+
+    @Test
+    public void testNotSerializable() throws Exception {
+        final MetaDataCache cache = new MetaDataCache(directory);
+        final TestParser parser = new TestParser();
+        parser.serializable = false;
+        parse(cache, WEB_XML, parser);
+        parse(cache, WEB_XML, parser);
+        assertEquals(2, parser.count.get());
+        assertEquals(0, cache.getMemorySize());
+        assertFalse(directory.exists());
+    }
+
+    @Test
+    public void testMemoryBound() throws Exception {
+        final TestParser parser = new TestParser();
+        final MetaDataCache probe = new MetaDataCache(null);
+        parse(probe, "<a0/>", parser);
+        final long size = probe.getMemorySize();
+
+        // room for two entries
+        final MetaDataCache cache = new MetaDataCache(null, size * 2);
+        parse(cache, "<a0/>", parser);
+        parse(cache, "<a1/>", parser);
+        parse(cache, "<a0/>", parser);
+        parse(cache, "<a2/>", parser);
+        assertEquals(size * 2, cache.getMemorySize());
+        assertEquals(4, parser.count.get());
+        // a1 was the least recently used
+        parse(cache, "<a0/>", parser);
+        parse(cache, "<a2/>", parser);
+        assertEquals(4, parser.count.get());
+        parse(cache, "<a1/>", parser);
+        assertEquals(5, parser.count.get());
+
+        // disk only
+        final MetaDataCache diskOnly = new MetaDataCache(directory, 0L);
+        parse(diskOnly, WEB_XML, parser);
+        parse(diskOnly, WEB_XML, parser);
+        assertEquals(6, parser.count.get());
+        assertEquals(0, diskOnly.getMemorySize());
+    }
+
+    @Test
+    public void testDiskBound() throws Exception {
+        final TestParser parser = new TestParser();
+        parse(new MetaDataCache(directory, 0L), "<a0/>", parser);
+        final long size = file("<a0/>").length();
+        // an entry written by another version
+        final File stale = new File(directory, "web-0-unknown-" + MetaDataCache.digest(new byte[0]) + ".ser");
+        final FileOutputStream os = new FileOutputStream(stale);
+        try {
+            os.write(new byte[] {1, 2, 3, 4});
+        } finally {
+            os.close();
+        }
+
+        // room for two entries on disk, none in memory
+        final MetaDataCache cache = new MetaDataCache(directory, 0L, size * 2);
+        final long now = System.currentTimeMillis();
+        file("<a0/>").setLastModified(now - 30000L);
+        parse(cache, "<a1/>", parser);
+        assertFalse(stale.exists());
+        file("<a1/>").setLastModified(now - 20000L);
+        // reading a0 makes it the most recently used
+        parse(cache, "<a0/>", parser);
+        assertEquals(2, parser.count.get());
+        parse(cache, "<a2/>", parser);
+        assertEquals(3, parser.count.get());
+        assertEquals(2, directory.listFiles().length);
+        assertFalse(file("<a1/>").exists());
+
+        parse(cache, "<a0/>", parser);
+        parse(cache, "<a2/>", parser);
+        assertEquals(3, parser.count.get());
+        parse(cache, "<a1/>", parser);
+        assertEquals(4, parser.count.get());
+    }
+
+    private static TestMetaData parse(final MetaDataCache cache, final String xml, final TestParser parser) throws Exception {
+        return cache.parse("web", new ByteArrayInputStream(xml.getBytes("UTF-8")), parser);
+    }
+
+    private File file(final String xml) throws Exception {
+        return new File(directory, "web-" + MetaDataCache.VERSION + "-" + MetaDataCache.digest(xml.getBytes("UTF-8")) + ".ser");
+    }
+
+    static class TestMetaData implements Serializable {
+        private static final long serialVersionUID = 1L;
+        String rootElement;
+    }
+
+    static class NotSerializableMetaData extends TestMetaData {
+        private static final long serialVersionUID = 1L;
+
+        private void writeObject(final ObjectOutputStream out) throws IOException {
+            throw new NotSerializableException(getClass().getName());
+        }
+    }
+
+    static class TestParser implements MetaDataCache.Parser<TestMetaData> {
+        final AtomicInteger count = new AtomicInteger();
+        volatile boolean serializable = true;
+
+        public TestMetaData parse(final XMLStreamReader reader) throws Exception {
+            count.incrementAndGet();
+            reader.nextTag();
+            final TestMetaData metaData = serializable ? new TestMetaData() : new NotSerializableMetaData();
+            metaData.rootElement = reader.getLocalName();
+            return metaData;
+        }
+    }
+}
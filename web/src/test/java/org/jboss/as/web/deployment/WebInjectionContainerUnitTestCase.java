@@ -0,0 +1,94 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.web.deployment;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Collections;
+import java.util.Set;
+
+import org.jboss.as.naming.ManagedReference;
+import org.jboss.as.web.deployment.component.ComponentInstantiator;
+import org.jboss.msc.service.ServiceName;
+import org.junit.Test;
+
+/**
+ * Tests which instances the {@link WebInjectionContainer} tracks until they are destroyed.
+ */
+public class WebInjectionContainerUnitTestCase {
+
+    @Test
+    public void testPlainInstanceNotTracked() throws Exception {
+        final WebInjectionContainer container = new WebInjectionContainer(getClass().getClassLoader());
+        final TestInstantiator instantiator = new TestInstantiator(false);
+        container.addInstantiator("org.example.PlainTag", instantiator);
+        final Object instance = container.newInstance("org.example.PlainTag", getClass().getClassLoader());
+        container.destroyInstance(instance);
+        assertEquals(0, instantiator.released);
+    }
+
+    @Test
+    public void testInstanceRequiringReleaseTracked() throws Exception {
+        final WebInjectionContainer container = new WebInjectionContainer(getClass().getClassLoader());
+        final TestInstantiator instantiator = new TestInstantiator(true);
+        container.addInstantiator("org.example.InjectedTag", instantiator);
+        final Object first = container.newInstance("org.example.InjectedTag", getClass().getClassLoader());
+        final Object second = container.newInstance("org.example.InjectedTag", getClass().getClassLoader());
+        container.destroyInstance(first);
+        assertEquals(1, instantiator.released);
+        container.destroyInstance(first);
+        assertEquals(1, instantiator.released);
+        container.destroyInstance(second);
+        assertEquals(2, instantiator.released);
+    }
+
+    private static final class TestInstantiator implements ComponentInstantiator {
+        private final boolean releaseRequired;
+        private int released;
+
+        private TestInstantiator(final boolean releaseRequired) {
+            this.releaseRequired = releaseRequired;
+        }
+
+        public ManagedReference getReference() {
+            final Object instance = new Object();
+            return new ManagedReference() {
+                public void release() {
+                    released++;
+                }
+
+                public Object getInstance() {
+                    return instance;
+                }
+            };
+        }
+
+        public Set<ServiceName> getServiceNames() {
+            return Collections.emptySet();
+        }
+
+        public boolean isReleaseRequired() {
+            return releaseRequired;
+        }
+    }
+}
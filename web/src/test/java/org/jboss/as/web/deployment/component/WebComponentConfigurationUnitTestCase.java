@@ -0,0 +1,95 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.web.deployment.component;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import javax.interceptor.InvocationContext;
+
+import org.jboss.as.ee.component.ComponentInjector;
+import org.jboss.as.ee.component.EEModuleDescription;
+import org.jboss.as.ee.component.InterceptorDescription;
+import org.jboss.as.ee.component.InterceptorMethodDescription;
+import org.jboss.invocation.proxy.MethodIdentifier;
+import org.jboss.msc.service.ServiceName;
+import org.junit.Test;
+
+/**
+ * Tests which web components have instances that must be destroyed.
+ */
+public class WebComponentConfigurationUnitTestCase {
+
+    private static final String TAG_CLASS = "org.example.PlainTag";
+    private static final String INTERCEPTOR_CLASS = "org.example.LifecycleInterceptor";
+
+    @Test
+    public void testPlainTagHandler() {
+        final WebComponentDescription description = description();
+        assertFalse(new WebComponentConfiguration(description).isDestroyRequired());
+    }
+
+    @Test
+    public void testPreDestroyMethod() {
+        final WebComponentDescription description = description();
+        description.addPreDestroy(new InterceptorMethodDescription(TAG_CLASS, TAG_CLASS,
+                MethodIdentifier.getIdentifier(Void.TYPE, "destroy"), true));
+        assertTrue(new WebComponentConfiguration(description).isDestroyRequired());
+    }
+
+    @Test
+    public void testInterceptorPreDestroyMethod() {
+        final WebComponentDescription description = description();
+        final InterceptorDescription interceptor = new InterceptorDescription(INTERCEPTOR_CLASS);
+        interceptor.addPreDestroy(new InterceptorMethodDescription(INTERCEPTOR_CLASS, INTERCEPTOR_CLASS,
+                MethodIdentifier.getIdentifier(Void.TYPE, "destroy", InvocationContext.class), false));
+        description.addClassInterceptor(interceptor);
+        assertTrue(new WebComponentConfiguration(description).isDestroyRequired());
+    }
+
+    @Test
+    public void testInterceptorWithoutPreDestroyMethod() {
+        final WebComponentDescription description = description();
+        description.addClassInterceptor(new InterceptorDescription(INTERCEPTOR_CLASS));
+        assertFalse(new WebComponentConfiguration(description).isDestroyRequired());
+    }
+
+    @Test
+    public void testComponentInjection() {
+        final WebComponentConfiguration configuration = new WebComponentConfiguration(description());
+        configuration.addComponentInjector(new ComponentInjector() {
+            public ServiceName getServiceName() {
+                return null;
+            }
+
+            public InjectionHandle inject(final Object instance) {
+                return null;
+            }
+        });
+        assertTrue(configuration.isDestroyRequired());
+    }
+
+    private static WebComponentDescription description() {
+        return new WebComponentDescription(TAG_CLASS, TAG_CLASS, new EEModuleDescription("app", "web"));
+    }
+}